@@ -9,11 +9,16 @@ import java.util.Map;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
 
 import com.veracode.jenkins.plugin.common.Constant;
 import com.veracode.jenkins.plugin.data.BuildHistory;
 import com.veracode.jenkins.plugin.data.DAScanHistory;
+import com.veracode.jenkins.plugin.data.DynamicAnalysisResult;
+import com.veracode.jenkins.plugin.data.ScanHistory;
 
+import hudson.model.Api;
 import hudson.model.Run;
 import jenkins.model.RunAction2;
 
@@ -21,6 +26,7 @@ import jenkins.model.RunAction2;
  * This class represents the post build Veracode step on the build page.
  *
  */
+@ExportedBean
 public class DynamicAnalysisResultsAction implements RunAction2 {
 
     // The object to store the scan history for Jenkins builds.
@@ -32,12 +38,17 @@ public class DynamicAnalysisResultsAction implements RunAction2 {
     // The object to store the specific region url
     private final String xmlApiHost;
 
+    // The results of each analysis when several analyses were reviewed together,
+    // null otherwise
+    private final List<DynamicAnalysisResult> analysisResults;
+
     /**
      * Constructor for DynamicAnalysisResultsAction.
      */
     public DynamicAnalysisResultsAction() {
         scanHistory = null;
         xmlApiHost = null;
+        analysisResults = null;
         build = null;
     }
 
@@ -54,6 +65,35 @@ public class DynamicAnalysisResultsAction implements RunAction2 {
         }
         this.scanHistory = scanHistory;
         this.xmlApiHost = xmlApiHost;
+        analysisResults = null;
+        build = null;
+    }
+
+    /**
+     * Constructor for DynamicAnalysisResultsAction, used when several analyses
+     * were reviewed together. The details are displayed for the first analysis
+     * which did not pass the policy, or else for the first analysis with results.
+     *
+     * @param analysisResults a {@link java.util.List} object - the results of
+     *                        each analysis.
+     * @param xmlApiHost      the object to store the specific region url
+     */
+    public DynamicAnalysisResultsAction(List<DynamicAnalysisResult> analysisResults,
+            String xmlApiHost) {
+        if (null == analysisResults || analysisResults.isEmpty() || null == xmlApiHost) {
+            throw new IllegalArgumentException(
+                    "Missing required information to create a DynamicAnalysisResultsAction.");
+        }
+        DynamicAnalysisResult primaryResult = null;
+        for (DynamicAnalysisResult analysisResult : analysisResults) {
+            if (analysisResult.isScanHistoryAvailable() && (null == primaryResult
+                    || (primaryResult.isPolicyPassed() && !analysisResult.isPolicyPassed()))) {
+                primaryResult = analysisResult;
+            }
+        }
+        this.scanHistory = null != primaryResult ? primaryResult.getScanHistory() : null;
+        this.xmlApiHost = xmlApiHost;
+        this.analysisResults = new ArrayList<>(analysisResults);
         build = null;
     }
 
@@ -346,18 +386,39 @@ public class DynamicAnalysisResultsAction implements RunAction2 {
      */
     public void doGraph(StaplerRequest request, StaplerResponse response) {
         try {
-            BuildHistory buildHistory = new BuildHistory("Dynamic Vulnerabilities",
-                    scanHistory.getFlawsCountHistory());
-            Collection<BuildHistory> buildHistoryList = new ArrayList<>();
-            buildHistoryList.add(buildHistory);
             TrendChart trendChart = new TrendChart(System.currentTimeMillis(), 600, 400,
-                    buildHistoryList);
+                    getBuildHistoryList());
             trendChart.doPng(request, response);
         } catch (IOException ioe) {
             throw new RuntimeException("Unable to generate the Flaw trend graph.");
         }
     }
 
+    /**
+     * Writes the data of the trend chart as JSON, for the chart rendered in the
+     * browser.
+     *
+     * @param request  a {@link org.kohsuke.stapler.StaplerRequest} object.
+     * @param response a {@link org.kohsuke.stapler.StaplerResponse} object.
+     * @throws java.io.IOException if any.
+     */
+    public void doGraphData(StaplerRequest request, StaplerResponse response) throws IOException {
+        if (!isScanHistoryAvailable()) {
+            response.sendError(StaplerResponse.SC_NOT_FOUND, "The scan history is not available.");
+            return;
+        }
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(TrendChart.toJson(getBuildHistoryList()).toString());
+    }
+
+    private Collection<BuildHistory> getBuildHistoryList() {
+        BuildHistory buildHistory = new BuildHistory("Dynamic Vulnerabilities",
+                scanHistory.getFlawsCountHistory());
+        Collection<BuildHistory> buildHistoryList = new ArrayList<>();
+        buildHistoryList.add(buildHistory);
+        return buildHistoryList;
+    }
+
     /**
      * Get the URL to the Detailed Report for this scan that is escaped for HTML
      * attribute
@@ -365,6 +426,23 @@ public class DynamicAnalysisResultsAction implements RunAction2 {
      * @return Detailed Report URL escaped for HTML attribute
      */
     public String getDetailedReportURLForHTMLAttr() {
+        return getDetailedReportURL(scanHistory);
+    }
+
+    /**
+     * Get the URL to the Detailed Report of one of the analyses reviewed together
+     * that is escaped for HTML attribute
+     *
+     * @param analysisResult a
+     *                       {@link com.veracode.jenkins.plugin.data.DynamicAnalysisResult}
+     *                       object.
+     * @return Detailed Report URL escaped for HTML attribute
+     */
+    public String getDetailedReportURLForHTMLAttr(DynamicAnalysisResult analysisResult) {
+        return getDetailedReportURL(analysisResult.getScanHistory());
+    }
+
+    private String getDetailedReportURL(ScanHistory scanHistory) {
         String escapedAcctId = StringEscapeUtils.escapeHtml(scanHistory.getAccountId());
         String escapedAppId = StringEscapeUtils.escapeHtml(scanHistory.getAppId());
         String escapedBuildId = StringEscapeUtils.escapeHtml(scanHistory.getBuildId());
@@ -377,10 +455,85 @@ public class DynamicAnalysisResultsAction implements RunAction2 {
                 + escapedAcctId + ":" + escapedAppId + ":" + escapedBuildId;
     }
 
+    @Exported(visibility = 2)
     public boolean isScanHistoryAvailable() {
         return null != scanHistory;
     }
 
+    /**
+     * Get the scan results, for the remote API
+     *
+     * @return the scan history or null if it is unavailable
+     */
+    @Exported(name = "results", visibility = 2)
+    public DAScanHistory getScanHistory() {
+        return scanHistory;
+    }
+
+    /**
+     * Get the scan results of the specified analysis. When one analysis was
+     * reviewed, its name is not recorded and its results are returned.
+     *
+     * @param analysisName a {@link java.lang.String} object, can be null.
+     * @return the scan history or null if it is unavailable
+     */
+    public DAScanHistory getScanHistory(String analysisName) {
+        if (null == analysisName || null == analysisResults) {
+            return scanHistory;
+        }
+        for (DynamicAnalysisResult analysisResult : analysisResults) {
+            if (analysisName.equals(analysisResult.getAnalysisName())) {
+                return analysisResult.getScanHistory();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the results of each analysis when several analyses were reviewed
+     * together, for the remote API
+     *
+     * @return the results of each analysis, empty if one analysis was reviewed
+     */
+    @Exported(name = "analyses", visibility = 2)
+    public List<DynamicAnalysisResult> getAnalysisResults() {
+        return null != analysisResults ? analysisResults : new ArrayList<>();
+    }
+
+    /**
+     * Get the name of the analysis whose details are displayed, when several
+     * analyses were reviewed together
+     *
+     * @return the analysis name or null
+     */
+    public String getDisplayedAnalysisName() {
+        for (DynamicAnalysisResult analysisResult : getAnalysisResults()) {
+            if (null != scanHistory && scanHistory == analysisResult.getScanHistory()) {
+                return analysisResult.getAnalysisName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of analyses reviewed together which passed the policy
+     *
+     * @return a int
+     */
+    public int getPassedAnalysisCount() {
+        int count = 0;
+        for (DynamicAnalysisResult analysisResult : getAnalysisResults()) {
+            if (analysisResult.isPolicyPassed()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public Api getApi() {
+        return new Api(this);
+    }
+
     private void setBuild(Run<?, ?> build) {
         this.build = build;
     }
@@ -6,6 +6,7 @@ import java.util.Map;
 import javax.servlet.ServletException;
 
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
 
@@ -38,6 +39,7 @@ import net.sf.json.JSONObject;
  * <p>
  * User provides: 
  *  - how long to wait for analysis results (in minutes) 
+ *  - optionally, the names of the resubmitted analyses to review together
  *  - whether to use global API credentials or define ID/Key specific to the job.
  *
  * This class extends the {@link hudson.tasks.Notifier Notifier} class.
@@ -48,6 +50,7 @@ public class DynamicAnalysisResultsNotifier extends Notifier {
     private final boolean failBuildForPolicyViolation;
     private final CredentialsBlock credentials;
     private boolean isGlobalCredentialsEnabled;
+    private String analysisName;
 
     /**
      * Constructor for DynamicAnalysisResultsNotifier.
@@ -104,7 +107,7 @@ public class DynamicAnalysisResultsNotifier extends Notifier {
 
         DAAdapterService daAdapterService = new DAAdapterService();
         return daAdapterService.reviewDynamicAnalysis(build, build.getWorkspace(), listener,
-                waitForResultsDuration, failBuildForPolicyViolation, apiId, apiKey,
+                analysisName, waitForResultsDuration, failBuildForPolicyViolation, apiId, apiKey,
                 descriptor.isDebugEnabled(), proxyBlock);
     }
 
@@ -185,6 +188,13 @@ public class DynamicAnalysisResultsNotifier extends Notifier {
             return super.configure(req, formData);
         }
 
+        // Validate analysis names
+        public FormValidation doCheckAnalysisName(@QueryParameter String analysisName)
+                throws IOException, ServletException {
+            return StringUtil.isNullOrEmpty(analysisName) ? FormValidation.ok()
+                    : FormValidationUtil.checkAnalysisName(analysisName);
+        }
+
         // Validate wait for results duration
         public FormValidation doCheckWaitForResultsDuration(
                 @QueryParameter String waitForResultsDuration)
@@ -272,6 +282,15 @@ public class DynamicAnalysisResultsNotifier extends Notifier {
         return isGlobalCredentialsEnabled;
     }
 
+    public String getAnalysisName() {
+        return analysisName;
+    }
+
+    @DataBoundSetter
+    public void setAnalysisName(String analysisName) {
+        this.analysisName = StringUtil.getNullIfEmpty(analysisName);
+    }
+
     public CredentialsBlock getCredentials() {
         return credentials;
     }
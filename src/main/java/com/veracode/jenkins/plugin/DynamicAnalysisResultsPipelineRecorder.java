@@ -64,6 +64,9 @@ public class DynamicAnalysisResultsPipelineRecorder extends Recorder implements
     public final String pUser;
     @DataBoundSetter
     public final String pPassword;
+    // Reviewing the named analyses together
+    @DataBoundSetter
+    public String analysisName;
 
     /**
      * Constructor for DynamicAnalysisResultsPipelineRecorder.
@@ -120,7 +123,8 @@ public class DynamicAnalysisResultsPipelineRecorder extends Recorder implements
 
         DAAdapterService daAdapterService = new DAAdapterService();
         boolean buildSuccess = daAdapterService.reviewDynamicAnalysis(run, workspace, listener,
-                waitForResultsDuration, failBuildForPolicyViolation, vid, vkey, debug, proxyBlock);
+                analysisName, waitForResultsDuration, failBuildForPolicyViolation, vid, vkey,
+                debug, proxyBlock);
 
         run.setResult(buildSuccess ? Result.SUCCESS : Result.FAILURE);
     }
@@ -163,6 +167,13 @@ public class DynamicAnalysisResultsPipelineRecorder extends Recorder implements
             return super.newInstance(req, formData);
         }
 
+        // Validate analysis names
+        public FormValidation doCheckAnalysisName(@QueryParameter String analysisName)
+                throws IOException, ServletException {
+            return StringUtil.isNullOrEmpty(analysisName) ? FormValidation.ok()
+                    : FormValidationUtil.checkAnalysisName(analysisName);
+        }
+
         // Validate wait for results duration
         public FormValidation doCheckWaitForResultsDuration(
                 @QueryParameter String waitForResultsDuration)
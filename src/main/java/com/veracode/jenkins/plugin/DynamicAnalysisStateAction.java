@@ -0,0 +1,217 @@
+package com.veracode.jenkins.plugin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+
+/**
+ * This class holds the Dynamic Analysis state which the resubmit step hands
+ * over to the review step of the same build. It is not displayed on the build
+ * page.
+ * <p>
+ * Keeping the state on the build instead of a file shared by all the builds of
+ * the job allows concurrent builds, and several resubmit and review cycles in
+ * one build, to run without overwriting each other. The analyses resubmitted
+ * by one resubmit step form a batch, and the review step reviews the pending
+ * batches in the order they were resubmitted, or the pending analyses it is
+ * given the names of.
+ * <p>
+ * The analyses being reviewed are kept, with the progress of their review,
+ * until the review completes. The build is saved after each completed phase,
+ * so that a review interrupted by a restart of Jenkins continues from the last
+ * completed phases, with the same deadline, when the review step is run again
+ * in the same build, for example by a {@code retry} block.
+ *
+ */
+public class DynamicAnalysisStateAction extends InvisibleAction {
+
+    public static final String PARAM_DA_ANALYSIS_NAME = "DA_ANALYSIS_NAME";
+    public static final String PARAM_DA_BATCH_ID = "DA_BATCH_ID";
+    public static final String PARAM_DA_REVIEW_PHASE = "DA_REVIEW_PHASE";
+    public static final String PARAM_DA_REVIEW_DEADLINE = "DA_REVIEW_DEADLINE";
+
+    // The pending analyses, from the first to the last resubmitted
+    private final List<Properties> pendingAnalyses = new ArrayList<>();
+
+    // The analyses being reviewed, with the progress of their review
+    private final List<Properties> reviewedAnalyses = new ArrayList<>();
+
+    /**
+     * Adds a resubmitted analysis to the state of the specified build, replacing
+     * a pending analysis with the same name.
+     *
+     * @param run        a {@link hudson.model.Run} object.
+     * @param properties a {@link java.util.Properties} object - must contain the
+     *                   {@link #PARAM_DA_ANALYSIS_NAME} property, and the
+     *                   {@link #PARAM_DA_BATCH_ID} property shared by the analyses
+     *                   resubmitted together.
+     */
+    public static void addAnalysis(Run<?, ?> run, Properties properties) {
+        synchronized (run) {
+            DynamicAnalysisStateAction action = run.getAction(DynamicAnalysisStateAction.class);
+            if (null == action) {
+                action = new DynamicAnalysisStateAction();
+                run.addAction(action);
+            }
+            action.add(properties);
+        }
+    }
+
+    /**
+     * Starts the review of the pending analyses with the specified names, or of
+     * the first pending batch if no name is specified, or returns the analyses
+     * whose review was interrupted. The review deadline is set from the
+     * specified wait time when the review starts.
+     *
+     * @param run                    a {@link hudson.model.Run} object.
+     * @param waitForResultsDuration a int - the results wait time in hours.
+     * @param analysisNames          a {@link java.util.List} object - the names
+     *                               of the analyses to review, can be empty.
+     * @return a {@link java.util.List} object, empty if there is no analysis to
+     *         review.
+     */
+    public static List<Properties> startReview(Run<?, ?> run, int waitForResultsDuration,
+            List<String> analysisNames) {
+        synchronized (run) {
+            DynamicAnalysisStateAction action = run.getAction(DynamicAnalysisStateAction.class);
+            if (null == action) {
+                return new ArrayList<>();
+            }
+            List<Properties> analyses = action.start(waitForResultsDuration, analysisNames);
+            save(run);
+            return analyses;
+        }
+    }
+
+    /**
+     * Records that a phase of the review of the specified analysis completed.
+     * The properties of the reviewed analysis are updated and saved with the
+     * build.
+     *
+     * @param run          a {@link hudson.model.Run} object.
+     * @param analysisName a {@link java.lang.String} object.
+     * @param phase        a int - the completed phase.
+     * @param properties   a {@link java.util.Properties} object - the properties
+     *                     to update, can be null.
+     */
+    public static void completePhase(Run<?, ?> run, String analysisName, int phase,
+            Properties properties) {
+        synchronized (run) {
+            DynamicAnalysisStateAction action = run.getAction(DynamicAnalysisStateAction.class);
+            if (null != action && action.update(analysisName, phase, properties)) {
+                save(run);
+            }
+        }
+    }
+
+    /**
+     * Ends the review of the specified build, whether it succeeded or not.
+     *
+     * @param run a {@link hudson.model.Run} object.
+     */
+    public static void finishReview(Run<?, ?> run) {
+        synchronized (run) {
+            DynamicAnalysisStateAction action = run.getAction(DynamicAnalysisStateAction.class);
+            if (null == action) {
+                return;
+            }
+            action.finish();
+            if (action.isEmpty()) {
+                run.removeAction(action);
+            }
+            save(run);
+        }
+    }
+
+    /**
+     * Returns the last completed phase of the review of the specified analysis.
+     *
+     * @param properties a {@link java.util.Properties} object.
+     * @return a int, 0 if no phase completed.
+     */
+    public static int getCompletedPhase(Properties properties) {
+        try {
+            return Integer.parseInt(properties.getProperty(PARAM_DA_REVIEW_PHASE, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the time in milliseconds after which the review of the specified
+     * analysis stops waiting for the results.
+     *
+     * @param properties a {@link java.util.Properties} object.
+     * @return a long.
+     */
+    public static long getDeadline(Properties properties) {
+        return Long.parseLong(properties.getProperty(PARAM_DA_REVIEW_DEADLINE));
+    }
+
+    // the review continues if the build cannot be saved, it just cannot be resumed
+    private static void save(Run<?, ?> run) {
+        try {
+            run.save();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private synchronized void add(Properties properties) {
+        String analysisName = properties.getProperty(PARAM_DA_ANALYSIS_NAME);
+        for (Iterator<Properties> it = pendingAnalyses.iterator(); it.hasNext();) {
+            if (it.next().getProperty(PARAM_DA_ANALYSIS_NAME).equals(analysisName)) {
+                it.remove();
+            }
+        }
+        pendingAnalyses.add(properties);
+    }
+
+    private synchronized List<Properties> start(int waitForResultsDuration,
+            List<String> analysisNames) {
+        if (reviewedAnalyses.isEmpty() && !pendingAnalyses.isEmpty()) {
+            String batchId = pendingAnalyses.get(0).getProperty(PARAM_DA_BATCH_ID);
+            String deadline = String.valueOf(System.currentTimeMillis()
+                    + TimeUnit.HOURS.toMillis(waitForResultsDuration));
+            for (Iterator<Properties> it = pendingAnalyses.iterator(); it.hasNext();) {
+                Properties properties = it.next();
+                if (analysisNames.isEmpty()
+                        ? Objects.equals(batchId, properties.getProperty(PARAM_DA_BATCH_ID))
+                        : analysisNames.contains(properties.getProperty(PARAM_DA_ANALYSIS_NAME))) {
+                    it.remove();
+                    properties.setProperty(PARAM_DA_REVIEW_DEADLINE, deadline);
+                    reviewedAnalyses.add(properties);
+                }
+            }
+        }
+        return new ArrayList<>(reviewedAnalyses);
+    }
+
+    private synchronized boolean update(String analysisName, int phase, Properties properties) {
+        for (Properties reviewedAnalysis : reviewedAnalyses) {
+            if (reviewedAnalysis.getProperty(PARAM_DA_ANALYSIS_NAME).equals(analysisName)) {
+                if (null != properties) {
+                    reviewedAnalysis.putAll(properties);
+                }
+                reviewedAnalysis.setProperty(PARAM_DA_REVIEW_PHASE, String.valueOf(phase));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void finish() {
+        reviewedAnalyses.clear();
+    }
+
+    private synchronized boolean isEmpty() {
+        return pendingAnalyses.isEmpty() && reviewedAnalyses.isEmpty();
+    }
+}
@@ -18,6 +18,8 @@ import com.veracode.jenkins.plugin.utils.EncryptionUtil;
 import com.veracode.jenkins.plugin.utils.FileUtil;
 import com.veracode.jenkins.plugin.utils.RemoteScanUtil;
 import com.veracode.jenkins.plugin.utils.StringUtil;
+import com.veracode.jenkins.plugin.utils.WrapperDaemonUtil;
+import com.veracode.jenkins.plugin.utils.WrapperProvisioningUtil;
 
 import hudson.EnvVars;
 import hudson.Extension;
@@ -30,6 +32,7 @@ import hudson.model.AbstractProject;
 import hudson.model.BuildListener;
 import hudson.model.Computer;
 import hudson.model.Node;
+import hudson.remoting.VirtualChannel;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Notifier;
@@ -70,6 +73,8 @@ public class DynamicRescanNotifier extends Notifier {
         private boolean autoappname;
         private boolean debug;
         private boolean autoversion;
+        private boolean inprocessscan;
+        private String agentmaxjobs;
 
         // -------------------------------------------------------------------
         // Methods that correspond to identifiers referenced in global.jelly
@@ -91,6 +96,14 @@ public class DynamicRescanNotifier extends Notifier {
             return autoversion;
         }
 
+        public boolean getInprocessscan() {
+            return inprocessscan;
+        }
+
+        public String getAgentmaxjobs() {
+            return agentmaxjobs;
+        }
+
         /**
          * The name of the plugin displayed in the UI.
          */
@@ -136,6 +149,8 @@ public class DynamicRescanNotifier extends Notifier {
                 autoappname = globalVeracodeDescriptor.getAutoappname();
                 debug = globalVeracodeDescriptor.getDebug();
                 autoversion = globalVeracodeDescriptor.getAutoversion();
+                inprocessscan = globalVeracodeDescriptor.getInprocessscan();
+                agentmaxjobs = globalVeracodeDescriptor.getAgentmaxjobs();
             }
         }
     }
@@ -201,63 +216,19 @@ public class DynamicRescanNotifier extends Notifier {
         // only copy if remote workspace and the checkbox to copy from remote to
         // master is unchecked
         if (isRemoteWorkspace) {
-            try {
-                FilePath localWorkspaceFilePath = FileUtil.getLocalWorkspaceFilepath();
-                FilePath remoteVeracodeFilePath = RemoteScanUtil.getRemoteVeracodePath(build);
-
-                // create the directory (where we want to copy the javawrapper
-                // jar) if it does not exist
-                if (!remoteVeracodeFilePath.exists()) {
-
-                    if (debug) {
-                        ps.println("Making remote dir");
-                    }
+            Node node = build.getBuiltOn();
+            if (node == null) {
+                ps.print("\r\n\r\nFailed to locate the build node.\r\n");
+                return !getDescriptor().getFailbuild();
+            }
 
-                    remoteVeracodeFilePath.mkdirs();
-                }
+            // the wrapper is usually provisioned when the node comes online
+            if (WrapperProvisioningUtil.isProvisioned(node)) {
+                return true;
+            }
 
-                FilePath[] files = remoteVeracodeFilePath.list(Constant.inclusive);
-
-                // copy the jar if it does not exist
-                if (files.length == 0) {
-                    bRet = FileUtil.copyJarFiles(build, localWorkspaceFilePath,
-                            remoteVeracodeFilePath, ps);
-                } else // if file exits
-                {
-                    FilePath[] newfiles = localWorkspaceFilePath.list(Constant.inclusive);
-                    String newjarName = newfiles[0].getRemote();
-                    int newVersion = RemoteScanUtil.getJarVersion(newjarName);
-                    String oldjarName = files[0].getRemote();
-                    int oldVersion = RemoteScanUtil.getJarVersion(oldjarName);
-
-                    // also copy the jar if there is a newer version in the
-                    // plugin directory and delete the old one
-                    if (newVersion > oldVersion) {
-                        if (debug) {
-                            ps.println(
-                                    "Newer veracode library version, copying it to remote machine");
-                        }
-
-                        remoteVeracodeFilePath.deleteContents();
-                        bRet = FileUtil.copyJarFiles(build, localWorkspaceFilePath,
-                                remoteVeracodeFilePath, ps);
-                    } else // just make sure we have our jarfile (defensive
-                           // coding)
-                    {
-                        String jarName = files[0].getRemote();
-                        String newJarName = jarName.replaceAll(Constant.regex,
-                                Constant.execJarFile + "$2");
-                        Node node = build.getBuiltOn();
-                        if (node == null) {
-                            ps.print("\r\n\r\nFailed to locate the build node.\r\n");
-                            return !getDescriptor().getFailbuild();
-                        }
-                        FilePath newjarFilePath = new FilePath(node.getChannel(), newJarName);
-
-                        if (newjarFilePath.exists())
-                            bRet = true;
-                    }
-                }
+            try {
+                bRet = WrapperProvisioningUtil.provision(node, ps, debug);
             } catch (Exception ex) {
                 ex.printStackTrace();
                 if (getDescriptor().getFailbuild()) {
@@ -416,7 +387,6 @@ public class DynamicRescanNotifier extends Notifier {
         // 2nd time
         try {
             EnvVars envVars = build.getEnvironment(listener);
-            DynamicRescanArgs dynamicScanArguments = DynamicRescanArgs.dynamicScanArgs(this, build, envVars, true);
 
             String jarPath = jarFilePath + sep + Constant.execJarFile + ".jar";
 
@@ -425,33 +395,57 @@ public class DynamicRescanNotifier extends Notifier {
                 return !getDescriptor().getFailbuild();
             }
 
-            Computer computer = node.toComputer();
-            if (computer == null) {
-                ps.print("\r\n\r\nFailed to determine the computer.\r\n");
-                return !getDescriptor().getFailbuild();
+            Integer retcode = null;
+            if (getDescriptor().getInprocessscan()) {
+                // the credentials and proxy settings are passed as arguments, as the
+                // environment of the remote node's JVM cannot be changed
+                DynamicRescanArgs inProcessArguments = DynamicRescanArgs.dynamicScanArgs(this, build,
+                        envVars, false);
+                VirtualChannel channel = node.getChannel();
+                if (channel == null) {
+                    ps.print("\r\n\r\nFailed to connect to the build node.\r\n");
+                    return !getDescriptor().getFailbuild();
+                }
+                retcode = WrapperDaemonUtil.runJob(channel, jarPath, inProcessArguments.getArguments(),
+                        null, WrapperDaemonUtil.getMaxConcurrentJobs(getDescriptor().getAgentmaxjobs()),
+                        listener, bDebug);
+                if (retcode == null) {
+                    ps.print("\nLaunching a new JVM for the Veracode API wrapper instead.\n");
+                }
             }
 
-            Boolean isUnix = computer.isUnix();
-            if (isUnix == null) {
-                ps.print("\r\n\r\nFailed to determine the OS.\r\n");
-                return !getDescriptor().getFailbuild();
-            }
+            if (retcode == null) {
+                DynamicRescanArgs dynamicScanArguments = DynamicRescanArgs.dynamicScanArgs(this, build,
+                        envVars, true);
 
-            // Construct DynamicScan command using the given args
-            ArgumentListBuilder command = RemoteScanUtil.addArgumentsToCommand(jarPath,
-                    dynamicScanArguments.getArguments(), isUnix);
+                Computer computer = node.toComputer();
+                if (computer == null) {
+                    ps.print("\r\n\r\nFailed to determine the computer.\r\n");
+                    return !getDescriptor().getFailbuild();
+                }
+
+                Boolean isUnix = computer.isUnix();
+                if (isUnix == null) {
+                    ps.print("\r\n\r\nFailed to determine the OS.\r\n");
+                    return !getDescriptor().getFailbuild();
+                }
 
-            Launcher launcher = node.createLauncher(listener);
-            ProcStarter procStart = launcher.new ProcStarter();
-            procStart = procStart.cmds(command).envs(envVars).stdout(listener).quiet(true);
+                // Construct DynamicScan command using the given args
+                ArgumentListBuilder command = RemoteScanUtil.addArgumentsToCommand(jarPath,
+                        dynamicScanArguments.getArguments(), isUnix);
 
-            if (bDebug) {
-                procStart.quiet(false);
-                ps.print("\nInvoking the following command in remote workspace:\n");
-            }
+                Launcher launcher = node.createLauncher(listener);
+                ProcStarter procStart = launcher.new ProcStarter();
+                procStart = procStart.cmds(command).envs(envVars).stdout(listener).quiet(true);
 
-            Proc proc = launcher.launch(procStart);
-            int retcode = proc.join();
+                if (bDebug) {
+                    procStart.quiet(false);
+                    ps.print("\nInvoking the following command in remote workspace:\n");
+                }
+
+                Proc proc = launcher.launch(procStart);
+                retcode = proc.join();
+            }
             if (retcode != 0 && getDescriptor().getFailbuild()) {
                 ps.print("\r\n\r\nError- Returned code from wrapper:" + retcode + "\r\n\n");
             } else if (retcode == 0) {
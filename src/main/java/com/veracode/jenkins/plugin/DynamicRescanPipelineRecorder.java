@@ -12,11 +12,14 @@ import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 
 import com.veracode.apiwrapper.cli.VeracodeCommand.VeracodeParser;
+import com.veracode.jenkins.plugin.VeracodeNotifier.VeracodeDescriptor;
 import com.veracode.jenkins.plugin.args.DynamicRescanArgs;
 import com.veracode.jenkins.plugin.common.Constant;
 import com.veracode.jenkins.plugin.utils.FileUtil;
 import com.veracode.jenkins.plugin.utils.RemoteScanUtil;
 import com.veracode.jenkins.plugin.utils.StringUtil;
+import com.veracode.jenkins.plugin.utils.WrapperDaemonUtil;
+import com.veracode.jenkins.plugin.utils.WrapperProvisioningUtil;
 
 import hudson.EnvVars;
 import hudson.FilePath;
@@ -29,11 +32,13 @@ import hudson.model.Node;
 import hudson.model.Result;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Publisher;
 import hudson.tasks.Recorder;
 import hudson.util.ArgumentListBuilder;
+import jenkins.model.Jenkins;
 import jenkins.tasks.SimpleBuildStep;
 
 /**
@@ -72,6 +77,9 @@ public class DynamicRescanPipelineRecorder extends Recorder implements SimpleBui
     public final String pUser;
     @DataBoundSetter
     public final String pPassword;
+    // Running the wrapper in the JVM of the remote node
+    @DataBoundSetter
+    public boolean inProcessScan;
 
     /**
      * Constructor for DynamicRescanPipelineRecorder.
@@ -273,42 +281,6 @@ public class DynamicRescanPipelineRecorder extends Recorder implements SimpleBui
 
     }
 
-    /**
-     * Copies the Veracode API Wrapper to the remote location.
-     *
-     * @param node   a {@link hudson.model.Node} object.
-     * @param local  a {@link hudson.FilePath} object.
-     * @param remote a {@link hudson.FilePath} object.
-     * @param ps     a {@link java.io.PrintStream} object.
-     * @return a boolean.
-     * @throws java.lang.Exception if any.
-     */
-    private boolean copyJarFiles(Node node, FilePath local, FilePath remote, PrintStream ps)
-            throws Exception {
-        boolean bRet = false;
-        try {
-            local.copyRecursiveTo(Constant.inclusive, null, remote);
-
-            // now make a copy of the jar as 'VeracodeJavaAPI.jar' as the name of the
-            // jarfile in the plugin
-            // will change depending on the wrapper version it has been built with
-
-            FilePath[] files = remote.list(Constant.inclusive);
-            String jarName = files[0].getRemote();
-            FilePath oldJar = new FilePath(node.getChannel(), jarName);
-            String newJarName = jarName.replaceAll(Constant.regex, Constant.execJarFile + "$2");
-            FilePath newjarFilePath = new FilePath(node.getChannel(), newJarName);
-            oldJar.copyToWithPermission(newjarFilePath);
-            bRet = true;
-        } catch (RuntimeException ex) {
-            if (this.canFailJob) {
-                ps.print("Failed to copy the veracode java-wrapper libaries\n");
-            }
-        }
-
-        return bRet;
-    }
-
     private boolean copyJarRemoteBuild(FilePath workspace, TaskListener listener) {
         boolean bRet = false;
         PrintStream ps = listener.getLogger();
@@ -325,57 +297,14 @@ public class DynamicRescanPipelineRecorder extends Recorder implements SimpleBui
             if (node == null) {
                 throw new RuntimeException("Cannot locate the remote node.");
             }
-            try {
-                FilePath localWorkspaceFilePath = FileUtil.getLocalWorkspaceFilepath();
-                FilePath remoteVeracodeFilePath = RemoteScanUtil.getRemoteVeracodePath(node);
-                if (remoteVeracodeFilePath == null) {
-                    throw new RuntimeException("Cannot retrieve the remote file path.");
-                }
-
-                // create the directory (where we want to copy the javawrapper jar) if it does
-                // not exist
-                if (!remoteVeracodeFilePath.exists()) {
-                    if (debug)
-                        ps.println("Making remote dir");
-
-                    remoteVeracodeFilePath.mkdirs();
-                }
 
-                FilePath[] files = remoteVeracodeFilePath.list(Constant.inclusive);
-
-                // copy the jar if it does not exist
-                if (files.length == 0) {
-                    bRet = copyJarFiles(node, localWorkspaceFilePath, remoteVeracodeFilePath, ps);
-                } else // if file exits
-                {
-                    FilePath[] newfiles = localWorkspaceFilePath.list(Constant.inclusive);
-                    String newjarName = newfiles[0].getRemote();
-                    int newVersion = RemoteScanUtil.getJarVersion(newjarName);
-                    String oldjarName = files[0].getRemote();
-                    int oldVersion = RemoteScanUtil.getJarVersion(oldjarName);
-
-                    // also copy the jar if there is a newer version in the plugin directory and
-                    // delete the old one
-                    if (newVersion > oldVersion) {
-                        if (debug) {
-                            ps.println(
-                                    "Newer veracode library version, copying it to remote machine");
-                        }
+            // the wrapper is usually provisioned when the node comes online
+            if (WrapperProvisioningUtil.isProvisioned(node)) {
+                return true;
+            }
 
-                        remoteVeracodeFilePath.deleteContents();
-                        bRet = copyJarFiles(node, localWorkspaceFilePath, remoteVeracodeFilePath,
-                                ps);
-                    } else // just make sure we have our jarfile (defensive coding)
-                    {
-                        String jarName = files[0].getRemote();
-                        String newJarName = jarName.replaceAll(Constant.regex,
-                                Constant.execJarFile + "$2");
-                        FilePath newjarFilePath = new FilePath(node.getChannel(), newJarName);
-
-                        if (newjarFilePath.exists())
-                            bRet = true;
-                    }
-                }
+            try {
+                bRet = WrapperProvisioningUtil.provision(node, ps, debug);
             } catch (Exception ex) {
                 ex.printStackTrace();
                 if (this.canFailJob) {
@@ -425,34 +354,61 @@ public class DynamicRescanPipelineRecorder extends Recorder implements SimpleBui
         try {
 
             EnvVars envVars = run.getEnvironment(listener);
-            DynamicRescanArgs pipelineScanArguments = DynamicRescanArgs.pipelineRescanArgs(
-                    autoApplicationName, createAutoApplicationDescription, autoScanName, useProxy,
-                    vid, vkey, run.getDisplayName(), run.getParent().getFullDisplayName(),
-                    applicationName, dvrEnabled, pHost, Integer.toString(pPort), pUser, pPassword,
-                    workspace, envVars, true);
 
             String jarPath = jarFilePath + sep + Constant.execJarFile + ".jar";
 
-            Boolean isUnix = comp.isUnix();
-            if (isUnix == null) {
-                throw new RuntimeException("Failed to determine the OS.");
+            Integer retcode = null;
+            if (this.inProcessScan) {
+                // the credentials and proxy settings are passed as arguments, as the
+                // environment of the remote node's JVM cannot be changed
+                DynamicRescanArgs inProcessArguments = DynamicRescanArgs.pipelineRescanArgs(
+                        autoApplicationName, createAutoApplicationDescription, autoScanName, useProxy,
+                        vid, vkey, run.getDisplayName(), run.getParent().getFullDisplayName(),
+                        applicationName, dvrEnabled, pHost, Integer.toString(pPort), pUser, pPassword,
+                        workspace, envVars, false);
+                VirtualChannel channel = node.getChannel();
+                if (channel == null) {
+                    throw new RuntimeException("Cannot connect to the remote node.");
+                }
+                VeracodeDescriptor globalDescriptor = (VeracodeDescriptor) Jenkins.get()
+                        .getDescriptor(VeracodeNotifier.class);
+                retcode = WrapperDaemonUtil.runJob(channel, jarPath, inProcessArguments.getArguments(),
+                        null, WrapperDaemonUtil.getMaxConcurrentJobs(globalDescriptor != null
+                                ? globalDescriptor.getAgentmaxjobs() : null),
+                        listener, this.debug);
+                if (retcode == null) {
+                    ps.print("\nLaunching a new JVM for the Veracode API wrapper instead.\n");
+                }
             }
 
-            // Construct DynamicScan command using the given args
-            ArgumentListBuilder command = RemoteScanUtil.addArgumentsToCommand(jarPath,
-                    pipelineScanArguments.getArguments(), isUnix);
+            if (retcode == null) {
+                DynamicRescanArgs pipelineScanArguments = DynamicRescanArgs.pipelineRescanArgs(
+                        autoApplicationName, createAutoApplicationDescription, autoScanName, useProxy,
+                        vid, vkey, run.getDisplayName(), run.getParent().getFullDisplayName(),
+                        applicationName, dvrEnabled, pHost, Integer.toString(pPort), pUser, pPassword,
+                        workspace, envVars, true);
 
-            Launcher launcher = node.createLauncher(listener);
-            ProcStarter procStart = launcher.new ProcStarter();
-            procStart = procStart.cmds(command).envs(envVars).stdout(listener).quiet(true);
+                Boolean isUnix = comp.isUnix();
+                if (isUnix == null) {
+                    throw new RuntimeException("Failed to determine the OS.");
+                }
 
-            if (this.debug) {
-                procStart.quiet(false);
-                ps.print("\nInvoking the following command in remote workspace:\n");
-            }
+                // Construct DynamicScan command using the given args
+                ArgumentListBuilder command = RemoteScanUtil.addArgumentsToCommand(jarPath,
+                        pipelineScanArguments.getArguments(), isUnix);
 
-            Proc proc = launcher.launch(procStart);
-            int retcode = proc.join();
+                Launcher launcher = node.createLauncher(listener);
+                ProcStarter procStart = launcher.new ProcStarter();
+                procStart = procStart.cmds(command).envs(envVars).stdout(listener).quiet(true);
+
+                if (this.debug) {
+                    procStart.quiet(false);
+                    ps.print("\nInvoking the following command in remote workspace:\n");
+                }
+
+                Proc proc = launcher.launch(procStart);
+                retcode = proc.join();
+            }
             if (retcode != 0 && this.canFailJob) {
                 ps.print("\r\n\r\nError- Returned code from wrapper:" + retcode + "\r\n\n");
             } else if (retcode == 0) {
@@ -0,0 +1,106 @@
+package com.veracode.jenkins.plugin;
+
+import java.util.List;
+
+import com.veracode.jenkins.plugin.data.PortfolioEntry;
+import com.veracode.jenkins.plugin.data.ScanHistory;
+import com.veracode.jenkins.plugin.utils.PortfolioIndexUtil;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+
+/**
+ * The PortfolioIndexListener class keeps the portfolio index up to date: the
+ * scan results of a build are added to the index when the build completes,
+ * and removed when the build is deleted, in which case the results of the
+ * previous build with Veracode results take their place.
+ * <p>
+ * This class extends the {@link hudson.model.listeners.RunListener} class.
+ *
+ */
+@Extension
+public class PortfolioIndexListener extends RunListener<Run<?, ?>> {
+
+    /**
+     * Called by Jenkins when a build completes, after the Veracode actions were
+     * attached to it.
+     */
+    @Override
+    public void onCompleted(Run<?, ?> run, TaskListener listener) {
+        Job<?, ?> job = run.getParent();
+        VeracodeAction veracodeAction = run.getAction(VeracodeAction.class);
+        if (null != veracodeAction) {
+            update(job, run, PortfolioEntry.TYPE_STATIC, veracodeAction.getScanHistory());
+        }
+        DynamicAnalysisResultsAction daAction = run.getAction(DynamicAnalysisResultsAction.class);
+        if (null != daAction) {
+            update(job, run, PortfolioEntry.TYPE_DYNAMIC, daAction.getScanHistory());
+        }
+    }
+
+    /**
+     * Called by Jenkins when a build is deleted.
+     */
+    @Override
+    public void onDeleted(Run<?, ?> run) {
+        Job<?, ?> job = run.getParent();
+        List<String> removedTypes = PortfolioIndexUtil.removeBuild(job.getFullName(),
+                run.getNumber());
+        for (Run<?, ?> previousRun = run.getPreviousBuild(); null != previousRun
+                && !removedTypes.isEmpty(); previousRun = previousRun.getPreviousBuild()) {
+            if (previousRun.isBuilding()) {
+                continue;
+            }
+            if (removedTypes.contains(PortfolioEntry.TYPE_STATIC)) {
+                VeracodeAction veracodeAction = previousRun.getAction(VeracodeAction.class);
+                if (null != veracodeAction && null != veracodeAction.getScanHistory()) {
+                    update(job, previousRun, PortfolioEntry.TYPE_STATIC,
+                            veracodeAction.getScanHistory());
+                    removedTypes.remove(PortfolioEntry.TYPE_STATIC);
+                }
+            }
+            if (removedTypes.contains(PortfolioEntry.TYPE_DYNAMIC)) {
+                DynamicAnalysisResultsAction daAction = previousRun
+                        .getAction(DynamicAnalysisResultsAction.class);
+                if (null != daAction && null != daAction.getScanHistory()) {
+                    update(job, previousRun, PortfolioEntry.TYPE_DYNAMIC,
+                            daAction.getScanHistory());
+                    removedTypes.remove(PortfolioEntry.TYPE_DYNAMIC);
+                }
+            }
+        }
+    }
+
+    private static void update(Job<?, ?> job, Run<?, ?> run, String type,
+            ScanHistory scanHistory) {
+        if (null == scanHistory) {
+            return;
+        }
+        PortfolioIndexUtil.update(new PortfolioEntry(job.getFullName(), job.getFullDisplayName(),
+                job.getUrl(), type, run.getNumber(), run.getTimeInMillis(), scanHistory));
+    }
+
+    /**
+     * The ItemListenerImpl class keeps the portfolio index in line with the jobs
+     * when they are renamed, moved or deleted.
+     */
+    @Extension
+    public static class ItemListenerImpl extends ItemListener {
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            PortfolioIndexUtil.renameJob(oldFullName, newFullName, item.getFullDisplayName(),
+                    item.getUrl());
+        }
+
+        @Override
+        public void onDeleted(Item item) {
+            PortfolioIndexUtil.removeJob(item.getFullName());
+        }
+    }
+}
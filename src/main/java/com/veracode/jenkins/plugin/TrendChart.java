@@ -2,11 +2,13 @@ package com.veracode.jenkins.plugin;
 
 import java.awt.Color;
 import java.awt.Paint;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
@@ -20,6 +22,9 @@ import org.jfree.data.category.CategoryDataset;
 import org.jfree.data.category.DefaultCategoryDataset;
 
 import hudson.util.Graph;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
 import com.veracode.jenkins.plugin.data.BuildHistory;
 import com.veracode.jenkins.plugin.data.ScanHistory;
 
@@ -33,6 +38,56 @@ public class TrendChart extends Graph {
         dataset = createDataset(buildHistoryList);
     }
 
+    /**
+     * Converts the build histories to the data of a chart rendered in the browser:
+     * the build dates in ascending order, and for each history the counts at these
+     * dates (null where the history has no count).
+     *
+     * @param buildHistoryList a {@link java.util.Collection} object.
+     * @return a {@link net.sf.json.JSONObject} object.
+     */
+    public static JSONObject toJson(Collection<BuildHistory> buildHistoryList) {
+        List<BuildHistory> histories = new ArrayList<>();
+        for (BuildHistory iter : buildHistoryList) {
+            if ((iter.getBuildType() != null) && (iter.getBuildList() != null)) {
+                histories.add(iter);
+            }
+        }
+
+        TreeMap<Long, Long[]> countsByDate = new TreeMap<>();
+        for (int i = 0; i < histories.size(); i++) {
+            for (Map<String, Long> currEntry : histories.get(i).getBuildList()) {
+                Long buildDate = currEntry.get(ScanHistory.BUILD_DATE);
+                Long count = currEntry.get(ScanHistory.FLAWS_COUNT);
+                if (null != buildDate && null != count) {
+                    Long[] counts = countsByDate.get(buildDate);
+                    if (null == counts) {
+                        counts = new Long[histories.size()];
+                        countsByDate.put(buildDate, counts);
+                    }
+                    counts[i] = count;
+                }
+            }
+        }
+
+        JSONArray series = new JSONArray();
+        for (int i = 0; i < histories.size(); i++) {
+            JSONArray data = new JSONArray();
+            for (Long[] counts : countsByDate.values()) {
+                data.add(null != counts[i] ? counts[i] : JSONNull.getInstance());
+            }
+            JSONObject thisSeries = new JSONObject();
+            thisSeries.put("name", histories.get(i).getBuildType());
+            thisSeries.put("data", data);
+            series.add(thisSeries);
+        }
+
+        JSONObject json = new JSONObject();
+        json.put("dates", JSONArray.fromObject(countsByDate.keySet()));
+        json.put("series", series);
+        return json;
+    }
+
     private void populateDataset(DefaultCategoryDataset dataset, String dataType,
             List<Map<String, Long>> buildList) {
         if (null == dataset || (null == buildList || buildList.size() == 0)) {
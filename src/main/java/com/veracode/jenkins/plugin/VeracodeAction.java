@@ -1,33 +1,58 @@
 package com.veracode.jenkins.plugin;
 
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringEscapeUtils;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
 
 import com.veracode.jenkins.plugin.common.Constant;
 import com.veracode.jenkins.plugin.data.BuildHistory;
 import com.veracode.jenkins.plugin.data.FindingCounts;
+import com.veracode.jenkins.plugin.data.Flaw;
+import com.veracode.jenkins.plugin.data.FlawDiff;
+import com.veracode.jenkins.plugin.data.FlawPage;
 import com.veracode.jenkins.plugin.data.SCAComponent;
+import com.veracode.jenkins.plugin.data.SCAComponentDiff;
 import com.veracode.jenkins.plugin.data.SCAScanHistory;
 import com.veracode.jenkins.plugin.data.ScanHistory;
 import com.veracode.jenkins.plugin.enums.SeverityLevel;
+import com.veracode.jenkins.plugin.utils.FlawFingerprintUtil;
+import com.veracode.jenkins.plugin.utils.FlawIndexUtil;
+import com.veracode.jenkins.plugin.utils.FlawIndexUtil.FlawIndex;
+import com.veracode.jenkins.plugin.utils.SCAComponentDiffUtil;
+import com.veracode.jenkins.plugin.utils.ScanPayloadUtil;
 
+import hudson.model.Api;
 import hudson.model.Run;
 import jenkins.model.RunAction2;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
 
 /**
  * This class represents the post build Veracode step on the build page.
+ * <p>
+ * The scan results are also exported to the remote API of the build, e.g.
+ * {@code api/json?tree=actions[results[policyName,findingCounts[*]]]}.
  *
  */
+@ExportedBean
 public class VeracodeAction implements RunAction2 {
 
+    // Maximum number of previous builds to search for the base build of the flaw
+    // diff
+    private static final int MAX_BUILDS_TO_SEARCH = 60;
+
     // The object to store the scan history for Jenkins builds.
     private final ScanHistory scanHistory;
 
@@ -37,6 +62,17 @@ public class VeracodeAction implements RunAction2 {
     // The object to store the specific region url
     private final String xmlApiHost;
 
+    // Whether the SCA components are stored in a side file of the build rather
+    // than in the scan history
+    private boolean scaComponentsStored;
+
+    // The SCA components loaded from the side file, which can be reclaimed when
+    // memory is low
+    private transient SoftReference<Set<SCAComponent>> scaComponentsRef;
+
+    // The names of the new SCA components which passed and failed policy
+    private transient volatile List<String>[] newSCAComponents;
+
     /**
      * <p>Constructor for VeracodeAction.</p>
      */
@@ -86,6 +122,7 @@ public class VeracodeAction implements RunAction2 {
     @Override
     public void onAttached(Run<?, ?> r) {
         setBuild(r);
+        storeSCAComponents();
     }
 
     @Override
@@ -345,25 +382,46 @@ public class VeracodeAction implements RunAction2 {
      */
     public void doGraph(StaplerRequest request, StaplerResponse response) {
         try {
-            Collection<BuildHistory> buildHistoryList = new ArrayList<>();
-            BuildHistory staticBuildHistory = new BuildHistory("Static Flaws",
-                    scanHistory.getFlawsCountHistory());
-            buildHistoryList.add(staticBuildHistory);
-
-            // SCA vulnerabilities is optional
-            if (null != getVulCountHistory()) {
-                BuildHistory vulnerBuildHistory = new BuildHistory("SCA Vulnerabilities",
-                        getVulCountHistory());
-                buildHistoryList.add(vulnerBuildHistory);
-            }
             TrendChart trendChart = new TrendChart(System.currentTimeMillis(), 600, 400,
-                    buildHistoryList);
+                    getBuildHistoryList());
             trendChart.doPng(request, response);
         } catch (IOException ioe) {
             throw new RuntimeException("Unable to generate the Flaw trend graph.");
         }
     }
 
+    /**
+     * Writes the data of the trend chart as JSON, for the chart rendered in the
+     * browser.
+     *
+     * @param request  a {@link org.kohsuke.stapler.StaplerRequest} object.
+     * @param response a {@link org.kohsuke.stapler.StaplerResponse} object.
+     * @throws java.io.IOException if any.
+     */
+    public void doGraphData(StaplerRequest request, StaplerResponse response) throws IOException {
+        if (!isScanHistoryAvailable()) {
+            response.sendError(StaplerResponse.SC_NOT_FOUND, "The scan history is not available.");
+            return;
+        }
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(TrendChart.toJson(getBuildHistoryList()).toString());
+    }
+
+    private Collection<BuildHistory> getBuildHistoryList() {
+        Collection<BuildHistory> buildHistoryList = new ArrayList<>();
+        BuildHistory staticBuildHistory = new BuildHistory("Static Flaws",
+                scanHistory.getFlawsCountHistory());
+        buildHistoryList.add(staticBuildHistory);
+
+        // SCA vulnerabilities is optional
+        if (null != getVulCountHistory()) {
+            BuildHistory vulnerBuildHistory = new BuildHistory("SCA Vulnerabilities",
+                    getVulCountHistory());
+            buildHistoryList.add(vulnerBuildHistory);
+        }
+        return buildHistoryList;
+    }
+
     /**
      * Get the URL to the Detailed Report for this scan that is escaped for HTML
      * attribute
@@ -383,10 +441,48 @@ public class VeracodeAction implements RunAction2 {
                 + escapedAcctId + ":" + escapedAppId + ":" + escapedBuildId;
     }
 
+    @Exported(visibility = 2)
     public boolean isScanHistoryAvailable() {
         return null != scanHistory;
     }
 
+    /**
+     * Get the scan results, for the remote API
+     *
+     * @return the scan history or null if it is unavailable
+     */
+    @Exported(name = "results", visibility = 2)
+    public ScanHistory getScanHistory() {
+        return scanHistory;
+    }
+
+    /**
+     * Get the static flaws of the build, for the remote API. The flaws are read
+     * from the flaw index of the build while they are written to the response,
+     * and can be paged with a range, e.g. {@code tree=flaws[issueId]{0,50}}. The
+     * flaws are left out of the default output of the build, so they are only
+     * read when they are explicitly requested.
+     *
+     * @return a {@link java.util.List} object, empty if the flaw index of the
+     *         build is not available.
+     */
+    @Exported(visibility = 0)
+    public List<Flaw> getFlaws() {
+        if (null == build) {
+            return Collections.emptyList();
+        }
+        try {
+            FlawIndex flawIndex = FlawIndexUtil.openFlawIndex(build.getRootDir());
+            return null != flawIndex ? flawIndex.asList() : Collections.<Flaw>emptyList();
+        } catch (IOException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    public Api getApi() {
+        return new Api(this);
+    }
+
     private void setBuild(Run<?, ?> build) {
         this.build = build;
     }
@@ -395,6 +491,180 @@ public class VeracodeAction implements RunAction2 {
         return build;
     }
 
+    /**
+     * Moves the SCA components from the scan history to a compressed side file of
+     * the build, so that the build record only keeps the summary of the scan. The
+     * components stay in the scan history if the side file cannot be written.
+     */
+    private void storeSCAComponents() {
+        if (!isSCAHistoryAvailable() || !scanHistory.getScaHistory().hasSCAComponents()
+                || null == build) {
+            return;
+        }
+        Set<SCAComponent> scaComponents = scanHistory.getScaHistory().getSCAComponents();
+        try {
+            ScanPayloadUtil.writeSCAComponents(build.getRootDir(), scaComponents);
+        } catch (IOException e) {
+            return;
+        }
+        scanHistory.getScaHistory().detachSCAComponents();
+        scaComponentsRef = new SoftReference<>(scaComponents);
+        scaComponentsStored = true;
+    }
+
+    /**
+     * Returns the SCA components of the build. The components stored in a side
+     * file of the build are loaded the first time they are needed.
+     *
+     * @return an unmodifiable {@link java.util.Set} object, empty if SCA data is
+     *         not available.
+     */
+    public Set<SCAComponent> getSCAComponents() {
+        if (!isSCAHistoryAvailable()) {
+            return Collections.emptySet();
+        }
+        if (!scaComponentsStored) {
+            return Collections.unmodifiableSet(scanHistory.getScaHistory().getSCAComponents());
+        }
+        SoftReference<Set<SCAComponent>> ref = scaComponentsRef;
+        Set<SCAComponent> scaComponents = null != ref ? ref.get() : null;
+        if (null == scaComponents) {
+            try {
+                scaComponents = null != build
+                        ? ScanPayloadUtil.readSCAComponents(build.getRootDir())
+                        : new HashSet<SCAComponent>();
+            } catch (IOException e) {
+                // the side file is missing or damaged
+                scaComponents = new HashSet<>();
+            }
+            scaComponentsRef = new SoftReference<>(scaComponents);
+        }
+        return Collections.unmodifiableSet(scaComponents);
+    }
+
+    /**
+     * Determine if the flaw index of the build is available
+     *
+     * @return true if available. False otherwise
+     */
+    public boolean isFlawIndexAvailable() {
+        return null != build && FlawIndexUtil.getFlawIndexFile(build.getRootDir()).isFile();
+    }
+
+    /**
+     * Returns the page of flaws selected by the parameters of the request: page,
+     * size, sort, order, severity (minimum severity), policy (only flaws affecting
+     * policy compliance) and q (text to find in the category, module or file).
+     *
+     * @param request a {@link org.kohsuke.stapler.StaplerRequest} object.
+     * @return a {@link com.veracode.jenkins.plugin.data.FlawPage} object, or null
+     *         if the flaw index of the build is not available.
+     */
+    public FlawPage getFlawPage(StaplerRequest request) {
+        if (null == build) {
+            return null;
+        }
+        String sort = request.getParameter("sort");
+        String order = request.getParameter("order");
+        boolean descending = null == order ? null == sort || FlawIndexUtil.SORT_SEVERITY.equals(sort)
+                : "desc".equals(order);
+        try {
+            FlawIndex flawIndex = FlawIndexUtil.openFlawIndex(build.getRootDir());
+            if (null == flawIndex) {
+                return null;
+            }
+            return flawIndex.getPage(getIntParameter(request, "page", 1),
+                    getIntParameter(request, "size", FlawIndexUtil.DEFAULT_PAGE_SIZE),
+                    null == sort ? FlawIndexUtil.SORT_SEVERITY : sort, descending,
+                    getIntParameter(request, "severity", 0),
+                    Boolean.parseBoolean(request.getParameter("policy")), request.getParameter("q"));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static int getIntParameter(StaplerRequest request, String name, int defaultValue) {
+        try {
+            return Integer.parseInt(request.getParameter(name));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns the closest previous build with flaw fingerprints, which is the
+     * default base build of the flaw diff.
+     *
+     * @return a {@link hudson.model.Run} object, or null if there is no such
+     *         build.
+     */
+    public Run<?, ?> getFlawDiffBaseBuild() {
+        if (null == build) {
+            return null;
+        }
+        Run<?, ?> previousBuild = build.getPreviousBuild();
+        for (int buildCount = 0; null != previousBuild
+                && buildCount < MAX_BUILDS_TO_SEARCH; previousBuild = previousBuild
+                        .getPreviousBuild(), buildCount++) {
+            if (FlawFingerprintUtil.getFingerprintsFile(previousBuild.getRootDir()).isFile()) {
+                return previousBuild;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compares the flaws of the build with the flaws of a base build.
+     *
+     * @param baseBuild a {@link hudson.model.Run} object.
+     * @return a {@link com.veracode.jenkins.plugin.data.FlawDiff} object, or null
+     *         if the flaw fingerprints of either build are not available.
+     */
+    public FlawDiff getFlawDiff(Run<?, ?> baseBuild) {
+        if (null == build || null == baseBuild) {
+            return null;
+        }
+        try {
+            return FlawFingerprintUtil.diff(
+                    FlawFingerprintUtil.readFingerprints(baseBuild.getRootDir()),
+                    FlawFingerprintUtil.readFingerprints(build.getRootDir()));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the flaw diff as JSON. The base build is given by the "base"
+     * parameter (a build number), and defaults to the closest previous build with
+     * flaw fingerprints.
+     *
+     * @param request  a {@link org.kohsuke.stapler.StaplerRequest} object.
+     * @param response a {@link org.kohsuke.stapler.StaplerResponse} object.
+     * @throws java.io.IOException if any.
+     */
+    public void doFlawDiff(StaplerRequest request, StaplerResponse response) throws IOException {
+        Run<?, ?> baseBuild = null;
+        if (null != build) {
+            int baseNumber = getIntParameter(request, "base", -1);
+            baseBuild = baseNumber < 0 ? getFlawDiffBaseBuild()
+                    : build.getParent().getBuildByNumber(baseNumber);
+        }
+        FlawDiff flawDiff = getFlawDiff(baseBuild);
+        if (null == flawDiff) {
+            response.sendError(StaplerResponse.SC_NOT_FOUND,
+                    "The flaw fingerprints of the builds are not available.");
+            return;
+        }
+        JSONObject json = new JSONObject();
+        json.put("build", build.getNumber());
+        json.put("baseBuild", baseBuild.getNumber());
+        json.put("new", JSONArray.fromObject(flawDiff.getNewIssueIds()));
+        json.put("fixed", JSONArray.fromObject(flawDiff.getFixedIssueIds()));
+        json.put("unchanged", JSONArray.fromObject(flawDiff.getUnchangedIssueIds()));
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(json.toString());
+    }
+
     /**
      * Determine if the SCA History is available
      *
@@ -413,6 +683,17 @@ public class VeracodeAction implements RunAction2 {
         return (isSCAHistoryAvailable()) ? scanHistory.getScaHistory().isSubscribed() : false;
     }
 
+    /**
+     * Determine if the SCA results of the build were not retrieved, e.g. when
+     * only the summary report was downloaded
+     *
+     * @return true if not retrieved. False otherwise
+     */
+    public boolean isSCAResultsUnavailable() {
+        return (isSCAHistoryAvailable()) ? scanHistory.getScaHistory().isResultsUnavailable()
+                : false;
+    }
+
     /**
      * Get the max CVSS score among all the SCA components.
      *
@@ -667,19 +948,8 @@ public class VeracodeAction implements RunAction2 {
      * @return boolean whether or not there are new SCA components
      */
     public boolean isNewSCAComponents() {
-
-        boolean isNewComponents = false;
-
-        if (isSCAHistoryAvailable()) {
-            /* Check if any new SCA components since previous build */
-            for (SCAComponent component : scanHistory.getScaHistory().getSCAComponents()) {
-                if (component.isNew()) {
-                    isNewComponents = true;
-                    break;
-                }
-            }
-        }
-        return isNewComponents;
+        List<String>[] newComponents = getNewSCAComponents();
+        return !newComponents[0].isEmpty() || !newComponents[1].isEmpty();
     }
 
     /**
@@ -691,18 +961,80 @@ public class VeracodeAction implements RunAction2 {
      * @return array of SCA component names that either passed or failed policy
      */
     public ArrayList<String> getNewSCAComponentsByPolicyStatus(boolean isViolatedPolicy) {
+        return new ArrayList<>(getNewSCAComponents()[isViolatedPolicy ? 1 : 0]);
+    }
 
-        ArrayList<String> componentArray = new ArrayList<>();
+    /**
+     * Returns the names of the new SCA components which passed policy (index 0)
+     * and failed policy (index 1), sorted by alphabetic order. The lists are
+     * computed in a single pass over the components and kept for the following
+     * renderings of the page.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String>[] getNewSCAComponents() {
+        List<String>[] newComponents = newSCAComponents;
+        if (null == newComponents) {
+            newComponents = new List[] {
+                    new ArrayList<String>(), new ArrayList<String>()
+            };
+            for (SCAComponent component : getSCAComponents()) {
+                if (component.isNew()) {
+                    newComponents[component.isViolatedPolicy() ? 1 : 0].add(component.getName());
+                }
+            }
+            /* Sort component arrays by alphabetic order */
+            Collections.sort(newComponents[0]);
+            Collections.sort(newComponents[1]);
+            newSCAComponents = newComponents;
+        }
+        return newComponents;
+    }
 
-        /* Add SCA component names based on specified passed or failed policy status */
-        for (SCAComponent component : scanHistory.getScaHistory().getSCAComponents()) {
-            if (component.isNew() && (isViolatedPolicy == component.isViolatedPolicy())) {
-                componentArray.add(component.getName());
+    /**
+     * Returns the closest previous build with SCA results, which is the default
+     * base build of the SCA component diff.
+     *
+     * @return a {@link hudson.model.Run} object, or null if there is no such
+     *         build.
+     */
+    public Run<?, ?> getSCAComponentDiffBaseBuild() {
+        if (null == build || !isSCAHistoryAvailable()) {
+            return null;
+        }
+        Run<?, ?> previousBuild = build.getPreviousBuild();
+        for (int buildCount = 0; null != previousBuild
+                && buildCount < MAX_BUILDS_TO_SEARCH; previousBuild = previousBuild
+                        .getPreviousBuild(), buildCount++) {
+            VeracodeAction action = previousBuild.getAction(VeracodeAction.class);
+            if (null != action && action.isSCAHistoryAvailable()) {
+                return previousBuild;
             }
         }
-        /* Sort component array by alphabetic order */
-        Collections.sort(componentArray);
-        return componentArray;
+        return null;
+    }
+
+    /**
+     * Compares the SCA components of the build with the SCA components of a base
+     * build. The diff is cached for the pair of builds.
+     *
+     * @param baseBuild a {@link hudson.model.Run} object.
+     * @return a {@link com.veracode.jenkins.plugin.data.SCAComponentDiff} object,
+     *         or null if the SCA results of either build are not available.
+     */
+    public SCAComponentDiff getSCAComponentDiff(Run<?, ?> baseBuild) {
+        if (null == build || null == baseBuild || !isSCAHistoryAvailable()) {
+            return null;
+        }
+        VeracodeAction baseAction = baseBuild.getAction(VeracodeAction.class);
+        if (null == baseAction || !baseAction.isSCAHistoryAvailable()) {
+            return null;
+        }
+        SCAComponentDiff diff = SCAComponentDiffUtil.getCachedDiff(baseBuild, build);
+        if (null == diff) {
+            diff = SCAComponentDiffUtil.diff(baseAction.getSCAComponents(), getSCAComponents());
+            SCAComponentDiffUtil.cacheDiff(baseBuild, build, diff);
+        }
+        return diff;
     }
 
     /**
@@ -733,6 +1065,7 @@ public class VeracodeAction implements RunAction2 {
         return isSCAHistoryAvailable() ? scanHistory.getScaHistory().getVulCountHistory() : null;
     }
 
+    @Exported(name = "sca", visibility = 2)
     public SCAScanHistory getSCAScanHistory() {
         return isSCAHistoryAvailable() ? scanHistory.getScaHistory() : null;
     }
@@ -0,0 +1,344 @@
+package com.veracode.jenkins.plugin;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.veracode.jenkins.plugin.VeracodeNotifier.VeracodeDescriptor;
+import com.veracode.jenkins.plugin.common.Constant;
+import com.veracode.jenkins.plugin.data.ProxyBlock;
+import com.veracode.jenkins.plugin.data.ScanHandle;
+import com.veracode.jenkins.plugin.utils.StringUtil;
+import com.veracode.jenkins.plugin.utils.WrapperUtil;
+import com.veracode.jenkins.plugin.utils.XmlUtil;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.AbstractProject;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.tasks.BuildStepDescriptor;
+import hudson.tasks.BuildStepMonitor;
+import hudson.tasks.Publisher;
+import hudson.tasks.Recorder;
+import jenkins.model.Jenkins;
+import jenkins.tasks.SimpleBuildStep;
+
+/**
+ * The VeracodeAwaitResultsPipelineRecorder class handles processing for
+ * "veracodeAwaitResults" Pipeline script. It waits for the scan of a Veracode
+ * build started by the "veracodeUpload" step and adds its results to the
+ * Jenkins build as a {@link com.veracode.jenkins.plugin.VeracodeAction}.
+ * <p>
+ * The step does not need a workspace, so it can be called outside of a
+ * {@code node} block to wait without holding an executor.
+ *
+ */
+public class VeracodeAwaitResultsPipelineRecorder extends Recorder implements SimpleBuildStep {
+
+    public static final int DEFAULT_TIMEOUT_MINUTES = 60;
+
+    private static final long POLL_INTERVAL_SECONDS = 60;
+
+    // The analysis statuses of a build whose scan will not complete
+    private static final List<String> FAILED_ANALYSIS_STATUSES = Arrays.asList(
+            "Scan Canceled", "Pre-Scan Failed", "Pre-Scan Canceled", "No Modules Defined",
+            "Vendor Reject");
+
+    @DataBoundSetter
+    public String applicationName;
+
+    @DataBoundSetter
+    public String buildId;
+
+    @DataBoundSetter
+    public Integer timeout;
+
+    // Ending the wait once the scan did not pass the policy
+    @DataBoundSetter
+    public boolean exitOnPolicyFailure;
+
+    @DataBoundSetter
+    public boolean canFailJob;
+
+    @DataBoundSetter
+    public boolean unstableBuild;
+
+    @DataBoundSetter
+    public boolean sarifReport;
+
+    @DataBoundSetter
+    public boolean summaryReport;
+
+    @DataBoundSetter
+    public String vid;
+
+    @DataBoundSetter
+    public String vkey;
+
+    @DataBoundSetter
+    public boolean useProxy;
+
+    @DataBoundSetter
+    public String pHost;
+
+    @DataBoundSetter
+    public String pPort;
+
+    @DataBoundSetter
+    public String pUser;
+
+    @DataBoundSetter
+    public String pPassword;
+
+    /**
+     * Constructor for VeracodeAwaitResultsPipelineRecorder.
+     */
+    @DataBoundConstructor
+    public VeracodeAwaitResultsPipelineRecorder() {
+    }
+
+    /**
+     * Returns an object that represents the scope of the synchronization monitor
+     * expected by the plugin.
+     */
+    @Override
+    public BuildStepMonitor getRequiredMonitorService() {
+        return null;
+    }
+
+    @Override
+    public boolean requiresWorkspace() {
+        return false;
+    }
+
+    /**
+     * Called by Jenkins to wait for the results, with or without a workspace.
+     */
+    @Override
+    public void perform(Run<?, ?> run, EnvVars env, TaskListener listener)
+            throws InterruptedException, IOException {
+
+        PrintStream ps = listener.getLogger();
+
+        ps.println("------------------------------------------------------------------------");
+        ps.println(PipelineDescriptorImpl.PostBuildActionDisplayText);
+        ps.println("------------------------------------------------------------------------");
+
+        VeracodeDescriptor globalDescriptor = Jenkins.get()
+                .getDescriptorByType(VeracodeDescriptor.class);
+        boolean useGlobalCredentials = vid == null && vkey == null;
+        if (useGlobalCredentials && null == globalDescriptor) {
+            ps.println("The global Veracode settings are not available. Please specify the vid "
+                    + "and vkey.");
+            fail(run, Result.FAILURE);
+            return;
+        }
+        String id = useGlobalCredentials ? globalDescriptor.getGvid() : vid;
+        String key = useGlobalCredentials ? globalDescriptor.getGvkey() : vkey;
+        id = StringUtil.isNullOrEmpty(id) ? id : env.expand(id);
+        key = StringUtil.isNullOrEmpty(key) ? key : env.expand(key);
+        ProxyBlock proxy = null;
+        if (useProxy) {
+            proxy = new ProxyBlock(pHost, pPort, pUser, pPassword);
+        } else if (null != globalDescriptor && globalDescriptor.getProxy()) {
+            proxy = new ProxyBlock(globalDescriptor.getPhost(), globalDescriptor.getPport(),
+                    globalDescriptor.getPuser(), globalDescriptor.getPpassword());
+        }
+
+        String appName = StringUtil.isNullOrEmpty(applicationName) ? null
+                : env.expand(applicationName);
+        String resolvedBuildId = StringUtil.isNullOrEmpty(buildId) ? null : env.expand(buildId);
+        ScanHandle handle = VeracodeScanHandleAction.pollHandle(run, appName, resolvedBuildId);
+        String appId = null;
+        if (null != handle) {
+            appId = handle.getAppId();
+            resolvedBuildId = handle.getBuildId();
+        } else if (null != appName && null != resolvedBuildId) {
+            // a build uploaded by another Jenkins build
+            try {
+                appId = XmlUtil.parseAppId(appName, WrapperUtil.getAppList(id, key, proxy));
+            } catch (Exception e) {
+                ps.println("Failed to retrieve the application list: " + e.getMessage());
+            }
+        }
+        if (StringUtil.isNullOrEmpty(appId) || StringUtil.isNullOrEmpty(resolvedBuildId)) {
+            ps.println("Could not find the Veracode build to wait for. Please call the "
+                    + "veracodeUpload step first, or specify the applicationName and buildId.");
+            fail(run, Result.FAILURE);
+            return;
+        }
+
+        int timeoutMinutes = timeout != null && timeout > 0 ? timeout : DEFAULT_TIMEOUT_MINUTES;
+        ps.println(String.format(
+                "Waiting up to %d minute(s) for the results of build %s of application %s.",
+                timeoutMinutes, resolvedBuildId, null != handle ? handle.getApplicationName()
+                        : appName));
+
+        String buildInfoXML = waitForScan(appId, resolvedBuildId, timeoutMinutes,
+                exitOnPolicyFailure, id, key, proxy, ps);
+        if (null == buildInfoXML) {
+            run.addAction(new VeracodeAction());
+            fail(run, Result.FAILURE);
+            return;
+        }
+
+        VeracodeAction veracodeAction;
+        try {
+            veracodeAction = VeracodePipelineRecorder.addScanResults(run, listener, buildInfoXML,
+                    summaryReport, sarifReport, id, key, proxy);
+        } catch (Exception e) {
+            ps.println(String.format(
+                    "Ran into problem when generating scan results in Jenkins. Error: [%s, %s]",
+                    e.getClass().getSimpleName(), e.getMessage()));
+            fail(run, Result.FAILURE);
+            return;
+        }
+
+        String complianceStatus = veracodeAction.getPolicyComplianceStatus();
+        ps.println("Policy compliance status: " + complianceStatus);
+        if (Constant.DID_NOT_PASSED.equalsIgnoreCase(complianceStatus)) {
+            fail(run, unstableBuild ? Result.UNSTABLE : Result.FAILURE);
+        } else if (unstableBuild && Constant.CONDITIONAL_PASSED.equalsIgnoreCase(complianceStatus)) {
+            fail(run, Result.UNSTABLE);
+        }
+    }
+
+    /**
+     * Waits for the scan of a Veracode build to complete, polling the build info
+     * every minute. The scan is complete when all its analyses, e.g. the static
+     * and the dynamic analysis, have their results ready.
+     * <p>
+     * When exiting on a policy failure, the wait also ends as soon as the results
+     * of an analysis are published and the build does not pass the policy, as
+     * the results of the other analyses cannot make it pass.
+     *
+     * @param appId               a {@link java.lang.String} object.
+     * @param buildId             a {@link java.lang.String} object.
+     * @param timeoutMinutes      a int - the maximum wait time in minutes.
+     * @param exitOnPolicyFailure a boolean - end the wait as soon as the build
+     *                            does not pass the policy.
+     * @param id                  a {@link java.lang.String} object - the Veracode
+     *                            API ID.
+     * @param key                 a {@link java.lang.String} object - the Veracode
+     *                            API key.
+     * @param proxy               a
+     *                            {@link com.veracode.jenkins.plugin.data.ProxyBlock}
+     *                            object - the proxy settings, can be null.
+     * @param ps                  a {@link java.io.PrintStream} object.
+     * @return a {@link java.lang.String} object - the last build info, or null
+     *         if the scan will not complete or did not complete in time.
+     * @throws java.lang.InterruptedException if the wait is interrupted.
+     */
+    static String waitForScan(String appId, String buildId, int timeoutMinutes,
+            boolean exitOnPolicyFailure, String id, String key, ProxyBlock proxy,
+            PrintStream ps) throws InterruptedException {
+        long expirationTime = System.currentTimeMillis()
+                + TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        List<String> statuses = null;
+        while (true) {
+            String buildInfoXML = null;
+            try {
+                buildInfoXML = WrapperUtil.getBuildInfoByAppIdBuildId(appId, buildId, id, key,
+                        proxy);
+                List<String> newStatuses = XmlUtil.parseAnalysisStatuses(buildInfoXML);
+                if (!newStatuses.equals(statuses)) {
+                    ps.println("Scan status: " + String.join(", ", newStatuses));
+                    statuses = newStatuses;
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                // transient errors are retried until the timeout
+                ps.println("Failed to retrieve the scan status: " + e.getMessage());
+                // the statuses were not parsed from this build info
+                buildInfoXML = null;
+            }
+            if (null != buildInfoXML && !statuses.isEmpty()) {
+                boolean resultsReady = true;
+                boolean anyResultsReady = false;
+                for (String status : statuses) {
+                    if (Constant.RESULTS_READY.equalsIgnoreCase(status)) {
+                        anyResultsReady = true;
+                    } else {
+                        resultsReady = false;
+                    }
+                }
+                if (resultsReady) {
+                    return buildInfoXML;
+                }
+                if (exitOnPolicyFailure && anyResultsReady && isPolicyFailed(buildInfoXML)) {
+                    ps.println("The published results do not pass the policy. "
+                            + "Not waiting for the other analyses to complete.");
+                    return buildInfoXML;
+                }
+                for (String status : statuses) {
+                    if (FAILED_ANALYSIS_STATUSES.contains(status)) {
+                        ps.println("The scan will not complete.");
+                        return null;
+                    }
+                }
+            }
+            if (System.currentTimeMillis() >= expirationTime) {
+                ps.println("Timeout waiting for the scan to complete.");
+                return null;
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(POLL_INTERVAL_SECONDS));
+        }
+    }
+
+    // the policy compliance status is evaluated from the results published so far
+    private static boolean isPolicyFailed(String buildInfoXML) {
+        try {
+            return Constant.DID_NOT_PASSED
+                    .equalsIgnoreCase(XmlUtil.parsePolicyComplianceStatus(buildInfoXML));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Sets the build result if the step can fail the job
+    private void fail(Run<?, ?> run, Result result) throws AbortException {
+        if (canFailJob) {
+            run.setResult(result);
+            if (result == Result.FAILURE) {
+                throw new AbortException();
+            }
+        }
+    }
+
+    /**
+     * Returns the
+     * {@link com.veracode.jenkins.plugin.VeracodeAwaitResultsPipelineRecorder.PipelineDescriptorImpl}
+     * object associated with this instance.
+     *
+     */
+    @Override
+    public PipelineDescriptorImpl getDescriptor() {
+        return (PipelineDescriptorImpl) super.getDescriptor();
+    }
+
+    @Symbol("veracodeAwaitResults")
+    @Extension
+    public static final class PipelineDescriptorImpl extends BuildStepDescriptor<Publisher> {
+        public static final String PostBuildActionDisplayText = "Wait for Veracode Scan Results Pipeline";
+
+        @Override
+        public boolean isApplicable(Class<? extends AbstractProject> jobType) {
+            return false;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return PostBuildActionDisplayText;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.veracode.jenkins.plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import com.veracode.jenkins.plugin.common.Constant;
+import com.veracode.jenkins.plugin.data.ApplicationScanResult;
+
+import hudson.model.Api;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+/**
+ * This class represents the aggregated results of the "veracodeMultiApp"
+ * Pipeline step on the build page, one row per application profile.
+ *
+ */
+@ExportedBean
+public class VeracodeMultiAppAction implements RunAction2 {
+
+    // The results in the order of the applications in the step
+    private final List<ApplicationScanResult> results;
+
+    // The Jenkins build containing this action
+    private transient Run<?, ?> build;
+
+    /**
+     * Constructor for VeracodeMultiAppAction.
+     *
+     * @param results a {@link java.util.List} object.
+     */
+    public VeracodeMultiAppAction(List<ApplicationScanResult> results) {
+        this.results = new ArrayList<>(results);
+    }
+
+    @Override
+    public String getIconFileName() {
+        return Constant.PLUGIN_ICONS_URI_PREFIX + Constant.VERACODE_ICON_24X24;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Veracode Applications";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "veracodeApps";
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> r) {
+        build = r;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> r) {
+        build = r;
+    }
+
+    public Run<?, ?> getBuild() {
+        return build;
+    }
+
+    @Exported
+    public List<ApplicationScanResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Returns the number of applications with the specified policy compliance
+     * status.
+     *
+     * @param policyComplianceStatus a {@link java.lang.String} object.
+     * @return a int.
+     */
+    public int getCount(String policyComplianceStatus) {
+        int count = 0;
+        for (ApplicationScanResult result : results) {
+            if (policyComplianceStatus.equalsIgnoreCase(result.getPolicyComplianceStatus())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of applications which were not scanned or whose scan
+     * results are not available.
+     *
+     * @return a int.
+     */
+    public int getUnavailableCount() {
+        int count = 0;
+        for (ApplicationScanResult result : results) {
+            if (!result.isScanResultsAvailable()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the API for this action.
+     *
+     * @return a {@link hudson.model.Api} object.
+     */
+    public Api getApi() {
+        return new Api(this);
+    }
+}
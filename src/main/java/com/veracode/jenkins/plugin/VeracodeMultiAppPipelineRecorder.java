@@ -0,0 +1,602 @@
+package com.veracode.jenkins.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.veracode.apiwrapper.cli.VeracodeCommand.VeracodeParser;
+import com.veracode.jenkins.plugin.VeracodeNotifier.VeracodeDescriptor;
+import com.veracode.jenkins.plugin.args.UploadAndScanArgs;
+import com.veracode.jenkins.plugin.common.Constant;
+import com.veracode.jenkins.plugin.data.ApplicationScanEntry;
+import com.veracode.jenkins.plugin.data.ApplicationScanResult;
+import com.veracode.jenkins.plugin.data.ProxyBlock;
+import com.veracode.jenkins.plugin.data.ScanHistory;
+import com.veracode.jenkins.plugin.utils.FileUtil;
+import com.veracode.jenkins.plugin.utils.RemoteScanUtil;
+import com.veracode.jenkins.plugin.utils.ScanAdmissionUtil;
+import com.veracode.jenkins.plugin.utils.StringUtil;
+import com.veracode.jenkins.plugin.utils.WaitExecutorUtil;
+import com.veracode.jenkins.plugin.utils.WrapperProvisioningUtil;
+import com.veracode.jenkins.plugin.utils.WrapperUtil;
+import com.veracode.jenkins.plugin.utils.XmlUtil;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Launcher.ProcStarter;
+import hudson.Proc;
+import hudson.model.AbstractProject;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.tasks.BuildStepDescriptor;
+import hudson.tasks.BuildStepMonitor;
+import hudson.tasks.Publisher;
+import hudson.tasks.Recorder;
+import hudson.util.ArgumentListBuilder;
+import jenkins.model.Jenkins;
+import jenkins.tasks.SimpleBuildStep;
+
+/**
+ * The VeracodeMultiAppPipelineRecorder class handles processing for
+ * "veracodeMultiApp" Pipeline script, which uploads and scans several
+ * application profiles of one workspace in parallel.
+ * <p>
+ * The credentials, the proxy settings and the application list are resolved
+ * once and shared by all the applications. The API wrapper is run for each
+ * application, at most {@link #maxConcurrency} at a time, in a new JVM on the
+ * agent of a remote workspace. For a local workspace, or when the files of a
+ * remote workspace are copied to the controller first, it runs in the JVM of
+ * the controller, one application at a time, as the API wrapper clients are not
+ * thread-safe. The output of each application is written to the build log line
+ * by line, prefixed with the application name. The results of all the
+ * applications are attached to the build as one
+ * {@link com.veracode.jenkins.plugin.VeracodeMultiAppAction}.
+ *
+ */
+public class VeracodeMultiAppPipelineRecorder extends Recorder implements SimpleBuildStep {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    // the API wrapper runs one scan at a time in the JVM of the controller
+    private static final ReentrantLock LOCAL_SCAN_LOCK = new ReentrantLock(true);
+
+    public final List<ApplicationScanEntry> applications;
+
+    public final String scanName;
+
+    @DataBoundSetter
+    public String criticality;
+
+    @DataBoundSetter
+    public boolean createProfile;
+
+    @DataBoundSetter
+    public String teams;
+
+    @DataBoundSetter
+    public boolean createSandbox;
+
+    @DataBoundSetter
+    public boolean waitForScan;
+
+    @DataBoundSetter
+    public Integer timeout;
+
+    @DataBoundSetter
+    public Integer maxConcurrency;
+
+    @DataBoundSetter
+    public boolean canFailJob;
+
+    @DataBoundSetter
+    public boolean unstableBuild;
+
+    @DataBoundSetter
+    public boolean copyRemoteFiles;
+
+    @DataBoundSetter
+    public boolean debug;
+
+    @DataBoundSetter
+    public String vid;
+
+    @DataBoundSetter
+    public String vkey;
+
+    @DataBoundSetter
+    public boolean useProxy;
+
+    @DataBoundSetter
+    public String pHost;
+
+    @DataBoundSetter
+    public String pPort;
+
+    @DataBoundSetter
+    public String pUser;
+
+    @DataBoundSetter
+    public String pPassword;
+
+    /**
+     * Constructor for VeracodeMultiAppPipelineRecorder.
+     *
+     * @param applications a {@link java.util.List} object - the application
+     *                     profiles to upload and scan.
+     * @param scanName     a {@link java.lang.String} object.
+     */
+    @DataBoundConstructor
+    public VeracodeMultiAppPipelineRecorder(List<ApplicationScanEntry> applications,
+            String scanName) {
+        this.applications = applications != null ? new ArrayList<>(applications)
+                : Collections.<ApplicationScanEntry>emptyList();
+        this.scanName = scanName;
+    }
+
+    /**
+     * Returns an object that represents the scope of the synchronization monitor
+     * expected by the plugin.
+     */
+    @Override
+    public BuildStepMonitor getRequiredMonitorService() {
+        return null;
+    }
+
+    /**
+     * Called by Jenkins after a build for a job specified to use the plugin is
+     * performed.
+     */
+    @Override
+    public void perform(Run<?, ?> run, FilePath workspace, Launcher launcher, TaskListener listener)
+            throws InterruptedException, IOException {
+
+        PrintStream ps = listener.getLogger();
+
+        ps.println("------------------------------------------------------------------------");
+        ps.println(PipelineDescriptorImpl.PostBuildActionDisplayText);
+        ps.println("------------------------------------------------------------------------");
+
+        if (applications.isEmpty()) {
+            ps.println("No application to scan.");
+            if (canFailJob) {
+                run.setResult(Result.FAILURE);
+                throw new AbortException();
+            }
+            return;
+        }
+
+        EnvVars envVars = run.getEnvironment(listener);
+        UploadAndScanArgs.setEnvVars(envVars, run.getDisplayName(),
+                run.getParent().getFullDisplayName());
+
+        // Resolve the credentials and proxy settings once for all the applications
+        VeracodeDescriptor globalDescriptor = (VeracodeDescriptor) Jenkins.get()
+                .getDescriptor(VeracodeNotifier.class);
+        boolean useGlobalCredentials = vid == null && vkey == null;
+        String rawId = useGlobalCredentials ? globalDescriptor.getGvid() : vid;
+        String rawKey = useGlobalCredentials ? globalDescriptor.getGvkey() : vkey;
+        final String id = StringUtil.isNullOrEmpty(rawId) ? rawId : envVars.expand(rawId);
+        final String key = StringUtil.isNullOrEmpty(rawKey) ? rawKey : envVars.expand(rawKey);
+
+        final ProxyBlock proxy;
+        if (useProxy) {
+            proxy = new ProxyBlock(pHost, pPort, pUser, pPassword);
+        } else if (globalDescriptor.getProxy()) {
+            proxy = new ProxyBlock(globalDescriptor.getPhost(), globalDescriptor.getPport(),
+                    globalDescriptor.getPuser(), globalDescriptor.getPpassword());
+        } else {
+            proxy = null;
+        }
+
+        SharedAppList appList = new SharedAppList(id, key, proxy);
+        try {
+            appList.refresh();
+        } catch (Exception e) {
+            ps.println("Failed to retrieve the application list: " + e.getMessage());
+            if (canFailJob) {
+                run.setResult(Result.FAILURE);
+                throw new AbortException();
+            }
+            return;
+        }
+
+        int concurrency = Math.min(applications.size(), getMaxConcurrency());
+        ps.println(String.format("Scanning %d application(s), %d at a time.",
+                applications.size(), concurrency));
+
+        List<ApplicationScanResult> results = new ArrayList<>();
+        // the scans mostly wait for the platform, so they run on virtual threads if
+        // available
+        ExecutorService executor = WaitExecutorUtil.newWaitExecutor(concurrency,
+                "Veracode multi-app scan");
+        try {
+            List<Future<ApplicationScanResult>> futures = new ArrayList<>();
+            for (int i = 0; i < applications.size(); i++) {
+                final ApplicationScanEntry entry = applications.get(i);
+                final int index = i;
+                futures.add(executor.submit(() -> scanApplication(run, workspace, listener,
+                        envVars, entry, index, id, key, proxy, appList, ps)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    ApplicationScanEntry entry = applications.get(i);
+                    results.add(new ApplicationScanResult(entry.getApplicationName(),
+                            entry.getSandboxName(), -1, String.valueOf(e.getCause())));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        run.addAction(new VeracodeMultiAppAction(results));
+
+        ps.println();
+        for (ApplicationScanResult result : results) {
+            ps.println(String.format("%s: %s", result.getApplicationName(),
+                    result.isScanResultsAvailable() ? result.getPolicyComplianceStatusForDisplay()
+                            : (result.getMessage() != null ? result.getMessage()
+                                    : "Returned code from wrapper: " + result.getReturnCode())));
+        }
+
+        if (canFailJob) {
+            for (ApplicationScanResult result : results) {
+                String complianceStatus = result.getPolicyComplianceStatus();
+                if (0 != result.getReturnCode()) {
+                    run.setResult(unstableBuild
+                            && Constant.DID_NOT_PASSED.equalsIgnoreCase(complianceStatus)
+                                    ? Result.UNSTABLE
+                                    : Result.FAILURE);
+                } else if (unstableBuild
+                        && Constant.CONDITIONAL_PASSED.equalsIgnoreCase(complianceStatus)) {
+                    run.setResult(Result.UNSTABLE);
+                }
+            }
+            if (run.getResult() == Result.FAILURE) {
+                throw new AbortException();
+            }
+        }
+    }
+
+    /**
+     * Uploads and scans one application profile and retrieves its scan results.
+     * The output of the API wrapper is written to the build log as it is logged,
+     * each line prefixed with the application name, so that the lines of the
+     * applications scanned in parallel can be told apart.
+     */
+    private ApplicationScanResult scanApplication(Run<?, ?> run, FilePath workspace,
+            TaskListener listener, EnvVars sharedEnvVars, ApplicationScanEntry entry, int index,
+            String id, String key, ProxyBlock proxy, SharedAppList appList, PrintStream log)
+            throws Exception {
+        EnvVars envVars = new EnvVars(sharedEnvVars);
+        String appName = envVars.expand(entry.getApplicationName());
+        String sandboxName = StringUtil.isNullOrEmpty(entry.getSandboxName())
+                ? entry.getSandboxName()
+                : envVars.expand(entry.getSandboxName());
+        String uploadIncludesPattern = envVars.expand(entry.getUploadIncludesPattern());
+        String uploadExcludesPattern = StringUtil.isNullOrEmpty(entry.getUploadExcludesPattern())
+                ? null
+                : envVars.expand(entry.getUploadExcludesPattern());
+
+        PrintStream ps = new PrintStream(new PrefixedLineOutputStream(log, appName), true,
+                StandardCharsets.UTF_8.name());
+        File localWorkspaceDir = null;
+        try {
+            if (StringUtil.isNullOrEmpty(appName)) {
+                return new ApplicationScanResult(appName, sandboxName, -1,
+                        "The application name is missing.");
+            }
+            if (!createProfile && !appList.contains(appName)) {
+                return new ApplicationScanResult(appName, sandboxName, -1,
+                        "The application profile does not exist.");
+            }
+
+            boolean scanFromRemote = workspace.isRemote() && !copyRemoteFiles;
+            String[] uploadAndScanFilePaths;
+            if (workspace.isRemote() && copyRemoteFiles) {
+                // the API wrapper runs on the controller
+                localWorkspaceDir = new File(run.getParent().getRootDir(),
+                        "temp-veracode-multiapp-" + run.getNumber() + "-" + index);
+                if (localWorkspaceDir.exists()) {
+                    FileUtil.deleteDirectory(localWorkspaceDir);
+                }
+                FilePath localWorkspace = new FilePath(localWorkspaceDir);
+                localWorkspace.mkdirs();
+                workspace.copyRecursiveTo(uploadIncludesPattern, uploadExcludesPattern,
+                        localWorkspace);
+                uploadAndScanFilePaths = FileUtil.getStringFilePaths(localWorkspace.list("**"));
+            } else {
+                uploadAndScanFilePaths = FileUtil.getStringFilePaths(
+                        workspace.list(uploadIncludesPattern, uploadExcludesPattern));
+            }
+            if (uploadAndScanFilePaths.length == 0) {
+                return new ApplicationScanResult(appName, sandboxName, -1,
+                        "No file matches the upload patterns.");
+            }
+
+            Integer scanTimeout = getTimeout();
+            // the credentials and proxy settings of these arguments are also used to
+            // check the profile on the platform before the scan is admitted
+            UploadAndScanArgs uploadAndScanArguments = newUploadAndScanArgs(false, run,
+                    workspace, envVars, entry, appName, sandboxName, id, key, proxy,
+                    uploadAndScanFilePaths);
+
+            int retCode;
+            ScanAdmissionUtil.Admission admission = ScanAdmissionUtil
+                    .admit(uploadAndScanArguments.getArguments(), ps);
+            try {
+                if (scanFromRemote) {
+                    // the API wrapper runs in a new JVM on the agent, with the
+                    // credentials and proxy settings in its environment
+                    UploadAndScanArgs remoteArguments = newUploadAndScanArgs(true, run,
+                            workspace, envVars, entry, appName, sandboxName, id, key, proxy,
+                            uploadAndScanFilePaths);
+                    retCode = runScanFromRemote(workspace, listener, envVars,
+                            remoteArguments.getArguments(), ps);
+                } else {
+                    if (!LOCAL_SCAN_LOCK.tryLock()) {
+                        ps.println("Waiting for the scan of another application to finish, "
+                                + "as the API wrapper runs one scan at a time in the controller.");
+                        LOCAL_SCAN_LOCK.lockInterruptibly();
+                    }
+                    try {
+                        VeracodeParser parser = new VeracodeParser();
+                        parser.setOutputWriter(ps);
+                        parser.setErrorWriter(ps);
+                        parser.throwExceptions(true);
+                        parser.setScanCompleteTimeout(
+                                scanTimeout != null ? scanTimeout.toString() : null);
+                        retCode = parser.parse(uploadAndScanArguments.getArguments());
+                    } finally {
+                        LOCAL_SCAN_LOCK.unlock();
+                    }
+                }
+            } catch (Exception e) {
+                return new ApplicationScanResult(appName, sandboxName, -1, e.getMessage());
+            } finally {
+                admission.release();
+            }
+
+            // Starting from 17.9.4.6, the Java wrapper returns code (4) when a scan
+            // did not pass policy compliance. Therefore, we need to generate the scan
+            // result for both return code 0 and 4.
+            if (null == scanTimeout || (0 != retCode && 4 != retCode)) {
+                return new ApplicationScanResult(appName, sandboxName, retCode, (String) null);
+            }
+            try {
+                String buildInfoXML = WrapperUtil.getBuildInfo(appName, sandboxName,
+                        appList.get(appName), id, key, proxy);
+                String buildId = XmlUtil.parseBuildId(buildInfoXML);
+                String summaryReportXML = WrapperUtil.getSummaryReport(buildId, id, key, proxy,
+                        XmlUtil.getResultsRevision(buildInfoXML));
+                ScanHistory scanHistory = XmlUtil.newScanHistoryFromSummaryReport(buildInfoXML,
+                        summaryReportXML, run);
+                return new ApplicationScanResult(appName, sandboxName, retCode, scanHistory);
+            } catch (Exception e) {
+                return new ApplicationScanResult(appName, sandboxName, retCode,
+                        "Failed to retrieve the scan results: " + e.getMessage());
+            }
+        } finally {
+            if (localWorkspaceDir != null && localWorkspaceDir.exists()) {
+                try {
+                    if (!FileUtil.deleteDirectory(localWorkspaceDir)) {
+                        ps.println("Failed to delete the temporary directory "
+                                + localWorkspaceDir);
+                    }
+                } catch (Exception e) {
+                    ps.println("Failed to delete the temporary directory " + localWorkspaceDir
+                            + ": " + e.getMessage());
+                }
+            }
+            ps.close();
+        }
+    }
+
+    private UploadAndScanArgs newUploadAndScanArgs(boolean bRemoteScan, Run<?, ?> run,
+            FilePath workspace, EnvVars envVars, ApplicationScanEntry entry, String appName,
+            String sandboxName, String id, String key, ProxyBlock proxy, String[] filePaths) {
+        Integer scanTimeout = getTimeout();
+        return UploadAndScanArgs.newUploadAndScanArgs(bRemoteScan, false, false, false,
+                createSandbox, createProfile, teams, proxy != null, id, key, run.getDisplayName(),
+                run.getParent().getFullDisplayName(), appName, sandboxName, scanName,
+                criticality, entry.getScanIncludesPattern(), entry.getScanExcludesPattern(), null,
+                null, proxy != null ? proxy.getPhost() : null,
+                proxy != null ? proxy.getPport() : null, proxy != null ? proxy.getPuser() : null,
+                proxy != null ? proxy.getPpassword() : null, workspace, envVars,
+                scanTimeout != null ? scanTimeout.toString() : "", null, debug, false, false,
+                filePaths);
+    }
+
+    /**
+     * Launches the API wrapper on the agent of a remote workspace, provisioning
+     * the wrapper first if needed.
+     *
+     * @return a int - the code returned by the API wrapper.
+     */
+    private int runScanFromRemote(FilePath workspace, TaskListener listener, EnvVars envVars,
+            String[] arguments, PrintStream ps) throws IOException, InterruptedException {
+        Computer comp = workspace.toComputer();
+        if (comp == null) {
+            throw new IOException("Cannot locate the remote workspace.");
+        }
+        Node node = comp.getNode();
+        if (node == null) {
+            throw new IOException("Cannot locate the remote node.");
+        }
+        if (!WrapperProvisioningUtil.isProvisioned(node)
+                && !WrapperProvisioningUtil.provision(node, ps, debug)) {
+            throw new IOException("Could not copy Veracode libs");
+        }
+        FilePath remoteVeracodeFilePath = RemoteScanUtil.getRemoteVeracodePath(node);
+        if (remoteVeracodeFilePath == null) {
+            throw new IOException("Cannot retrieve the remote file path.");
+        }
+        Boolean isUnix = comp.isUnix();
+        if (isUnix == null) {
+            throw new IOException("Failed to determine the OS.");
+        }
+
+        String jarPath = remoteVeracodeFilePath.getRemote()
+                + RemoteScanUtil.getPathSeparator(workspace.getRemote()) + Constant.execJarFile
+                + ".jar";
+        ArgumentListBuilder command = RemoteScanUtil.addArgumentsToCommand(jarPath, arguments,
+                isUnix);
+
+        Launcher launcher = node.createLauncher(listener);
+        ProcStarter procStart = launcher.new ProcStarter();
+        procStart = procStart.pwd(workspace).cmds(command).envs(envVars).stdout(ps)
+                .quiet(!debug);
+        Proc proc = launcher.launch(procStart);
+        return proc.join();
+    }
+
+    private int getMaxConcurrency() {
+        return maxConcurrency != null && maxConcurrency > 0 ? maxConcurrency
+                : DEFAULT_MAX_CONCURRENCY;
+    }
+
+    private Integer getTimeout() {
+        return waitForScan && timeout != null && timeout > 0 ? timeout : null;
+    }
+
+    /**
+     * Returns the
+     * {@link com.veracode.jenkins.plugin.VeracodeMultiAppPipelineRecorder.PipelineDescriptorImpl}
+     * object associated with this instance.
+     *
+     */
+    @Override
+    public PipelineDescriptorImpl getDescriptor() {
+        return (PipelineDescriptorImpl) super.getDescriptor();
+    }
+
+    @Symbol("veracodeMultiApp")
+    @Extension
+    public static final class PipelineDescriptorImpl extends BuildStepDescriptor<Publisher> {
+        public static final String PostBuildActionDisplayText = "Upload and Scan Multiple Applications with Veracode Pipeline";
+
+        @Override
+        public boolean isApplicable(Class<? extends AbstractProject> jobType) {
+            return false;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return PostBuildActionDisplayText;
+        }
+    }
+
+    /**
+     * An output stream which writes each line to the build log, prefixed with the
+     * name of the application. A line is written at once, so that the lines of the
+     * applications scanned in parallel are not mixed up.
+     */
+    private static final class PrefixedLineOutputStream extends OutputStream {
+
+        // longer lines are written in several parts
+        private static final int MAX_LINE_LENGTH = 8192;
+
+        private final PrintStream log;
+        private final String prefix;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        private PrefixedLineOutputStream(PrintStream log, String appName) {
+            this.log = log;
+            this.prefix = "[" + StringUtil.getEmptyIfNull(appName) + "] ";
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            if (b == '\n') {
+                writeLine();
+            } else {
+                line.write(b);
+                if (line.size() >= MAX_LINE_LENGTH) {
+                    writeLine();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (line.size() > 0) {
+                writeLine();
+            }
+            log.flush();
+        }
+
+        private void writeLine() {
+            String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+            line.reset();
+            if (text.endsWith("\r")) {
+                text = text.substring(0, text.length() - 1);
+            }
+            synchronized (log) {
+                log.println(prefix + text);
+            }
+        }
+    }
+
+    /**
+     * The application list shared by the applications of the step. It is
+     * retrieved again when an application is not found, as the application
+     * profiles created by the scans are not in the initial list.
+     */
+    private static final class SharedAppList {
+
+        private final String id;
+        private final String key;
+        private final ProxyBlock proxy;
+
+        private String appListXml;
+
+        private SharedAppList(String id, String key, ProxyBlock proxy) {
+            this.id = id;
+            this.key = key;
+            this.proxy = proxy;
+        }
+
+        private synchronized void refresh() throws Exception {
+            appListXml = WrapperUtil.getAppList(id, key, proxy);
+        }
+
+        private synchronized boolean contains(String appName) throws Exception {
+            return !StringUtil.isNullOrEmpty(XmlUtil.parseAppId(appName, appListXml));
+        }
+
+        private synchronized String get(String appName) throws Exception {
+            if (!contains(appName)) {
+                refresh();
+            }
+            return appListXml;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Map;
 
@@ -21,11 +22,19 @@ import com.veracode.jenkins.plugin.common.Constant;
 import com.veracode.jenkins.plugin.data.CredentialsBlock;
 import com.veracode.jenkins.plugin.data.ProxyBlock;
 import com.veracode.jenkins.plugin.data.ScanHistory;
+import com.veracode.jenkins.plugin.utils.ArchiveUtil;
 import com.veracode.jenkins.plugin.utils.EncryptionUtil;
 import com.veracode.jenkins.plugin.utils.FileUtil;
+import com.veracode.jenkins.plugin.utils.FlawIndexUtil;
 import com.veracode.jenkins.plugin.utils.FormValidationUtil;
 import com.veracode.jenkins.plugin.utils.RemoteScanUtil;
+import com.veracode.jenkins.plugin.utils.SarifUtil;
+import com.veracode.jenkins.plugin.utils.ScanAdmissionUtil;
 import com.veracode.jenkins.plugin.utils.StringUtil;
+import com.veracode.jenkins.plugin.utils.WorkspaceMirrorUtil;
+import com.veracode.jenkins.plugin.utils.WrapperDaemonUtil;
+import com.veracode.jenkins.plugin.utils.WrapperOutputUtil;
+import com.veracode.jenkins.plugin.utils.WrapperProvisioningUtil;
 import com.veracode.jenkins.plugin.utils.WrapperUtil;
 import com.veracode.jenkins.plugin.utils.XmlUtil;
 
@@ -41,6 +50,7 @@ import hudson.model.AbstractProject;
 import hudson.model.BuildListener;
 import hudson.model.Computer;
 import hudson.model.Node;
+import hudson.remoting.VirtualChannel;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Notifier;
@@ -48,6 +58,7 @@ import hudson.tasks.Publisher;
 import hudson.util.ArgumentListBuilder;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
+import hudson.util.StreamTaskListener;
 import net.sf.json.JSONObject;
 
 /**
@@ -103,6 +114,13 @@ public class VeracodeNotifier extends Notifier {
         private boolean failbuild = true;
         private boolean unstablebuild = true;
         private boolean copyremotefiles;
+        private String mirrorquota;
+        private boolean packagefiles;
+        private String packagemaxsize;
+        private boolean inprocessscan;
+        private String agentmaxjobs;
+        private boolean sarifreport;
+        private boolean summaryreport;
         private boolean autoappname;
         private boolean autodescription;
         private boolean autoversion;
@@ -144,6 +162,34 @@ public class VeracodeNotifier extends Notifier {
             return copyremotefiles;
         }
 
+        public String getMirrorquota() {
+            return mirrorquota;
+        }
+
+        public boolean getPackagefiles() {
+            return packagefiles;
+        }
+
+        public String getPackagemaxsize() {
+            return packagemaxsize;
+        }
+
+        public boolean getInprocessscan() {
+            return inprocessscan;
+        }
+
+        public String getAgentmaxjobs() {
+            return agentmaxjobs;
+        }
+
+        public boolean getSarifreport() {
+            return sarifreport;
+        }
+
+        public boolean getSummaryreport() {
+            return summaryreport;
+        }
+
         public boolean getAutoappname() {
             return autoappname;
         }
@@ -303,6 +349,21 @@ public class VeracodeNotifier extends Notifier {
             return FormValidation.ok();
         }
 
+        public FormValidation doCheckPackagemaxsize(
+                @QueryParameter("packagemaxsize") String packagemaxsize) {
+            return checkPositiveNumber(packagemaxsize);
+        }
+
+        public FormValidation doCheckMirrorquota(
+                @QueryParameter("mirrorquota") String mirrorquota) {
+            return checkPositiveNumber(mirrorquota);
+        }
+
+        public FormValidation doCheckAgentmaxjobs(
+                @QueryParameter("agentmaxjobs") String agentmaxjobs) {
+            return checkPositiveNumber(agentmaxjobs);
+        }
+
         public ListBoxModel doFillCriticalityItems(
                 @QueryParameter("criticality") String criticality) {
             ListBoxModel items = new ListBoxModel();
@@ -414,6 +475,16 @@ public class VeracodeNotifier extends Notifier {
             failbuild = formData.getBoolean("failbuild");
             unstablebuild = formData.getBoolean("unstablebuild");
             copyremotefiles = formData.getBoolean("copyremotefiles");
+            mirrorquota = formData.optString("mirrorquota", null);
+
+            // the "packagefiles" optionalBlock in global.jelly uses inline=true, allowing
+            // direct access to fields
+            packagefiles = formData.getBoolean("packagefiles");
+            packagemaxsize = formData.optString("packagemaxsize", null);
+            inprocessscan = formData.optBoolean("inprocessscan");
+            agentmaxjobs = formData.optString("agentmaxjobs", null);
+            sarifreport = formData.optBoolean("sarifreport");
+            summaryreport = formData.optBoolean("summaryreport");
             autoappname = formData.getBoolean("autoappname");
             autodescription = formData.getBoolean("autodescription");
             autoversion = formData.getBoolean("autoversion");
@@ -449,6 +520,26 @@ public class VeracodeNotifier extends Notifier {
             req.getSubmittedForm().put("phost", phost);
         }
 
+        /**
+         * Checks that the specified optional value is a positive number.
+         *
+         * @param value String
+         * @return FormValidation
+         */
+        private FormValidation checkPositiveNumber(String value) {
+            if (!StringUtil.isNullOrEmpty(value)) {
+                try {
+                    if (Integer.parseInt(value.trim()) <= 0) {
+                        return FormValidation
+                                .error(String.format("%s is not a positive number.", value));
+                    }
+                } catch (NumberFormatException nfe) {
+                    return FormValidation.error(String.format("%s is not a valid number.", value));
+                }
+            }
+            return FormValidation.ok();
+        }
+
         /**
          * Checks to see if the id and key fields are empty despite having valid
          * information in the global settings page
@@ -639,62 +730,19 @@ public class VeracodeNotifier extends Notifier {
         // only copy if remote workspace and the checkbox to copy from remote to master
         // is unchecked
         if (isRemoteWorkspace && !copyRemoteFiles) {
-            try {
-                FilePath localWorkspaceFilePath = FileUtil.getLocalWorkspaceFilepath();
-                FilePath remoteVeracodeFilePath = RemoteScanUtil.getRemoteVeracodePath(build);
-                // create the directory (where we want to copy the javawrapper jar) if it does
-                // not exist
-
-                if (!remoteVeracodeFilePath.exists()) {
-
-                    if (debug) {
-                        ps.println("Making remote dir");
-                    }
-
-                    remoteVeracodeFilePath.mkdirs();
-                }
-
-                FilePath[] files = remoteVeracodeFilePath.list(Constant.inclusive);
-
-                // copy the jar if it does not exist
-                if (files.length == 0) {
-                    bRet = FileUtil.copyJarFiles(build, localWorkspaceFilePath,
-                            remoteVeracodeFilePath, ps);
-                } else { // if file exits
-
-                    FilePath[] newfiles = localWorkspaceFilePath.list(Constant.inclusive);
-                    String newjarName = newfiles[0].getRemote();
-                    int newVersion = RemoteScanUtil.getJarVersion(newjarName);
-                    String oldjarName = files[0].getRemote();
-                    int oldVersion = RemoteScanUtil.getJarVersion(oldjarName);
-
-                    // also copy the jar if there is a newer version in the plugin directory and
-                    // delete the old one
-                    if (newVersion > oldVersion) {
-                        if (debug) {
-                            ps.println(
-                                    "Newer veracode library version, copying it to remote machine");
-                        }
+            Node node = build.getBuiltOn();
+            if (node == null) {
+                ps.print("\r\n\r\nFailed to locate the build node.\r\n");
+                return !getDescriptor().getFailbuild();
+            }
 
-                        remoteVeracodeFilePath.deleteContents();
-                        bRet = FileUtil.copyJarFiles(build, localWorkspaceFilePath,
-                                remoteVeracodeFilePath, ps);
-                    } else // just make sure we have our jarfile (defensive coding)
-                    {
-                        String jarName = files[0].getRemote();
-                        String newJarName = jarName.replaceAll(Constant.regex,
-                                Constant.execJarFile + "$2");
-                        Node node = build.getBuiltOn();
-                        if (node == null) {
-                            ps.print("\r\n\r\nFailed to locate the build node.\r\n");
-                            return !getDescriptor().getFailbuild();
-                        }
-                        FilePath newjarFilePath = new FilePath(node.getChannel(), newJarName);
+            // the wrapper is usually provisioned when the node comes online
+            if (WrapperProvisioningUtil.isProvisioned(node)) {
+                return true;
+            }
 
-                        if (newjarFilePath.exists())
-                            bRet = true;
-                    }
-                }
+            try {
+                bRet = WrapperProvisioningUtil.provision(node, ps, debug);
             } catch (Exception ex) {
                 ex.printStackTrace();
                 if (getDescriptor().getFailbuild()) {
@@ -775,8 +823,13 @@ public class VeracodeNotifier extends Notifier {
             listener.hyperlink("file://" + workspaceDir, workspaceDir);
         }
 
+        boolean packageFiles = getDescriptor().getPackagefiles();
+        long maxArchiveSize = ArchiveUtil.getMaxArchiveSizeBytes(getDescriptor().getPackagemaxsize());
+
         String[] uploadAndScanFilePaths = null;
         File localWorkspaceDir = null;
+        FilePath archiveDir = null;
+        boolean mirrorLocked = false;
 
         try {
             if (isRemoteWorkspace) {
@@ -796,8 +849,13 @@ public class VeracodeNotifier extends Notifier {
                 }
 
                 if (copyRemoteFiles) {
-                    localWorkspaceDir = new File(build.getParent().getRootDir(),
-                            "temp-veracode-local-workspace");
+                    // archives are recreated on every build and only need a temporary
+                    // directory, the files themselves are kept in a per-job mirror so that
+                    // only the changed files are copied
+                    localWorkspaceDir = packageFiles
+                            ? new File(build.getParent().getRootDir(),
+                                    "temp-veracode-local-workspace")
+                            : WorkspaceMirrorUtil.getMirrorDir(build.getParent().getRootDir());
 
                     if (debug) {
                         ps.print(
@@ -807,23 +865,43 @@ public class VeracodeNotifier extends Notifier {
                     }
 
                     try {
-                        if (localWorkspaceDir.exists()) {
-                            FileUtil.deleteDirectory(localWorkspaceDir);
-                        }
+                        if (packageFiles) {
+                            if (localWorkspaceDir.exists()) {
+                                FileUtil.deleteDirectory(localWorkspaceDir);
+                            }
 
-                        boolean dirCreated = localWorkspaceDir.mkdir();
-                        if (!dirCreated) {
-                            ps.print("\r\n\r\nFailed to create temporary local workspace.\r\n");
-                            return !getDescriptor().getFailbuild();
+                            boolean dirCreated = localWorkspaceDir.mkdir();
+                            if (!dirCreated) {
+                                ps.print("\r\n\r\nFailed to create temporary local workspace.\r\n");
+                                return !getDescriptor().getFailbuild();
+                            }
+                            FilePath localWorkspaceFilePath = new FilePath(localWorkspaceDir);
+
+                            // package the files on the remote machine and only copy the archives
+                            archiveDir = ArchiveUtil.getArchiveDir(workspace);
+                            String[] archives = ArchiveUtil.packageFiles(workspace,
+                                    uploadincludePattern, uploadexcludePattern, archiveDir,
+                                    maxArchiveSize);
+                            if (debug) {
+                                ps.print(String.format(
+                                        "%n%nPackaged the upload files into %d archive(s).%n",
+                                        archives.length));
+                            }
+                            archiveDir.copyRecursiveTo("*" + ArchiveUtil.ARCHIVE_FILE_EXTENSION,
+                                    localWorkspaceFilePath);
+                            uploadAndScanFilePaths = FileUtil.getStringFilePaths(localWorkspaceFilePath
+                                    .list("*" + ArchiveUtil.ARCHIVE_FILE_EXTENSION));
+                        } else {
+                            WorkspaceMirrorUtil.lockMirror(localWorkspaceDir, ps);
+                            mirrorLocked = true;
+                            uploadAndScanFilePaths = WorkspaceMirrorUtil.syncMirror(workspace,
+                                    uploadincludePattern, uploadexcludePattern, localWorkspaceDir,
+                                    ps, debug);
+                            WorkspaceMirrorUtil.enforceQuota(localWorkspaceDir,
+                                    WorkspaceMirrorUtil.getMirrorQuotaBytes(
+                                            getDescriptor().getMirrorquota()),
+                                    ps);
                         }
-                        FilePath localWorkspaceFilePath = new FilePath(localWorkspaceDir);
-                        workspace.copyRecursiveTo(uploadincludePattern, uploadexcludePattern,
-                                localWorkspaceFilePath);
-
-                        // obtain the String file paths, using the includes/excludes patterns a 2nd
-                        // time
-                        uploadAndScanFilePaths = FileUtil.getStringFilePaths(localWorkspaceFilePath
-                                .list(uploadincludePattern, uploadexcludePattern));
                     } catch (Exception e) {
                         String msg = e.getMessage();
                         ps.print("\r\n\r\nFailed to copy remote files to the [local] workspace:\r\n"
@@ -835,6 +913,14 @@ public class VeracodeNotifier extends Notifier {
                     // let us scan from remote workspace
                     return runScanFromRemote(build, listener, ps, debug);
                 }
+            } else if (packageFiles) {
+                archiveDir = ArchiveUtil.getArchiveDir(workspace);
+                uploadAndScanFilePaths = ArchiveUtil.packageFiles(workspace, uploadincludePattern,
+                        uploadexcludePattern, archiveDir, maxArchiveSize);
+                if (debug) {
+                    ps.print(String.format("%n%nPackaged the upload files into %d archive(s).%n",
+                            uploadAndScanFilePaths.length));
+                }
             } else {
                 uploadAndScanFilePaths = FileUtil.getStringFilePaths(
                         workspace.list(uploadincludePattern, uploadexcludePattern));
@@ -854,19 +940,33 @@ public class VeracodeNotifier extends Notifier {
             }
 
             try {
+                // the IDs of the started scan are read from the output of the API wrapper
+                WrapperOutputUtil.ScanIdCapture wrapperOutput = new WrapperOutputUtil.ScanIdCapture(
+                        ps);
+                PrintStream wrapperPs = new PrintStream(wrapperOutput, true,
+                        StandardCharsets.UTF_8.name());
                 VeracodeParser parser = new VeracodeParser();
-                parser.setOutputWriter(ps);
-                parser.setErrorWriter(ps);
+                parser.setOutputWriter(wrapperPs);
+                parser.setErrorWriter(wrapperPs);
                 parser.throwExceptions(true);
                 parser.setScanCompleteTimeout(this.getTimeout());
-                int retcode = parser.parse(uploadAndScanArguments.getArguments());
+                int retcode;
+                ScanAdmissionUtil.Admission admission = ScanAdmissionUtil
+                        .admit(uploadAndScanArguments.getArguments(), ps);
+                try {
+                    retcode = parser.parse(uploadAndScanArguments.getArguments());
+                } finally {
+                    admission.release();
+                    wrapperPs.close();
+                }
                 try {
                     // Starting from 17.9.4.6, the Java wrapper returns code (4) when a scan
                     // did not pass policy compliance. Therefore, we need to generate the scan
                     // result for both return code 0 and 4.
                     if (this.getWaitForScan()) {
                         if (4 == retcode || 0 == retcode) {
-                            getScanResults(build, listener);
+                            getScanResults(build, listener, wrapperOutput.getAppId(),
+                                    wrapperOutput.getBuildId());
                         } else {
                             build.addAction(new VeracodeAction());
                         }
@@ -912,13 +1012,19 @@ public class VeracodeNotifier extends Notifier {
             return true;
         } finally {
             if (isRemoteWorkspace && copyRemoteFiles) {
-                try {
-                    if (localWorkspaceDir != null && localWorkspaceDir.exists()) {
-                        FileUtil.deleteDirectory(localWorkspaceDir);
+                if (mirrorLocked) {
+                    // the mirror is kept for the next build
+                    WorkspaceMirrorUtil.unlockMirror(localWorkspaceDir);
+                } else if (packageFiles) {
+                    try {
+                        if (localWorkspaceDir != null && localWorkspaceDir.exists()) {
+                            FileUtil.deleteDirectory(localWorkspaceDir);
+                        }
+                    } catch (Throwable e) {
                     }
-                } catch (Throwable e) {
                 }
             }
+            ArchiveUtil.cleanUpArchives(archiveDir);
         }
     }
 
@@ -1020,42 +1126,87 @@ public class VeracodeNotifier extends Notifier {
         String sep = RemoteScanUtil.getPathSeparator(remoteworkspace);
         FilePath remoteworkspaceFilePath = new FilePath(node.getChannel(), remoteworkspace);
 
+        FilePath archiveDir = null;
+        ScanAdmissionUtil.Admission admission = null;
+
         // obtain the String file paths, using the includes/excludes patterns a 2nd time
         try {
-            String[] uploadAndScanFilePaths = FileUtil.getStringFilePaths(
-                    remoteworkspaceFilePath.list(uploadincludePattern, uploadexcludePattern));
-            UploadAndScanArgs uploadAndScanArguments = UploadAndScanArgs.newUploadAndScanArgs(this,
-                    build, envVars, uploadAndScanFilePaths, true);
+            String[] uploadAndScanFilePaths;
+            if (getDescriptor().getPackagefiles()) {
+                archiveDir = ArchiveUtil.getArchiveDir(remoteworkspaceFilePath);
+                uploadAndScanFilePaths = ArchiveUtil.packageFiles(remoteworkspaceFilePath,
+                        uploadincludePattern, uploadexcludePattern, archiveDir,
+                        ArchiveUtil.getMaxArchiveSizeBytes(getDescriptor().getPackagemaxsize()));
+                if (bDebug) {
+                    ps.print(String.format("%n%nPackaged the upload files into %d archive(s).%n",
+                            uploadAndScanFilePaths.length));
+                }
+            } else {
+                uploadAndScanFilePaths = FileUtil.getStringFilePaths(
+                        remoteworkspaceFilePath.list(uploadincludePattern, uploadexcludePattern));
+            }
 
             String jarPath = jarFilePath + sep + Constant.execJarFile + ".jar";
 
-            Computer computer = node.toComputer();
-            if (computer == null) {
-                ps.print("\r\n\r\nFailed to determine the computer.\r\n");
-                return !getDescriptor().getFailbuild();
+            // the credentials and proxy settings are passed as arguments, as the
+            // environment of the remote node's JVM cannot be changed
+            UploadAndScanArgs inProcessArguments = UploadAndScanArgs.newUploadAndScanArgs(this,
+                    build, envVars, uploadAndScanFilePaths, false);
+            admission = ScanAdmissionUtil.admit(inProcessArguments.getArguments(), ps);
+
+            // the IDs of the started scan are read from the output of the API wrapper
+            WrapperOutputUtil.ScanIdCapture wrapperOutput = new WrapperOutputUtil.ScanIdCapture(ps);
+            Integer retcode = null;
+            if (getDescriptor().getInprocessscan()) {
+                VirtualChannel channel = node.getChannel();
+                if (channel == null) {
+                    ps.print("\r\n\r\nFailed to connect to the build node.\r\n");
+                    return !getDescriptor().getFailbuild();
+                }
+                retcode = WrapperDaemonUtil.runJob(channel, jarPath,
+                        inProcessArguments.getArguments(), this.getTimeout(),
+                        WrapperDaemonUtil.getMaxConcurrentJobs(getDescriptor().getAgentmaxjobs()),
+                        new StreamTaskListener(wrapperOutput, StandardCharsets.UTF_8), bDebug);
+                if (retcode == null) {
+                    ps.print("\nLaunching a new JVM for the Veracode API wrapper instead.\n");
+                }
             }
 
-            Boolean isUnix = computer.isUnix();
-            if (isUnix == null) {
-                ps.print("\r\n\r\nFailed to determine the OS.\r\n");
-                return !getDescriptor().getFailbuild();
-            }
+            if (retcode == null) {
+                UploadAndScanArgs uploadAndScanArguments = UploadAndScanArgs.newUploadAndScanArgs(this,
+                        build, envVars, uploadAndScanFilePaths, true);
 
-            // Construct UploadAndScan command using the given args
-            ArgumentListBuilder command = RemoteScanUtil.addArgumentsToCommand(jarPath,
-                    uploadAndScanArguments.getArguments(), isUnix);
+                Computer computer = node.toComputer();
+                if (computer == null) {
+                    ps.print("\r\n\r\nFailed to determine the computer.\r\n");
+                    return !getDescriptor().getFailbuild();
+                }
 
-            Launcher launcher = node.createLauncher(listener);
-            ProcStarter procStart = launcher.new ProcStarter();
-            procStart = procStart.pwd(workspace).cmds(command).envs(envVars).stdout(listener).quiet(true);
+                Boolean isUnix = computer.isUnix();
+                if (isUnix == null) {
+                    ps.print("\r\n\r\nFailed to determine the OS.\r\n");
+                    return !getDescriptor().getFailbuild();
+                }
 
-            if (bDebug) {
-                procStart.quiet(false);
-                ps.print("\nInvoking the following command in remote workspace:\n");
-            }
+                // Construct UploadAndScan command using the given args
+                ArgumentListBuilder command = RemoteScanUtil.addArgumentsToCommand(jarPath,
+                        uploadAndScanArguments.getArguments(), isUnix);
+
+                Launcher launcher = node.createLauncher(listener);
+                ProcStarter procStart = launcher.new ProcStarter();
+                procStart = procStart.pwd(workspace).cmds(command).envs(envVars).stdout(wrapperOutput)
+                        .quiet(true);
+
+                if (bDebug) {
+                    procStart.quiet(false);
+                    ps.print("\nInvoking the following command in remote workspace:\n");
+                }
 
-            Proc proc = launcher.launch(procStart);
-            int retcode = proc.join();
+                Proc proc = launcher.launch(procStart);
+                retcode = proc.join();
+            }
+            wrapperOutput.close();
+            admission.release();
             if (retcode != 0 && getDescriptor().getFailbuild()) {
                 ps.print("\r\n\r\nError- Returned code from wrapper:" + retcode + "\r\n\n");
             } else {
@@ -1068,7 +1219,8 @@ public class VeracodeNotifier extends Notifier {
                 // result for both return code 0 and 4.
                 if (this.getWaitForScan()) {
                     if (4 == retcode || 0 == retcode) {
-                        getScanResults(build, listener);
+                        getScanResults(build, listener, wrapperOutput.getAppId(),
+                                wrapperOutput.getBuildId());
                     } else {
                         build.addAction(new VeracodeAction());
                     }
@@ -1085,21 +1237,32 @@ public class VeracodeNotifier extends Notifier {
             if (getDescriptor().getFailbuild()) {
                 ps.print(ex.getMessage());
             }
+        } finally {
+            if (admission != null) {
+                admission.release();
+            }
+            ArchiveUtil.cleanUpArchives(archiveDir);
         }
         return bRet;
     }
 
     /**
-     * Constructs the scan result from Detailed Report.
+     * Constructs the scan result from Detailed Report. The results are retrieved
+     * for the build logged by the API wrapper, or else for the latest build of
+     * the application or sandbox.
      *
      * @param build    a {@link hudson.model.AbstractBuild} object - the current
      *                 Jenkins build.
      * @param listener a {@link hudson.model.BuildListener} object - listener of
      *                 this task.
+     * @param appId    a {@link java.lang.String} object - the application ID
+     *                 logged by the API wrapper, can be null.
+     * @param buildId  a {@link java.lang.String} object - the build ID of the new
+     *                 build logged by the API wrapper, can be null.
      * @throws java.lang.Exception when error happened during the operation.
      */
-    private void getScanResults(AbstractBuild<?, ?> build, BuildListener listener)
-            throws Exception {
+    private void getScanResults(AbstractBuild<?, ?> build, BuildListener listener, String appId,
+            String buildId) throws Exception {
         VeracodeDescriptor descriptor = getDescriptor();
         String id, key;
         if (getCredentials() == null) {
@@ -1141,11 +1304,36 @@ public class VeracodeNotifier extends Notifier {
         }
 
         try {
-            String buildInfoXML = WrapperUtil.getBuildInfo(appName, sandboxName, id, key, proxy);
-            String buildId = XmlUtil.parseBuildId(buildInfoXML);
-            String detailedReportXML = WrapperUtil.getDetailedReport(buildId, id, key, proxy);
-            ScanHistory scanHistory = XmlUtil.newScanHistory(buildInfoXML, detailedReportXML,
-                    build);
+            String buildInfoXML;
+            if (StringUtil.isNullOrEmpty(appId) || StringUtil.isNullOrEmpty(buildId)) {
+                VeracodePipelineRecorder.logMissingBuildId(listener.getLogger());
+                buildInfoXML = WrapperUtil.getBuildInfo(appName, sandboxName, id, key, proxy);
+                buildId = XmlUtil.parseBuildId(buildInfoXML);
+            } else {
+                buildInfoXML = WrapperUtil.getBuildInfoByAppIdBuildId(appId, buildId, id, key,
+                        proxy);
+            }
+            ScanHistory scanHistory;
+            // The detailed report is only needed for the flaw and SCA component details
+            if (descriptor.getSummaryreport() && !descriptor.getSarifreport()) {
+                String summaryReportXML = WrapperUtil.getSummaryReport(buildId, id, key, proxy,
+                        XmlUtil.getResultsRevision(buildInfoXML));
+                scanHistory = XmlUtil.newScanHistoryFromSummaryReport(buildInfoXML,
+                        summaryReportXML, build);
+            } else {
+                String detailedReportXML = WrapperUtil.getDetailedReport(buildId, id, key, proxy,
+                        XmlUtil.getResultsRevision(buildInfoXML));
+                scanHistory = XmlUtil.newScanHistory(buildInfoXML, detailedReportXML, build);
+                FlawIndexUtil.indexDetailedReport(build.getRootDir(), detailedReportXML, listener);
+                if (descriptor.getSarifreport()) {
+                    try {
+                        SarifUtil.archiveSarif(build, detailedReportXML, listener);
+                    } catch (Exception e) {
+                        listener.getLogger()
+                                .println("Failed to archive the SARIF report: " + e.getMessage());
+                    }
+                }
+            }
             Credentials credentials = Credentials.create(id, key);
             String xmlApiHost = credentials.getRegion().getXmlApiHost();
             build.addAction(new VeracodeAction(scanHistory, xmlApiHost));
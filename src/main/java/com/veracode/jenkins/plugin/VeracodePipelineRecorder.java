@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import org.jenkinsci.Symbol;
@@ -14,14 +15,23 @@ import org.kohsuke.stapler.QueryParameter;
 
 import com.veracode.apiwrapper.cli.VeracodeCommand.VeracodeParser;
 import com.veracode.http.Credentials;
+import com.veracode.jenkins.plugin.VeracodeNotifier.VeracodeDescriptor;
 import com.veracode.jenkins.plugin.args.UploadAndScanArgs;
 import com.veracode.jenkins.plugin.common.Constant;
 import com.veracode.jenkins.plugin.data.ProxyBlock;
 import com.veracode.jenkins.plugin.data.ScanHistory;
+import com.veracode.jenkins.plugin.utils.ArchiveUtil;
 import com.veracode.jenkins.plugin.utils.FileUtil;
+import com.veracode.jenkins.plugin.utils.FlawIndexUtil;
 import com.veracode.jenkins.plugin.utils.FormValidationUtil;
 import com.veracode.jenkins.plugin.utils.RemoteScanUtil;
+import com.veracode.jenkins.plugin.utils.SarifUtil;
+import com.veracode.jenkins.plugin.utils.ScanAdmissionUtil;
 import com.veracode.jenkins.plugin.utils.StringUtil;
+import com.veracode.jenkins.plugin.utils.WorkspaceMirrorUtil;
+import com.veracode.jenkins.plugin.utils.WrapperDaemonUtil;
+import com.veracode.jenkins.plugin.utils.WrapperOutputUtil;
+import com.veracode.jenkins.plugin.utils.WrapperProvisioningUtil;
 import com.veracode.jenkins.plugin.utils.WrapperUtil;
 import com.veracode.jenkins.plugin.utils.XmlUtil;
 import com.veracode.util.lang.StringUtility;
@@ -38,12 +48,15 @@ import hudson.model.Node;
 import hudson.model.Result;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Publisher;
 import hudson.tasks.Recorder;
 import hudson.util.ArgumentListBuilder;
 import hudson.util.ListBoxModel;
+import hudson.util.StreamTaskListener;
+import jenkins.model.Jenkins;
 import jenkins.tasks.SimpleBuildStep;
 
 /**
@@ -92,6 +105,23 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
     public final boolean scanallnonfataltoplevelmodules;
     @DataBoundSetter
     public final boolean includenewmodules;
+    // Packaging of the upload files into archives
+    @DataBoundSetter
+    public boolean packageFiles;
+    @DataBoundSetter
+    public Integer packageMaxSize;
+    // Running the wrapper in the JVM of the remote node
+    @DataBoundSetter
+    public boolean inProcessScan;
+    // Archiving the static flaws as a SARIF log
+    @DataBoundSetter
+    public boolean sarifReport;
+    // Building the scan results from the summary report
+    @DataBoundSetter
+    public boolean summaryReport;
+    // Ending the wait for the scan once it did not pass the policy
+    @DataBoundSetter
+    public boolean exitOnPolicyFailure;
     // Patterns
     @DataBoundSetter
     public final String uploadIncludesPattern;
@@ -122,10 +152,6 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
     @DataBoundSetter
     public final String pPassword;
 
-    private static String inclusive = "vosp-api-wrappers-java*.jar";
-    private static String execJarFile = "VeracodeJavaAPI";
-    private static String regex = "(vosp-api-wrappers).*?(.jar)";
-
     /**
      * Constructor for VeracodePipelineRecorder.
      *
@@ -211,6 +237,18 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
         this.deleteIncompleteScanLevel = deleteIncompleteScan != null ? deleteIncompleteScan.toString() : null;
     }
 
+    /**
+     * Returns the time the API wrapper waits for the scan to complete. The
+     * wrapper does not wait when the step polls the scan itself to end the wait
+     * once the scan did not pass the policy.
+     *
+     * @return a {@link java.lang.Integer} object - the time in minutes, null if
+     *         the wrapper does not wait.
+     */
+    public Integer getWrapperTimeout() {
+        return exitOnPolicyFailure ? null : timeout;
+    }
+
     /**
      * Returns an object that represents the scope of the synchronization monitor
      * expected by the plugin.
@@ -283,8 +321,13 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
             listener.hyperlink("file://" + workspaceDir, workspaceDir);
         }
 
+        long maxArchiveSize = ArchiveUtil.getMaxArchiveSizeBytes(
+                this.packageMaxSize != null ? this.packageMaxSize.toString() : null);
+
         String[] uploadAndScanFilePaths = null;
         File localWorkspaceDir = null;
+        FilePath archiveDir = null;
+        boolean mirrorLocked = false;
 
         try {
             if (isRemoteWorkspace) {
@@ -304,8 +347,13 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
                 }
 
                 if (this.copyRemoteFiles) {
-                    localWorkspaceDir = new File(run.getParent().getRootDir(),
-                            "temp-veracode-local-workspace");
+                    // archives are recreated on every build and only need a temporary
+                    // directory, the files themselves are kept in a per-job mirror so that
+                    // only the changed files are copied
+                    localWorkspaceDir = this.packageFiles
+                            ? new File(run.getParent().getRootDir(),
+                                    "temp-veracode-local-workspace")
+                            : WorkspaceMirrorUtil.getMirrorDir(run.getParent().getRootDir());
 
                     if (debug) {
                         ps.print(
@@ -315,25 +363,48 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
                     }
 
                     try {
-                        if (localWorkspaceDir.exists()) {
-                            FileUtil.deleteDirectory(localWorkspaceDir);
-                        }
-                        boolean dirCreated = localWorkspaceDir.mkdir();
-                        if (!dirCreated) {
-                            ps.print("\r\n\r\nFailed to create temporary local workspace.\r\n");
-                            if (this.canFailJob) {
-                                run.setResult(Result.FAILURE);
+                        if (this.packageFiles) {
+                            if (localWorkspaceDir.exists()) {
+                                FileUtil.deleteDirectory(localWorkspaceDir);
+                            }
+                            boolean dirCreated = localWorkspaceDir.mkdir();
+                            if (!dirCreated) {
+                                ps.print("\r\n\r\nFailed to create temporary local workspace.\r\n");
+                                if (this.canFailJob) {
+                                    run.setResult(Result.FAILURE);
+                                }
                             }
-                        }
-
-                        FilePath localWorkspaceFilePath = new FilePath(localWorkspaceDir);
-                        workspace.copyRecursiveTo(uploadincludePattern, uploadexcludePattern,
-                                localWorkspaceFilePath);
 
-                        // obtain the String file paths, using the includes/excludes patterns a 2nd
-                        // time
-                        uploadAndScanFilePaths = FileUtil.getStringFilePaths(localWorkspaceFilePath
-                                .list(uploadincludePattern, uploadexcludePattern));
+                            FilePath localWorkspaceFilePath = new FilePath(localWorkspaceDir);
+
+                            // package the files on the remote machine and only copy the archives
+                            archiveDir = ArchiveUtil.getArchiveDir(workspace);
+                            String[] archives = ArchiveUtil.packageFiles(workspace,
+                                    uploadincludePattern, uploadexcludePattern, archiveDir,
+                                    maxArchiveSize);
+                            if (debug) {
+                                ps.print(String.format(
+                                        "%n%nPackaged the upload files into %d archive(s).%n",
+                                        archives.length));
+                            }
+                            archiveDir.copyRecursiveTo("*" + ArchiveUtil.ARCHIVE_FILE_EXTENSION,
+                                    localWorkspaceFilePath);
+                            uploadAndScanFilePaths = FileUtil.getStringFilePaths(localWorkspaceFilePath
+                                    .list("*" + ArchiveUtil.ARCHIVE_FILE_EXTENSION));
+                        } else {
+                            VeracodeDescriptor globalDescriptor = (VeracodeDescriptor) Jenkins.get()
+                                    .getDescriptor(VeracodeNotifier.class);
+                            WorkspaceMirrorUtil.lockMirror(localWorkspaceDir, ps);
+                            mirrorLocked = true;
+                            uploadAndScanFilePaths = WorkspaceMirrorUtil.syncMirror(workspace,
+                                    uploadincludePattern, uploadexcludePattern, localWorkspaceDir,
+                                    ps, debug);
+                            WorkspaceMirrorUtil.enforceQuota(localWorkspaceDir,
+                                    WorkspaceMirrorUtil.getMirrorQuotaBytes(globalDescriptor != null
+                                            ? globalDescriptor.getMirrorquota()
+                                            : null),
+                                    ps);
+                        }
                     } catch (Exception e) {
                         String msg = e.getMessage();
                         ps.print("\r\n\r\nFailed to copy remote files to the [local] workspace:\r\n"
@@ -362,6 +433,14 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
 
                     return;
                 }
+            } else if (this.packageFiles) {
+                archiveDir = ArchiveUtil.getArchiveDir(workspace);
+                uploadAndScanFilePaths = ArchiveUtil.packageFiles(workspace, uploadincludePattern,
+                        uploadexcludePattern, archiveDir, maxArchiveSize);
+                if (debug) {
+                    ps.print(String.format("%n%nPackaged the upload files into %d archive(s).%n",
+                            uploadAndScanFilePaths.length));
+                }
             } else {
                 uploadAndScanFilePaths = FileUtil.getStringFilePaths(
                         workspace.list(uploadincludePattern, uploadexcludePattern));
@@ -394,20 +473,39 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
             }
 
             try {
+                // the IDs of the started scan are read from the output of the API wrapper
+                WrapperOutputUtil.ScanIdCapture wrapperOutput = new WrapperOutputUtil.ScanIdCapture(
+                        ps);
+                PrintStream wrapperPs = new PrintStream(wrapperOutput, true,
+                        StandardCharsets.UTF_8.name());
                 VeracodeParser parser = new VeracodeParser();
-                parser.setOutputWriter(ps);
-                parser.setErrorWriter(ps);
+                parser.setOutputWriter(wrapperPs);
+                parser.setErrorWriter(wrapperPs);
                 parser.throwExceptions(true);
                 parser.setScanCompleteTimeout(
-                        this.timeout != null ? this.timeout.toString() : null);
-                final int retCode = parser.parse(uploadAndScanArguments.getArguments());
+                        getWrapperTimeout() != null ? getWrapperTimeout().toString() : null);
+                int retCode;
+                ScanAdmissionUtil.Admission admission = ScanAdmissionUtil
+                        .admit(uploadAndScanArguments.getArguments(), ps);
+                try {
+                    retCode = parser.parse(uploadAndScanArguments.getArguments());
+                } finally {
+                    admission.release();
+                    wrapperPs.close();
+                }
+                onWrapperCompleted(run, listener, retCode, wrapperOutput.getAppId(),
+                        wrapperOutput.getBuildId());
                 try {
                     // Starting from 17.9.4.6, the Java wrapper returns code (4) when a scan
                     // did not pass policy compliance. Therefore, we need to generate the scan
                     // result for both return code 0 and 4.
                     if (null != this.timeout) {
-                        if (4 == retCode || 0 == retCode) {
-                            getScanResults(run, listener, autoApplicationName);
+                        if (this.exitOnPolicyFailure && 0 == retCode) {
+                            retCode = awaitScanResults(run, listener, autoApplicationName,
+                                    wrapperOutput.getAppId(), wrapperOutput.getBuildId());
+                        } else if (4 == retCode || 0 == retCode) {
+                            getScanResults(run, listener, autoApplicationName,
+                                    wrapperOutput.getAppId(), wrapperOutput.getBuildId());
                         } else {
                             run.addAction(new VeracodeAction());
                         }
@@ -451,13 +549,19 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
             return;
         } finally {
             if (isRemoteWorkspace && this.copyRemoteFiles) {
-                try {
-                    if (localWorkspaceDir != null && localWorkspaceDir.exists()) {
-                        FileUtil.deleteDirectory(localWorkspaceDir);
+                if (mirrorLocked) {
+                    // the mirror is kept for the next build
+                    WorkspaceMirrorUtil.unlockMirror(localWorkspaceDir);
+                } else if (this.packageFiles) {
+                    try {
+                        if (localWorkspaceDir != null && localWorkspaceDir.exists()) {
+                            FileUtil.deleteDirectory(localWorkspaceDir);
+                        }
+                    } catch (Exception e) {
                     }
-                } catch (Exception e) {
                 }
             }
+            ArchiveUtil.cleanUpArchives(archiveDir);
             if(run.getResult() == Result.FAILURE){
                 throw new AbortException();
             }
@@ -477,7 +581,7 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
 
     @Symbol("veracode")
     @hudson.Extension
-    public static final class PipelineDescriptorImpl extends BuildStepDescriptor<Publisher> {
+    public static class PipelineDescriptorImpl extends BuildStepDescriptor<Publisher> {
         public static final String PostBuildActionDisplayText = "Upload and Scan with Veracode Pipeline";
 
         private static final String[] deleteIncompleteScanLevels = new String[] {
@@ -504,42 +608,6 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
         }
     }
 
-    /**
-     * Copies the wrapper to the remote location.
-     *
-     * @param node   a {@link hudson.model.Node} object.
-     * @param local  a {@link hudson.FilePath} object.
-     * @param remote a {@link hudson.FilePath} object.
-     * @param ps     a {@link java.io.PrintStream} object.
-     * @return a boolean.
-     * @throws java.lang.Exception if any.
-     */
-    private boolean copyJarFiles(Node node, FilePath local, FilePath remote, PrintStream ps)
-            throws Exception {
-        boolean bRet = false;
-        try {
-            local.copyRecursiveTo(inclusive, null, remote);
-
-            // now make a copy of the jar as 'VeracodeJavaAPI.jar' as the name of the
-            // jarfile in the plugin
-            // will change depending on the wrapper version it has been built with
-
-            FilePath[] files = remote.list(inclusive);
-            String jarName = files[0].getRemote();
-            FilePath oldJar = new FilePath(node.getChannel(), jarName);
-            String newJarName = jarName.replaceAll(regex, execJarFile + "$2");
-            FilePath newjarFilePath = new FilePath(node.getChannel(), newJarName);
-            oldJar.copyToWithPermission(newjarFilePath);
-            bRet = true;
-        } catch (RuntimeException ex) {
-            if (this.canFailJob) {
-                ps.print("Failed to copy the veracode java-wrapper libaries\n");
-            }
-        }
-
-        return bRet;
-    }
-
     private boolean copyJarRemoteBuild(FilePath workspace, TaskListener listener) {
         boolean bRet = false;
         PrintStream ps = listener.getLogger();
@@ -557,53 +625,14 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
             if (node == null) {
                 throw new RuntimeException("Cannot locate the remote node.");
             }
-            try {
-                FilePath localWorkspaceFilePath = FileUtil.getLocalWorkspaceFilepath();
-                FilePath remoteVeracodeFilePath = RemoteScanUtil.getRemoteVeracodePath(node);
-                if (remoteVeracodeFilePath == null) {
-                    throw new RuntimeException("Cannot retrieve the remote file path.");
-                }
-                // create the directory (where we want to copy the javawrapper jar) if it does
-                // not exist
-                if (!remoteVeracodeFilePath.exists()) {
-                    if (debug)
-                        ps.println("Making remote dir");
-
-                    remoteVeracodeFilePath.mkdirs();
-                }
-
-                FilePath[] files = remoteVeracodeFilePath.list(inclusive);
-
-                // copy the jar if it does not exist
-                if (files.length == 0) {
-                    bRet = copyJarFiles(node, localWorkspaceFilePath, remoteVeracodeFilePath, ps);
-                } else { // if file exits
-                    FilePath[] newfiles = localWorkspaceFilePath.list(inclusive);
-                    String newjarName = newfiles[0].getRemote();
-                    int newVersion = RemoteScanUtil.getJarVersion(newjarName);
-                    String oldjarName = files[0].getRemote();
-                    int oldVersion = RemoteScanUtil.getJarVersion(oldjarName);
-
-                    // also copy the jar if there is a newer version in the plugin directory and
-                    // delete the old one
-                    if (newVersion > oldVersion) {
-                        if (debug) {
-                            ps.println(
-                                    "Newer veracode library version, copying it to remote machine");
-                        }
 
-                        remoteVeracodeFilePath.deleteContents();
-                        bRet = copyJarFiles(node, localWorkspaceFilePath, remoteVeracodeFilePath,
-                                ps);
-                    } else { // just make sure we have our jarfile (defensive coding)
-                        String jarName = files[0].getRemote();
-                        String newJarName = jarName.replaceAll(regex, execJarFile + "$2");
-                        FilePath newjarFilePath = new FilePath(node.getChannel(), newJarName);
+            // the wrapper is usually provisioned when the node comes online
+            if (WrapperProvisioningUtil.isProvisioned(node)) {
+                return true;
+            }
 
-                        if (newjarFilePath.exists())
-                            bRet = true;
-                    }
-                }
+            try {
+                bRet = WrapperProvisioningUtil.provision(node, ps, debug);
             } catch (Exception ex) {
                 ex.printStackTrace();
                 if (this.canFailJob) {
@@ -660,37 +689,93 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
         String uploadincludePattern = envVars.expand(this.uploadIncludesPattern);
         String uploadexcludePattern = envVars.expand(this.uploadExcludesPattern);
 
+        FilePath archiveDir = null;
+        ScanAdmissionUtil.Admission admission = null;
+
         // obtain the String file paths, using the includes/excludes patterns a 2nd time
         try {
-            String[] uploadAndScanFilePaths = FileUtil
-                    .getStringFilePaths(workspace.list(uploadincludePattern, uploadexcludePattern));
-
-            UploadAndScanArgs uploadAndScanArguments = UploadAndScanArgs.newUploadAndScanArgs(this, run, workspace,
-                    envVars, uploadAndScanFilePaths, true, autoApplicationName, autoScanName,
-                    createAutoApplicationDescription);
+            String[] uploadAndScanFilePaths;
+            if (this.packageFiles) {
+                archiveDir = ArchiveUtil.getArchiveDir(workspace);
+                uploadAndScanFilePaths = ArchiveUtil.packageFiles(workspace, uploadincludePattern,
+                        uploadexcludePattern, archiveDir, ArchiveUtil.getMaxArchiveSizeBytes(
+                                this.packageMaxSize != null ? this.packageMaxSize.toString() : null));
+                if (this.debug) {
+                    ps.print(String.format("%n%nPackaged the upload files into %d archive(s).%n",
+                            uploadAndScanFilePaths.length));
+                }
+            } else {
+                uploadAndScanFilePaths = FileUtil.getStringFilePaths(
+                        workspace.list(uploadincludePattern, uploadexcludePattern));
+            }
 
             String jarPath = jarFilePath + sep + Constant.execJarFile + ".jar";
 
-            Boolean isUnix = comp.isUnix();
-            if (isUnix == null) {
-                throw new RuntimeException("Failed to determine the OS.");
+            // the credentials and proxy settings are passed as arguments, as the
+            // environment of the remote node's JVM cannot be changed
+            UploadAndScanArgs inProcessArguments = UploadAndScanArgs.newUploadAndScanArgs(this, run,
+                    workspace, envVars, uploadAndScanFilePaths, false, autoApplicationName,
+                    autoScanName, createAutoApplicationDescription);
+            admission = ScanAdmissionUtil.admit(inProcessArguments.getArguments(), ps);
+
+            // the IDs of the started scan are read from the output of the API wrapper
+            WrapperOutputUtil.ScanIdCapture wrapperOutput = new WrapperOutputUtil.ScanIdCapture(ps);
+            Integer retcode = null;
+            if (this.inProcessScan) {
+                VirtualChannel channel = node.getChannel();
+                if (channel == null) {
+                    throw new RuntimeException("Cannot connect to the remote node.");
+                }
+                VeracodeDescriptor globalDescriptor = (VeracodeDescriptor) Jenkins.get()
+                        .getDescriptor(VeracodeNotifier.class);
+                retcode = WrapperDaemonUtil.runJob(channel, jarPath, inProcessArguments.getArguments(),
+                        getWrapperTimeout() != null ? getWrapperTimeout().toString() : null,
+                        WrapperDaemonUtil.getMaxConcurrentJobs(globalDescriptor != null
+                                ? globalDescriptor.getAgentmaxjobs() : null),
+                        new StreamTaskListener(wrapperOutput, StandardCharsets.UTF_8),
+                        this.debug);
+                if (retcode == null) {
+                    ps.print("\nLaunching a new JVM for the Veracode API wrapper instead.\n");
+                }
             }
 
-            // Construct UploadAndScan command using the given args
-            ArgumentListBuilder command = RemoteScanUtil.addArgumentsToCommand(jarPath,
-                    uploadAndScanArguments.getArguments(), isUnix);
+            if (retcode == null) {
+                UploadAndScanArgs uploadAndScanArguments = UploadAndScanArgs.newUploadAndScanArgs(this, run, workspace,
+                        envVars, uploadAndScanFilePaths, true, autoApplicationName, autoScanName,
+                        createAutoApplicationDescription);
 
-            Launcher launcher = node.createLauncher(listener);
-            ProcStarter procStart = launcher.new ProcStarter();
-            procStart = procStart.pwd(workspace).cmds(command).envs(envVars).stdout(listener).quiet(true);
+                Boolean isUnix = comp.isUnix();
+                if (isUnix == null) {
+                    throw new RuntimeException("Failed to determine the OS.");
+                }
 
-            if (this.debug) {
-                procStart.quiet(false);
-                ps.print("\nInvoking the following command in remote workspace:\n");
-            }
+                // Construct UploadAndScan command using the given args
+                ArgumentListBuilder command = RemoteScanUtil.addArgumentsToCommand(jarPath,
+                        uploadAndScanArguments.getArguments(), isUnix);
 
-            Proc proc = launcher.launch(procStart);
-            int retcode = proc.join();
+                Launcher launcher = node.createLauncher(listener);
+                ProcStarter procStart = launcher.new ProcStarter();
+                procStart = procStart.pwd(workspace).cmds(command).envs(envVars).stdout(wrapperOutput)
+                        .quiet(true);
+
+                if (this.debug) {
+                    procStart.quiet(false);
+                    ps.print("\nInvoking the following command in remote workspace:\n");
+                }
+
+                Proc proc = launcher.launch(procStart);
+                retcode = proc.join();
+            }
+            wrapperOutput.close();
+            admission.release();
+            onWrapperCompleted(run, listener, retcode, wrapperOutput.getAppId(),
+                    wrapperOutput.getBuildId());
+            boolean resultsAwaited = false;
+            if (null != this.timeout && this.exitOnPolicyFailure && 0 == retcode) {
+                retcode = awaitScanResults(run, listener, autoApplicationName,
+                        wrapperOutput.getAppId(), wrapperOutput.getBuildId());
+                resultsAwaited = true;
+            }
             if (retcode != 0 && this.canFailJob) {
                 ps.print("\r\n\r\nError- Returned code from wrapper:" + retcode + "\r\n\n");
             } else {
@@ -701,9 +786,10 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
                 // Starting from 17.9.4.6, the Java wrapper returns code (4) when a scan
                 // did not pass policy compliance. Therefore, we need to generate the scan
                 // result for both return code 0 and 4.
-                if (null != this.timeout) {
+                if (null != this.timeout && !resultsAwaited) {
                     if (4 == retcode || 0 == retcode) {
-                        getScanResults(run, listener, autoApplicationName);
+                        getScanResults(run, listener, autoApplicationName,
+                                wrapperOutput.getAppId(), wrapperOutput.getBuildId());
                     } else {
                         run.addAction(new VeracodeAction());
                     }
@@ -720,13 +806,38 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
             if (this.canFailJob) {
                 ps.print("\r\n\r\n" + ex.getMessage());
             }
+        } finally {
+            if (admission != null) {
+                admission.release();
+            }
+            ArchiveUtil.cleanUpArchives(archiveDir);
         }
 
         return bRet;
     }
 
     /**
-     * Constructs the scan result from Detailed Report.
+     * Called once the API wrapper has returned, with the IDs of the Veracode build
+     * it logged. Does nothing by default.
+     *
+     * @param run      a {@link hudson.model.Run} object - the current Jenkins
+     *                 build.
+     * @param listener a {@link hudson.model.TaskListener} object - listener of
+     *                 this task.
+     * @param retCode  a int - the code returned by the API wrapper.
+     * @param appId    a {@link java.lang.String} object - the application ID, can
+     *                 be null.
+     * @param buildId  a {@link java.lang.String} object - the build ID of the new
+     *                 build, can be null.
+     */
+    protected void onWrapperCompleted(Run<?, ?> run, TaskListener listener, int retCode,
+            String appId, String buildId) {
+    }
+
+    /**
+     * Constructs the scan result from Detailed Report. The results are retrieved
+     * for the build logged by the API wrapper, or else for the latest build of
+     * the application or sandbox.
      *
      * @param run                 a {@link hudson.model.Run} object - the current
      *                            Jenkins build.
@@ -734,15 +845,141 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
      *                            listener of this task.
      * @param autoApplicationName a boolean - automatically generate application
      *                            name or not.
+     * @param appId               a {@link java.lang.String} object - the
+     *                            application ID logged by the API wrapper, can be
+     *                            null.
+     * @param buildId             a {@link java.lang.String} object - the build ID
+     *                            of the new build logged by the API wrapper, can
+     *                            be null.
      * @throws java.lang.Exception when error happened during the operation.
      */
-    private void getScanResults(Run<?, ?> run, TaskListener listener, boolean autoApplicationName)
-            throws Exception {
+    private void getScanResults(Run<?, ?> run, TaskListener listener,
+            boolean autoApplicationName, String appId, String buildId) throws Exception {
+        ProxyBlock proxy = null;
+        if (useProxy) {
+            proxy = new ProxyBlock(pHost, pPort, pUser, pPassword);
+        }
+
+        String buildInfoXML;
+        try {
+            if (StringUtil.isNullOrEmpty(appId) || StringUtil.isNullOrEmpty(buildId)) {
+                logMissingBuildId(listener.getLogger());
+                buildInfoXML = getLatestBuildInfo(run, listener, autoApplicationName, proxy);
+            } else {
+                buildInfoXML = WrapperUtil.getBuildInfoByAppIdBuildId(appId, buildId, vid, vkey,
+                        proxy);
+            }
+        } catch (Exception e) {
+            run.addAction(new VeracodeAction());
+            throw e;
+        }
+        addScanResults(run, listener, buildInfoXML, summaryReport, sarifReport, vid, vkey, proxy);
+    }
+
+    /**
+     * Waits for the scan submitted by the API wrapper, polling its status and its
+     * policy compliance status, and adds its results to the Jenkins build. The
+     * wait ends as soon as the published results do not pass the policy, without
+     * waiting for the other analyses of the scan to complete.
+     *
+     * @param run                 a {@link hudson.model.Run} object - the current
+     *                            Jenkins build.
+     * @param listener            a {@link hudson.model.TaskListener} object -
+     *                            listener of this task.
+     * @param autoApplicationName a boolean - automatically generate application
+     *                            name or not.
+     * @param appId               a {@link java.lang.String} object - the
+     *                            application ID logged by the API wrapper, can be
+     *                            null.
+     * @param buildId             a {@link java.lang.String} object - the build ID
+     *                            of the new build logged by the API wrapper, can
+     *                            be null.
+     * @return a int - the code the API wrapper returns when it waits for the
+     *         scan: 0 when the scan completed, 4 when the scan did not pass the
+     *         policy, 1 when the scan did not complete.
+     * @throws java.lang.InterruptedException if the wait is interrupted.
+     */
+    private int awaitScanResults(Run<?, ?> run, TaskListener listener,
+            boolean autoApplicationName, String appId, String buildId)
+            throws InterruptedException {
+        PrintStream ps = listener.getLogger();
         ProxyBlock proxy = null;
         if (useProxy) {
             proxy = new ProxyBlock(pHost, pPort, pUser, pPassword);
         }
 
+        String buildInfoXML = null;
+        String complianceStatus = null;
+        try {
+            if (StringUtil.isNullOrEmpty(appId) || StringUtil.isNullOrEmpty(buildId)) {
+                logMissingBuildId(ps);
+                String latestBuildInfoXML = getLatestBuildInfo(run, listener,
+                        autoApplicationName, proxy);
+                appId = XmlUtil.getXmlDocument(latestBuildInfoXML).getDocumentElement()
+                        .getAttribute("app_id");
+                buildId = XmlUtil.parseBuildId(latestBuildInfoXML);
+            }
+            ps.println(String.format(
+                    "Waiting up to %d minute(s) for the results of build %s.",
+                    timeout, buildId));
+            buildInfoXML = VeracodeAwaitResultsPipelineRecorder.waitForScan(appId, buildId,
+                    timeout, true, vid, vkey, proxy, ps);
+            if (null != buildInfoXML) {
+                complianceStatus = XmlUtil.parsePolicyComplianceStatus(buildInfoXML);
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            ps.println("Failed to retrieve the submitted build: " + e.getMessage());
+            buildInfoXML = null;
+        }
+        if (null == buildInfoXML) {
+            run.addAction(new VeracodeAction());
+            return 1;
+        }
+
+        try {
+            addScanResults(run, listener, buildInfoXML, summaryReport, sarifReport, vid, vkey,
+                    proxy);
+        } catch (Exception e) {
+            ps.println();
+            ps.println(String.format(
+                    "Ran into problem when generating scan results in Jenkins. Error: [%s, %s]",
+                    e.getClass().getSimpleName(), e.getMessage()));
+        }
+        return Constant.DID_NOT_PASSED.equalsIgnoreCase(complianceStatus) ? 4 : 0;
+    }
+
+    /**
+     * Logs a warning that the API wrapper did not log the IDs of the new build, so
+     * the results of the latest build of the application or sandbox are retrieved
+     * instead, which may have been started by another upload.
+     *
+     * @param ps a {@link java.io.PrintStream} object.
+     */
+    static void logMissingBuildId(PrintStream ps) {
+        ps.println();
+        ps.println("WARNING: The output of the API wrapper does not contain the build ID. "
+                + "Retrieving the results of the latest build of the application instead.");
+    }
+
+    /**
+     * Gets the build info of the latest build of the application or sandbox.
+     *
+     * @param run                 a {@link hudson.model.Run} object - the current
+     *                            Jenkins build.
+     * @param listener            a {@link hudson.model.TaskListener} object -
+     *                            listener of this task.
+     * @param autoApplicationName a boolean - automatically generate application
+     *                            name or not.
+     * @param proxy               a
+     *                            {@link com.veracode.jenkins.plugin.data.ProxyBlock}
+     *                            object - the proxy settings, can be null.
+     * @return a {@link java.lang.String} object.
+     * @throws java.lang.Exception when error happened during the operation.
+     */
+    private String getLatestBuildInfo(Run<?, ?> run, TaskListener listener,
+            boolean autoApplicationName, ProxyBlock proxy) throws Exception {
         EnvVars envVars = run.getEnvironment(listener);
         UploadAndScanArgs.setEnvVars(envVars, run.getDisplayName(),
                 run.getParent().getFullDisplayName());
@@ -757,15 +994,63 @@ public class VeracodePipelineRecorder extends Recorder implements SimpleBuildSte
         String resolvedSandboxName = !StringUtil.isNullOrEmpty(sandboxName)
                 ? envVars.expand(sandboxName)
                 : sandboxName;
+        return WrapperUtil.getBuildInfo(appName, resolvedSandboxName, vid, vkey, proxy);
+    }
+
+    /**
+     * Constructs the scan result of a Veracode build from its Detailed Report, or
+     * its Summary Report, and adds it to the Jenkins build.
+     *
+     * @param run           a {@link hudson.model.Run} object - the current Jenkins
+     *                      build.
+     * @param listener      a {@link hudson.model.TaskListener} object - listener
+     *                      of this task.
+     * @param buildInfoXML  a {@link java.lang.String} object - the build info of
+     *                      the Veracode build.
+     * @param summaryReport a boolean - build the scan result from the Summary
+     *                      Report.
+     * @param sarifReport   a boolean - archive the static flaws as a SARIF file.
+     * @param id            a {@link java.lang.String} object - the Veracode API
+     *                      ID.
+     * @param key           a {@link java.lang.String} object - the Veracode API
+     *                      key.
+     * @param proxy         a {@link com.veracode.jenkins.plugin.data.ProxyBlock}
+     *                      object - the proxy settings, can be null.
+     * @return a {@link com.veracode.jenkins.plugin.VeracodeAction} object - the
+     *         added action.
+     * @throws java.lang.Exception when error happened during the operation.
+     */
+    static VeracodeAction addScanResults(Run<?, ?> run, TaskListener listener, String buildInfoXML,
+            boolean summaryReport, boolean sarifReport, String id, String key, ProxyBlock proxy)
+            throws Exception {
         try {
-            String buildInfoXML = WrapperUtil.getBuildInfo(appName, resolvedSandboxName, vid, vkey,
-                    proxy);
             String buildId = XmlUtil.parseBuildId(buildInfoXML);
-            String detailedReportXML = WrapperUtil.getDetailedReport(buildId, vid, vkey, proxy);
-            ScanHistory scanHistory = XmlUtil.newScanHistory(buildInfoXML, detailedReportXML, run);
-            Credentials credentials = Credentials.create(vid, vkey);
+            ScanHistory scanHistory;
+            // The detailed report is only needed for the flaw and SCA component details
+            if (summaryReport && !sarifReport) {
+                String summaryReportXML = WrapperUtil.getSummaryReport(buildId, id, key, proxy,
+                        XmlUtil.getResultsRevision(buildInfoXML));
+                scanHistory = XmlUtil.newScanHistoryFromSummaryReport(buildInfoXML,
+                        summaryReportXML, run);
+            } else {
+                String detailedReportXML = WrapperUtil.getDetailedReport(buildId, id, key, proxy,
+                        XmlUtil.getResultsRevision(buildInfoXML));
+                scanHistory = XmlUtil.newScanHistory(buildInfoXML, detailedReportXML, run);
+                FlawIndexUtil.indexDetailedReport(run.getRootDir(), detailedReportXML, listener);
+                if (sarifReport) {
+                    try {
+                        SarifUtil.archiveSarif(run, detailedReportXML, listener);
+                    } catch (Exception e) {
+                        listener.getLogger()
+                                .println("Failed to archive the SARIF report: " + e.getMessage());
+                    }
+                }
+            }
+            Credentials credentials = Credentials.create(id, key);
             String xmlApiHost = credentials.getRegion().getXmlApiHost();
-            run.addAction(new VeracodeAction(scanHistory, xmlApiHost));
+            VeracodeAction veracodeAction = new VeracodeAction(scanHistory, xmlApiHost);
+            run.addAction(veracodeAction);
+            return veracodeAction;
         } catch (Exception e) {
             run.addAction(new VeracodeAction());
             throw e;
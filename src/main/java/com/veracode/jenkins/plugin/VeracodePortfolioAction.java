@@ -0,0 +1,91 @@
+package com.veracode.jenkins.plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.kohsuke.stapler.StaplerRequest;
+
+import com.veracode.jenkins.plugin.common.Constant;
+import com.veracode.jenkins.plugin.data.PortfolioEntry;
+import com.veracode.jenkins.plugin.data.PortfolioPage;
+import com.veracode.jenkins.plugin.utils.PortfolioIndexUtil;
+
+import hudson.Extension;
+import hudson.model.RootAction;
+import jenkins.model.Jenkins;
+
+/**
+ * This class represents the Veracode portfolio dashboard, which shows the
+ * latest scan results of all the jobs the user can see.
+ * <p>
+ * The dashboard is rendered from the portfolio index, which is maintained by
+ * {@link com.veracode.jenkins.plugin.PortfolioIndexListener}, so the jobs are
+ * never iterated and their builds are never loaded.
+ *
+ */
+@Extension
+public class VeracodePortfolioAction implements RootAction {
+
+    @Override
+    public String getIconFileName() {
+        return PortfolioIndexUtil.getEntries().isEmpty() ? null
+                : Constant.PLUGIN_ICONS_URI_PREFIX + Constant.VERACODE_ICON_24X24;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Veracode Portfolio";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "veracode-portfolio";
+    }
+
+    /**
+     * Returns the page of entries selected by the parameters of the request:
+     * page, size, sort, order, status (policy compliance status) and q (text to
+     * find in the job or policy name). Only the jobs the user can see are
+     * included.
+     *
+     * @param request a {@link org.kohsuke.stapler.StaplerRequest} object.
+     * @return a {@link com.veracode.jenkins.plugin.data.PortfolioPage} object.
+     */
+    public PortfolioPage getPortfolioPage(StaplerRequest request) {
+        Jenkins jenkins = Jenkins.get();
+        Collection<PortfolioEntry> entries = PortfolioIndexUtil.getEntries();
+        List<PortfolioEntry> visibleEntries = new ArrayList<>(entries.size());
+        for (PortfolioEntry entry : entries) {
+            // the lookup returns null if the user cannot read the job
+            if (null != jenkins.getItemByFullName(entry.getJobName())) {
+                visibleEntries.add(entry);
+            }
+        }
+        String sort = request.getParameter("sort");
+        String order = request.getParameter("order");
+        boolean descending = null != order && "desc".equals(order);
+        return PortfolioIndexUtil.getPage(visibleEntries, getIntParameter(request, "page", 1),
+                getIntParameter(request, "size", PortfolioIndexUtil.DEFAULT_PAGE_SIZE), sort,
+                descending, request.getParameter("status"), request.getParameter("q"));
+    }
+
+    /**
+     * Returns the policy compliance statuses which can be selected.
+     *
+     * @return an array of {@link java.lang.String} objects.
+     */
+    public String[] getPolicyComplianceStatuses() {
+        return new String[] {
+                Constant.PASSED, Constant.CONDITIONAL_PASSED, Constant.DID_NOT_PASSED
+        };
+    }
+
+    private static int getIntParameter(StaplerRequest request, String name, int defaultValue) {
+        try {
+            return Integer.parseInt(request.getParameter(name));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.veracode.jenkins.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.veracode.jenkins.plugin.data.ScanHandle;
+import com.veracode.jenkins.plugin.utils.StringUtil;
+
+import hudson.EnvVars;
+import hudson.model.EnvironmentContributingAction;
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+
+/**
+ * This class holds the handles of the Veracode builds started by the
+ * "veracodeUpload" Pipeline step until the "veracodeAwaitResults" step
+ * collects their results. It is not displayed on the build page.
+ * <p>
+ * The application ID and build ID of the last upload are exposed to the build
+ * as the {@link #VERACODE_APP_ID_VAR} and {@link #VERACODE_BUILD_ID_VAR}
+ * environment variables.
+ *
+ */
+public class VeracodeScanHandleAction extends InvisibleAction
+        implements EnvironmentContributingAction {
+
+    public static final String VERACODE_APP_ID_VAR = "VERACODE_APP_ID";
+    public static final String VERACODE_BUILD_ID_VAR = "VERACODE_BUILD_ID";
+
+    // The builds whose results are not collected yet, from the first to the last
+    // uploaded
+    private final List<ScanHandle> pendingHandles = new ArrayList<>();
+
+    // The last uploaded build
+    private ScanHandle lastHandle;
+
+    /**
+     * Adds the handle of an uploaded build to the specified build.
+     *
+     * @param run    a {@link hudson.model.Run} object.
+     * @param handle a {@link com.veracode.jenkins.plugin.data.ScanHandle} object.
+     */
+    public static void addHandle(Run<?, ?> run, ScanHandle handle) {
+        synchronized (run) {
+            VeracodeScanHandleAction action = run.getAction(VeracodeScanHandleAction.class);
+            if (null == action) {
+                action = new VeracodeScanHandleAction();
+                run.addAction(action);
+            }
+            action.add(handle);
+        }
+    }
+
+    /**
+     * Removes and returns the handle of an uploaded build of the specified build.
+     * The handle is looked up by build ID if given, then by application name if
+     * given, otherwise the last uploaded build is returned.
+     *
+     * @param run             a {@link hudson.model.Run} object.
+     * @param applicationName a {@link java.lang.String} object, can be null.
+     * @param buildId         a {@link java.lang.String} object, can be null.
+     * @return a {@link com.veracode.jenkins.plugin.data.ScanHandle} object, or
+     *         null if no handle matches.
+     */
+    public static ScanHandle pollHandle(Run<?, ?> run, String applicationName, String buildId) {
+        synchronized (run) {
+            VeracodeScanHandleAction action = run.getAction(VeracodeScanHandleAction.class);
+            return null == action ? null : action.poll(applicationName, buildId);
+        }
+    }
+
+    @Override
+    public synchronized void buildEnvironment(Run<?, ?> run, EnvVars env) {
+        if (null != lastHandle) {
+            env.put(VERACODE_APP_ID_VAR, lastHandle.getAppId());
+            env.put(VERACODE_BUILD_ID_VAR, lastHandle.getBuildId());
+        }
+    }
+
+    private synchronized void add(ScanHandle handle) {
+        pendingHandles.add(handle);
+        lastHandle = handle;
+    }
+
+    private synchronized ScanHandle poll(String applicationName, String buildId) {
+        for (int i = pendingHandles.size() - 1; i >= 0; i--) {
+            ScanHandle handle = pendingHandles.get(i);
+            if (StringUtil.isNullOrEmpty(buildId) ? StringUtil.isNullOrEmpty(applicationName)
+                    || applicationName.equalsIgnoreCase(handle.getApplicationName())
+                    : buildId.equals(handle.getBuildId())) {
+                return pendingHandles.remove(i);
+            }
+        }
+        return null;
+    }
+}
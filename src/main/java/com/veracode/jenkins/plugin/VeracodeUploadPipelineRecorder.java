@@ -0,0 +1,151 @@
+package com.veracode.jenkins.plugin;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import com.veracode.jenkins.plugin.args.UploadAndScanArgs;
+import com.veracode.jenkins.plugin.data.ScanHandle;
+import com.veracode.jenkins.plugin.utils.StringUtil;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * The VeracodeUploadPipelineRecorder class handles processing for
+ * "veracodeUpload" Pipeline script. It uploads the files and starts the scan
+ * like the "veracode" step, but returns as soon as the scan has started,
+ * leaving the "veracodeAwaitResults" step to wait for the results.
+ * <p>
+ * The step records a {@link com.veracode.jenkins.plugin.data.ScanHandle} of
+ * the started Veracode build on the Jenkins build, and exposes its application
+ * ID and build ID as the {@code VERACODE_APP_ID} and {@code VERACODE_BUILD_ID}
+ * environment variables. The IDs are read from the output of the API wrapper,
+ * as the latest build of the application may have been started by another
+ * upload. The "waitForScan" and "timeout" arguments are ignored.
+ *
+ */
+public class VeracodeUploadPipelineRecorder extends VeracodePipelineRecorder {
+
+    // the IDs of the build started by the current call of perform
+    private transient String startedAppId;
+    private transient String startedBuildId;
+
+    /**
+     * Constructor for VeracodeUploadPipelineRecorder. The arguments are the same
+     * as those of {@link VeracodePipelineRecorder}.
+     *
+     * @param applicationName                a {@link java.lang.String} object.
+     * @param criticality                    a {@link java.lang.String} object.
+     * @param sandboxName                    a {@link java.lang.String} object.
+     * @param scanName                       a {@link java.lang.String} object.
+     * @param waitForScan                    a boolean, ignored.
+     * @param timeout                        a int, ignored.
+     * @param deleteIncompleteScanLevel      a {@link java.lang.String} object.
+     * @param createProfile                  a boolean.
+     * @param teams                          a {@link java.lang.String} object.
+     * @param createSandbox                  a boolean.
+     * @param timeoutFailsJob                a boolean.
+     * @param canFailJob                     a boolean.
+     * @param unstableBuild                  a boolean.
+     * @param debug                          a boolean.
+     * @param uploadIncludesPattern          a {@link java.lang.String} object.
+     * @param uploadExcludesPattern          a {@link java.lang.String} object.
+     * @param scanIncludesPattern            a {@link java.lang.String} object.
+     * @param scanExcludesPattern            a {@link java.lang.String} object.
+     * @param fileNamePattern                a {@link java.lang.String} object.
+     * @param replacementPattern             a {@link java.lang.String} object.
+     * @param copyRemoteFiles                a boolean.
+     * @param scanallnonfataltoplevelmodules a boolean
+     * @param includenewmodules              a boolean
+     * @param useProxy                       a boolean.
+     * @param pHost                          a {@link java.lang.String} object.
+     * @param pPort                          a {@link java.lang.String} object.
+     * @param pUser                          a {@link java.lang.String} object.
+     * @param pPassword                      a {@link java.lang.String} object.
+     * @param vid                            a {@link java.lang.String} object.
+     * @param vkey                           a {@link java.lang.String} object.
+     */
+    @DataBoundConstructor
+    public VeracodeUploadPipelineRecorder(String applicationName, String criticality,
+            String sandboxName, String scanName, boolean waitForScan, int timeout,
+            String deleteIncompleteScanLevel, boolean createProfile, String teams,
+            boolean createSandbox, boolean timeoutFailsJob, boolean canFailJob,
+            boolean unstableBuild, boolean debug, String uploadIncludesPattern,
+            String uploadExcludesPattern, String scanIncludesPattern, String scanExcludesPattern,
+            String fileNamePattern, String replacementPattern, boolean copyRemoteFiles,
+            boolean scanallnonfataltoplevelmodules, boolean includenewmodules, boolean useProxy,
+            String pHost, String pPort, String pUser, String pPassword, String vid, String vkey) {
+        super(applicationName, criticality, sandboxName, scanName, false, 0,
+                deleteIncompleteScanLevel, createProfile, teams, createSandbox, false, canFailJob,
+                unstableBuild, debug, uploadIncludesPattern, uploadExcludesPattern,
+                scanIncludesPattern, scanExcludesPattern, fileNamePattern, replacementPattern,
+                copyRemoteFiles, scanallnonfataltoplevelmodules, includenewmodules, useProxy, pHost,
+                pPort, pUser, pPassword, vid, vkey);
+    }
+
+    /**
+     * Called by Jenkins after a build for a job specified to use the plugin is
+     * performed.
+     */
+    @Override
+    public void perform(Run<?, ?> run, FilePath workspace, Launcher launcher, TaskListener listener)
+            throws InterruptedException, IOException {
+        startedAppId = null;
+        startedBuildId = null;
+        // fails the build if the upload failed and canFailJob is set
+        super.perform(run, workspace, launcher, listener);
+
+        PrintStream ps = listener.getLogger();
+        if (StringUtil.isNullOrEmpty(startedAppId) || StringUtil.isNullOrEmpty(startedBuildId)) {
+            ps.println("Failed to retrieve the started build: "
+                    + "the output of the API wrapper does not contain the build ID.");
+            if (canFailJob) {
+                run.setResult(Result.FAILURE);
+                throw new AbortException();
+            }
+            return;
+        }
+
+        EnvVars envVars = run.getEnvironment(listener);
+        UploadAndScanArgs.setEnvVars(envVars, run.getDisplayName(),
+                run.getParent().getFullDisplayName());
+        String appName = envVars.expand(applicationName);
+        String resolvedSandboxName = StringUtil.isNullOrEmpty(sandboxName) ? sandboxName
+                : envVars.expand(sandboxName);
+        VeracodeScanHandleAction.addHandle(run,
+                new ScanHandle(appName, resolvedSandboxName, startedAppId, startedBuildId));
+        ps.println(String.format("Started the scan of build %s of application %s (%s).",
+                startedBuildId, appName, startedAppId));
+    }
+
+    /**
+     * Keeps the IDs of the build started by the API wrapper.
+     */
+    @Override
+    protected void onWrapperCompleted(Run<?, ?> run, TaskListener listener, int retCode,
+            String appId, String buildId) {
+        if (0 == retCode) {
+            startedAppId = appId;
+            startedBuildId = buildId;
+        }
+    }
+
+    @Symbol("veracodeUpload")
+    @hudson.Extension
+    public static final class UploadDescriptorImpl extends PipelineDescriptorImpl {
+        public static final String UploadDisplayText = "Upload and Start a Scan with Veracode Pipeline";
+
+        @Override
+        public String getDisplayName() {
+            return UploadDisplayText;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.veracode.jenkins.plugin;
+
+import java.io.PrintStream;
+
+import com.veracode.jenkins.plugin.utils.WrapperProvisioningUtil;
+
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.slaves.ComputerListener;
+import hudson.slaves.OfflineCause;
+import jenkins.model.Jenkins;
+
+/**
+ * The WrapperProvisioningListener class provisions the Veracode API Wrapper on
+ * remote nodes as soon as they come online, so that builds do not have to check
+ * and copy the wrapper on their critical path.
+ * <p>
+ * When the plugin is upgraded, Jenkins is restarted and the nodes reconnect,
+ * at which point the checksum of the wrapper on each node is compared with the
+ * new bundled wrapper and the wrapper is replaced if needed.
+ * <p>
+ * This class extends the {@link hudson.slaves.ComputerListener} class.
+ *
+ */
+@Extension
+public class WrapperProvisioningListener extends ComputerListener {
+
+    /**
+     * Called by Jenkins when a node comes online. The provisioning is done
+     * asynchronously to not delay the connection of the node; builds that start
+     * in the meantime provision the wrapper themselves.
+     */
+    @Override
+    public void onOnline(final Computer c, final TaskListener listener) {
+        final Node node = c.getNode();
+        if (node == null || node instanceof Jenkins) {
+            // builds on the controller use the wrapper bundled with the plugin
+            return;
+        }
+        WrapperProvisioningUtil.invalidate(node.getNodeName());
+        Computer.threadPoolForRemoting.submit(new Runnable() {
+            @Override
+            public void run() {
+                PrintStream ps = listener.getLogger();
+                try {
+                    if (WrapperProvisioningUtil.provision(node, ps, false)) {
+                        ps.println("Provisioned the Veracode API wrapper on " + node.getNodeName());
+                    }
+                } catch (Exception e) {
+                    ps.println("Failed to provision the Veracode API wrapper on "
+                            + node.getNodeName() + ": " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Called by Jenkins when a node goes offline.
+     */
+    @Override
+    public void onOffline(Computer c, OfflineCause cause) {
+        Node node = c.getNode();
+        if (node != null) {
+            WrapperProvisioningUtil.invalidate(node.getNodeName());
+        }
+    }
+}
@@ -368,8 +368,8 @@ public final class UploadAndScanArgs extends AbstractArgs {
         }
 
         String strTimeout = "";
-        if (vpr.timeout != null) {
-            strTimeout = Integer.toString(vpr.timeout);
+        if (vpr.getWrapperTimeout() != null) {
+            strTimeout = Integer.toString(vpr.getWrapperTimeout());
         }
 
         return newUploadAndScanArgs(bRemoteScan, autoApplicationName, createAutoApplicationDescription, autoScanName,
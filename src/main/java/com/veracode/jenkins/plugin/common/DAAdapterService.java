@@ -5,9 +5,12 @@ import java.net.InetSocketAddress;
 import java.net.PasswordAuthentication;
 import java.net.Proxy;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.w3c.dom.Node;
@@ -21,10 +24,12 @@ import com.veracode.apiwrapper.services.APIServiceManager;
 import com.veracode.apiwrapper.services.DynamicAnalysisAPIService;
 import com.veracode.http.Credentials;
 import com.veracode.jenkins.plugin.DynamicAnalysisResultsAction;
+import com.veracode.jenkins.plugin.DynamicAnalysisStateAction;
 import com.veracode.jenkins.plugin.data.DAScanHistory;
+import com.veracode.jenkins.plugin.data.DynamicAnalysisResult;
 import com.veracode.jenkins.plugin.data.ProxyBlock;
-import com.veracode.jenkins.plugin.utils.FileUtil;
 import com.veracode.jenkins.plugin.utils.FormValidationUtil;
+import com.veracode.jenkins.plugin.utils.RetryUtil;
 import com.veracode.jenkins.plugin.utils.StringUtil;
 import com.veracode.jenkins.plugin.utils.WrapperUtil;
 import com.veracode.jenkins.plugin.utils.XmlUtil;
@@ -42,8 +47,13 @@ import hudson.model.TaskListener;
  */
 public class DAAdapterService {
 
-    private static final String PARAM_DA_ANALYSIS_NAME = "DA_ANALYSIS_NAME";
+    private static final String PARAM_DA_ANALYSIS_NAME =
+            DynamicAnalysisStateAction.PARAM_DA_ANALYSIS_NAME;
+    private static final String PARAM_DA_BATCH_ID = DynamicAnalysisStateAction.PARAM_DA_BATCH_ID;
     private static final String PARAM_DA_PREVIOUS_OCCURRENCE_ID = "DA_PREVIOUS_OCCURRENCE_ID";
+    private static final String PARAM_DA_OCCURRENCE_ID = "DA_OCCURRENCE_ID";
+    private static final String PARAM_DA_LINKED_APP_ID = "DA_LINKED_APP_ID";
+    private static final String PARAM_DA_LINKED_BUILD_ID = "DA_LINKED_BUILD_ID";
     private static final short GET_DA_SLEEP_TIME_MINUTES = 5;
     private static final short MAX_ALLOWED_CONSECUTIVE_API_EXCEPTIONS = 5;
 
@@ -80,24 +90,19 @@ public class DAAdapterService {
                 showHPILocation(listener);
             }
 
-            // Clean up previous build properties
-            if (!FileUtil.cleanUpBuildProperties(run, listener)) {
-                log(listener, "Failed to clean up previous build properties.");
-                return !failBuildAsScanFailed;
-            }
-
             // Display user inputs
+            List<String> analysisNames = StringUtil.splitList(analysisName);
             log(listener,
                     "Project: %s" + Constant.NEWLINE + "Dynamic Analysis name: %s"
                             + Constant.NEWLINE + "Maximum duration (in hours): %s"
                             + Constant.NEWLINE + "Fail the build if the analysis fails: %s"
                             + Constant.NEWLINE + "Use proxy: %s",
-                    workspace, analysisName, maximumDuration, failBuildAsScanFailed,
-                    String.valueOf(proxyBlock != null));
+                    workspace, String.join(", ", analysisNames), maximumDuration,
+                    failBuildAsScanFailed, String.valueOf(proxyBlock != null));
 
             // Validate user inputs
-            if (!validateUserInputsForResubmit(apiID, apiKey, analysisName, maximumDuration,
-                    listener)) {
+            if (!validateUserInputsForResubmit(apiID, apiKey, String.join(", ", analysisNames),
+                    maximumDuration, listener)) {
                 return !failBuildAsScanFailed;
             }
 
@@ -111,31 +116,24 @@ public class DAAdapterService {
                     .createInstance(CredentialTypes.API, apiID, apiKey, proxy)
                     .getDynamicAnalysisAPIService();
 
-            // Get analysis information for the specified analysis name
-            AnalysisInfo analysisInfo = getAnalysisInfo(daApiService, analysisName, listener);
-            if (analysisInfo == null || StringUtil.isNullOrEmpty(analysisInfo.getAnalysisId())) {
-                logWithTimeStamp(listener,
-                        "Resubmit failed. Preconfigured dynamic analysis not found.");
-                return !failBuildAsScanFailed;
+            // The analyses resubmitted by this step form a batch, which the review step
+            // reviews together. The other analyses are resubmitted if one fails, and
+            // the batch is recorded without the failed ones.
+            String batchId = UUID.randomUUID().toString();
+            List<String> leftOut = new ArrayList<>();
+            for (String name : analysisNames) {
+                if (!resubmitAnalysis(run, daApiService, name, batchId, maximumDuration,
+                        listener)) {
+                    leftOut.add(name);
+                }
             }
-
-            // Resubmit the scan
-            if (!resubmitAnalysis(daApiService, analysisInfo, maximumDuration, listener)) {
+            if (!leftOut.isEmpty()) {
+                logWithTimeStamp(listener,
+                        "Dynamic analyses left out of the batch to review as they were not resubmitted: %s",
+                        String.join(", ", leftOut));
                 return !failBuildAsScanFailed;
             }
 
-            // Store the job properties to be used in the review results step
-            Properties properties = new Properties();
-            properties.setProperty(PARAM_DA_ANALYSIS_NAME, analysisInfo.getAnalysisName());
-            if (!StringUtil.isNullOrEmpty(analysisInfo.getAnalysisOccurrenceId())) {
-                // This is needed in order to not to check the analysis status of the previous
-                // occurrence in DynamicAnalysisResultsNotifier.
-                // So the previous occurrence id should be stored.
-                properties.setProperty(PARAM_DA_PREVIOUS_OCCURRENCE_ID,
-                        analysisInfo.getAnalysisOccurrenceId());
-            }
-            FileUtil.createBuildPropertiesFile(run, properties, listener);
-
             log(listener, Constant.FINISHED_POST_BUILD_ACTION_LOG,
                     Constant.POST_BUILD_ACTION_DISPLAY_TEXT_RESUBMIT);
 
@@ -149,6 +147,52 @@ public class DAAdapterService {
         }
     }
 
+    /**
+     * Resubmits the Dynamic Analysis with the specified name, and stores its state
+     * on the build to be used in the review results step.
+     *
+     * @param run             a {@link hudson.model.Run} object.
+     * @param daApiService    a
+     *                        {@link com.veracode.apiwrapper.services.DynamicAnalysisAPIService}
+     *                        object.
+     * @param analysisName    a {@link java.lang.String} object.
+     * @param batchId         a {@link java.lang.String} object - shared by the
+     *                        analyses resubmitted together.
+     * @param maximumDuration a int.
+     * @param listener        a {@link hudson.model.TaskListener} object.
+     * @return a boolean.
+     */
+    private boolean resubmitAnalysis(Run<?, ?> run, DynamicAnalysisAPIService daApiService,
+            String analysisName, String batchId, int maximumDuration, TaskListener listener) {
+        // Get analysis information for the specified analysis name
+        AnalysisInfo analysisInfo = getAnalysisInfo(daApiService, analysisName, listener);
+        if (analysisInfo == null || StringUtil.isNullOrEmpty(analysisInfo.getAnalysisId())) {
+            logWithTimeStamp(listener,
+                    "Resubmit failed. Preconfigured dynamic analysis '%s' not found.",
+                    analysisName);
+            return false;
+        }
+
+        // Resubmit the scan
+        if (!resubmitAnalysis(daApiService, analysisInfo, maximumDuration, listener)) {
+            return false;
+        }
+
+        // Store the analysis state on the build to be used in the review results step
+        Properties properties = new Properties();
+        properties.setProperty(PARAM_DA_ANALYSIS_NAME, analysisInfo.getAnalysisName());
+        properties.setProperty(PARAM_DA_BATCH_ID, batchId);
+        if (!StringUtil.isNullOrEmpty(analysisInfo.getAnalysisOccurrenceId())) {
+            // This is needed in order to not to check the analysis status of the previous
+            // occurrence in DynamicAnalysisResultsNotifier.
+            // So the previous occurrence id should be stored.
+            properties.setProperty(PARAM_DA_PREVIOUS_OCCURRENCE_ID,
+                    analysisInfo.getAnalysisOccurrenceId());
+        }
+        DynamicAnalysisStateAction.addAnalysis(run, properties);
+        return true;
+    }
+
     /**
      * Validates user inputs for Resubmit post build action.
      *
@@ -200,7 +244,8 @@ public class DAAdapterService {
     private AnalysisInfo getAnalysisInfo(DynamicAnalysisAPIService daApiService,
             String analysisName, TaskListener listener) {
         try {
-            return daApiService.getAnalysisByName(analysisName);
+            return RetryUtil.call("getAnalysisByName", true, RetryUtil.DEFAULT_POLICY, 0,
+                    listener.getLogger(), () -> daApiService.getAnalysisByName(analysisName));
         } catch (ApiException e) {
             logWithTimeStamp(listener,
                     "Resubmit failed. Error retrieving analysis information, server returned HTTP response code: "
@@ -230,7 +275,13 @@ public class DAAdapterService {
     private boolean resubmitAnalysis(DynamicAnalysisAPIService daApiService,
             AnalysisInfo analysisInfo, int maximumDuration, TaskListener listener) {
         try {
-            daApiService.resubmitAnalysisById(analysisInfo.getAnalysisId(), maximumDuration);
+            // the resubmission is only retried if the platform rejected it
+            RetryUtil.call("resubmitAnalysisById", false, RetryUtil.DEFAULT_POLICY, 0,
+                    listener.getLogger(), () -> {
+                        daApiService.resubmitAnalysisById(analysisInfo.getAnalysisId(),
+                                maximumDuration);
+                        return null;
+                    });
             logWithTimeStamp(listener,
                     "Resubmitting dynamic analysis for '%s' with duration %s hour(s).",
                     analysisInfo.getAnalysisName(), maximumDuration);
@@ -263,6 +314,10 @@ public class DAAdapterService {
      * @param workspace                   a {@link hudson.FilePath} object.
      * @param listener                    a {@link hudson.model.TaskListener}
      *                                    object.
+     * @param analysisName                a {@link java.lang.String} object - the
+     *                                    names of the resubmitted analyses to
+     *                                    review, or null to review the analyses
+     *                                    resubmitted together next.
      * @param waitForResultsDuration      a int.
      * @param failBuildForPolicyViolation a boolean.
      * @param apiID                       a {@link java.lang.String} object.
@@ -274,17 +329,46 @@ public class DAAdapterService {
      * @return a boolean.
      */
     public boolean reviewDynamicAnalysis(Run<?, ?> build, FilePath workspace, TaskListener listener,
-            final int waitForResultsDuration, final boolean failBuildForPolicyViolation,
-            final String apiID, final String apiKey, final boolean debugEnabled,
-            final ProxyBlock proxyBlock) {
+            final String analysisName, final int waitForResultsDuration,
+            final boolean failBuildForPolicyViolation, final String apiID, final String apiKey,
+            final boolean debugEnabled, final ProxyBlock proxyBlock) {
+        boolean result = review(build, workspace, listener, analysisName, waitForResultsDuration,
+                failBuildForPolicyViolation, apiID, apiKey, debugEnabled, proxyBlock);
+        // A review interrupted by a restart of Jenkins keeps its state, so that it can
+        // be resumed by running the review step again in this build
+        if (!Thread.currentThread().isInterrupted()) {
+            DynamicAnalysisStateAction.finishReview(build);
+        }
+        return result;
+    }
+
+    /**
+     * Reviews the Dynamic Analysis Results, continuing from the last completed
+     * phase if the review was interrupted.
+     *
+     * @param build                       a {@link hudson.model.Run} object.
+     * @param workspace                   a {@link hudson.FilePath} object.
+     * @param listener                    a {@link hudson.model.TaskListener}
+     *                                    object.
+     * @param analysisName                a {@link java.lang.String} object.
+     * @param waitForResultsDuration      a int.
+     * @param failBuildForPolicyViolation a boolean.
+     * @param apiID                       a {@link java.lang.String} object.
+     * @param apiKey                      a {@link java.lang.String} object.
+     * @param debugEnabled                a boolean.
+     * @param proxyBlock                  a
+     *                                    {@link com.veracode.jenkins.plugin.data.ProxyBlock}
+     *                                    object.
+     * @return a boolean.
+     */
+    private boolean review(Run<?, ?> build, FilePath workspace, TaskListener listener,
+            final String analysisName, final int waitForResultsDuration,
+            final boolean failBuildForPolicyViolation, final String apiID, final String apiKey,
+            final boolean debugEnabled, final ProxyBlock proxyBlock) {
 
         log(listener, Constant.STARTING_POST_BUILD_ACTION_LOG,
                 Constant.POST_BUILD_ACTION_DISPLAY_TEXT_REVIEW);
 
-        // Total time to wait for results to be available
-        long expirationResultsWaitTime = System.currentTimeMillis()
-                + TimeUnit.HOURS.toMillis(waitForResultsDuration);
-
         try {
             // Display HPI location if debug enabled
             if (debugEnabled) {
@@ -292,28 +376,45 @@ public class DAAdapterService {
                 showHPILocation(listener);
             }
 
-            // Read build properties
-            Properties veracodeProps = FileUtil.readBuildPropertiesFile(build, listener);
-            if (veracodeProps == null || veracodeProps.isEmpty()) {
+            // Read the analysis state stored by the resubmit step of this build
+            List<String> analysisNames = StringUtil.splitList(analysisName);
+            List<Properties> analyses = DynamicAnalysisStateAction.startReview(build,
+                    waitForResultsDuration, analysisNames);
+            if (analyses.isEmpty()) {
                 log(listener,
                         "Failed to retrieve dynamic analysis info from resubmit dynamic analysis step.");
                 return false;
             }
 
+            // The specified analyses which were not resubmitted in this build
+            List<String> reviewedNames = new ArrayList<>();
+            for (Properties veracodeProps : analyses) {
+                reviewedNames.add(veracodeProps.getProperty(PARAM_DA_ANALYSIS_NAME));
+            }
+            List<String> missingNames = new ArrayList<>(analysisNames);
+            missingNames.removeAll(reviewedNames);
+
+            // Total time to wait for results to be available, from the start of the
+            // first attempt of the review. The analyses reviewed together share it.
+            long expirationResultsWaitTime = DynamicAnalysisStateAction
+                    .getDeadline(analyses.get(0));
+
             // Display user inputs
             log(listener,
                     "Project: %s" + Constant.NEWLINE + "Dynamic Analysis name: %s"
                             + Constant.NEWLINE + "Results wait time (in hours): %s"
                             + Constant.NEWLINE + "Fail the build for policy violation: %s"
                             + Constant.NEWLINE + "Use proxy: %s",
-                    workspace, veracodeProps.getProperty(PARAM_DA_ANALYSIS_NAME),
-                    waitForResultsDuration, failBuildForPolicyViolation,
-                    String.valueOf(proxyBlock != null));
+                    workspace, String.join(", ", reviewedNames), waitForResultsDuration,
+                    failBuildForPolicyViolation, String.valueOf(proxyBlock != null));
+            for (String missingName : missingNames) {
+                log(listener, "Dynamic analysis '%s' was not resubmitted in this build.",
+                        missingName);
+            }
 
             // Validate user inputs
-            if (!validateUserInputsForReview(apiID, apiKey,
-                    veracodeProps.getProperty(PARAM_DA_ANALYSIS_NAME), waitForResultsDuration,
-                    listener)) {
+            if (!validateUserInputsForReview(apiID, apiKey, String.join(", ", reviewedNames),
+                    waitForResultsDuration, listener)) {
                 build.addAction(new DynamicAnalysisResultsAction());
                 return false;
             }
@@ -331,7 +432,7 @@ public class DAAdapterService {
 
             log(listener,
                     "Requesting dynamic analysis results for '%s' with results wait time duration of %s hour(s).",
-                    veracodeProps.getProperty(PARAM_DA_ANALYSIS_NAME), waitForResultsDuration);
+                    String.join("', '", reviewedNames), waitForResultsDuration);
 
             /**
              * The following phases use Dynamic Analysis REST APIs.
@@ -356,67 +457,56 @@ public class DAAdapterService {
              * Phase 5: Get detailed report and parse for flaw data, score, policy status
              * WrapperUtil.getDetailedReport(buildId, true, apiID, apiKey, proxyBlock)
              *
-             * API exception handling: If HTTP 500 Internal Server Error or HTTP 504 Gateway
-             * Timeout response is returned from the platform, then retry after poll
-             * interval for a maximum of MAX_ALLOWED_CONSECUTIVE_API_EXCEPTIONS consecutive
-             * failures. If other HTTP error received, then fail the job.
+             * Phases 1 to 4 are run by one AnalysisReview state machine per analysis, which
+             * advances through as many phases as possible at each poll interval. The
+             * analyses reviewed together are polled at the same interval, so that the
+             * review waits for the slowest analysis rather than for each in turn.
+             *
+             * API exception handling: If a retryable error such as HTTP 500 Internal Server
+             * Error or HTTP 504 Gateway Timeout is returned from the platform, then the call
+             * is retried with backoff by RetryUtil. If it still fails, then retry at the next
+             * poll interval for a maximum of MAX_ALLOWED_CONSECUTIVE_API_EXCEPTIONS
+             * consecutive failures shared by all the phases of the analysis. If other HTTP
+             * error received, then fail the review of the analysis.
              */
 
-            ScanOccurrenceInfo scanOccurrenceInfo = null;
-
-            try {
-                // Phase 1: Wait for analysis to initiate and determine analysis occurrence id
-                // If wait for results duration expired, then fail job.
-                String currentOccurrenceId = determineAnalysisOccurrenceId(daApiService,
-                        veracodeProps.getProperty(PARAM_DA_ANALYSIS_NAME),
-                        veracodeProps.getProperty(PARAM_DA_PREVIOUS_OCCURRENCE_ID),
-                        expirationResultsWaitTime, listener);
-                if (StringUtil.isNullOrEmpty(currentOccurrenceId)) {
-                    logWithTimeStamp(listener, "Timeout waiting for dynamic analysis to initiate.");
-                    build.addAction(new DynamicAnalysisResultsAction());
-                    return false;
-                }
-
-                // Phase 2: Wait for analysis scan to complete and results available.
-                // If wait for results duration expired, then fail job.
-                boolean isAnalysisFinished = false;
-                isAnalysisFinished = waitForAnalysisToComplete(daApiService, currentOccurrenceId,
-                        expirationResultsWaitTime, listener);
-                if (!isAnalysisFinished) {
-                    logWithTimeStamp(listener,
-                            "Timeout waiting for dynamic analysis to complete and publish results.");
-                    build.addAction(new DynamicAnalysisResultsAction());
-                    return false;
+            List<AnalysisReview> reviews = new ArrayList<>();
+            for (Properties veracodeProps : analyses) {
+                int completedPhase = DynamicAnalysisStateAction.getCompletedPhase(veracodeProps);
+                if (completedPhase > 0) {
+                    log(listener, "Resuming the interrupted review of '%s' after phase %s.",
+                            veracodeProps.getProperty(PARAM_DA_ANALYSIS_NAME), completedPhase);
                 }
+                reviews.add(new AnalysisReview(build, veracodeProps, daApiService, apiID, apiKey,
+                        proxyBlock, expirationResultsWaitTime, completedPhase, listener));
+            }
 
-                // Phase 3: Wait for linked results of app id, app name, build id to be
-                // available
-                // If wait for results duration expired, then fail job.
-                scanOccurrenceInfo = getLinkedAnalysisResults(daApiService, currentOccurrenceId,
-                        expirationResultsWaitTime, listener);
-                if (null == scanOccurrenceInfo) {
-                    logWithTimeStamp(listener,
-                            "Timeout waiting for dynamic analysis link results.");
-                    build.addAction(new DynamicAnalysisResultsAction());
-                    return false;
-                }
+            try {
+                // Phases 1 to 4: each tick advances the waiting analyses through as many
+                // phases as the platform allows, then waits for the poll interval. If wait
+                // for results duration expired, then fail the waiting analyses.
+                waitForReviews(reviews, expirationResultsWaitTime, listener);
             } catch (InterruptedException e) {
                 logWithTimeStamp(listener,
                         "Interrupted exception handling dynamic analysis action.");
                 build.addAction(new DynamicAnalysisResultsAction());
                 e.printStackTrace();
+                Thread.currentThread().interrupt();
                 return false;
-            } catch (RuntimeException e) {
-                logWithTimeStamp(listener,
-                        "Runtime exception error handling dynamic analyis action: %s",
-                        e.getMessage());
-                e.printStackTrace();
-                build.addAction(new DynamicAnalysisResultsAction());
-                return false;
-            } catch (Exception e) {
-                logWithTimeStamp(listener, "Exception handling dynamic analysis action: %s",
-                        e.getMessage());
-                e.printStackTrace();
+            }
+
+            // Create action for the results graph
+            Credentials credentials = Credentials.create(apiID, apiKey);
+            String xmlApiHost = credentials.getRegion().getXmlApiHost();
+
+            if (reviews.size() > 1 || !missingNames.isEmpty()) {
+                return publishAnalysisResults(build, reviews, missingNames,
+                        failBuildForPolicyViolation, apiID, apiKey, proxyBlock, xmlApiHost,
+                        listener);
+            }
+
+            AnalysisReview review = reviews.get(0);
+            if (review.getStatus() != ReviewStatus.READY) {
                 build.addAction(new DynamicAnalysisResultsAction());
                 return false;
             }
@@ -426,26 +516,11 @@ public class DAAdapterService {
 
             try {
 
-                // Phase 4: Wait for application build to complete. Analysis is linked to
-                // Veracode application for policy evaluation.
-                boolean isBuildReady = waitForBuildReady(scanOccurrenceInfo, apiID, apiKey,
-                        proxyBlock, expirationResultsWaitTime, listener);
-                if (!isBuildReady) {
-                    log(listener, "Timeout waiting for dynamic analysis link results.");
-                    build.addAction(new DynamicAnalysisResultsAction());
-                    return false;
-                }
-
                 // Phase 5: Get the detailed report. Need flaw counts by severity, score, policy
                 // status, mitigated findings.
-                String detailedReportXML = WrapperUtil.getDetailedReport(
-                        scanOccurrenceInfo.getLinkedAppData().getBuildId(), apiID, apiKey,
+                DAScanHistory daScanHistory = getDAScanHistory(build, review, apiID, apiKey,
                         proxyBlock);
 
-                // retrieve analysis results from the detailed report and occurrence info
-                DAScanHistory daScanHistory = XmlUtil.newDAScanHistory(detailedReportXML,
-                        scanOccurrenceInfo, build);
-
                 policyRulesStatus = daScanHistory.getPolicyComplianceStatus();
 
                 log(listener,
@@ -453,9 +528,6 @@ public class DAAdapterService {
                                 + "The Dynamic Analysis finished with policy rule status: %s",
                         policyRulesStatus + Constant.NEWLINE);
 
-                // Create action for the results graph
-                Credentials credentials = Credentials.create(apiID, apiKey);
-                String xmlApiHost = credentials.getRegion().getXmlApiHost();
                 build.addAction(new DynamicAnalysisResultsAction(daScanHistory, xmlApiHost));
 
             } catch (ApiException e) {
@@ -468,6 +540,7 @@ public class DAAdapterService {
                         "Interrupted exception handling dynamic analysis linking results action.");
                 build.addAction(new DynamicAnalysisResultsAction());
                 e.printStackTrace();
+                Thread.currentThread().interrupt();
                 return false;
             } catch (RuntimeException e) {
                 logWithTimeStamp(listener,
@@ -491,6 +564,142 @@ public class DAAdapterService {
         }
     }
 
+    /**
+     * Ticks the waiting reviews at each poll interval, until none of them is
+     * waiting or the wait time duration expired.
+     *
+     * @param reviews                   a {@link java.util.List} object.
+     * @param expirationResultsWaitTime a long.
+     * @param listener                  a {@link hudson.model.TaskListener} object.
+     * @throws java.lang.InterruptedException if any.
+     */
+    private void waitForReviews(List<AnalysisReview> reviews, long expirationResultsWaitTime,
+            TaskListener listener) throws InterruptedException {
+        while (true) {
+            List<AnalysisReview> waitingReviews = new ArrayList<>();
+            for (AnalysisReview review : reviews) {
+                if (review.getStatus() == ReviewStatus.WAITING) {
+                    if (reviews.size() > 1) {
+                        log(listener, "Dynamic analysis '%s':", review.getAnalysisName());
+                    }
+                    if (review.tick() == ReviewStatus.WAITING) {
+                        waitingReviews.add(review);
+                    }
+                }
+            }
+            if (waitingReviews.isEmpty()) {
+                return;
+            }
+            if (isWaitTimeDurationExpired(expirationResultsWaitTime)) {
+                for (AnalysisReview review : waitingReviews) {
+                    review.expire();
+                }
+                return;
+            }
+            Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
+        }
+    }
+
+    /**
+     * Gets the results of the analyses reviewed together, and adds the combined
+     * results action to the build.
+     *
+     * @param build                       a {@link hudson.model.Run} object.
+     * @param reviews                     a {@link java.util.List} object.
+     * @param missingNames                a {@link java.util.List} object - the
+     *                                    names of the specified analyses which
+     *                                    were not resubmitted.
+     * @param failBuildForPolicyViolation a boolean.
+     * @param apiID                       a {@link java.lang.String} object.
+     * @param apiKey                      a {@link java.lang.String} object.
+     * @param proxyBlock                  a
+     *                                    {@link com.veracode.jenkins.plugin.data.ProxyBlock}
+     *                                    object.
+     * @param xmlApiHost                  a {@link java.lang.String} object.
+     * @param listener                    a {@link hudson.model.TaskListener}
+     *                                    object.
+     * @return a boolean.
+     */
+    private boolean publishAnalysisResults(Run<?, ?> build, List<AnalysisReview> reviews,
+            List<String> missingNames, boolean failBuildForPolicyViolation, String apiID,
+            String apiKey, ProxyBlock proxyBlock, String xmlApiHost, TaskListener listener) {
+        List<DynamicAnalysisResult> analysisResults = new ArrayList<>();
+        boolean available = missingNames.isEmpty();
+        boolean passed = true;
+        for (AnalysisReview review : reviews) {
+            if (review.getStatus() != ReviewStatus.READY) {
+                analysisResults.add(new DynamicAnalysisResult(review.getAnalysisName(),
+                        review.getFailureMessage()));
+                available = false;
+                continue;
+            }
+            try {
+                // Phase 5: Get the detailed report of each analysis
+                DAScanHistory daScanHistory = getDAScanHistory(build, review, apiID, apiKey,
+                        proxyBlock);
+                log(listener, "The Dynamic Analysis '%s' finished with policy rule status: %s",
+                        review.getAnalysisName(), daScanHistory.getPolicyComplianceStatus());
+                DynamicAnalysisResult analysisResult = new DynamicAnalysisResult(
+                        review.getAnalysisName(), daScanHistory);
+                analysisResults.add(analysisResult);
+                passed &= analysisResult.isPolicyPassed();
+            } catch (InterruptedException e) {
+                // the results of the other analyses are still published
+                logWithTimeStamp(listener,
+                        "Interrupted exception handling dynamic analysis linking results action.");
+                Thread.currentThread().interrupt();
+                analysisResults.add(new DynamicAnalysisResult(review.getAnalysisName(),
+                        "Dynamic analysis results are not available."));
+                available = false;
+                break;
+            } catch (Exception e) {
+                logWithTimeStamp(listener,
+                        "Exception handling dynamic analysis linking results action for '%s': %s",
+                        review.getAnalysisName(), e.getMessage());
+                analysisResults.add(new DynamicAnalysisResult(review.getAnalysisName(),
+                        "Dynamic analysis results are not available."));
+                available = false;
+            }
+        }
+        for (String missingName : missingNames) {
+            analysisResults.add(new DynamicAnalysisResult(missingName,
+                    "The dynamic analysis was not resubmitted in this build."));
+        }
+        build.addAction(new DynamicAnalysisResultsAction(analysisResults, xmlApiHost));
+
+        log(listener, Constant.FINISHED_POST_BUILD_ACTION_LOG,
+                Constant.POST_BUILD_ACTION_DISPLAY_TEXT_REVIEW);
+
+        if (!available) {
+            return false;
+        }
+        return passed || !failBuildForPolicyViolation;
+    }
+
+    /**
+     * Gets the detailed report of the linked application build of a review, and
+     * retrieves the analysis results from it.
+     *
+     * @param build      a {@link hudson.model.Run} object.
+     * @param review     a {@link AnalysisReview} object - a ready review.
+     * @param apiID      a {@link java.lang.String} object.
+     * @param apiKey     a {@link java.lang.String} object.
+     * @param proxyBlock a {@link com.veracode.jenkins.plugin.data.ProxyBlock}
+     *                   object.
+     * @return a {@link com.veracode.jenkins.plugin.data.DAScanHistory} object.
+     * @throws java.lang.Exception if any.
+     */
+    private DAScanHistory getDAScanHistory(Run<?, ?> build, AnalysisReview review, String apiID,
+            String apiKey, ProxyBlock proxyBlock) throws Exception {
+        ScanOccurrenceInfo scanOccurrenceInfo = review.getScanOccurrenceInfo();
+        String detailedReportXML = WrapperUtil.getDetailedReport(
+                scanOccurrenceInfo.getLinkedAppData().getBuildId(), apiID, apiKey, proxyBlock);
+
+        // retrieve analysis results from the detailed report and occurrence info
+        return XmlUtil.newDAScanHistory(detailedReportXML, scanOccurrenceInfo, build,
+                review.getAnalysisName());
+    }
+
     /**
      * Validate user inputs for Review post build action.
      *
@@ -531,370 +740,6 @@ public class DAAdapterService {
         return true;
     }
 
-    /**
-     * Returns Analysis Occurrence ID.
-     *
-     * @param daApiService              a
-     *                                  {@link com.veracode.apiwrapper.services.DynamicAnalysisAPIService}
-     *                                  object.
-     * @param analysisName              a {@link java.lang.String} object.
-     * @param previousOccurrenceId      a {@link java.lang.String} object.
-     * @param expirationResultsWaitTime a long.
-     * @param listener                  a {@link hudson.model.TaskListener} object.
-     * @return a {@link java.lang.String} object.
-     * @throws java.lang.Exception if any.
-     */
-    private String determineAnalysisOccurrenceId(DynamicAnalysisAPIService daApiService,
-            String analysisName, String previousOccurrenceId, long expirationResultsWaitTime,
-            TaskListener listener) throws Exception {
-
-        // Verify a new analysis has been created and submission process initiated
-        String currentOccurrenceId = "";
-        boolean isAnalysisCreated = false;
-        boolean isTimeToQuit = false;
-        int exceptionCount = 0;
-
-        while (!isAnalysisCreated && !isTimeToQuit) {
-            try {
-                // determine latest analysis occurrence to query analysis status
-                AnalysisInfo analysisInfo = daApiService.getAnalysisByName(analysisName);
-
-                currentOccurrenceId = analysisInfo != null ? analysisInfo.getAnalysisOccurrenceId()
-                        : null;
-
-                // If analysis not yet initiated, then retry until new occurrence found
-                if (StringUtil.isNullOrEmpty(currentOccurrenceId)
-                        || currentOccurrenceId.equals(previousOccurrenceId)) {
-                    logWithTimeStamp(listener,
-                            "Dynamic analysis not yet initiated. Check in %s minutes.",
-                            GET_DA_SLEEP_TIME_MINUTES);
-                    Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
-                } else {
-                    isAnalysisCreated = true;
-                }
-                isTimeToQuit = isWaitTimeDurationExpired(expirationResultsWaitTime);
-                exceptionCount = 0;
-            } catch (ApiException e) {
-                log(listener,
-                        "API exception error waiting for dynamic analysis to initiate. Server returned HTTP response code: "
-                                + e.getResponseCode());
-                logErrorResponse(e.getResponseCode(), listener);
-                // Retry if internal server or gateway timeout error
-                if ((500 == e.getResponseCode()) || (504 == e.getResponseCode())) {
-                    exceptionCount++;
-                    if ((exceptionCount == MAX_ALLOWED_CONSECUTIVE_API_EXCEPTIONS)
-                            || isWaitTimeDurationExpired(expirationResultsWaitTime)) {
-                        isTimeToQuit = true;
-                    } else {
-                        logWithTimeStamp(listener,
-                                "Retry checking if dynamic analysis initiated in %s minutes.",
-                                GET_DA_SLEEP_TIME_MINUTES);
-                        Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
-                        isTimeToQuit = isWaitTimeDurationExpired(expirationResultsWaitTime);
-                    }
-                } else {
-                    isTimeToQuit = true;
-                }
-            }
-        }
-        return currentOccurrenceId;
-    }
-
-    /**
-     * Waits for Analysis to complete.
-     *
-     * @param daApiService              a
-     *                                  {@link com.veracode.apiwrapper.services.DynamicAnalysisAPIService}
-     *                                  object.
-     * @param currentOccurrenceId       a {@link java.lang.String} object.
-     * @param expirationResultsWaitTime a long.
-     * @param listener                  a {@link hudson.model.TaskListener} object.
-     * @return a boolean.
-     * @throws java.lang.Exception if any.
-     */
-    private boolean waitForAnalysisToComplete(DynamicAnalysisAPIService daApiService,
-            String currentOccurrenceId, long expirationResultsWaitTime, TaskListener listener)
-            throws Exception {
-
-        // Wait for analysis scan to complete and results available
-        AnalysisOccurrenceInfo analysisOccurrenceInfo = null;
-        boolean isTimeToQuit = false;
-        boolean isAnalysisFinished = false;
-        int exceptionCount = 0;
-
-        while (!isAnalysisFinished && !isTimeToQuit) {
-
-            try {
-                analysisOccurrenceInfo = daApiService
-                        .getLatestAnalysisOccurrence(currentOccurrenceId);
-                exceptionCount = 0;
-                if (analysisOccurrenceInfo == null) {
-                    logWithTimeStamp(listener,
-                            "Dynamic analysis occurrence not found. Check in %s minutes.",
-                            GET_DA_SLEEP_TIME_MINUTES);
-                    Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
-                    isTimeToQuit = isWaitTimeDurationExpired(expirationResultsWaitTime);
-                    continue;
-                }
-
-                StatusTypeEnum analysisStatus = analysisOccurrenceInfo.getAnalysisStatus()
-                        .getStatus();
-
-                // Dynamic analysis complete and results published. Next step is linking the
-                // analysis results to an application.
-                if (analysisStatus != null
-                        && analysisStatus.equals(StatusTypeEnum.FINISHED_RESULTS_AVAILABLE)) {
-                    isAnalysisFinished = true;
-                    logWithTimeStamp(listener, "The status of the dynamic analysis is: %s",
-                            analysisStatus);
-                    logWithTimeStamp(listener,
-                            "The dynamic analysis finished with occurrence id: %s",
-                            currentOccurrenceId);
-                    logWithTimeStamp(listener,
-                            "The next step is linking the analysis to the application for policy evaluation.");
-                } else if (analysisStatus != null && (analysisStatus
-                        .equals(StatusTypeEnum.VERIFICATION_FAILED)
-                        || analysisStatus.equals(StatusTypeEnum.STOPPED)
-                        || analysisStatus.equals(StatusTypeEnum.STOPPED_TIME)
-                        || analysisStatus.equals(StatusTypeEnum.STOPPED_TIME_VERIFYING_RESULTS)
-                        || analysisStatus.equals(StatusTypeEnum.STOPPED_TECHNICAL_ISSUE)
-                        || analysisStatus.equals(StatusTypeEnum.STOPPED_VERIFYING_RESULTS_BY_USER)
-                        || analysisStatus.equals(StatusTypeEnum.STOPPED_VERIFYING_RESULTS)
-                        || analysisStatus.equals(StatusTypeEnum.STOPPED_VERIFYING_PARTIAL_RESULTS)
-                        || analysisStatus.equals(StatusTypeEnum.STOPPED_PARTIAL_RESULTS_AVAILABLE))) {
-                    logWithTimeStamp(listener,
-                            "The dynamic analysis failed to complete with status: %s",
-                            analysisStatus);
-                    isTimeToQuit = true;
-                } else {
-                    logWithTimeStamp(listener,
-                            "The status of the dynamic analysis is: %s" + Constant.NEWLINE
-                                    + timestamp() + "Requesting status in %s minutes",
-                            analysisStatus, GET_DA_SLEEP_TIME_MINUTES);
-                    Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
-                    isTimeToQuit = isWaitTimeDurationExpired(expirationResultsWaitTime);
-                }
-
-            } catch (ApiException e) {
-                log(listener,
-                        "API exception error retrieving scan analysis status. Server returned HTTP response code: "
-                                + e.getResponseCode());
-                logErrorResponse(e.getResponseCode(), listener);
-
-                // Retry if internal server or gateway timeout error
-                if ((500 == e.getResponseCode()) || (504 == e.getResponseCode())) {
-                    exceptionCount++;
-                    if ((exceptionCount == MAX_ALLOWED_CONSECUTIVE_API_EXCEPTIONS)
-                            || isWaitTimeDurationExpired(expirationResultsWaitTime)) {
-                        isTimeToQuit = true;
-                    } else {
-                        logWithTimeStamp(listener,
-                                "Retry requesting scan occurrence info in %s minutes.",
-                                GET_DA_SLEEP_TIME_MINUTES);
-                        Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
-                        isTimeToQuit = isWaitTimeDurationExpired(expirationResultsWaitTime);
-                    }
-                } else {
-                    isTimeToQuit = true;
-                }
-            }
-        }
-
-        return isAnalysisFinished;
-    }
-
-    /**
-     * Waits for linked Analysis results info and returns Scan Occurrence Info.
-     *
-     * @param daApiService              a
-     *                                  {@link com.veracode.apiwrapper.services.DynamicAnalysisAPIService}
-     *                                  object.
-     * @param occurrenceId              a {@link java.lang.String} object.
-     * @param expirationResultsWaitTime a long.
-     * @param listener                  a {@link hudson.model.TaskListener} object.
-     * @return a
-     *         {@link com.veracode.apiwrapper.dynamicanalysis.model.client.ScanOccurrenceInfo}
-     *         object.
-     * @throws java.lang.Exception if any.
-     */
-    private ScanOccurrenceInfo getLinkedAnalysisResults(DynamicAnalysisAPIService daApiService,
-            String occurrenceId, long expirationResultsWaitTime, TaskListener listener)
-            throws Exception {
-
-        boolean isLinkedAppInfoReady = false;
-        boolean isTimeToQuit = false;
-        int exceptionCount = 0;
-
-        ScanOccurrenceInfo scanOccurrenceResultsInfo = null;
-
-        while (!isLinkedAppInfoReady && !isTimeToQuit) {
-
-            try {
-                Set<ScanOccurrenceInfo> scanOccurrenceInfoSet = daApiService
-                        .getScanOccurrences(occurrenceId);
-
-                if (scanOccurrenceInfoSet != null && !scanOccurrenceInfoSet.isEmpty()) {
-                    if (scanOccurrenceInfoSet.size() > 1) {
-                        throw new RuntimeException("Multiple scan occurrences found.");
-                    }
-                    scanOccurrenceResultsInfo = (ScanOccurrenceInfo) scanOccurrenceInfoSet
-                            .toArray()[0];
-                }
-                exceptionCount = 0;
-                if (scanOccurrenceResultsInfo != null) {
-
-                    // if dynamic analysis is not manually linked to an application then abort.
-                    // The appid value is populated at any stage of scanning.
-                    if (StringUtil
-                            .isNullOrEmpty(scanOccurrenceResultsInfo.getLinkedPlatformAppId())) {
-                        logWithTimeStamp(listener,
-                                "Review results failed. Linked application is unknown.");
-                        logWithTimeStamp(listener,
-                                "Verify dynamic analysis is linked to an application.");
-                        return null;
-                    }
-                    // the linking phase may be delayed depending on platform load, so need to wait
-                    // for
-                    // build id to be populated when linking initiated
-                    if ((null != scanOccurrenceResultsInfo.getLinkedAppData())
-                            && (!StringUtil.isNullOrEmpty(
-                                    scanOccurrenceResultsInfo.getLinkedAppData().getBuildId()))) {
-                        isLinkedAppInfoReady = true;
-                        logWithTimeStamp(listener, "The linked application is: %s (appid=%s)",
-                                scanOccurrenceResultsInfo.getLinkedPlatformAppName(),
-                                scanOccurrenceResultsInfo.getLinkedPlatformAppId());
-                        logWithTimeStamp(listener, "The linked application build ID is: %s",
-                                scanOccurrenceResultsInfo.getLinkedAppData().getBuildId());
-                    } else {
-                        logWithTimeStamp(listener,
-                                "Build id is not available." + Constant.NEWLINE + timestamp()
-                                        + "Requesting build id again in %s minute(s).",
-                                GET_DA_SLEEP_TIME_MINUTES);
-                        Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
-                    }
-                    if (isTimeToQuit = isWaitTimeDurationExpired(expirationResultsWaitTime)) {
-                        return null;
-                    }
-                } else {
-                    logWithTimeStamp(listener, "Error getting linked application data");
-                    return null;
-                }
-            } catch (ApiException e) {
-                log(listener,
-                        "API exception error retrieving scan occurrence info. Server returned HTTP response code: "
-                                + e.getResponseCode());
-                logErrorResponse(e.getResponseCode(), listener);
-
-                // Retry if internal server or gateway timeout error
-                if ((500 == e.getResponseCode()) || (504 == e.getResponseCode())) {
-                    exceptionCount++;
-                    if ((exceptionCount == MAX_ALLOWED_CONSECUTIVE_API_EXCEPTIONS)
-                            || isWaitTimeDurationExpired(expirationResultsWaitTime)) {
-                        isTimeToQuit = true;
-                    } else {
-                        logWithTimeStamp(listener,
-                                "Retry requesting scan occurrence info in %s minutes.",
-                                GET_DA_SLEEP_TIME_MINUTES);
-                        Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
-                        isTimeToQuit = isWaitTimeDurationExpired(expirationResultsWaitTime);
-                    }
-                } else {
-                    isTimeToQuit = true;
-                }
-            }
-        } // end while
-
-        return scanOccurrenceResultsInfo;
-    }
-
-    /**
-     * Waits and checks for build status.
-     *
-     * @param scanOccurrenceInfo        a
-     *                                  {@link com.veracode.apiwrapper.dynamicanalysis.model.client.ScanOccurrenceInfo}
-     *                                  object.
-     * @param apiID                     a {@link java.lang.String} object.
-     * @param apiKey                    a {@link java.lang.String} object.
-     * @param proxyBlock                a
-     *                                  {@link com.veracode.jenkins.plugin.data.ProxyBlock}
-     *                                  object.
-     * @param expirationResultsWaitTime a long.
-     * @param listener                  a {@link hudson.model.TaskListener} object.
-     * @return a boolean.
-     * @throws java.lang.Exception if any.
-     */
-    private boolean waitForBuildReady(ScanOccurrenceInfo scanOccurrenceInfo, String apiID,
-            String apiKey, ProxyBlock proxyBlock, long expirationResultsWaitTime,
-            TaskListener listener) throws Exception {
-
-        boolean isBuildReady = false;
-        boolean isTimeToQuit = false;
-        int exceptionCount = 0;
-
-        logWithTimeStamp(listener, "Requesting dynamic analysis linked results");
-
-        while (!isBuildReady && !isTimeToQuit) {
-            try {
-                String buildInfo = WrapperUtil.getBuildInfoByAppIdBuildId(
-                        scanOccurrenceInfo.getLinkedPlatformAppId(),
-                        scanOccurrenceInfo.getLinkedAppData().getBuildId(), apiID, apiKey,
-                        proxyBlock);
-
-                if (!StringUtil.isNullOrEmpty(buildInfo)) {
-
-                    Node nodeAnalysisUnit = XmlUtils.getXmlNode(buildInfo,
-                            "/*/*/*[local-name()='analysis_unit']");
-                    String buildStatus = nodeAnalysisUnit.getAttributes().getNamedItem("status")
-                            .getNodeValue();
-
-                    if (buildStatus != null
-                            && buildStatus.equalsIgnoreCase(Constant.RESULTS_READY)) {
-                        logWithTimeStamp(listener,
-                                "Dynamic analysis linking is complete with status: %s",
-                                buildStatus);
-                        isBuildReady = true;
-                        // linked results are not yet ready so retry
-                    } else {
-                        logWithTimeStamp(listener,
-                                "The linking status of the dynamic analysis is: %s"
-                                        + Constant.NEWLINE + timestamp()
-                                        + "Requesting linking status in %s minutes",
-                                buildStatus, GET_DA_SLEEP_TIME_MINUTES);
-                        Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
-                        isTimeToQuit = isWaitTimeDurationExpired(expirationResultsWaitTime);
-                    }
-                } else {
-                    logWithTimeStamp(listener, "Error getting build info after analysis linked");
-                    isTimeToQuit = true;
-                }
-                exceptionCount = 0;
-            } catch (ApiException e) {
-                log(listener,
-                        "API exception error retrieving linked results status. Server returned HTTP response code: "
-                                + e.getResponseCode());
-                logErrorResponse(e.getResponseCode(), listener);
-
-                // Retry if internal server or gateway timeout error
-                if ((500 == e.getResponseCode()) || (504 == e.getResponseCode())) {
-                    exceptionCount++;
-                    if ((exceptionCount == MAX_ALLOWED_CONSECUTIVE_API_EXCEPTIONS)
-                            || isWaitTimeDurationExpired(expirationResultsWaitTime)) {
-                        isTimeToQuit = true;
-                    } else {
-                        logWithTimeStamp(listener, "Retry requesting linked status in %s minutes.",
-                                GET_DA_SLEEP_TIME_MINUTES);
-                        Thread.sleep(TimeUnit.MINUTES.toMillis(GET_DA_SLEEP_TIME_MINUTES));
-                        isTimeToQuit = isWaitTimeDurationExpired(expirationResultsWaitTime);
-                    }
-                } else {
-                    isTimeToQuit = true;
-                }
-            }
-        } // end while
-
-        return isBuildReady;
-    }
-
     /**
      * Checks if wait time duration expired.
      *
@@ -1015,4 +860,337 @@ public class DAAdapterService {
             log(listener, Constant.GATEWAY_TIMEOUT_ERROR);
         }
     }
+
+    /**
+     * The status of a review after a tick.
+     */
+    private enum ReviewStatus {
+        WAITING, READY, FAILED
+    }
+
+    /**
+     * The AnalysisReview class is the state machine of the review of a Dynamic
+     * Analysis, from the resubmitted analysis to the linked application build with
+     * its results ready.
+     * <p>
+     * Each tick advances through as many phases as the platform allows, so that a
+     * phase which is already done when the previous one completes does not wait
+     * for another poll interval. The completed phases are saved with the build.
+     * The phases share the deadline of the review and a budget of
+     * {@link DAAdapterService#MAX_ALLOWED_CONSECUTIVE_API_EXCEPTIONS} consecutive
+     * ticks failing with a transient API exception. Once the review is ready or
+     * failed, it is not ticked any more.
+     *
+     */
+    private final class AnalysisReview {
+
+        private final Run<?, ?> build;
+        private final Properties veracodeProps;
+        private final DynamicAnalysisAPIService daApiService;
+        private final String apiID;
+        private final String apiKey;
+        private final ProxyBlock proxyBlock;
+        private final long expirationResultsWaitTime;
+        private final TaskListener listener;
+
+        private int completedPhase;
+        private ScanOccurrenceInfo scanOccurrenceInfo;
+        private int exceptionCount;
+        private ReviewStatus status = ReviewStatus.WAITING;
+        private String failureMessage;
+
+        private AnalysisReview(Run<?, ?> build, Properties veracodeProps,
+                DynamicAnalysisAPIService daApiService, String apiID, String apiKey,
+                ProxyBlock proxyBlock, long expirationResultsWaitTime, int completedPhase,
+                TaskListener listener) {
+            this.build = build;
+            this.veracodeProps = veracodeProps;
+            this.daApiService = daApiService;
+            this.apiID = apiID;
+            this.apiKey = apiKey;
+            this.proxyBlock = proxyBlock;
+            this.expirationResultsWaitTime = expirationResultsWaitTime;
+            this.completedPhase = completedPhase;
+            this.listener = listener;
+        }
+
+        /**
+         * Advances the review through as many phases as possible.
+         *
+         * @return a {@link ReviewStatus} object - READY once the linked application
+         *         build has its results ready.
+         * @throws java.lang.InterruptedException if any.
+         */
+        private ReviewStatus tick() throws InterruptedException {
+            status = ReviewStatus.FAILED;
+            try {
+                // Phase 3 is run again when resuming, as the scan occurrence it
+                // returns is needed by the next phases
+                while (completedPhase < 4 || null == scanOccurrenceInfo) {
+                    ReviewStatus phaseStatus = advance();
+                    exceptionCount = 0;
+                    if (phaseStatus != null) {
+                        status = phaseStatus;
+                        return status;
+                    }
+                }
+                status = ReviewStatus.READY;
+            } catch (ApiException e) {
+                log(listener, "API exception error %s. Server returned HTTP response code: "
+                        + e.getResponseCode(), getPhaseDescription());
+                logErrorResponse(e.getResponseCode(), listener);
+                // The call was already retried by RetryUtil, retry at the next tick within
+                // the error budget if the error is transient
+                if (RetryUtil.isRetryable(e, true)
+                        && ++exceptionCount < MAX_ALLOWED_CONSECUTIVE_API_EXCEPTIONS) {
+                    logWithTimeStamp(listener, "Retry %s in %s minutes.", getPhaseDescription(),
+                            GET_DA_SLEEP_TIME_MINUTES);
+                    status = ReviewStatus.WAITING;
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                logWithTimeStamp(listener,
+                        "Runtime exception error handling dynamic analyis action: %s",
+                        e.getMessage());
+                e.printStackTrace(listener.getLogger());
+            } catch (Exception e) {
+                logWithTimeStamp(listener, "Exception handling dynamic analysis action: %s",
+                        e.getMessage());
+                e.printStackTrace(listener.getLogger());
+            }
+            return status;
+        }
+
+        /**
+         * Fails the review as the wait time duration expired.
+         */
+        private void expire() {
+            failureMessage = getTimeoutMessage();
+            logWithTimeStamp(listener, failureMessage);
+            status = ReviewStatus.FAILED;
+        }
+
+        private String getAnalysisName() {
+            return veracodeProps.getProperty(PARAM_DA_ANALYSIS_NAME);
+        }
+
+        private ReviewStatus getStatus() {
+            return status;
+        }
+
+        private String getFailureMessage() {
+            return null != failureMessage ? failureMessage
+                    : "Dynamic analysis results are not available.";
+        }
+
+        private ScanOccurrenceInfo getScanOccurrenceInfo() {
+            return scanOccurrenceInfo;
+        }
+
+        private String getTimeoutMessage() {
+            switch (completedPhase) {
+            case 0:
+                return "Timeout waiting for dynamic analysis to initiate.";
+            case 1:
+                return "Timeout waiting for dynamic analysis to complete and publish results.";
+            default:
+                return "Timeout waiting for dynamic analysis link results.";
+            }
+        }
+
+        private String getPhaseDescription() {
+            switch (completedPhase) {
+            case 0:
+                return "waiting for dynamic analysis to initiate";
+            case 1:
+                return "retrieving scan analysis status";
+            case 2:
+                return "retrieving scan occurrence info";
+            default:
+                return "retrieving linked results status";
+            }
+        }
+
+        // Runs the next phase, returns null if it completed
+        private ReviewStatus advance() throws Exception {
+            if (completedPhase < 1) {
+                return determineAnalysisOccurrenceId();
+            }
+            if (completedPhase < 2) {
+                return checkAnalysisComplete();
+            }
+            if (completedPhase < 3 || null == scanOccurrenceInfo) {
+                return getLinkedAnalysisResults();
+            }
+            return checkBuildReady();
+        }
+
+        private void completePhase(int phase, Properties properties) {
+            completedPhase = phase;
+            DynamicAnalysisStateAction.completePhase(build, getAnalysisName(), phase, properties);
+        }
+
+        // Phase 1: Verify analysis initiated and determine analysis occurrence id
+        private ReviewStatus determineAnalysisOccurrenceId() throws Exception {
+            final String analysisName = veracodeProps.getProperty(PARAM_DA_ANALYSIS_NAME);
+            AnalysisInfo analysisInfo = RetryUtil.call("getAnalysisByName", true,
+                    RetryUtil.DEFAULT_POLICY, expirationResultsWaitTime, listener.getLogger(),
+                    () -> daApiService.getAnalysisByName(analysisName));
+            String currentOccurrenceId = analysisInfo != null
+                    ? analysisInfo.getAnalysisOccurrenceId()
+                    : null;
+
+            // If analysis not yet initiated, then retry until new occurrence found
+            if (StringUtil.isNullOrEmpty(currentOccurrenceId) || currentOccurrenceId
+                    .equals(veracodeProps.getProperty(PARAM_DA_PREVIOUS_OCCURRENCE_ID))) {
+                logWithTimeStamp(listener,
+                        "Dynamic analysis not yet initiated. Check in %s minutes.",
+                        GET_DA_SLEEP_TIME_MINUTES);
+                return ReviewStatus.WAITING;
+            }
+            veracodeProps.setProperty(PARAM_DA_OCCURRENCE_ID, currentOccurrenceId);
+            completePhase(1, veracodeProps);
+            return null;
+        }
+
+        // Phase 2: Wait for analysis to complete and report RESULTS_AVAILABLE
+        private ReviewStatus checkAnalysisComplete() throws Exception {
+            final String currentOccurrenceId = veracodeProps.getProperty(PARAM_DA_OCCURRENCE_ID);
+            AnalysisOccurrenceInfo analysisOccurrenceInfo = RetryUtil.call(
+                    "getLatestAnalysisOccurrence", true, RetryUtil.DEFAULT_POLICY,
+                    expirationResultsWaitTime, listener.getLogger(),
+                    () -> daApiService.getLatestAnalysisOccurrence(currentOccurrenceId));
+            if (analysisOccurrenceInfo == null) {
+                logWithTimeStamp(listener,
+                        "Dynamic analysis occurrence not found. Check in %s minutes.",
+                        GET_DA_SLEEP_TIME_MINUTES);
+                return ReviewStatus.WAITING;
+            }
+
+            StatusTypeEnum analysisStatus = analysisOccurrenceInfo.getAnalysisStatus()
+                    .getStatus();
+
+            // Dynamic analysis complete and results published. Next step is linking the
+            // analysis results to an application.
+            if (analysisStatus != null
+                    && analysisStatus.equals(StatusTypeEnum.FINISHED_RESULTS_AVAILABLE)) {
+                logWithTimeStamp(listener, "The status of the dynamic analysis is: %s",
+                        analysisStatus);
+                logWithTimeStamp(listener, "The dynamic analysis finished with occurrence id: %s",
+                        currentOccurrenceId);
+                logWithTimeStamp(listener,
+                        "The next step is linking the analysis to the application for policy evaluation.");
+                completePhase(2, null);
+                return null;
+            } else if (analysisStatus != null && (analysisStatus
+                    .equals(StatusTypeEnum.VERIFICATION_FAILED)
+                    || analysisStatus.equals(StatusTypeEnum.STOPPED)
+                    || analysisStatus.equals(StatusTypeEnum.STOPPED_TIME)
+                    || analysisStatus.equals(StatusTypeEnum.STOPPED_TIME_VERIFYING_RESULTS)
+                    || analysisStatus.equals(StatusTypeEnum.STOPPED_TECHNICAL_ISSUE)
+                    || analysisStatus.equals(StatusTypeEnum.STOPPED_VERIFYING_RESULTS_BY_USER)
+                    || analysisStatus.equals(StatusTypeEnum.STOPPED_VERIFYING_RESULTS)
+                    || analysisStatus.equals(StatusTypeEnum.STOPPED_VERIFYING_PARTIAL_RESULTS)
+                    || analysisStatus.equals(StatusTypeEnum.STOPPED_PARTIAL_RESULTS_AVAILABLE))) {
+                failureMessage = String.format(
+                        "The dynamic analysis failed to complete with status: %s", analysisStatus);
+                logWithTimeStamp(listener, failureMessage);
+                return ReviewStatus.FAILED;
+            }
+            logWithTimeStamp(listener,
+                    "The status of the dynamic analysis is: %s" + Constant.NEWLINE + timestamp()
+                            + "Requesting status in %s minutes",
+                    analysisStatus, GET_DA_SLEEP_TIME_MINUTES);
+            return ReviewStatus.WAITING;
+        }
+
+        // Phase 3: DA is linked to an application for policy evaluation. Get linked
+        // data including appid, appname, buildId
+        private ReviewStatus getLinkedAnalysisResults() throws Exception {
+            final String currentOccurrenceId = veracodeProps.getProperty(PARAM_DA_OCCURRENCE_ID);
+            Set<ScanOccurrenceInfo> scanOccurrenceInfoSet = RetryUtil.call("getScanOccurrences",
+                    true, RetryUtil.DEFAULT_POLICY, expirationResultsWaitTime,
+                    listener.getLogger(),
+                    () -> daApiService.getScanOccurrences(currentOccurrenceId));
+
+            ScanOccurrenceInfo scanOccurrenceResultsInfo = null;
+            if (scanOccurrenceInfoSet != null && !scanOccurrenceInfoSet.isEmpty()) {
+                if (scanOccurrenceInfoSet.size() > 1) {
+                    throw new RuntimeException("Multiple scan occurrences found.");
+                }
+                scanOccurrenceResultsInfo = (ScanOccurrenceInfo) scanOccurrenceInfoSet
+                        .toArray()[0];
+            }
+            if (scanOccurrenceResultsInfo == null) {
+                logWithTimeStamp(listener, "Error getting linked application data");
+                return ReviewStatus.FAILED;
+            }
+
+            // if dynamic analysis is not manually linked to an application then abort.
+            // The appid value is populated at any stage of scanning.
+            if (StringUtil.isNullOrEmpty(scanOccurrenceResultsInfo.getLinkedPlatformAppId())) {
+                logWithTimeStamp(listener, "Review results failed. Linked application is unknown.");
+                logWithTimeStamp(listener, "Verify dynamic analysis is linked to an application.");
+                return ReviewStatus.FAILED;
+            }
+            // the linking phase may be delayed depending on platform load, so need to wait
+            // for build id to be populated when linking initiated
+            if ((null == scanOccurrenceResultsInfo.getLinkedAppData()) || StringUtil
+                    .isNullOrEmpty(scanOccurrenceResultsInfo.getLinkedAppData().getBuildId())) {
+                logWithTimeStamp(listener,
+                        "Build id is not available." + Constant.NEWLINE + timestamp()
+                                + "Requesting build id again in %s minute(s).",
+                        GET_DA_SLEEP_TIME_MINUTES);
+                return ReviewStatus.WAITING;
+            }
+
+            scanOccurrenceInfo = scanOccurrenceResultsInfo;
+            logWithTimeStamp(listener, "The linked application is: %s (appid=%s)",
+                    scanOccurrenceInfo.getLinkedPlatformAppName(),
+                    scanOccurrenceInfo.getLinkedPlatformAppId());
+            logWithTimeStamp(listener, "The linked application build ID is: %s",
+                    scanOccurrenceInfo.getLinkedAppData().getBuildId());
+            if (completedPhase < 3) {
+                Properties linkedProps = new Properties();
+                linkedProps.setProperty(PARAM_DA_LINKED_APP_ID,
+                        scanOccurrenceInfo.getLinkedPlatformAppId());
+                linkedProps.setProperty(PARAM_DA_LINKED_BUILD_ID,
+                        scanOccurrenceInfo.getLinkedAppData().getBuildId());
+                completePhase(3, linkedProps);
+                logWithTimeStamp(listener, "Requesting dynamic analysis linked results");
+            }
+            return null;
+        }
+
+        // Phase 4: Wait for linking to complete which includes policy evaluation and
+        // flaw data
+        private ReviewStatus checkBuildReady() throws Exception {
+            String buildInfo = WrapperUtil.getBuildInfoByAppIdBuildId(
+                    scanOccurrenceInfo.getLinkedPlatformAppId(),
+                    scanOccurrenceInfo.getLinkedAppData().getBuildId(), apiID, apiKey,
+                    proxyBlock);
+            if (StringUtil.isNullOrEmpty(buildInfo)) {
+                logWithTimeStamp(listener, "Error getting build info after analysis linked");
+                return ReviewStatus.FAILED;
+            }
+
+            Node nodeAnalysisUnit = XmlUtils.getXmlNode(buildInfo,
+                    "/*/*/*[local-name()='analysis_unit']");
+            String buildStatus = nodeAnalysisUnit.getAttributes().getNamedItem("status")
+                    .getNodeValue();
+            if (buildStatus != null && buildStatus.equalsIgnoreCase(Constant.RESULTS_READY)) {
+                logWithTimeStamp(listener, "Dynamic analysis linking is complete with status: %s",
+                        buildStatus);
+                completePhase(4, null);
+                return null;
+            }
+            // linked results are not yet ready so retry
+            logWithTimeStamp(listener,
+                    "The linking status of the dynamic analysis is: %s" + Constant.NEWLINE
+                            + timestamp() + "Requesting linking status in %s minutes",
+                    buildStatus, GET_DA_SLEEP_TIME_MINUTES);
+            return ReviewStatus.WAITING;
+        }
+    }
 }
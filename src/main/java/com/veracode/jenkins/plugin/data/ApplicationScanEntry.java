@@ -0,0 +1,88 @@
+package com.veracode.jenkins.plugin.data;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.veracode.util.lang.StringUtility;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+
+/**
+ * The ApplicationScanEntry class represents one application profile to upload
+ * and scan in the "veracodeMultiApp" Pipeline step.
+ *
+ */
+public class ApplicationScanEntry extends AbstractDescribableImpl<ApplicationScanEntry> {
+
+    private final String applicationName;
+    private final String sandboxName;
+    private final String uploadIncludesPattern;
+    private String uploadExcludesPattern;
+    private String scanIncludesPattern;
+    private String scanExcludesPattern;
+
+    /**
+     * Constructor for ApplicationScanEntry.
+     *
+     * @param applicationName       a {@link java.lang.String} object.
+     * @param sandboxName           a {@link java.lang.String} object.
+     * @param uploadIncludesPattern a {@link java.lang.String} object.
+     */
+    @DataBoundConstructor
+    public ApplicationScanEntry(String applicationName, String sandboxName,
+            String uploadIncludesPattern) {
+        this.applicationName = applicationName;
+        this.sandboxName = sandboxName;
+        this.uploadIncludesPattern = StringUtility.getEmptyIfNull(uploadIncludesPattern);
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public String getSandboxName() {
+        return sandboxName;
+    }
+
+    public String getUploadIncludesPattern() {
+        return uploadIncludesPattern;
+    }
+
+    public String getUploadExcludesPattern() {
+        return uploadExcludesPattern;
+    }
+
+    @DataBoundSetter
+    public void setUploadExcludesPattern(String uploadExcludesPattern) {
+        this.uploadExcludesPattern = StringUtility.getEmptyIfNull(uploadExcludesPattern);
+    }
+
+    public String getScanIncludesPattern() {
+        return scanIncludesPattern;
+    }
+
+    @DataBoundSetter
+    public void setScanIncludesPattern(String scanIncludesPattern) {
+        this.scanIncludesPattern = scanIncludesPattern;
+    }
+
+    public String getScanExcludesPattern() {
+        return scanExcludesPattern;
+    }
+
+    @DataBoundSetter
+    public void setScanExcludesPattern(String scanExcludesPattern) {
+        this.scanExcludesPattern = scanExcludesPattern;
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<ApplicationScanEntry> {
+
+        @Override
+        public String getDisplayName() {
+            return "Application";
+        }
+    }
+}
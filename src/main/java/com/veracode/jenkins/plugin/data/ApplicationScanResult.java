@@ -0,0 +1,152 @@
+package com.veracode.jenkins.plugin.data;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import com.veracode.jenkins.plugin.common.Constant;
+
+/**
+ * The ApplicationScanResult class represents the outcome of the upload and scan
+ * of one application profile in the "veracodeMultiApp" Pipeline step.
+ *
+ */
+@ExportedBean
+public class ApplicationScanResult {
+
+    private final String applicationName;
+    private final String sandboxName;
+    private final int returnCode;
+    private final String message;
+    private final String policyName;
+    private final String policyComplianceStatus;
+    private final int score;
+    private final String veracodeLevel;
+    private final int totalFlawsCount;
+    private final int totalNewFlawsCount;
+    private final boolean scanResultsAvailable;
+
+    /**
+     * Constructor for ApplicationScanResult, used when the scan results are not
+     * available.
+     *
+     * @param applicationName a {@link java.lang.String} object.
+     * @param sandboxName     a {@link java.lang.String} object.
+     * @param returnCode      a int - the code returned by the API wrapper.
+     * @param message         a {@link java.lang.String} object - the reason the
+     *                        scan results are not available, can be null.
+     */
+    public ApplicationScanResult(String applicationName, String sandboxName, int returnCode,
+            String message) {
+        this.applicationName = applicationName;
+        this.sandboxName = sandboxName;
+        this.returnCode = returnCode;
+        this.message = message;
+        this.policyName = null;
+        this.policyComplianceStatus = null;
+        this.score = 0;
+        this.veracodeLevel = null;
+        this.totalFlawsCount = 0;
+        this.totalNewFlawsCount = 0;
+        this.scanResultsAvailable = false;
+    }
+
+    /**
+     * Constructor for ApplicationScanResult.
+     *
+     * @param applicationName a {@link java.lang.String} object.
+     * @param sandboxName     a {@link java.lang.String} object.
+     * @param returnCode      a int - the code returned by the API wrapper.
+     * @param scanHistory     a {@link com.veracode.jenkins.plugin.data.ScanHistory}
+     *                        object.
+     */
+    public ApplicationScanResult(String applicationName, String sandboxName, int returnCode,
+            ScanHistory scanHistory) {
+        this.applicationName = applicationName;
+        this.sandboxName = sandboxName;
+        this.returnCode = returnCode;
+        this.message = null;
+        this.policyName = scanHistory.getPolicyName();
+        this.policyComplianceStatus = scanHistory.getPolicyComplianceStatus();
+        this.score = scanHistory.getScore();
+        this.veracodeLevel = scanHistory.getVeracodeLevel();
+        this.totalFlawsCount = scanHistory.getTotalFlawsCount();
+        this.totalNewFlawsCount = scanHistory.getTotalNewFlawsCount();
+        this.scanResultsAvailable = true;
+    }
+
+    @Exported
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    @Exported
+    public String getSandboxName() {
+        return sandboxName;
+    }
+
+    @Exported
+    public int getReturnCode() {
+        return returnCode;
+    }
+
+    @Exported
+    public String getMessage() {
+        return message;
+    }
+
+    @Exported
+    public String getPolicyName() {
+        return policyName;
+    }
+
+    @Exported
+    public String getPolicyComplianceStatus() {
+        return policyComplianceStatus;
+    }
+
+    /**
+     * Get the policy compliance status for display. Note that the "PASS" status
+     * is returned as "Passed".
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getPolicyComplianceStatusForDisplay() {
+        return Constant.PASSED.equalsIgnoreCase(policyComplianceStatus) ? "Passed"
+                : policyComplianceStatus;
+    }
+
+    @Exported
+    public int getScore() {
+        return score;
+    }
+
+    @Exported
+    public String getVeracodeLevel() {
+        return veracodeLevel;
+    }
+
+    @Exported
+    public int getTotalFlawsCount() {
+        return totalFlawsCount;
+    }
+
+    @Exported
+    public int getTotalNewFlawsCount() {
+        return totalNewFlawsCount;
+    }
+
+    @Exported
+    public boolean isScanResultsAvailable() {
+        return scanResultsAvailable;
+    }
+
+    /**
+     * Whether the API wrapper succeeded, returning 0, or returned 4 for a scan
+     * which did not pass policy compliance.
+     *
+     * @return a boolean.
+     */
+    public boolean isScanCompleted() {
+        return 0 == returnCode || 4 == returnCode;
+    }
+}
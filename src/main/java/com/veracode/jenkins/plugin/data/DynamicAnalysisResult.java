@@ -0,0 +1,91 @@
+package com.veracode.jenkins.plugin.data;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import com.veracode.jenkins.plugin.common.Constant;
+
+/**
+ * The DynamicAnalysisResult class represents the outcome of the review of one
+ * Dynamic Analysis, when several analyses are reviewed by one review step.
+ *
+ */
+@ExportedBean
+public class DynamicAnalysisResult {
+
+    private final String analysisName;
+    private final DAScanHistory scanHistory;
+    private final String message;
+
+    /**
+     * Constructor for DynamicAnalysisResult, used when the analysis results are
+     * not available.
+     *
+     * @param analysisName a {@link java.lang.String} object.
+     * @param message      a {@link java.lang.String} object - the reason the
+     *                     analysis results are not available.
+     */
+    public DynamicAnalysisResult(String analysisName, String message) {
+        this.analysisName = analysisName;
+        this.scanHistory = null;
+        this.message = message;
+    }
+
+    /**
+     * Constructor for DynamicAnalysisResult.
+     *
+     * @param analysisName a {@link java.lang.String} object.
+     * @param scanHistory  a {@link com.veracode.jenkins.plugin.data.DAScanHistory}
+     *                     object.
+     */
+    public DynamicAnalysisResult(String analysisName, DAScanHistory scanHistory) {
+        this.analysisName = analysisName;
+        this.scanHistory = scanHistory;
+        this.message = null;
+    }
+
+    @Exported
+    public String getAnalysisName() {
+        return analysisName;
+    }
+
+    @Exported
+    public String getMessage() {
+        return message;
+    }
+
+    @Exported(name = "results")
+    public DAScanHistory getScanHistory() {
+        return scanHistory;
+    }
+
+    @Exported
+    public boolean isScanHistoryAvailable() {
+        return null != scanHistory;
+    }
+
+    /**
+     * Get the policy compliance status for display. Note that the "PASS" status
+     * is returned as "Passed".
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getPolicyComplianceStatusForDisplay() {
+        if (null == scanHistory) {
+            return null;
+        }
+        String policyComplianceStatus = scanHistory.getPolicyComplianceStatus();
+        return Constant.PASSED.equalsIgnoreCase(policyComplianceStatus) ? "Passed"
+                : policyComplianceStatus;
+    }
+
+    /**
+     * Whether the analysis results are available and pass the policy.
+     *
+     * @return a boolean.
+     */
+    public boolean isPolicyPassed() {
+        return null != scanHistory
+                && Constant.PASSED.equalsIgnoreCase(scanHistory.getPolicyComplianceStatus());
+    }
+}
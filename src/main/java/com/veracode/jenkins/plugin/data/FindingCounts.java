@@ -1,5 +1,8 @@
 package com.veracode.jenkins.plugin.data;
 
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
 import com.veracode.jenkins.plugin.enums.SeverityLevel;
 
 /**
@@ -7,6 +10,7 @@ import com.veracode.jenkins.plugin.enums.SeverityLevel;
  * findings at a severity level.
  *
  */
+@ExportedBean
 public class FindingCounts {
 
     private final SeverityLevel sevLevel;
@@ -61,18 +65,32 @@ public class FindingCounts {
         return sevLevel;
     }
 
+    @Exported
+    public int getSeverity() {
+        return sevLevel.getSevLevel();
+    }
+
+    @Exported
+    public String getSeverityName() {
+        return sevLevel.toString();
+    }
+
+    @Exported
     public int getCount() {
         return count;
     }
 
+    @Exported
     public int getNewCount() {
         return newCount;
     }
 
+    @Exported
     public int getNetCount() {
         return netCount;
     }
 
+    @Exported
     public boolean isMitigated() {
         return mitigated;
     }
@@ -0,0 +1,148 @@
+package com.veracode.jenkins.plugin.data;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import com.veracode.jenkins.plugin.enums.SeverityLevel;
+
+/**
+ * The Flaw class represents a static analysis flaw (based on the detailed
+ * report)
+ *
+ */
+@ExportedBean
+public class Flaw {
+
+    private final int issueId;
+    private final int severity;
+    private final int cweId;
+    private final String categoryName;
+    private final String module;
+    private final String sourceFile;
+    private final int line;
+    private final String functionPrototype;
+    private final String remediationStatus;
+    private final String mitigationStatus;
+    private final boolean affectsPolicyCompliance;
+
+    /**
+     * Constructor for Flaw.
+     *
+     * @param issueId                 a int.
+     * @param severity                a int.
+     * @param cweId                   a int.
+     * @param categoryName            a {@link java.lang.String} object.
+     * @param module                  a {@link java.lang.String} object.
+     * @param sourceFile              a {@link java.lang.String} object.
+     * @param line                    a int.
+     * @param remediationStatus       a {@link java.lang.String} object.
+     * @param mitigationStatus        a {@link java.lang.String} object.
+     * @param affectsPolicyCompliance a boolean.
+     */
+    public Flaw(int issueId, int severity, int cweId, String categoryName, String module,
+            String sourceFile, int line, String remediationStatus, String mitigationStatus,
+            boolean affectsPolicyCompliance) {
+        this(issueId, severity, cweId, categoryName, module, sourceFile, line, null,
+                remediationStatus, mitigationStatus, affectsPolicyCompliance);
+    }
+
+    /**
+     * Constructor for Flaw, with the function the flaw is found in.
+     *
+     * @param issueId                 a int.
+     * @param severity                a int.
+     * @param cweId                   a int.
+     * @param categoryName            a {@link java.lang.String} object.
+     * @param module                  a {@link java.lang.String} object.
+     * @param sourceFile              a {@link java.lang.String} object.
+     * @param line                    a int.
+     * @param functionPrototype       a {@link java.lang.String} object.
+     * @param remediationStatus       a {@link java.lang.String} object.
+     * @param mitigationStatus        a {@link java.lang.String} object.
+     * @param affectsPolicyCompliance a boolean.
+     */
+    public Flaw(int issueId, int severity, int cweId, String categoryName, String module,
+            String sourceFile, int line, String functionPrototype, String remediationStatus,
+            String mitigationStatus, boolean affectsPolicyCompliance) {
+        this.issueId = issueId;
+        this.severity = severity;
+        this.cweId = cweId;
+        this.categoryName = categoryName;
+        this.module = module;
+        this.sourceFile = sourceFile;
+        this.line = line;
+        this.functionPrototype = functionPrototype;
+        this.remediationStatus = remediationStatus;
+        this.mitigationStatus = mitigationStatus;
+        this.affectsPolicyCompliance = affectsPolicyCompliance;
+    }
+
+    @Exported
+    public int getIssueId() {
+        return issueId;
+    }
+
+    @Exported
+    public int getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Returns the display name of the severity of the flaw.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    @Exported
+    public String getSeverityName() {
+        try {
+            return SeverityLevel.findSevLevel(severity).toString();
+        } catch (IllegalArgumentException e) {
+            return String.valueOf(severity);
+        }
+    }
+
+    @Exported
+    public int getCweId() {
+        return cweId;
+    }
+
+    @Exported
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    @Exported
+    public String getModule() {
+        return module;
+    }
+
+    @Exported
+    public String getSourceFile() {
+        return sourceFile;
+    }
+
+    @Exported
+    public int getLine() {
+        return line;
+    }
+
+    @Exported
+    public String getFunctionPrototype() {
+        return functionPrototype;
+    }
+
+    @Exported
+    public String getRemediationStatus() {
+        return remediationStatus;
+    }
+
+    @Exported
+    public String getMitigationStatus() {
+        return mitigationStatus;
+    }
+
+    @Exported
+    public boolean isAffectsPolicyCompliance() {
+        return affectsPolicyCompliance;
+    }
+}
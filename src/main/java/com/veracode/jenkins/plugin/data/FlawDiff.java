@@ -0,0 +1,52 @@
+package com.veracode.jenkins.plugin.data;
+
+/**
+ * The FlawDiff class represents the flaws which are new, fixed or unchanged in
+ * a build compared to a base build, identified by their issue IDs.
+ *
+ */
+public class FlawDiff {
+
+    private final int[] newIssueIds;
+    private final int[] fixedIssueIds;
+    private final int[] unchangedIssueIds;
+
+    /**
+     * Constructor for FlawDiff.
+     *
+     * @param newIssueIds       an array of int - the flaws only found in the
+     *                          build.
+     * @param fixedIssueIds     an array of int - the flaws only found in the base
+     *                          build.
+     * @param unchangedIssueIds an array of int - the flaws found in both builds.
+     */
+    public FlawDiff(int[] newIssueIds, int[] fixedIssueIds, int[] unchangedIssueIds) {
+        this.newIssueIds = newIssueIds;
+        this.fixedIssueIds = fixedIssueIds;
+        this.unchangedIssueIds = unchangedIssueIds;
+    }
+
+    public int[] getNewIssueIds() {
+        return newIssueIds.clone();
+    }
+
+    public int[] getFixedIssueIds() {
+        return fixedIssueIds.clone();
+    }
+
+    public int[] getUnchangedIssueIds() {
+        return unchangedIssueIds.clone();
+    }
+
+    public int getNewCount() {
+        return newIssueIds.length;
+    }
+
+    public int getFixedCount() {
+        return fixedIssueIds.length;
+    }
+
+    public int getUnchangedCount() {
+        return unchangedIssueIds.length;
+    }
+}
@@ -0,0 +1,160 @@
+package com.veracode.jenkins.plugin.data;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.List;
+
+import com.veracode.jenkins.plugin.utils.StringUtil;
+
+/**
+ * The FlawPage class represents a page of the flaws of a build, along with the
+ * sort order and filters used to select it.
+ *
+ */
+public class FlawPage {
+
+    private final List<Flaw> flaws;
+    private final int page;
+    private final int pageSize;
+    private final int pageCount;
+    private final int matchCount;
+    private final int totalCount;
+    private final String sort;
+    private final boolean descending;
+    private final int minSeverity;
+    private final boolean policyOnly;
+    private final String filter;
+
+    /**
+     * Constructor for FlawPage.
+     *
+     * @param flaws       a {@link java.util.List} object.
+     * @param page        a int - the page number, starting at 1.
+     * @param pageSize    a int.
+     * @param pageCount   a int.
+     * @param matchCount  a int - the number of flaws matching the filters.
+     * @param totalCount  a int - the number of flaws of the build.
+     * @param sort        a {@link java.lang.String} object.
+     * @param descending  a boolean.
+     * @param minSeverity a int.
+     * @param policyOnly  a boolean.
+     * @param filter      a {@link java.lang.String} object.
+     */
+    public FlawPage(List<Flaw> flaws, int page, int pageSize, int pageCount, int matchCount,
+            int totalCount, String sort, boolean descending, int minSeverity, boolean policyOnly,
+            String filter) {
+        this.flaws = flaws;
+        this.page = page;
+        this.pageSize = pageSize;
+        this.pageCount = pageCount;
+        this.matchCount = matchCount;
+        this.totalCount = totalCount;
+        this.sort = sort;
+        this.descending = descending;
+        this.minSeverity = minSeverity;
+        this.policyOnly = policyOnly;
+        this.filter = filter;
+    }
+
+    public List<Flaw> getFlaws() {
+        return flaws;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getMinSeverity() {
+        return minSeverity;
+    }
+
+    public boolean isPolicyOnly() {
+        return policyOnly;
+    }
+
+    public String getFilter() {
+        return StringUtil.getEmptyIfNull(filter);
+    }
+
+    public boolean isFirstPage() {
+        return page <= 1;
+    }
+
+    public boolean isLastPage() {
+        return page >= pageCount;
+    }
+
+    /**
+     * Returns the query string of another page, keeping the sort order and the
+     * filters.
+     *
+     * @param newPage a int.
+     * @return a {@link java.lang.String} object.
+     */
+    public String getPageQuery(int newPage) {
+        return getQuery(newPage, sort, descending);
+    }
+
+    /**
+     * Returns the query string sorting the flaws by the given column. Selecting
+     * the current sort column again reverses the order.
+     *
+     * @param column a {@link java.lang.String} object.
+     * @return a {@link java.lang.String} object.
+     */
+    public String getSortQuery(String column) {
+        boolean newDescending = column.equals(sort) ? !descending : "severity".equals(column);
+        return getQuery(1, column, newDescending);
+    }
+
+    private String getQuery(int newPage, String newSort, boolean newDescending) {
+        StringBuilder query = new StringBuilder("?page=").append(newPage);
+        query.append("&sort=").append(encode(newSort));
+        query.append("&order=").append(newDescending ? "desc" : "asc");
+        if (pageSize > 0) {
+            query.append("&size=").append(pageSize);
+        }
+        if (minSeverity > 0) {
+            query.append("&severity=").append(minSeverity);
+        }
+        if (policyOnly) {
+            query.append("&policy=true");
+        }
+        if (!StringUtil.isNullOrEmpty(filter)) {
+            query.append("&q=").append(encode(filter));
+        }
+        return query.toString();
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            return value;
+        }
+    }
+}
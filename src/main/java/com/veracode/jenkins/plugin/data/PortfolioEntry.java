@@ -0,0 +1,198 @@
+package com.veracode.jenkins.plugin.data;
+
+import java.util.Date;
+
+import com.veracode.jenkins.plugin.common.Constant;
+import com.veracode.jenkins.plugin.utils.StringUtil;
+
+/**
+ * The PortfolioEntry class represents the latest Veracode scan result of a job
+ * in the portfolio dashboard.
+ *
+ */
+public class PortfolioEntry {
+
+    public static final String TYPE_STATIC = "static";
+    public static final String TYPE_DYNAMIC = "dynamic";
+
+    private final String jobName;
+    private final String jobDisplayName;
+    private final String jobUrl;
+    private final String type;
+    private final int buildNumber;
+    private final long timestamp;
+    private final String policyName;
+    private final String policyComplianceStatus;
+    private final int score;
+    private final String veracodeLevel;
+    private final int totalFlawsCount;
+    private final int totalNewFlawsCount;
+
+    /**
+     * Constructor for PortfolioEntry.
+     *
+     * @param jobName                a {@link java.lang.String} object - the full
+     *                               name of the job.
+     * @param jobDisplayName         a {@link java.lang.String} object.
+     * @param jobUrl                 a {@link java.lang.String} object - the URL of
+     *                               the job relative to the root URL.
+     * @param type                   a {@link java.lang.String} object - the type
+     *                               of the scan, static or dynamic.
+     * @param buildNumber            a int.
+     * @param timestamp              a long.
+     * @param policyName             a {@link java.lang.String} object.
+     * @param policyComplianceStatus a {@link java.lang.String} object.
+     * @param score                  a int.
+     * @param veracodeLevel          a {@link java.lang.String} object.
+     * @param totalFlawsCount        a int.
+     * @param totalNewFlawsCount     a int.
+     */
+    public PortfolioEntry(String jobName, String jobDisplayName, String jobUrl, String type,
+            int buildNumber, long timestamp, String policyName, String policyComplianceStatus,
+            int score, String veracodeLevel, int totalFlawsCount, int totalNewFlawsCount) {
+        this.jobName = jobName;
+        this.jobDisplayName = jobDisplayName;
+        this.jobUrl = jobUrl;
+        this.type = type;
+        this.buildNumber = buildNumber;
+        this.timestamp = timestamp;
+        this.policyName = policyName;
+        this.policyComplianceStatus = policyComplianceStatus;
+        this.score = score;
+        this.veracodeLevel = veracodeLevel;
+        this.totalFlawsCount = totalFlawsCount;
+        this.totalNewFlawsCount = totalNewFlawsCount;
+    }
+
+    /**
+     * Constructor for PortfolioEntry.
+     *
+     * @param jobName        a {@link java.lang.String} object.
+     * @param jobDisplayName a {@link java.lang.String} object.
+     * @param jobUrl         a {@link java.lang.String} object.
+     * @param type           a {@link java.lang.String} object.
+     * @param buildNumber    a int.
+     * @param timestamp      a long.
+     * @param scanHistory    a {@link com.veracode.jenkins.plugin.data.ScanHistory}
+     *                       object.
+     */
+    public PortfolioEntry(String jobName, String jobDisplayName, String jobUrl, String type,
+            int buildNumber, long timestamp, ScanHistory scanHistory) {
+        this(jobName, jobDisplayName, jobUrl, type, buildNumber, timestamp,
+                scanHistory.getPolicyName(), scanHistory.getPolicyComplianceStatus(),
+                scanHistory.getScore(), scanHistory.getVeracodeLevel(),
+                scanHistory.getTotalFlawsCount(), scanHistory.getTotalNewFlawsCount());
+    }
+
+    /**
+     * Returns a copy of this entry for a job which was renamed or moved.
+     *
+     * @param newJobName        a {@link java.lang.String} object.
+     * @param newJobDisplayName a {@link java.lang.String} object.
+     * @param newJobUrl         a {@link java.lang.String} object.
+     * @return a {@link com.veracode.jenkins.plugin.data.PortfolioEntry} object.
+     */
+    public PortfolioEntry withJob(String newJobName, String newJobDisplayName, String newJobUrl) {
+        return new PortfolioEntry(newJobName, newJobDisplayName, newJobUrl, type, buildNumber,
+                timestamp, policyName, policyComplianceStatus, score, veracodeLevel,
+                totalFlawsCount, totalNewFlawsCount);
+    }
+
+    /**
+     * Returns the key of the entry in the portfolio index. A job has at most one
+     * entry of each type.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getKey() {
+        return getKey(jobName, type);
+    }
+
+    /**
+     * Returns the key of an entry in the portfolio index.
+     *
+     * @param jobName a {@link java.lang.String} object.
+     * @param type    a {@link java.lang.String} object.
+     * @return a {@link java.lang.String} object.
+     */
+    public static String getKey(String jobName, String type) {
+        return type + ':' + jobName;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getJobDisplayName() {
+        return StringUtil.isNullOrEmpty(jobDisplayName) ? jobName : jobDisplayName;
+    }
+
+    public String getJobUrl() {
+        return jobUrl;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getTypeName() {
+        return TYPE_DYNAMIC.equals(type) ? "Dynamic Analysis" : "Static Scan";
+    }
+
+    /**
+     * Returns the URL of the Veracode results of the build, relative to the root
+     * URL.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getResultsUrl() {
+        return jobUrl + buildNumber + (TYPE_DYNAMIC.equals(type) ? "/veracodeDA/" : "/veracode/");
+    }
+
+    public int getBuildNumber() {
+        return buildNumber;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Date getDate() {
+        return new Date(timestamp);
+    }
+
+    public String getPolicyName() {
+        return policyName;
+    }
+
+    public String getPolicyComplianceStatus() {
+        return policyComplianceStatus;
+    }
+
+    /**
+     * Get the policy compliance status for display. Note that the "PASS" status
+     * is returned as "Passed".
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getPolicyComplianceStatusForDisplay() {
+        return Constant.PASSED.equalsIgnoreCase(policyComplianceStatus) ? "Passed"
+                : policyComplianceStatus;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public String getVeracodeLevel() {
+        return veracodeLevel;
+    }
+
+    public int getTotalFlawsCount() {
+        return totalFlawsCount;
+    }
+
+    public int getTotalNewFlawsCount() {
+        return totalNewFlawsCount;
+    }
+}
@@ -0,0 +1,152 @@
+package com.veracode.jenkins.plugin.data;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.List;
+
+import com.veracode.jenkins.plugin.utils.StringUtil;
+
+/**
+ * The PortfolioPage class represents a page of the portfolio dashboard, along
+ * with the sort order and filters used to select it.
+ *
+ */
+public class PortfolioPage {
+
+    private final List<PortfolioEntry> entries;
+    private final int page;
+    private final int pageSize;
+    private final int pageCount;
+    private final int matchCount;
+    private final int totalCount;
+    private final String sort;
+    private final boolean descending;
+    private final String status;
+    private final String filter;
+
+    /**
+     * Constructor for PortfolioPage.
+     *
+     * @param entries    a {@link java.util.List} object.
+     * @param page       a int - the page number, starting at 1.
+     * @param pageSize   a int.
+     * @param pageCount  a int.
+     * @param matchCount a int - the number of entries matching the filters.
+     * @param totalCount a int - the number of entries of the portfolio.
+     * @param sort       a {@link java.lang.String} object.
+     * @param descending a boolean.
+     * @param status     a {@link java.lang.String} object - the policy compliance
+     *                   status to select, or null for all.
+     * @param filter     a {@link java.lang.String} object.
+     */
+    public PortfolioPage(List<PortfolioEntry> entries, int page, int pageSize, int pageCount,
+            int matchCount, int totalCount, String sort, boolean descending, String status,
+            String filter) {
+        this.entries = entries;
+        this.page = page;
+        this.pageSize = pageSize;
+        this.pageCount = pageCount;
+        this.matchCount = matchCount;
+        this.totalCount = totalCount;
+        this.sort = sort;
+        this.descending = descending;
+        this.status = status;
+        this.filter = filter;
+    }
+
+    public List<PortfolioEntry> getEntries() {
+        return entries;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String getStatus() {
+        return StringUtil.getEmptyIfNull(status);
+    }
+
+    public String getFilter() {
+        return StringUtil.getEmptyIfNull(filter);
+    }
+
+    public boolean isFirstPage() {
+        return page <= 1;
+    }
+
+    public boolean isLastPage() {
+        return page >= pageCount;
+    }
+
+    /**
+     * Returns the query string of another page, keeping the sort order and the
+     * filters.
+     *
+     * @param newPage a int.
+     * @return a {@link java.lang.String} object.
+     */
+    public String getPageQuery(int newPage) {
+        return getQuery(newPage, sort, descending);
+    }
+
+    /**
+     * Returns the query string sorting the entries by the given column. Selecting
+     * the current sort column again reverses the order.
+     *
+     * @param column a {@link java.lang.String} object.
+     * @return a {@link java.lang.String} object.
+     */
+    public String getSortQuery(String column) {
+        boolean newDescending = column.equals(sort) ? !descending
+                : !"job".equals(column) && !"status".equals(column) && !"policy".equals(column);
+        return getQuery(1, column, newDescending);
+    }
+
+    private String getQuery(int newPage, String newSort, boolean newDescending) {
+        StringBuilder query = new StringBuilder("?page=").append(newPage);
+        query.append("&sort=").append(encode(newSort));
+        query.append("&order=").append(newDescending ? "desc" : "asc");
+        if (pageSize > 0) {
+            query.append("&size=").append(pageSize);
+        }
+        if (!StringUtil.isNullOrEmpty(status)) {
+            query.append("&status=").append(encode(status));
+        }
+        if (!StringUtil.isNullOrEmpty(filter)) {
+            query.append("&q=").append(encode(filter));
+        }
+        return query.toString();
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            return value;
+        }
+    }
+}
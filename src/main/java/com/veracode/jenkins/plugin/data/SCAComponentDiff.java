@@ -0,0 +1,85 @@
+package com.veracode.jenkins.plugin.data;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The SCAComponentDiff class represents the SCA components which were added,
+ * removed or changed version in a build compared to a base build.
+ *
+ */
+public class SCAComponentDiff {
+
+    private final List<String> addedComponents;
+    private final List<String> removedComponents;
+    private final List<VersionChange> versionChanges;
+
+    /**
+     * Constructor for SCAComponentDiff.
+     *
+     * @param addedComponents   a {@link java.util.List} object - the names of the
+     *                          components only found in the build.
+     * @param removedComponents a {@link java.util.List} object - the names of the
+     *                          components only found in the base build.
+     * @param versionChanges    a {@link java.util.List} object - the components
+     *                          found in both builds with different versions.
+     */
+    public SCAComponentDiff(List<String> addedComponents, List<String> removedComponents,
+            List<VersionChange> versionChanges) {
+        this.addedComponents = Collections.unmodifiableList(addedComponents);
+        this.removedComponents = Collections.unmodifiableList(removedComponents);
+        this.versionChanges = Collections.unmodifiableList(versionChanges);
+    }
+
+    public List<String> getAddedComponents() {
+        return addedComponents;
+    }
+
+    public List<String> getRemovedComponents() {
+        return removedComponents;
+    }
+
+    public List<VersionChange> getVersionChanges() {
+        return versionChanges;
+    }
+
+    public boolean isEmpty() {
+        return addedComponents.isEmpty() && removedComponents.isEmpty()
+                && versionChanges.isEmpty();
+    }
+
+    /**
+     * A component found in both builds with different versions.
+     */
+    public static class VersionChange {
+
+        private final String library;
+        private final String oldVersion;
+        private final String newVersion;
+
+        /**
+         * Constructor for VersionChange.
+         *
+         * @param library    a {@link java.lang.String} object.
+         * @param oldVersion a {@link java.lang.String} object.
+         * @param newVersion a {@link java.lang.String} object.
+         */
+        public VersionChange(String library, String oldVersion, String newVersion) {
+            this.library = library;
+            this.oldVersion = oldVersion;
+            this.newVersion = newVersion;
+        }
+
+        public String getLibrary() {
+            return library;
+        }
+
+        public String getOldVersion() {
+            return oldVersion;
+        }
+
+        public String getNewVersion() {
+            return newVersion;
+        }
+    }
+}
@@ -6,6 +6,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
 import com.veracode.jenkins.plugin.enums.SeverityLevel;
 
 /**
@@ -13,6 +16,7 @@ import com.veracode.jenkins.plugin.enums.SeverityLevel;
  * current/past build.
  *
  */
+@ExportedBean
 public class SCAScanHistory {
 
     private final boolean subscribed;
@@ -30,7 +34,11 @@ public class SCAScanHistory {
 
     private final FindingCounts[] vulCounts; // An array to contain Vulnerability counts for each
                                              // severity level.
-    private final Set<SCAComponent> scaComponents;
+    // null once the components have been moved to a side file of the build
+    private Set<SCAComponent> scaComponents;
+    // true when the SCA results of the build were not retrieved, e.g. when only
+    // the summary report was downloaded
+    private final boolean resultsUnavailable;
 
     /**
      * Constructor for SCAScanHistory.
@@ -45,6 +53,7 @@ public class SCAScanHistory {
         totalVulCount = 0;
         totalNewVulCount = 0;
         totalNetVulCount = 0;
+        resultsUnavailable = false;
     }
 
     /**
@@ -53,6 +62,18 @@ public class SCAScanHistory {
      * @param vulCountHistory a {@link java.util.List} object.
      */
     public SCAScanHistory(List<Map<String, Long>> vulCountHistory) {
+        this(vulCountHistory, false);
+    }
+
+    /**
+     * Constructor for SCAScanHistory, without SCA results for the build.
+     *
+     * @param vulCountHistory    a {@link java.util.List} object.
+     * @param resultsUnavailable a boolean - true if the SCA results of the build
+     *                           were not retrieved, false if the account is not
+     *                           subscribed to SCA.
+     */
+    public SCAScanHistory(List<Map<String, Long>> vulCountHistory, boolean resultsUnavailable) {
         subscribed = false;
         blComponentsCount = 0;
         maxCVSSScore = 0;
@@ -62,6 +83,7 @@ public class SCAScanHistory {
         totalVulCount = 0;
         totalNewVulCount = 0;
         totalNetVulCount = 0;
+        this.resultsUnavailable = resultsUnavailable;
     }
 
     /**
@@ -97,22 +119,60 @@ public class SCAScanHistory {
         this.blComponentsCount = blComponentsCount;
 
         this.vulCountHistory = new ArrayList<>(vulCountHistory);
+        this.resultsUnavailable = false;
     }
 
+    @Exported(visibility = 3)
     public boolean isSubscribed() {
         return subscribed;
     }
 
+    @Exported(visibility = 3)
+    public boolean isResultsUnavailable() {
+        return resultsUnavailable;
+    }
+
+    @Exported(visibility = 3)
     public int getBlacklistedComponentsCount() {
         return blComponentsCount;
     }
 
+    @Exported(visibility = 3)
     public double getMaxCVSSScore() {
         return maxCVSSScore;
     }
 
+    /**
+     * Returns the SCA components held by this history. Once the components have
+     * been detached, they are only available through
+     * {@link com.veracode.jenkins.plugin.VeracodeAction#getSCAComponents()}.
+     *
+     * @return a {@link java.util.Set} object.
+     */
     public Set<SCAComponent> getSCAComponents() {
-        return new HashSet<>(scaComponents);
+        return null != scaComponents ? new HashSet<>(scaComponents) : new HashSet<SCAComponent>();
+    }
+
+    /**
+     * Whether this history holds the SCA components itself.
+     *
+     * @return a boolean.
+     */
+    public boolean hasSCAComponents() {
+        return null != scaComponents;
+    }
+
+    /**
+     * Removes the SCA components from this history, so that they are not
+     * serialized with it, and returns them.
+     *
+     * @return a {@link java.util.Set} object, or null if the history holds no
+     *         components.
+     */
+    public Set<SCAComponent> detachSCAComponents() {
+        Set<SCAComponent> detached = scaComponents;
+        scaComponents = null;
+        return detached;
     }
 
     public FindingCounts getCountBySeverity(SeverityLevel sevLevel) {
@@ -124,18 +184,41 @@ public class SCAScanHistory {
         return vulCounts[sevLevel.getSevLevel()];
     }
 
+    /**
+     * Returns the vulnerability counts of the severity levels with known counts,
+     * from the lowest to the highest.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    @Exported
+    public List<FindingCounts> getVulCounts() {
+        List<FindingCounts> counts = new ArrayList<>();
+        if (null != vulCounts) {
+            for (FindingCounts vc : vulCounts) {
+                if (null != vc) {
+                    counts.add(vc);
+                }
+            }
+        }
+        return counts;
+    }
+
+    @Exported(visibility = 3)
     public int getTotalVulCount() {
         return totalVulCount;
     }
 
+    @Exported(visibility = 3)
     public int getTotalNewVulCount() {
         return totalNewVulCount;
     }
 
+    @Exported(visibility = 3)
     public int getTotalNetVulCount() {
         return totalNetVulCount;
     }
 
+    @Exported
     public List<Map<String, Long>> getVulCountHistory() {
         return vulCountHistory;
     }
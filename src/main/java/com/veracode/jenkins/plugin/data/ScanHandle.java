@@ -0,0 +1,46 @@
+package com.veracode.jenkins.plugin.data;
+
+/**
+ * The ScanHandle class identifies a Veracode build started by the
+ * "veracodeUpload" Pipeline step, so that the "veracodeAwaitResults" step can
+ * collect its results later.
+ *
+ */
+public final class ScanHandle {
+
+    private final String applicationName;
+    private final String sandboxName;
+    private final String appId;
+    private final String buildId;
+
+    /**
+     * Constructor for ScanHandle.
+     *
+     * @param applicationName a {@link java.lang.String} object.
+     * @param sandboxName     a {@link java.lang.String} object.
+     * @param appId           a {@link java.lang.String} object.
+     * @param buildId         a {@link java.lang.String} object.
+     */
+    public ScanHandle(String applicationName, String sandboxName, String appId, String buildId) {
+        this.applicationName = applicationName;
+        this.sandboxName = sandboxName;
+        this.appId = appId;
+        this.buildId = buildId;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public String getSandboxName() {
+        return sandboxName;
+    }
+
+    public String getAppId() {
+        return appId;
+    }
+
+    public String getBuildId() {
+        return buildId;
+    }
+}
@@ -4,6 +4,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import com.veracode.jenkins.plugin.enums.SeverityLevel;
 import com.veracode.jenkins.plugin.utils.StringUtil;
 
 /**
@@ -11,6 +15,7 @@ import com.veracode.jenkins.plugin.utils.StringUtil;
  * current/past builds.
  *
  */
+@ExportedBean
 public class ScanHistory {
 
     public static final String BUILD_DATE = "BUILD_DATE";
@@ -101,22 +106,27 @@ public class ScanHistory {
         this.policyaffect = policyaffect.clone();
     }
 
+    @Exported(visibility = 3)
     public String getPolicyName() {
         return policyName;
     }
 
+    @Exported(visibility = 3)
     public String getPolicyComplianceStatus() {
         return policyComplianceStatus;
     }
 
+    @Exported(visibility = 3)
     public int getScore() {
         return score;
     }
 
+    @Exported(visibility = 3)
     public String getVeracodeLevel() {
         return veracodeLevel;
     }
 
+    @Exported(visibility = 3)
     public boolean isScanOverdue() {
         return scanOverdue;
     }
@@ -145,14 +155,17 @@ public class ScanHistory {
         return policyaffect[severity];
     }
 
+    @Exported(visibility = 3)
     public int getTotalFlawsCount() {
         return this.totalFlawsCount;
     }
 
+    @Exported(visibility = 3)
     public int getTotalNewFlawsCount() {
         return this.totalNewFlawsCount;
     }
 
+    @Exported(visibility = 3)
     public int getTotalNetChangeCount() {
         return this.totalNetChangeCount;
     }
@@ -174,18 +187,42 @@ public class ScanHistory {
         return netChange[severity];
     }
 
+    @Exported
     public List<Map<String, Long>> getFlawsCountHistory() {
         return flawsCountHistory;
     }
 
+    /**
+     * Returns the flaw counts of each severity level, from the lowest to the
+     * highest.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    @Exported
+    public List<FindingCounts> getFindingCounts() {
+        List<FindingCounts> findingCounts = new ArrayList<>();
+        if (null == flawsCount || null == mitigateFlag || null == netChange) {
+            return findingCounts;
+        }
+        for (SeverityLevel sevLevel : SeverityLevel.values()) {
+            int severity = sevLevel.getSevLevel();
+            findingCounts.add(new FindingCounts(sevLevel, getFlawsCount(severity),
+                    getNewFlaws(severity), getNetChange(severity), getMitigateFlag(severity)));
+        }
+        return findingCounts;
+    }
+
+    @Exported(visibility = 3)
     public String getAccountId() {
         return accountId;
     }
 
+    @Exported(visibility = 3)
     public String getAppId() {
         return appId;
     }
 
+    @Exported(visibility = 3)
     public String getBuildId() {
         return buildId;
     }
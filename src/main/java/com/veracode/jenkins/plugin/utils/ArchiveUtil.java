@@ -0,0 +1,240 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.tools.ant.DirectoryScanner;
+import org.jenkinsci.remoting.RoleChecker;
+
+import hudson.FilePath;
+import hudson.Util;
+import hudson.remoting.VirtualChannel;
+import hudson.slaves.WorkspaceList;
+import jenkins.security.Roles;
+
+/**
+ * The ArchiveUtil is a utility class for packaging the files matched by the
+ * upload patterns into a small number of ZIP archives on the machine that holds
+ * the workspace, so that they can be uploaded instead of the individual files.
+ *
+ */
+public final class ArchiveUtil {
+
+    public static final String ARCHIVE_DIR_NAME = "veracode-upload-archives";
+    public static final String ARCHIVE_FILE_PREFIX = "veracode-upload-";
+    public static final String ARCHIVE_FILE_EXTENSION = ".zip";
+    public static final int DEFAULT_MAX_ARCHIVE_SIZE_MB = 500;
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Returns the directory in which the upload archives of the specified
+     * workspace are created. The directory is located next to the workspace so
+     * that the archives are never matched by the upload patterns.
+     *
+     * @param workspace a {@link hudson.FilePath} object.
+     * @return a {@link hudson.FilePath} object.
+     */
+    public static FilePath getArchiveDir(FilePath workspace) {
+        FilePath tempDir = WorkspaceList.tempDir(workspace);
+        if (tempDir == null) {
+            throw new RuntimeException("Cannot locate the temporary directory of the workspace.");
+        }
+        return tempDir.child(ARCHIVE_DIR_NAME);
+    }
+
+    /**
+     * Converts the maximum archive size supplied in the job configuration (in
+     * megabytes) to bytes, falling back to the default size if the value is
+     * empty or not a positive number.
+     *
+     * @param maxArchiveSizeMB a {@link java.lang.String} object.
+     * @return a long.
+     */
+    public static long getMaxArchiveSizeBytes(String maxArchiveSizeMB) {
+        int sizeMB = DEFAULT_MAX_ARCHIVE_SIZE_MB;
+        if (!StringUtil.isNullOrEmpty(maxArchiveSizeMB)) {
+            try {
+                sizeMB = Integer.parseInt(maxArchiveSizeMB.trim());
+            } catch (NumberFormatException nfe) {
+                sizeMB = DEFAULT_MAX_ARCHIVE_SIZE_MB;
+            }
+        }
+        if (sizeMB <= 0) {
+            sizeMB = DEFAULT_MAX_ARCHIVE_SIZE_MB;
+        }
+        return sizeMB * BYTES_PER_MB;
+    }
+
+    /**
+     * Packages the files of the specified workspace that match the given patterns
+     * into one or more ZIP archives located in {@code archiveDir}. The work is done
+     * on the machine that holds the workspace and the files are streamed into the
+     * archives, so they are never transferred or held in memory as a whole.
+     * <p>
+     * A new archive is started whenever adding the next file could make the
+     * current archive exceed {@code maxArchiveSize}. A single file that is larger
+     * than the limit gets an archive of its own.
+     *
+     * @param workspace      a {@link hudson.FilePath} object.
+     * @param includes       a {@link java.lang.String} object.
+     * @param excludes       a {@link java.lang.String} object.
+     * @param archiveDir     a {@link hudson.FilePath} object.
+     * @param maxArchiveSize a long - the size limit of each archive in bytes.
+     * @return an array of {@link java.lang.String} objects - the paths of the
+     *         archives.
+     * @throws java.io.IOException            if any.
+     * @throws java.lang.InterruptedException if any.
+     */
+    public static String[] packageFiles(FilePath workspace, String includes, String excludes,
+            FilePath archiveDir, long maxArchiveSize) throws IOException, InterruptedException {
+        if (archiveDir.exists()) {
+            archiveDir.deleteRecursive();
+        }
+        archiveDir.mkdirs();
+        return workspace.act(
+                new PackageFilesCallable(includes, excludes, archiveDir.getRemote(), maxArchiveSize));
+    }
+
+    /**
+     * Deletes the specified archive directory, ignoring any error as the
+     * directory only contains temporary files.
+     *
+     * @param archiveDir a {@link hudson.FilePath} object.
+     */
+    public static void cleanUpArchives(FilePath archiveDir) {
+        try {
+            if (archiveDir != null && archiveDir.exists()) {
+                archiveDir.deleteRecursive();
+            }
+        } catch (IOException | InterruptedException e) {
+            // the directory is recreated before the next packaging
+        }
+    }
+
+    /**
+     * Implements {@link hudson.FilePath.FileCallable FileCallable}'s
+     * {@link hudson.FilePath.FileCallable#invoke(File, VirtualChannel) invoke}
+     * method, which is executed on the machine that holds the workspace.
+     *
+     */
+    public static final class PackageFilesCallable implements FilePath.FileCallable<String[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final String includes;
+        private final String excludes;
+        private final String archiveDir;
+        private final long maxArchiveSize;
+
+        public PackageFilesCallable(String includes, String excludes, String archiveDir,
+                long maxArchiveSize) {
+            this.includes = includes;
+            this.excludes = excludes;
+            this.archiveDir = archiveDir;
+            this.maxArchiveSize = maxArchiveSize;
+        }
+
+        public String[] invoke(File workspace, VirtualChannel channel)
+                throws IOException, InterruptedException {
+            DirectoryScanner ds = Util.createFileSet(workspace, includes, excludes)
+                    .getDirectoryScanner();
+            String[] relativePaths = ds.getIncludedFiles();
+
+            List<String> archives = new ArrayList<String>();
+            ZipOutputStream zos = null;
+            CountingOutputStream counter = null;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try {
+                for (String relativePath : relativePaths) {
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    File file = new File(workspace, relativePath);
+                    long fileSize = file.length();
+
+                    // start a new archive if this file could push the current one past the limit
+                    if (zos != null && counter.getCount() > 0
+                            && counter.getCount() + fileSize > maxArchiveSize) {
+                        zos.close();
+                        zos = null;
+                    }
+                    if (zos == null) {
+                        File archive = new File(archiveDir, ARCHIVE_FILE_PREFIX
+                                + (archives.size() + 1) + ARCHIVE_FILE_EXTENSION);
+                        counter = new CountingOutputStream(new BufferedOutputStream(
+                                new FileOutputStream(archive), BUFFER_SIZE));
+                        zos = new ZipOutputStream(counter);
+                        archives.add(archive.getPath());
+                    }
+
+                    ZipEntry entry = new ZipEntry(relativePath.replace('\\', '/'));
+                    entry.setTime(file.lastModified());
+                    zos.putNextEntry(entry);
+                    try (InputStream in = Files.newInputStream(file.toPath())) {
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            zos.write(buffer, 0, read);
+                        }
+                    }
+                    zos.closeEntry();
+                }
+            } finally {
+                if (zos != null) {
+                    zos.close();
+                }
+            }
+            return archives.toArray(new String[archives.size()]);
+        }
+
+        @Override
+        public void checkRoles(RoleChecker checker) throws SecurityException {
+            checker.check(this, Roles.SLAVE);
+        }
+    }
+
+    /**
+     * Counts the bytes written to the underlying stream, i.e. the compressed size
+     * of the archive written so far.
+     *
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * Constructor for ArchiveUtil.
+     */
+    private ArchiveUtil() {
+    }
+}
@@ -1,29 +1,20 @@
 package com.veracode.jenkins.plugin.utils;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
-import java.util.Properties;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.jenkinsci.remoting.RoleChecker;
 
 import com.veracode.apiwrapper.cli.VeracodeCommand;
-import com.veracode.jenkins.plugin.VeracodeNotifier;
-import com.veracode.jenkins.plugin.VeracodeNotifier.VeracodeDescriptor;
-import com.veracode.jenkins.plugin.common.Constant;
 
 import hudson.FilePath;
-import hudson.model.AbstractBuild;
-import hudson.model.Node;
-import hudson.model.Run;
-import hudson.model.TaskListener;
+import hudson.Util;
 import hudson.remoting.VirtualChannel;
-import jenkins.model.Jenkins;
 
 /**
  * The FileUtil is a utility class for working with files and directories.
@@ -31,8 +22,6 @@ import jenkins.model.Jenkins;
  */
 public final class FileUtil {
 
-    private static final String VERACODE_PROPERTIES_FILE_NAME = "veracode.properties";
-
     /**
      * Deletes the file represented by the specified {@link java.io.File File}
      * object. If {@code file} represents a directory it also recursively deletes
@@ -122,48 +111,6 @@ public final class FileUtil {
         }
     }
 
-    /**
-     * Copies the Veracode API Wrapper to the remote location.
-     *
-     * @param build  a {@link hudson.model.AbstractBuild} object.
-     * @param local  a {@link hudson.FilePath} object.
-     * @param remote a {@link hudson.FilePath} object.
-     * @param ps     a {@link java.io.PrintStream} object.
-     * @return a boolean.
-     * @throws java.lang.Exception if any.
-     */
-    public static boolean copyJarFiles(AbstractBuild<?, ?> build, FilePath local, FilePath remote,
-            PrintStream ps) throws Exception {
-        boolean bRet = false;
-        try {
-            Node node = build.getBuiltOn();
-            if (node == null) {
-                throw new RuntimeException("Cannot locate the build node.");
-            }
-            local.copyRecursiveTo(Constant.inclusive, null, remote);
-
-            // now make a copy of the jar as 'VeracodeJavaAPI.jar' as the name
-            // of the jarfile in the plugin
-            // will change depending on the wrapper version it has been built
-            // with
-
-            FilePath[] files = remote.list(Constant.inclusive);
-            String jarName = files[0].getRemote();
-            FilePath oldJar = new FilePath(node.getChannel(), jarName);
-            String newJarName = jarName.replaceAll(Constant.regex, Constant.execJarFile + "$2");
-            FilePath newjarFilePath = new FilePath(node.getChannel(), newJarName);
-            oldJar.copyToWithPermission(newjarFilePath);
-            bRet = true;
-        } catch (RuntimeException ex) {
-            VeracodeDescriptor veracodeDescriptor = (VeracodeDescriptor) Jenkins.get()
-                    .getDescriptor(VeracodeNotifier.class);
-            if (veracodeDescriptor != null && veracodeDescriptor.getFailbuild()) {
-                ps.println("Failed to copy the jarfiles\n");
-            }
-        }
-        return bRet;
-    }
-
     /**
      * Returns the Veracode API Wrapper location situated in master.
      *
@@ -177,92 +124,27 @@ public final class FileUtil {
     }
 
     /**
-     * Deletes the properties file of the specified build.
-     *
-     * @param run      a {@link hudson.model.Run} object.
-     * @param listener a {@link hudson.model.TaskListener} object.
-     * @return a boolean.
-     */
-    public static boolean cleanUpBuildProperties(Run<?, ?> run, TaskListener listener) {
-        File file = null;
-        try {
-            // run.getRootDir().getParent() is the builds directory
-            file = new File(
-                    run.getRootDir().getParent() + File.separator + VERACODE_PROPERTIES_FILE_NAME);
-            if (file.exists()) {
-                Files.delete(file.toPath());
-            }
-            return true;
-        } catch (IOException e) {
-            listener.getLogger().println(Constant.NEWLINE + Constant.NEWLINE + e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Creates a properties file for the specified build with the given properties.
+     * Returns the hex encoded SHA-256 checksum of the specified file.
      *
-     * @param run        a {@link hudson.model.Run} object.
-     * @param properties a {@link java.util.Properties} object.
-     * @param listener   a {@link hudson.model.TaskListener} object.
-     * @return a boolean.
+     * @param file a {@link java.io.File} object.
+     * @return a {@link java.lang.String} object.
      * @throws java.io.IOException if any.
      */
-    public static boolean createBuildPropertiesFile(Run<?, ?> run, Properties properties,
-            TaskListener listener) throws IOException {
-        File file = null;
-        FileOutputStream fileOutputStream = null;
+    public static String getSha256Checksum(File file) throws IOException {
+        MessageDigest digest;
         try {
-            file = new File(
-                    run.getRootDir().getParent() + File.separator + VERACODE_PROPERTIES_FILE_NAME);
-            fileOutputStream = new FileOutputStream(file);
-            properties.store(fileOutputStream, "Veracode");
-            return true;
-        } catch (FileNotFoundException e) {
-            listener.getLogger().println(Constant.NEWLINE + Constant.NEWLINE + e.getMessage());
-            return false;
-        } catch (IOException e) {
-            listener.getLogger().println(Constant.NEWLINE + Constant.NEWLINE + e.getMessage());
-            return false;
-        } finally {
-            if (fileOutputStream != null) {
-                fileOutputStream.close();
-            }
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
         }
-    }
-
-    /**
-     * Returns the properties of the specified build.
-     *
-     * @param run      a {@link hudson.model.Run} object.
-     * @param listener a {@link hudson.model.TaskListener} object.
-     * @return a {@link java.util.Properties} object.
-     * @throws java.io.IOException if any.
-     */
-    public static Properties readBuildPropertiesFile(Run<?, ?> run, TaskListener listener)
-            throws IOException {
-        File file = null;
-        FileInputStream fileInputStream = null;
-        Properties properties = null;
-        try {
-            file = new File(
-                    run.getRootDir().getParent() + File.separator + VERACODE_PROPERTIES_FILE_NAME);
-            if (file.exists()) {
-                fileInputStream = new FileInputStream(file);
-                properties = new Properties();
-                properties.load(fileInputStream);
-            }
-        } catch (FileNotFoundException e) {
-            listener.getLogger().print(Constant.NEWLINE + Constant.NEWLINE + e.getMessage());
-        } catch (IOException e) {
-            listener.getLogger().print(Constant.NEWLINE + Constant.NEWLINE + e.getMessage());
-        } finally {
-            if (fileInputStream != null) {
-                fileInputStream.close();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
             }
-            cleanUpBuildProperties(run, listener);
         }
-        return properties;
+        return Util.toHexString(digest.digest());
     }
 
     /**
@@ -0,0 +1,171 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+import com.veracode.jenkins.plugin.data.Flaw;
+import com.veracode.jenkins.plugin.data.FlawDiff;
+
+/**
+ * The FlawFingerprintUtil is a utility class for the flaw fingerprints of a
+ * build, which are used to find the flaws that appeared or were fixed between
+ * two builds without downloading their detailed reports again.
+ * <p>
+ * A fingerprint combines the issue ID of a flaw (upper 32 bits) with a hash of
+ * its CWE ID, module, source file and function (lower 32 bits). The line is left
+ * out, so that a flaw moved by unrelated edits of its source file is neither
+ * reported as fixed nor as new. The fingerprints of a build are stored sorted,
+ * so two builds are compared with a single linear merge.
+ *
+ */
+public final class FlawFingerprintUtil {
+
+    public static final String FINGERPRINTS_FILE_NAME = "veracode-flaw-fingerprints.bin";
+
+    // version 1 fingerprints included the line
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Returns the fingerprint of a flaw.
+     *
+     * @param flaw a {@link com.veracode.jenkins.plugin.data.Flaw} object.
+     * @return a long.
+     */
+    public static long getFingerprint(Flaw flaw) {
+        int locationHash = flaw.getCweId();
+        locationHash = 31 * locationHash + StringUtil.getEmptyIfNull(flaw.getModule()).hashCode();
+        locationHash = 31 * locationHash
+                + StringUtil.getEmptyIfNull(flaw.getSourceFile()).hashCode();
+        locationHash = 31 * locationHash
+                + StringUtil.getEmptyIfNull(flaw.getFunctionPrototype()).hashCode();
+        return ((long) flaw.getIssueId() << 32) | (locationHash & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the issue ID of a fingerprint.
+     *
+     * @param fingerprint a long.
+     * @return a int.
+     */
+    public static int getIssueId(long fingerprint) {
+        return (int) (fingerprint >> 32);
+    }
+
+    /**
+     * Returns the file storing the flaw fingerprints of a build.
+     *
+     * @param buildDir a {@link java.io.File} object - the root directory of the
+     *                 build.
+     * @return a {@link java.io.File} object.
+     */
+    public static File getFingerprintsFile(File buildDir) {
+        return new File(buildDir, FINGERPRINTS_FILE_NAME);
+    }
+
+    /**
+     * Writes the sorted fingerprints of the given flaws. The file is replaced
+     * atomically, so that readers never see a partially written file.
+     *
+     * @param buildDir a {@link java.io.File} object - the root directory of the
+     *                 build.
+     * @param flaws    a {@link java.util.List} object.
+     * @throws java.io.IOException if any.
+     */
+    public static void writeFingerprints(File buildDir, List<Flaw> flaws) throws IOException {
+        long[] fingerprints = new long[flaws.size()];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = getFingerprint(flaws.get(i));
+        }
+        Arrays.sort(fingerprints);
+
+        File file = getFingerprintsFile(buildDir);
+        File tempFile = new File(buildDir, FINGERPRINTS_FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(fingerprints.length);
+            for (long fingerprint : fingerprints) {
+                out.writeLong(fingerprint);
+            }
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the sorted flaw fingerprints of a build.
+     *
+     * @param buildDir a {@link java.io.File} object - the root directory of the
+     *                 build.
+     * @return an array of long.
+     * @throws java.io.IOException if any.
+     */
+    public static long[] readFingerprints(File buildDir) throws IOException {
+        File file = getFingerprintsFile(buildDir);
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported format version " + version + " of " + file);
+            }
+            long[] fingerprints = new long[in.readInt()];
+            for (int i = 0; i < fingerprints.length; i++) {
+                fingerprints[i] = in.readLong();
+            }
+            return fingerprints;
+        }
+    }
+
+    /**
+     * Compares the sorted fingerprints of two builds with a linear merge.
+     *
+     * @param baseFingerprints an array of long - the sorted fingerprints of the
+     *                         base build.
+     * @param fingerprints     an array of long - the sorted fingerprints of the
+     *                         build.
+     * @return a {@link com.veracode.jenkins.plugin.data.FlawDiff} object.
+     */
+    public static FlawDiff diff(long[] baseFingerprints, long[] fingerprints) {
+        int[] newIssueIds = new int[fingerprints.length];
+        int[] fixedIssueIds = new int[baseFingerprints.length];
+        int[] unchangedIssueIds = new int[Math.min(fingerprints.length, baseFingerprints.length)];
+        int newCount = 0, fixedCount = 0, unchangedCount = 0;
+
+        int i = 0, j = 0;
+        while (i < baseFingerprints.length && j < fingerprints.length) {
+            if (baseFingerprints[i] == fingerprints[j]) {
+                unchangedIssueIds[unchangedCount++] = getIssueId(fingerprints[j]);
+                i++;
+                j++;
+            } else if (baseFingerprints[i] < fingerprints[j]) {
+                fixedIssueIds[fixedCount++] = getIssueId(baseFingerprints[i++]);
+            } else {
+                newIssueIds[newCount++] = getIssueId(fingerprints[j++]);
+            }
+        }
+        while (i < baseFingerprints.length) {
+            fixedIssueIds[fixedCount++] = getIssueId(baseFingerprints[i++]);
+        }
+        while (j < fingerprints.length) {
+            newIssueIds[newCount++] = getIssueId(fingerprints[j++]);
+        }
+
+        return new FlawDiff(Arrays.copyOf(newIssueIds, newCount),
+                Arrays.copyOf(fixedIssueIds, fixedCount),
+                Arrays.copyOf(unchangedIssueIds, unchangedCount));
+    }
+
+    /**
+     * Constructor for FlawFingerprintUtil.
+     */
+    private FlawFingerprintUtil() {
+    }
+}
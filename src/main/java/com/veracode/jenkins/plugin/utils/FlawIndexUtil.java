@@ -0,0 +1,470 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeSet;
+
+import com.veracode.jenkins.plugin.data.Flaw;
+import com.veracode.jenkins.plugin.data.FlawPage;
+
+import hudson.model.TaskListener;
+
+/**
+ * The FlawIndexUtil is a utility class for the binary flaw index of a build,
+ * which lets the results page browse the flaws of large reports page by page.
+ * <p>
+ * The index consists of fixed size records, sorted by severity (highest first)
+ * and issue ID, followed by a table of the distinct strings referenced by the
+ * records. The string table is sorted, so records are sorted by a string column
+ * by comparing the indexes of their strings. Only the header and the string
+ * offsets are kept in memory. The file is opened for each read and closed right
+ * away, so that it never stays locked and the build can be deleted: filtering
+ * and sorting scan the records in chunks, and only the flaws of the requested
+ * page are read and decoded.
+ *
+ */
+public final class FlawIndexUtil {
+
+    public static final String FLAW_INDEX_FILE_NAME = "veracode-flaws.idx";
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static final String SORT_SEVERITY = "severity";
+    public static final String SORT_ISSUE = "issue";
+    public static final String SORT_CWE = "cwe";
+    public static final String SORT_CATEGORY = "category";
+    public static final String SORT_MODULE = "module";
+    public static final String SORT_FILE = "file";
+
+    private static final int MAGIC = 0x56434649; // "VCFI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    // issue ID, severity, flags, CWE ID, line and 5 string indexes
+    private static final int RECORD_SIZE = 4 + 1 + 1 + 4 + 4 + 5 * 4;
+    private static final int FLAG_AFFECTS_POLICY = 1;
+    // records read at once when scanning or listing the flaws
+    private static final int CHUNK_RECORDS = 1024;
+
+    private static final Comparator<String> STRING_ORDER = new Comparator<String>() {
+        @Override
+        public int compare(String s1, String s2) {
+            int result = String.CASE_INSENSITIVE_ORDER.compare(s1, s2);
+            return result != 0 ? result : s1.compareTo(s2);
+        }
+    };
+
+    /**
+     * Returns the flaw index file of a build.
+     *
+     * @param buildDir a {@link java.io.File} object - the root directory of the
+     *                 build.
+     * @return a {@link java.io.File} object.
+     */
+    public static File getFlawIndexFile(File buildDir) {
+        return new File(buildDir, FLAW_INDEX_FILE_NAME);
+    }
+
+    /**
+     * Writes the flaw index of a build. The file is replaced atomically, so that
+     * readers never see a partially written index.
+     *
+     * @param buildDir a {@link java.io.File} object - the root directory of the
+     *                 build.
+     * @param flaws    a {@link java.util.List} object.
+     * @throws java.io.IOException if any.
+     */
+    public static void writeFlawIndex(File buildDir, List<Flaw> flaws) throws IOException {
+        List<Flaw> sortedFlaws = new ArrayList<>(flaws);
+        Collections.sort(sortedFlaws, new Comparator<Flaw>() {
+            @Override
+            public int compare(Flaw f1, Flaw f2) {
+                if (f1.getSeverity() != f2.getSeverity()) {
+                    return Integer.compare(f2.getSeverity(), f1.getSeverity());
+                }
+                return Integer.compare(f1.getIssueId(), f2.getIssueId());
+            }
+        });
+
+        TreeSet<String> distinctStrings = new TreeSet<>(STRING_ORDER);
+        for (Flaw flaw : sortedFlaws) {
+            distinctStrings.add(StringUtil.getEmptyIfNull(flaw.getCategoryName()));
+            distinctStrings.add(StringUtil.getEmptyIfNull(flaw.getModule()));
+            distinctStrings.add(StringUtil.getEmptyIfNull(flaw.getSourceFile()));
+            distinctStrings.add(StringUtil.getEmptyIfNull(flaw.getRemediationStatus()));
+            distinctStrings.add(StringUtil.getEmptyIfNull(flaw.getMitigationStatus()));
+        }
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<byte[]> encodedStrings = new ArrayList<>(distinctStrings.size());
+        for (String str : distinctStrings) {
+            stringIndexes.put(str, encodedStrings.size());
+            encodedStrings.add(str.getBytes(StandardCharsets.UTF_8));
+        }
+
+        File file = getFlawIndexFile(buildDir);
+        File tempFile = new File(buildDir, FLAW_INDEX_FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(sortedFlaws.size());
+            out.writeInt(encodedStrings.size());
+
+            for (Flaw flaw : sortedFlaws) {
+                out.writeInt(flaw.getIssueId());
+                out.writeByte(flaw.getSeverity());
+                out.writeByte(flaw.isAffectsPolicyCompliance() ? FLAG_AFFECTS_POLICY : 0);
+                out.writeInt(flaw.getCweId());
+                out.writeInt(flaw.getLine());
+                out.writeInt(stringIndexes.get(StringUtil.getEmptyIfNull(flaw.getCategoryName())));
+                out.writeInt(stringIndexes.get(StringUtil.getEmptyIfNull(flaw.getModule())));
+                out.writeInt(stringIndexes.get(StringUtil.getEmptyIfNull(flaw.getSourceFile())));
+                out.writeInt(stringIndexes.get(StringUtil.getEmptyIfNull(flaw.getRemediationStatus())));
+                out.writeInt(stringIndexes.get(StringUtil.getEmptyIfNull(flaw.getMitigationStatus())));
+            }
+
+            // offsets of the strings, relative to the start of the string data
+            int offset = 0;
+            for (byte[] encoded : encodedStrings) {
+                out.writeInt(offset);
+                offset += 4 + encoded.length;
+            }
+            for (byte[] encoded : encodedStrings) {
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Indexes the static flaws of the detailed report of a build and stores their
+     * fingerprints. The flaw index and the fingerprints only back the flaw browser
+     * and the flaw diff of the results page, so a report which cannot be indexed
+     * does not affect the scan results.
+     *
+     * @param buildDir          a {@link java.io.File} object - the root directory
+     *                          of the build.
+     * @param detailedReportXml a {@link java.lang.String} object.
+     * @param listener          a {@link hudson.model.TaskListener} object - where
+     *                          an indexing failure is logged.
+     * @return true if the flaws were indexed. False otherwise
+     */
+    public static boolean indexDetailedReport(File buildDir, String detailedReportXml,
+            TaskListener listener) {
+        if (null == buildDir || !buildDir.isDirectory()) {
+            return false;
+        }
+        try {
+            List<Flaw> flaws = XmlUtil.parseStaticFlaws(detailedReportXml);
+            writeFlawIndex(buildDir, flaws);
+            FlawFingerprintUtil.writeFingerprints(buildDir, flaws);
+            return true;
+        } catch (Exception e) {
+            listener.getLogger().println("Failed to index the flaws of the detailed report: "
+                    + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Opens the flaw index of a build.
+     *
+     * @param buildDir a {@link java.io.File} object - the root directory of the
+     *                 build.
+     * @return a {@link com.veracode.jenkins.plugin.utils.FlawIndexUtil.FlawIndex}
+     *         object, or null if the build has no flaw index.
+     * @throws java.io.IOException if any.
+     */
+    public static FlawIndex openFlawIndex(File buildDir) throws IOException {
+        File file = getFlawIndexFile(buildDir);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Invalid flaw index");
+            }
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Invalid flaw index");
+            }
+            if (header.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Unsupported flaw index version " + header.getInt(4));
+            }
+            int recordCount = header.getInt(8);
+            int stringCount = header.getInt(12);
+            long stringOffsetsStart = HEADER_SIZE + (long) recordCount * RECORD_SIZE;
+            if (recordCount < 0 || stringCount < 0
+                    || stringOffsetsStart + stringCount * 4L > channel.size()) {
+                throw new IOException("Invalid flaw index");
+            }
+            ByteBuffer offsets = ByteBuffer.allocate(stringCount * 4);
+            readFully(channel, offsets, stringOffsetsStart);
+            int[] stringOffsets = new int[stringCount];
+            offsets.asIntBuffer().get(stringOffsets);
+            return new FlawIndex(file, recordCount, stringOffsets,
+                    stringOffsetsStart + stringCount * 4L);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Truncated flaw index");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * A flaw index, read through its file.
+     */
+    public static final class FlawIndex {
+
+        private final File file;
+        private final int recordCount;
+        private final int[] stringOffsets;
+        private final long stringDataStart;
+
+        FlawIndex(File file, int recordCount, int[] stringOffsets, long stringDataStart) {
+            this.file = file;
+            this.recordCount = recordCount;
+            this.stringOffsets = stringOffsets;
+            this.stringDataStart = stringDataStart;
+        }
+
+        public int getFlawCount() {
+            return recordCount;
+        }
+
+        /**
+         * Returns a read-only view of all the flaws in the stored order. The
+         * flaws are read in chunks when they are accessed, so the list can be
+         * iterated without loading the whole index in the heap. A failure to read
+         * the index is thrown as an {@link java.io.UncheckedIOException}.
+         *
+         * @return a {@link java.util.List} object.
+         */
+        public List<Flaw> asList() {
+            return new FlawList();
+        }
+
+        /**
+         * Returns a page of the flaws matching the given filters, in the given
+         * order.
+         *
+         * @param page        a int - the page number, starting at 1.
+         * @param pageSize    a int.
+         * @param sort        a {@link java.lang.String} object - one of the SORT_
+         *                    constants.
+         * @param descending  a boolean.
+         * @param minSeverity a int.
+         * @param policyOnly  a boolean - only include the flaws affecting policy
+         *                    compliance.
+         * @param filter      a {@link java.lang.String} object - text to find in the
+         *                    category, module or source file, case insensitive.
+         * @return a {@link com.veracode.jenkins.plugin.data.FlawPage} object.
+         * @throws java.io.IOException if the index cannot be read.
+         */
+        public FlawPage getPage(int page, int pageSize, String sort, boolean descending,
+                int minSeverity, boolean policyOnly, String filter) throws IOException {
+            pageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+            if (!Arrays.asList(SORT_SEVERITY, SORT_ISSUE, SORT_CWE, SORT_CATEGORY, SORT_MODULE,
+                    SORT_FILE).contains(sort)) {
+                sort = SORT_SEVERITY;
+                descending = true;
+            }
+
+            try (FileChannel channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.READ)) {
+                boolean[] stringMatches = null;
+                if (!StringUtil.isNullOrEmpty(filter)) {
+                    // decode each distinct string once
+                    String lowerFilter = filter.toLowerCase(Locale.ROOT);
+                    stringMatches = new boolean[stringOffsets.length];
+                    for (int i = 0; i < stringOffsets.length; i++) {
+                        stringMatches[i] = readString(channel, i).toLowerCase(Locale.ROOT)
+                                .contains(lowerFilter);
+                    }
+                }
+
+                // the records are stored by descending severity, so this order needs no sort
+                boolean sorted = !(SORT_SEVERITY.equals(sort) && descending);
+                int[] matches = new int[recordCount];
+                long[] keys = sorted ? new long[recordCount] : null;
+                int matchCount = 0;
+                ByteBuffer chunk = ByteBuffer.allocate(CHUNK_RECORDS * RECORD_SIZE);
+                for (int start = 0; start < recordCount; start += CHUNK_RECORDS) {
+                    int count = Math.min(CHUNK_RECORDS, recordCount - start);
+                    chunk.clear();
+                    chunk.limit(count * RECORD_SIZE);
+                    readFully(channel, chunk, HEADER_SIZE + (long) start * RECORD_SIZE);
+                    for (int r = 0; r < count; r++) {
+                        int pos = r * RECORD_SIZE;
+                        if (chunk.get(pos + 4) < minSeverity) {
+                            continue;
+                        }
+                        if (policyOnly && (chunk.get(pos + 5) & FLAG_AFFECTS_POLICY) == 0) {
+                            continue;
+                        }
+                        if (null != stringMatches && !stringMatches[chunk.getInt(pos + 14)]
+                                && !stringMatches[chunk.getInt(pos + 18)]
+                                && !stringMatches[chunk.getInt(pos + 22)]) {
+                            continue;
+                        }
+                        if (sorted) {
+                            long key = getSortKey(chunk, pos, sort);
+                            if (descending) {
+                                key = Integer.MAX_VALUE - key;
+                            }
+                            // the record number breaks ties, keeping the stored order
+                            keys[matchCount] = (key << 32) | (start + r);
+                        }
+                        matches[matchCount++] = start + r;
+                    }
+                }
+                if (sorted) {
+                    Arrays.sort(keys, 0, matchCount);
+                    for (int i = 0; i < matchCount; i++) {
+                        matches[i] = (int) keys[i];
+                    }
+                }
+
+                int pageCount = Math.max(1, (matchCount + pageSize - 1) / pageSize);
+                page = Math.max(1, Math.min(page, pageCount));
+                int from = (page - 1) * pageSize;
+                int to = Math.min(from + pageSize, matchCount);
+                List<Flaw> flaws = new ArrayList<>(Math.max(0, to - from));
+                Map<Integer, String> strings = new HashMap<>();
+                ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+                for (int i = from; i < to; i++) {
+                    record.clear();
+                    readFully(channel, record, HEADER_SIZE + (long) matches[i] * RECORD_SIZE);
+                    flaws.add(readFlaw(channel, record, 0, strings));
+                }
+                return new FlawPage(flaws, page, pageSize, pageCount, matchCount, recordCount,
+                        sort, descending, minSeverity, policyOnly, filter);
+            }
+        }
+
+        private final class FlawList extends AbstractList<Flaw> implements RandomAccess {
+
+            // the chunk of flaws read last
+            private int chunkStart = -1;
+            private Flaw[] chunk;
+
+            @Override
+            public synchronized Flaw get(int index) {
+                if (index < 0 || index >= recordCount) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + recordCount);
+                }
+                if (chunkStart < 0 || index < chunkStart || index >= chunkStart + chunk.length) {
+                    int start = index - index % CHUNK_RECORDS;
+                    try {
+                        chunk = readFlaws(start, Math.min(CHUNK_RECORDS, recordCount - start));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    chunkStart = start;
+                }
+                return chunk[index - chunkStart];
+            }
+
+            @Override
+            public int size() {
+                return recordCount;
+            }
+        }
+
+        private Flaw[] readFlaws(int start, int count) throws IOException {
+            try (FileChannel channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.READ)) {
+                ByteBuffer records = ByteBuffer.allocate(count * RECORD_SIZE);
+                readFully(channel, records, HEADER_SIZE + (long) start * RECORD_SIZE);
+                Map<Integer, String> strings = new HashMap<>();
+                Flaw[] flaws = new Flaw[count];
+                for (int i = 0; i < count; i++) {
+                    flaws[i] = readFlaw(channel, records, i * RECORD_SIZE, strings);
+                }
+                return flaws;
+            }
+        }
+
+        private static long getSortKey(ByteBuffer records, int pos, String sort) {
+            switch (sort) {
+            case SORT_ISSUE:
+                return Math.max(0, records.getInt(pos));
+            case SORT_CWE:
+                return Math.max(0, records.getInt(pos + 6));
+            case SORT_CATEGORY:
+                return records.getInt(pos + 14);
+            case SORT_MODULE:
+                return records.getInt(pos + 18);
+            case SORT_FILE:
+                return records.getInt(pos + 22);
+            default:
+                return records.get(pos + 4);
+            }
+        }
+
+        private Flaw readFlaw(FileChannel channel, ByteBuffer records, int pos,
+                Map<Integer, String> strings) throws IOException {
+            return new Flaw(records.getInt(pos), records.get(pos + 4), records.getInt(pos + 6),
+                    readString(channel, records.getInt(pos + 14), strings),
+                    readString(channel, records.getInt(pos + 18), strings),
+                    readString(channel, records.getInt(pos + 22), strings),
+                    records.getInt(pos + 10),
+                    readString(channel, records.getInt(pos + 26), strings),
+                    readString(channel, records.getInt(pos + 30), strings),
+                    (records.get(pos + 5) & FLAG_AFFECTS_POLICY) != 0);
+        }
+
+        private String readString(FileChannel channel, int index, Map<Integer, String> strings)
+                throws IOException {
+            String str = strings.get(index);
+            if (null == str) {
+                str = readString(channel, index);
+                strings.put(index, str);
+            }
+            return str;
+        }
+
+        private String readString(FileChannel channel, int index) throws IOException {
+            long pos = stringDataStart + stringOffsets[index];
+            ByteBuffer length = ByteBuffer.allocate(4);
+            readFully(channel, length, pos);
+            ByteBuffer encoded = ByteBuffer.allocate(length.getInt(0));
+            readFully(channel, encoded, pos + 4);
+            return new String(encoded.array(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Constructor for FlawIndexUtil.
+     */
+    private FlawIndexUtil() {
+    }
+}
@@ -142,22 +142,25 @@ public final class FormValidationUtil {
     }
 
     /**
-     * Checks if analysis name is empty.
+     * Checks if analysis name is empty. Several analysis names can be separated by
+     * commas or line breaks, each of them is checked.
      *
      * @param analysisName a {@link java.lang.String} object.
      * @return a {@link hudson.util.FormValidation} object.
      */
     public static FormValidation checkAnalysisName(String analysisName) {
-        if (StringUtil.isNullOrEmpty(analysisName)) {
+        if (StringUtil.splitList(analysisName).isEmpty()) {
             return FormValidation
                     .error(String.format("%s is required.", ANALYSIS_NAME_REQUIRED_DISPLAY_TEXT));
         }
-        int textLength = analysisName.trim().length();
-        if (textLength < MINIMUM_LENGTH_FOR_DA_ANALYSIS_NAME
-                || textLength > MAXIMUM_LENGTH_FOR_DA_ANALYSIS_NAME) {
-            return FormValidation.error(String.format("Enter an %s of %s-%s characters.",
-                    ANALYSIS_NAME_DISPLAY_TEXT, MINIMUM_LENGTH_FOR_DA_ANALYSIS_NAME,
-                    MAXIMUM_LENGTH_FOR_DA_ANALYSIS_NAME));
+        for (String name : StringUtil.splitList(analysisName)) {
+            int textLength = name.length();
+            if (textLength < MINIMUM_LENGTH_FOR_DA_ANALYSIS_NAME
+                    || textLength > MAXIMUM_LENGTH_FOR_DA_ANALYSIS_NAME) {
+                return FormValidation.error(String.format("Enter an %s of %s-%s characters.",
+                        ANALYSIS_NAME_DISPLAY_TEXT, MINIMUM_LENGTH_FOR_DA_ANALYSIS_NAME,
+                        MAXIMUM_LENGTH_FOR_DA_ANALYSIS_NAME));
+            }
         }
         return FormValidation.ok();
     }
@@ -0,0 +1,308 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.veracode.jenkins.plugin.data.PortfolioEntry;
+import com.veracode.jenkins.plugin.data.PortfolioPage;
+
+import hudson.XmlFile;
+import jenkins.model.Jenkins;
+import jenkins.util.Timer;
+
+/**
+ * The PortfolioIndexUtil is a utility class for maintaining the portfolio
+ * index, which holds the latest Veracode scan result of every job.
+ * <p>
+ * The index is updated incrementally as builds complete, and is kept in memory
+ * and saved to a file in the Jenkins home directory, so the dashboard never has
+ * to iterate the jobs or load their builds. Saves are coalesced, so a burst of
+ * completed builds results in a single write.
+ *
+ */
+public final class PortfolioIndexUtil {
+
+    public static final String PORTFOLIO_INDEX_FILE_NAME = "veracode-portfolio.xml";
+
+    public static final String SORT_JOB = "job";
+    public static final String SORT_STATUS = "status";
+    public static final String SORT_POLICY = "policy";
+    public static final String SORT_SCORE = "score";
+    public static final String SORT_FLAWS = "flaws";
+    public static final String SORT_NEW_FLAWS = "new";
+    public static final String SORT_DATE = "date";
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Delay before the index is saved, during which further updates are merged
+    // into the same save
+    private static final long SAVE_DELAY_SECONDS = 5;
+
+    private static final Logger LOGGER = Logger.getLogger(PortfolioIndexUtil.class.getName());
+
+    private static final AtomicBoolean SAVE_PENDING = new AtomicBoolean();
+
+    private static volatile Map<String, PortfolioEntry> entries;
+
+    /**
+     * Adds or replaces the entry of a job. An entry is only replaced by an entry
+     * of the same or a later build, so builds completing out of order do not
+     * hide the latest result.
+     *
+     * @param entry a {@link com.veracode.jenkins.plugin.data.PortfolioEntry}
+     *              object.
+     */
+    public static void update(PortfolioEntry entry) {
+        getEntryMap().merge(entry.getKey(), entry, (oldEntry, newEntry) -> newEntry
+                .getBuildNumber() >= oldEntry.getBuildNumber() ? newEntry : oldEntry);
+        scheduleSave();
+    }
+
+    /**
+     * Removes the entries of a build, e.g. when the build is deleted.
+     *
+     * @param jobName     a {@link java.lang.String} object - the full name of the
+     *                    job.
+     * @param buildNumber a int.
+     * @return a {@link java.util.List} object - the types of the removed entries.
+     */
+    public static List<String> removeBuild(String jobName, int buildNumber) {
+        List<String> removedTypes = new ArrayList<>();
+        for (Iterator<PortfolioEntry> it = getEntryMap().values().iterator(); it.hasNext();) {
+            PortfolioEntry entry = it.next();
+            if (entry.getJobName().equals(jobName) && entry.getBuildNumber() == buildNumber) {
+                it.remove();
+                removedTypes.add(entry.getType());
+            }
+        }
+        if (!removedTypes.isEmpty()) {
+            scheduleSave();
+        }
+        return removedTypes;
+    }
+
+    /**
+     * Removes the entries of a job, or of all the jobs of a folder.
+     *
+     * @param jobName a {@link java.lang.String} object - the full name of the job
+     *                or folder.
+     */
+    public static void removeJob(String jobName) {
+        boolean removed = false;
+        for (Iterator<PortfolioEntry> it = getEntryMap().values().iterator(); it.hasNext();) {
+            String name = it.next().getJobName();
+            if (name.equals(jobName) || name.startsWith(jobName + "/")) {
+                it.remove();
+                removed = true;
+            }
+        }
+        if (removed) {
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Moves the entries of a job which was renamed or moved.
+     *
+     * @param oldJobName     a {@link java.lang.String} object.
+     * @param newJobName     a {@link java.lang.String} object.
+     * @param jobDisplayName a {@link java.lang.String} object.
+     * @param jobUrl         a {@link java.lang.String} object.
+     */
+    public static void renameJob(String oldJobName, String newJobName, String jobDisplayName,
+            String jobUrl) {
+        Map<String, PortfolioEntry> entryMap = getEntryMap();
+        boolean renamed = false;
+        for (PortfolioEntry entry : new ArrayList<>(entryMap.values())) {
+            if (entry.getJobName().equals(oldJobName)) {
+                PortfolioEntry renamedEntry = entry.withJob(newJobName, jobDisplayName, jobUrl);
+                entryMap.remove(entry.getKey());
+                entryMap.put(renamedEntry.getKey(), renamedEntry);
+                renamed = true;
+            }
+        }
+        if (renamed) {
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Returns all the entries of the portfolio index.
+     *
+     * @return a {@link java.util.Collection} object.
+     */
+    public static Collection<PortfolioEntry> getEntries() {
+        return Collections.unmodifiableCollection(getEntryMap().values());
+    }
+
+    /**
+     * Returns a page of entries.
+     *
+     * @param allEntries a {@link java.util.Collection} object - the entries to
+     *                   select from.
+     * @param page       a int - the page number, starting at 1.
+     * @param pageSize   a int.
+     * @param sort       a {@link java.lang.String} object - the column to sort by.
+     * @param descending a boolean.
+     * @param status     a {@link java.lang.String} object - the policy compliance
+     *                   status to select, or null or empty for all.
+     * @param filter     a {@link java.lang.String} object - text to find in the
+     *                   job or policy name, or null or empty for all.
+     * @return a {@link com.veracode.jenkins.plugin.data.PortfolioPage} object.
+     */
+    public static PortfolioPage getPage(Collection<PortfolioEntry> allEntries, int page,
+            int pageSize, String sort, boolean descending, String status, String filter) {
+        String text = StringUtil.isNullOrEmpty(filter) ? null
+                : filter.toLowerCase(Locale.ROOT);
+        List<PortfolioEntry> matches = new ArrayList<>(allEntries.size());
+        for (PortfolioEntry entry : allEntries) {
+            if (!StringUtil.isNullOrEmpty(status)
+                    && !status.equalsIgnoreCase(entry.getPolicyComplianceStatus())) {
+                continue;
+            }
+            if (null != text && !contains(entry.getJobDisplayName(), text)
+                    && !contains(entry.getJobName(), text)
+                    && !contains(entry.getPolicyName(), text)) {
+                continue;
+            }
+            matches.add(entry);
+        }
+
+        Comparator<PortfolioEntry> comparator = getComparator(sort);
+        if (descending) {
+            comparator = comparator.reversed();
+        }
+        // the job name breaks ties, in ascending order whatever the sort order
+        comparator = comparator.thenComparing(PortfolioEntry::getJobName)
+                .thenComparing(PortfolioEntry::getType);
+        Collections.sort(matches, comparator);
+
+        int size = pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+        int pageCount = Math.max(1, (matches.size() + size - 1) / size);
+        int pageNumber = Math.min(Math.max(page, 1), pageCount);
+        int from = (pageNumber - 1) * size;
+        List<PortfolioEntry> pageEntries = new ArrayList<>(
+                matches.subList(from, Math.min(from + size, matches.size())));
+        return new PortfolioPage(pageEntries, pageNumber, size, pageCount, matches.size(),
+                allEntries.size(), getSortColumn(sort), descending, status, filter);
+    }
+
+    private static Comparator<PortfolioEntry> getComparator(String sort) {
+        switch (getSortColumn(sort)) {
+        case SORT_STATUS:
+            return Comparator.comparing(entry -> StringUtil
+                    .getEmptyIfNull(entry.getPolicyComplianceStatus()).toLowerCase(Locale.ROOT));
+        case SORT_POLICY:
+            return Comparator.comparing(entry -> StringUtil.getEmptyIfNull(entry.getPolicyName())
+                    .toLowerCase(Locale.ROOT));
+        case SORT_SCORE:
+            return Comparator.comparingInt(PortfolioEntry::getScore);
+        case SORT_FLAWS:
+            return Comparator.comparingInt(PortfolioEntry::getTotalFlawsCount);
+        case SORT_NEW_FLAWS:
+            return Comparator.comparingInt(PortfolioEntry::getTotalNewFlawsCount);
+        case SORT_DATE:
+            return Comparator.comparingLong(PortfolioEntry::getTimestamp);
+        default:
+            return Comparator.comparing(entry -> entry.getJobDisplayName().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static String getSortColumn(String sort) {
+        if (SORT_STATUS.equals(sort) || SORT_POLICY.equals(sort) || SORT_SCORE.equals(sort)
+                || SORT_FLAWS.equals(sort) || SORT_NEW_FLAWS.equals(sort)
+                || SORT_DATE.equals(sort)) {
+            return sort;
+        }
+        return SORT_JOB;
+    }
+
+    private static boolean contains(String value, String text) {
+        return null != value && value.toLowerCase(Locale.ROOT).contains(text);
+    }
+
+    private static Map<String, PortfolioEntry> getEntryMap() {
+        Map<String, PortfolioEntry> entryMap = entries;
+        if (null == entryMap) {
+            synchronized (PortfolioIndexUtil.class) {
+                entryMap = entries;
+                if (null == entryMap) {
+                    entryMap = new ConcurrentHashMap<>();
+                    for (PortfolioEntry entry : load()) {
+                        entryMap.put(entry.getKey(), entry);
+                    }
+                    entries = entryMap;
+                }
+            }
+        }
+        return entryMap;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<PortfolioEntry> load() {
+        XmlFile indexFile = getIndexFile();
+        if (null != indexFile && indexFile.exists()) {
+            try {
+                return (List<PortfolioEntry>) indexFile.read();
+            } catch (IOException | ClassCastException e) {
+                // the index is rebuilt as builds complete
+                LOGGER.log(Level.WARNING, "Failed to load the Veracode portfolio index " + indexFile,
+                        e);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static void scheduleSave() {
+        if (SAVE_PENDING.compareAndSet(false, true)) {
+            Timer.get().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    SAVE_PENDING.set(false);
+                    save();
+                }
+            }, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private static synchronized void save() {
+        XmlFile indexFile = getIndexFile();
+        if (null == indexFile) {
+            return;
+        }
+        try {
+            indexFile.write(new ArrayList<>(getEntryMap().values()));
+        } catch (IOException e) {
+            // the next update saves the index again
+            LOGGER.log(Level.WARNING, "Failed to save the Veracode portfolio index " + indexFile, e);
+        }
+    }
+
+    private static XmlFile getIndexFile() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (null == jenkins) {
+            return null;
+        }
+        return new XmlFile(Jenkins.XSTREAM2, new File(jenkins.getRootDir(), PORTFOLIO_INDEX_FILE_NAME));
+    }
+
+    /**
+     * Constructor for PortfolioIndexUtil.
+     */
+    private PortfolioIndexUtil() {
+    }
+}
@@ -17,20 +17,6 @@ import hudson.util.ArgumentListBuilder;
  */
 public final class RemoteScanUtil {
 
-    /**
-     * Returns the Veracode API Wrapper jar version in order to decide whether to
-     * copy the latest.
-     *
-     * @param jarName a {@link java.lang.String} object.
-     * @return a int.
-     */
-    public static int getJarVersion(String jarName) {
-        String regex = ".*?vosp-api-wrappers-java-(.*?).jar";
-        String temp = jarName.replaceAll(regex, "$1");
-        String strVersion = temp.replaceAll("\\D", "");
-        return Integer.parseInt(strVersion);
-    }
-
     /**
      * Masks the sensitive data.
      *
@@ -0,0 +1,286 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import hudson.Util;
+import jenkins.model.Jenkins;
+
+/**
+ * The ReportCacheUtil is a utility class for caching the reports downloaded
+ * from Veracode on the controller.
+ * <p>
+ * Once the results of a Veracode build are final, its reports only change when
+ * its policy compliance is re-evaluated, e.g. after mitigations are approved,
+ * so re-running the results step or rebuilding a job does not need to download
+ * them again. Reports are only cached while the results are final, never on the
+ * early exit or await paths where the analyses may be running. Each report is
+ * stored compressed in a file named after the SHA-256 hash of its key: the
+ * report type, the build ID, the API ID it was downloaded with, so that a report
+ * is only served to the credentials that could download it, and the revision of
+ * the results, so that a report is downloaded again once the policy compliance
+ * is re-evaluated, see
+ * {@link com.veracode.jenkins.plugin.utils.XmlUtil#getResultsRevision(String)}.
+ * The total size of the cache is limited by a quota, evicting the least
+ * recently used reports, including those of outdated revisions.
+ * <p>
+ * The quota defaults to 256 MB and can be changed with the
+ * {@code com.veracode.jenkins.plugin.utils.ReportCacheUtil.quotaMB} system
+ * property; a quota of 0 disables the cache.
+ *
+ */
+public final class ReportCacheUtil {
+
+    public static final String REPORT_CACHE_DIR_NAME = "veracode-report-cache";
+
+    public static final String DETAILED_REPORT = "detailedreport";
+    public static final String SUMMARY_REPORT = "summaryreport";
+
+    private static final long DEFAULT_QUOTA_MB = 256;
+    private static final String FILE_EXTENSION = ".xml.gz";
+
+    private static volatile ReportCache defaultCache;
+
+    /**
+     * Returns a cached report.
+     *
+     * @param reportType a {@link java.lang.String} object - the type of the
+     *                   report, e.g. {@link #DETAILED_REPORT}.
+     * @param buildId    a {@link java.lang.String} object - the ID of the
+     *                   Veracode build.
+     * @param id         a {@link java.lang.String} object - the Veracode API ID.
+     * @param revision   a {@link java.lang.String} object - the revision of the
+     *                   results of the build.
+     * @return a {@link java.lang.String} object, or null if the report is not
+     *         cached.
+     */
+    public static String getReport(String reportType, String buildId, String id,
+            String revision) {
+        ReportCache cache = getDefaultCache();
+        return null == cache ? null : cache.get(getKey(reportType, buildId, id, revision));
+    }
+
+    /**
+     * Adds a report to the cache. Failures to write the cache are ignored.
+     *
+     * @param reportType a {@link java.lang.String} object - the type of the
+     *                   report, e.g. {@link #DETAILED_REPORT}.
+     * @param buildId    a {@link java.lang.String} object - the ID of the
+     *                   Veracode build.
+     * @param id         a {@link java.lang.String} object - the Veracode API ID.
+     * @param revision   a {@link java.lang.String} object - the revision of the
+     *                   results of the build.
+     * @param report     a {@link java.lang.String} object.
+     */
+    public static void putReport(String reportType, String buildId, String id,
+            String revision, String report) {
+        ReportCache cache = getDefaultCache();
+        if (null != cache) {
+            cache.put(getKey(reportType, buildId, id, revision), report);
+        }
+    }
+
+    /**
+     * Returns the key of a report in the cache.
+     *
+     * @param reportType a {@link java.lang.String} object.
+     * @param buildId    a {@link java.lang.String} object.
+     * @param id         a {@link java.lang.String} object.
+     * @param revision   a {@link java.lang.String} object.
+     * @return a {@link java.lang.String} object.
+     */
+    public static String getKey(String reportType, String buildId, String id,
+            String revision) {
+        return reportType + '\n' + buildId + '\n' + StringUtil.getEmptyIfNull(id) + '\n'
+                + StringUtil.getEmptyIfNull(revision);
+    }
+
+    // The cache is only available on the controller
+    private static ReportCache getDefaultCache() {
+        ReportCache cache = defaultCache;
+        if (null == cache) {
+            Jenkins jenkins = Jenkins.getInstanceOrNull();
+            long quotaMB = Long.getLong(ReportCacheUtil.class.getName() + ".quotaMB",
+                    DEFAULT_QUOTA_MB);
+            if (null == jenkins || quotaMB <= 0) {
+                return null;
+            }
+            synchronized (ReportCacheUtil.class) {
+                cache = defaultCache;
+                if (null == cache) {
+                    cache = new ReportCache(new File(jenkins.getRootDir(), REPORT_CACHE_DIR_NAME),
+                            quotaMB * 1024 * 1024);
+                    defaultCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * A directory of compressed reports with a total size quota.
+     */
+    public static class ReportCache {
+
+        private final File cacheDir;
+        private final long quotaBytes;
+
+        // file name -> file size, from the least to the most recently used
+        private Map<String, Long> entries;
+        private long totalBytes;
+
+        /**
+         * Constructor for ReportCache.
+         *
+         * @param cacheDir   a {@link java.io.File} object.
+         * @param quotaBytes a long.
+         */
+        public ReportCache(File cacheDir, long quotaBytes) {
+            this.cacheDir = cacheDir;
+            this.quotaBytes = quotaBytes;
+        }
+
+        /**
+         * Returns a cached report.
+         *
+         * @param key a {@link java.lang.String} object.
+         * @return a {@link java.lang.String} object, or null if the report is not
+         *         cached.
+         */
+        public String get(String key) {
+            String fileName = getFileName(key);
+            synchronized (this) {
+                if (!getEntries().containsKey(fileName)) {
+                    return null;
+                }
+                // mark the report as the most recently used
+                getEntries().put(fileName, getEntries().remove(fileName));
+            }
+            File file = new File(cacheDir, fileName);
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+                String report = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                file.setLastModified(System.currentTimeMillis());
+                return report;
+            } catch (IOException e) {
+                // evicted in the meantime or corrupted
+                remove(fileName);
+                return null;
+            }
+        }
+
+        /**
+         * Adds a report to the cache, evicting the least recently used reports if
+         * the cache exceeds its quota. Failures to write the cache are ignored.
+         *
+         * @param key    a {@link java.lang.String} object.
+         * @param report a {@link java.lang.String} object.
+         */
+        public void put(String key, String report) {
+            String fileName = getFileName(key);
+            File file = new File(cacheDir, fileName);
+            try {
+                Files.createDirectories(cacheDir.toPath());
+                File tempFile = File.createTempFile(fileName, ".tmp", cacheDir);
+                try {
+                    try (OutputStream out = new GZIPOutputStream(
+                            Files.newOutputStream(tempFile.toPath()))) {
+                        out.write(report.getBytes(StandardCharsets.UTF_8));
+                    }
+                    Files.move(tempFile.toPath(), file.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tempFile.toPath());
+                }
+            } catch (IOException e) {
+                return;
+            }
+            synchronized (this) {
+                Long oldSize = getEntries().remove(fileName);
+                if (null != oldSize) {
+                    totalBytes -= oldSize;
+                }
+                getEntries().put(fileName, file.length());
+                totalBytes += file.length();
+                evict();
+            }
+        }
+
+        /**
+         * Returns the total size of the cached reports.
+         *
+         * @return a long.
+         */
+        public synchronized long getTotalBytes() {
+            getEntries();
+            return totalBytes;
+        }
+
+        private synchronized void remove(String fileName) {
+            Long size = getEntries().remove(fileName);
+            if (null != size) {
+                totalBytes -= size;
+            }
+            new File(cacheDir, fileName).delete();
+        }
+
+        // Deletes the least recently used reports, but never the most recently
+        // added one, until the cache fits the quota
+        private void evict() {
+            for (Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator(); it
+                    .hasNext() && totalBytes > quotaBytes && entries.size() > 1;) {
+                Map.Entry<String, Long> entry = it.next();
+                it.remove();
+                totalBytes -= entry.getValue();
+                new File(cacheDir, entry.getKey()).delete();
+            }
+        }
+
+        // Loads the existing reports on first use, ordered by last use
+        private Map<String, Long> getEntries() {
+            if (null == entries) {
+                entries = new LinkedHashMap<>();
+                totalBytes = 0;
+                File[] files = cacheDir.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+                if (null != files) {
+                    Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+                    for (File file : files) {
+                        entries.put(file.getName(), file.length());
+                        totalBytes += file.length();
+                    }
+                }
+                evict();
+            }
+            return entries;
+        }
+
+        private static String getFileName(String key) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return Util.toHexString(digest.digest(key.getBytes(StandardCharsets.UTF_8)))
+                        + FILE_EXTENSION;
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Constructor for ReportCacheUtil.
+     */
+    private ReportCacheUtil() {
+    }
+}
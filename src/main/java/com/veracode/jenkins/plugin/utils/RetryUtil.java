@@ -0,0 +1,229 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.veracode.apiwrapper.exceptions.ApiException;
+
+/**
+ * The RetryUtil is a utility class for retrying the calls to the Veracode
+ * platform which failed for a transient reason.
+ * <p>
+ * A call is retried when the platform answered with one of the
+ * {@link #RETRYABLE_STATUS_CODES}, or when the connection failed. The delay
+ * between two attempts grows exponentially up to a maximum, with a random
+ * jitter so that the builds which failed together do not retry together, and
+ * the call is given up once the attempts or the total time of its
+ * {@link RetryPolicy} are exhausted.
+ * <p>
+ * A call which is not idempotent, such as submitting a scan, is only retried
+ * when the platform cannot have processed it: when the connection could not be
+ * established, or when the platform rejected it with HTTP 429 or 503.
+ * <p>
+ * When a log is specified, each retry is logged, and so is the outcome of a
+ * call which needed more than one attempt.
+ *
+ */
+public final class RetryUtil {
+
+    public static final Set<Integer> RETRYABLE_STATUS_CODES = Collections
+            .unmodifiableSet(new HashSet<>(Arrays.asList(408, 429, 500, 502, 503, 504)));
+
+    // the status codes of the requests the platform rejected without processing them
+    public static final Set<Integer> REJECTED_STATUS_CODES = Collections
+            .unmodifiableSet(new HashSet<>(Arrays.asList(429, 503)));
+
+    public static final RetryPolicy DEFAULT_POLICY = new RetryPolicy(4,
+            TimeUnit.SECONDS.toMillis(2), TimeUnit.SECONDS.toMillis(30),
+            TimeUnit.MINUTES.toMillis(2));
+
+    /**
+     * Calls the platform with the default retry policy.
+     *
+     * @param <T>        the type of the result of the call.
+     * @param operation  a {@link java.lang.String} object - the name of the
+     *                   operation, used in the log.
+     * @param idempotent a boolean - whether the call can be repeated without
+     *                   side effects.
+     * @param call       a
+     *                   {@link com.veracode.jenkins.plugin.utils.RetryUtil.PlatformCall}
+     *                   object.
+     * @return the result of the call.
+     * @throws java.lang.Exception the exception of the last attempt.
+     */
+    public static <T> T call(String operation, boolean idempotent, PlatformCall<T> call)
+            throws Exception {
+        return call(operation, idempotent, DEFAULT_POLICY, 0, null, call);
+    }
+
+    /**
+     * Calls the platform with the specified retry policy.
+     *
+     * @param <T>        the type of the result of the call.
+     * @param operation  a {@link java.lang.String} object - the name of the
+     *                   operation, used in the log.
+     * @param idempotent a boolean - whether the call can be repeated without
+     *                   side effects.
+     * @param policy     a
+     *                   {@link com.veracode.jenkins.plugin.utils.RetryUtil.RetryPolicy}
+     *                   object.
+     * @param deadline   a long - the time in milliseconds after which the call is
+     *                   not retried, in addition to the total time of the policy.
+     *                   Use 0 for no deadline.
+     * @param log        a {@link java.io.PrintStream} object - where the retries
+     *                   are logged. Use null to not log them.
+     * @param call       a
+     *                   {@link com.veracode.jenkins.plugin.utils.RetryUtil.PlatformCall}
+     *                   object.
+     * @return the result of the call.
+     * @throws java.lang.Exception the exception of the last attempt.
+     */
+    public static <T> T call(String operation, boolean idempotent, RetryPolicy policy,
+            long deadline, PrintStream log, PlatformCall<T> call) throws Exception {
+        long startTime = System.currentTimeMillis();
+        long expirationTime = startTime + policy.getMaxElapsedMillis();
+        if (deadline > 0) {
+            expirationTime = Math.min(expirationTime, deadline);
+        }
+
+        for (int attempt = 1;; attempt++) {
+            try {
+                T result = call.call();
+                if (null != log && attempt > 1) {
+                    log.println(String.format("%s succeeded after %d attempts in %d second(s).",
+                            operation, attempt, TimeUnit.MILLISECONDS
+                                    .toSeconds(System.currentTimeMillis() - startTime)));
+                }
+                return result;
+            } catch (Exception e) {
+                long delay = getDelayMillis(policy, attempt);
+                if (attempt >= policy.getMaxAttempts() || !isRetryable(e, idempotent)
+                        || System.currentTimeMillis() + delay > expirationTime) {
+                    if (null != log && attempt > 1) {
+                        log.println(String.format("%s failed after %d attempts in %d second(s).",
+                                operation, attempt, TimeUnit.MILLISECONDS
+                                        .toSeconds(System.currentTimeMillis() - startTime)));
+                    }
+                    throw e;
+                }
+                if (null != log) {
+                    log.println(String.format(
+                            "%s failed (attempt %d of %d): %s. Retrying in %d second(s).",
+                            operation, attempt, policy.getMaxAttempts(), e.getMessage(),
+                            TimeUnit.MILLISECONDS.toSeconds(delay)));
+                }
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Returns whether a call which failed with the specified exception can be
+     * retried.
+     *
+     * @param e          a {@link java.lang.Exception} object.
+     * @param idempotent a boolean.
+     * @return a boolean.
+     */
+    public static boolean isRetryable(Exception e, boolean idempotent) {
+        for (Throwable t = e; null != t; t = t.getCause()) {
+            if (t instanceof ApiException) {
+                int statusCode = ((ApiException) t).getResponseCode();
+                return idempotent ? RETRYABLE_STATUS_CODES.contains(statusCode)
+                        : REJECTED_STATUS_CODES.contains(statusCode);
+            }
+            if (t instanceof ConnectException || t instanceof UnknownHostException
+                    || t instanceof NoRouteToHostException) {
+                return true;
+            }
+            if (t instanceof IOException) {
+                // the request may have reached the platform
+                return idempotent;
+            }
+        }
+        return false;
+    }
+
+    // exponential backoff with equal jitter: between half and all of the delay
+    static long getDelayMillis(RetryPolicy policy, int attempt) {
+        long delay = policy.getInitialDelayMillis();
+        for (int i = 1; i < attempt && delay < policy.getMaxDelayMillis(); i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, policy.getMaxDelayMillis());
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * A call to the Veracode platform.
+     *
+     * @param <T> the type of the result of the call.
+     */
+    @FunctionalInterface
+    public interface PlatformCall<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * The RetryPolicy class defines how many times and for how long a call is
+     * retried.
+     *
+     */
+    public static final class RetryPolicy {
+
+        private final int maxAttempts;
+        private final long initialDelayMillis;
+        private final long maxDelayMillis;
+        private final long maxElapsedMillis;
+
+        /**
+         * Constructor for RetryPolicy.
+         *
+         * @param maxAttempts        a int - the maximum number of attempts,
+         *                           including the first one.
+         * @param initialDelayMillis a long - the delay before the first retry.
+         * @param maxDelayMillis     a long - the maximum delay between two
+         *                           attempts.
+         * @param maxElapsedMillis   a long - the time after which the call is not
+         *                           retried.
+         */
+        public RetryPolicy(int maxAttempts, long initialDelayMillis, long maxDelayMillis,
+                long maxElapsedMillis) {
+            this.maxAttempts = maxAttempts;
+            this.initialDelayMillis = initialDelayMillis;
+            this.maxDelayMillis = maxDelayMillis;
+            this.maxElapsedMillis = maxElapsedMillis;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public long getInitialDelayMillis() {
+            return initialDelayMillis;
+        }
+
+        public long getMaxDelayMillis() {
+            return maxDelayMillis;
+        }
+
+        public long getMaxElapsedMillis() {
+            return maxElapsedMillis;
+        }
+    }
+
+    /**
+     * Constructor for RetryUtil.
+     */
+    private RetryUtil() {
+    }
+}
@@ -0,0 +1,184 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.veracode.jenkins.plugin.data.SCAComponent;
+import com.veracode.jenkins.plugin.data.SCAComponentDiff;
+import com.veracode.jenkins.plugin.data.SCAComponentDiff.VersionChange;
+
+import hudson.model.Run;
+
+/**
+ * The SCAComponentDiffUtil is a utility class for comparing the SCA components
+ * of two builds.
+ * <p>
+ * Components are matched on their library coordinates, which are derived from
+ * the component file name: e.g. "jackson-databind-2.9.8.jar" is version "2.9.8"
+ * of library "jackson-databind". A build may contain several versions of a
+ * library, so each library is matched with the set of its versions. The diff of
+ * a pair of builds never changes, so the most recently used diffs are cached.
+ *
+ */
+public final class SCAComponentDiffUtil {
+
+    private static final int MAX_CACHED_DIFFS = 100;
+
+    private static final Pattern FILE_EXTENSION_PATTERN = Pattern.compile(
+            "\\.(jar|war|ear|aar|zip|dll|exe|js|gem|whl|egg|tgz|tar\\.gz|nupkg)$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern VERSION_PATTERN = Pattern.compile("^(.+?)[-_]v?(\\d.*)$");
+
+    private static final Map<String, SCAComponentDiff> DIFF_CACHE = Collections
+            .synchronizedMap(new LinkedHashMap<String, SCAComponentDiff>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SCAComponentDiff> eldest) {
+                    return size() > MAX_CACHED_DIFFS;
+                }
+            });
+
+    /**
+     * Returns the library coordinates of a component name: the library name
+     * (lower case) and the version, which is empty if the name has no version.
+     *
+     * @param componentName a {@link java.lang.String} object.
+     * @return an array of {@link java.lang.String} objects - the library name and
+     *         the version.
+     */
+    public static String[] getCoordinates(String componentName) {
+        String name = FILE_EXTENSION_PATTERN.matcher(StringUtil.getEmptyIfNull(componentName).trim())
+                .replaceFirst("");
+        Matcher matcher = VERSION_PATTERN.matcher(name);
+        if (matcher.matches()) {
+            return new String[] {
+                    matcher.group(1).toLowerCase(Locale.ROOT), matcher.group(2)
+            };
+        }
+        return new String[] {
+                name.toLowerCase(Locale.ROOT), StringUtil.EMPTY
+        };
+    }
+
+    /**
+     * Compares the SCA components of two builds. Each set is indexed by library
+     * once, so the comparison is linear in the number of components.
+     *
+     * @param baseComponents a {@link java.util.Set} object - the components of
+     *                       the base build.
+     * @param components     a {@link java.util.Set} object - the components of
+     *                       the build.
+     * @return a {@link com.veracode.jenkins.plugin.data.SCAComponentDiff} object.
+     */
+    public static SCAComponentDiff diff(Set<SCAComponent> baseComponents,
+            Set<SCAComponent> components) {
+        Map<String, SortedMap<String, String>> baseLibraries = indexByLibrary(baseComponents);
+        Map<String, SortedMap<String, String>> libraries = indexByLibrary(components);
+
+        List<String> addedComponents = new ArrayList<>();
+        List<String> removedComponents = new ArrayList<>();
+        List<VersionChange> versionChanges = new ArrayList<>();
+        for (Map.Entry<String, SortedMap<String, String>> entry : libraries.entrySet()) {
+            SortedMap<String, String> addedVersions = new TreeMap<>(entry.getValue());
+            SortedMap<String, String> removedVersions = new TreeMap<>();
+            SortedMap<String, String> baseVersions = baseLibraries.get(entry.getKey());
+            if (null != baseVersions) {
+                addedVersions.keySet().removeAll(baseVersions.keySet());
+                removedVersions.putAll(baseVersions);
+                removedVersions.keySet().removeAll(entry.getValue().keySet());
+            }
+            if (!addedVersions.isEmpty() && !removedVersions.isEmpty()) {
+                versionChanges.add(new VersionChange(entry.getKey(),
+                        String.join(", ", removedVersions.keySet()),
+                        String.join(", ", addedVersions.keySet())));
+            } else {
+                addedComponents.addAll(addedVersions.values());
+                removedComponents.addAll(removedVersions.values());
+            }
+        }
+        for (Map.Entry<String, SortedMap<String, String>> entry : baseLibraries.entrySet()) {
+            if (!libraries.containsKey(entry.getKey())) {
+                removedComponents.addAll(entry.getValue().values());
+            }
+        }
+
+        Collections.sort(addedComponents);
+        Collections.sort(removedComponents);
+        Collections.sort(versionChanges, new Comparator<VersionChange>() {
+            @Override
+            public int compare(VersionChange c1, VersionChange c2) {
+                return c1.getLibrary().compareTo(c2.getLibrary());
+            }
+        });
+        return new SCAComponentDiff(addedComponents, removedComponents, versionChanges);
+    }
+
+    /**
+     * Returns the cached diff of two builds.
+     *
+     * @param baseBuild a {@link hudson.model.Run} object.
+     * @param build     a {@link hudson.model.Run} object.
+     * @return a {@link com.veracode.jenkins.plugin.data.SCAComponentDiff} object,
+     *         or null if the diff is not cached.
+     */
+    public static SCAComponentDiff getCachedDiff(Run<?, ?> baseBuild, Run<?, ?> build) {
+        return DIFF_CACHE.get(getCacheKey(baseBuild, build));
+    }
+
+    /**
+     * Caches the diff of two builds.
+     *
+     * @param baseBuild a {@link hudson.model.Run} object.
+     * @param build     a {@link hudson.model.Run} object.
+     * @param diff      a {@link com.veracode.jenkins.plugin.data.SCAComponentDiff}
+     *                  object.
+     */
+    public static void cacheDiff(Run<?, ?> baseBuild, Run<?, ?> build, SCAComponentDiff diff) {
+        DIFF_CACHE.put(getCacheKey(baseBuild, build), diff);
+    }
+
+    private static String getCacheKey(Run<?, ?> baseBuild, Run<?, ?> build) {
+        return baseBuild.getExternalizableId() + "|" + build.getExternalizableId();
+    }
+
+    // Maps each library to its versions and the names of their components. When
+    // several components share a version, the greatest name is kept so that the
+    // result does not depend on the iteration order of the set.
+    private static Map<String, SortedMap<String, String>> indexByLibrary(
+            Set<SCAComponent> components) {
+        Map<String, SortedMap<String, String>> libraries = new HashMap<>(
+                Math.max(16, components.size() * 4 / 3 + 1));
+        for (SCAComponent component : components) {
+            String name = StringUtil.getEmptyIfNull(component.getName());
+            String[] coordinates = getCoordinates(name);
+            SortedMap<String, String> versions = libraries.get(coordinates[0]);
+            if (null == versions) {
+                versions = new TreeMap<>();
+                libraries.put(coordinates[0], versions);
+            }
+            String existing = versions.get(coordinates[1]);
+            if (null == existing || existing.compareTo(name) < 0) {
+                versions.put(coordinates[1], name);
+            }
+        }
+        return libraries;
+    }
+
+    /**
+     * Constructor for SCAComponentDiffUtil.
+     */
+    private SCAComponentDiffUtil() {
+    }
+}
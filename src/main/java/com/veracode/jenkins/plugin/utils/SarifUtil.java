@@ -0,0 +1,253 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.BuildListenerAdapter;
+
+/**
+ * The SarifUtil is a utility class for converting the static flaws of a
+ * detailed report to a SARIF 2.1.0 log, which can be consumed by other tools,
+ * e.g. to annotate code reviews.
+ * <p>
+ * The detailed report is read with a streaming XML parser and each flaw is
+ * written to the SARIF log as soon as it is parsed, so the memory used does not
+ * depend on the number of flaws.
+ *
+ */
+public final class SarifUtil {
+
+    public static final String SARIF_FILE_NAME = "veracode-static-analysis.sarif";
+
+    private static final String SARIF_VERSION = "2.1.0";
+    private static final String SARIF_SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    private static final String TOOL_NAME = "Veracode Static Analysis";
+    private static final String TOOL_URI = "https://www.veracode.com";
+    private static final String REMEDIATION_STATUS_FIXED = "Fixed";
+
+    /**
+     * Writes the static flaws of a detailed report as a SARIF log. Flaws which are
+     * fixed are not included.
+     *
+     * @param detailedReport a {@link java.io.Reader} object - the detailed report
+     *                       XML.
+     * @param out            a {@link java.io.Writer} object.
+     * @return a int - the number of results written.
+     * @throws java.io.IOException                   if any.
+     * @throws javax.xml.stream.XMLStreamException if the detailed report cannot
+     *                                               be parsed.
+     */
+    public static int writeSarif(Reader detailedReport, Writer out)
+            throws IOException, XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = factory.createXMLStreamReader(detailedReport);
+
+        // CWE ID to rule name, only the rules used by the results are kept
+        Map<String, String> rules = new TreeMap<>();
+        int resultCount = 0;
+        try {
+            out.write("{\"version\":");
+            writeString(out, SARIF_VERSION);
+            out.write(",\"$schema\":");
+            writeString(out, SARIF_SCHEMA);
+            // The rules are only known once all the results are written, so the
+            // results are written before the tool
+            out.write(",\"runs\":[{\"results\":[");
+
+            String categoryName = "";
+            boolean inStaticFlaws = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT
+                        && "staticflaws".equals(reader.getLocalName())) {
+                    inStaticFlaws = false;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if ("category".equals(name)) {
+                    categoryName = getAttribute(reader, "categoryname");
+                } else if ("staticflaws".equals(name)) {
+                    inStaticFlaws = true;
+                } else if (inStaticFlaws && "flaw".equals(name)
+                        && !REMEDIATION_STATUS_FIXED
+                                .equals(getAttribute(reader, "remediation_status"))) {
+                    String ruleId = "CWE-" + getAttribute(reader, "cweid");
+                    String ruleName = getAttribute(reader, "categoryname");
+                    if (ruleName.isEmpty()) {
+                        ruleName = categoryName;
+                    }
+                    if (!rules.containsKey(ruleId)) {
+                        rules.put(ruleId, ruleName);
+                    }
+                    if (resultCount++ > 0) {
+                        out.write(',');
+                    }
+                    writeResult(reader, ruleId, ruleName, out);
+                }
+            }
+
+            out.write("],\"tool\":{\"driver\":{\"name\":");
+            writeString(out, TOOL_NAME);
+            out.write(",\"informationUri\":");
+            writeString(out, TOOL_URI);
+            out.write(",\"rules\":[");
+            boolean first = true;
+            for (Map.Entry<String, String> rule : rules.entrySet()) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                out.write("{\"id\":");
+                writeString(out, rule.getKey());
+                out.write(",\"name\":");
+                writeString(out, rule.getValue());
+                out.write(",\"shortDescription\":{\"text\":");
+                writeString(out, rule.getValue());
+                out.write("}}");
+            }
+            out.write("]}}}]}");
+            out.flush();
+        } finally {
+            reader.close();
+        }
+        return resultCount;
+    }
+
+    private static void writeResult(XMLStreamReader reader, String ruleId, String ruleName,
+            Writer out) throws IOException {
+        int severity = parseInt(getAttribute(reader, "severity"));
+        String description = getAttribute(reader, "description");
+
+        out.write("{\"ruleId\":");
+        writeString(out, ruleId);
+        out.write(",\"level\":");
+        writeString(out, severity >= 4 ? "error" : severity == 3 ? "warning" : "note");
+        out.write(",\"message\":{\"text\":");
+        writeString(out, description.isEmpty() ? ruleName : description);
+        out.write("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+        writeString(out, getAttribute(reader, "sourcefilepath") + getAttribute(reader, "sourcefile"));
+        out.write("}");
+        int line = parseInt(getAttribute(reader, "line"));
+        if (line > 0) {
+            out.write(",\"region\":{\"startLine\":" + line + "}");
+        }
+        out.write("}}],\"partialFingerprints\":{\"veracodeIssueId\":");
+        writeString(out, getAttribute(reader, "issueid"));
+        out.write("},\"properties\":{\"issueId\":" + parseInt(getAttribute(reader, "issueid")));
+        out.write(",\"severity\":" + severity);
+        out.write(",\"module\":");
+        writeString(out, getAttribute(reader, "module"));
+        out.write(",\"remediationStatus\":");
+        writeString(out, getAttribute(reader, "remediation_status"));
+        out.write(",\"mitigationStatus\":");
+        writeString(out, getAttribute(reader, "mitigation_status"));
+        out.write(",\"affectsPolicyCompliance\":"
+                + Boolean.parseBoolean(getAttribute(reader, "affects_policy_compliance")));
+        out.write("}}");
+    }
+
+    /**
+     * Writes the SARIF log of a detailed report and archives it as an artifact of
+     * the build.
+     *
+     * @param run               a {@link hudson.model.Run} object.
+     * @param detailedReportXml a {@link java.lang.String} object.
+     * @param listener          a {@link hudson.model.TaskListener} object.
+     * @return a int - the number of results written.
+     * @throws java.io.IOException                   if any.
+     * @throws java.lang.InterruptedException        if any.
+     * @throws javax.xml.stream.XMLStreamException if the detailed report cannot
+     *                                               be parsed.
+     */
+    public static int archiveSarif(Run<?, ?> run, String detailedReportXml, TaskListener listener)
+            throws IOException, InterruptedException, XMLStreamException {
+        File sarifDir = Files.createTempDirectory(run.getRootDir().toPath(), "veracode-sarif").toFile();
+        try {
+            File sarifFile = new File(sarifDir, SARIF_FILE_NAME);
+            int resultCount;
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    Files.newOutputStream(sarifFile.toPath()), StandardCharsets.UTF_8))) {
+                resultCount = writeSarif(new StringReader(detailedReportXml), out);
+            }
+            run.pickArtifactManager().archive(new FilePath(sarifDir),
+                    new Launcher.LocalLauncher(listener), BuildListenerAdapter.wrap(listener),
+                    Collections.singletonMap(SARIF_FILE_NAME, SARIF_FILE_NAME));
+            return resultCount;
+        } finally {
+            new FilePath(sarifDir).deleteRecursive();
+        }
+    }
+
+    private static String getAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return null != value ? value : StringUtil.EMPTY;
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException nfe) {
+            return 0;
+        }
+    }
+
+    private static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.write("\\\"");
+                break;
+            case '\\':
+                out.write("\\\\");
+                break;
+            case '\n':
+                out.write("\\n");
+                break;
+            case '\r':
+                out.write("\\r");
+                break;
+            case '\t':
+                out.write("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    out.write(String.format("\\u%04x", (int) c));
+                } else {
+                    out.write(c);
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Constructor for SarifUtil.
+     */
+    private SarifUtil() {
+    }
+}
@@ -0,0 +1,261 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.veracode.jenkins.plugin.data.ProxyBlock;
+
+/**
+ * The ScanAdmissionUtil is a utility class for queueing the scans of the same
+ * application profile on the Jenkins controller.
+ * <p>
+ * The Veracode platform rejects a new scan of an application or sandbox which
+ * already has a scan in progress. The scans started by the builds of the
+ * controller are therefore admitted one at a time per application profile, in
+ * the order they asked to be admitted, while the scans of different profiles
+ * run at the same time. A waiting scan prints its position in the queue to the
+ * build log whenever it changes.
+ * <p>
+ * An admission is released when the API wrapper returns, while a scan which
+ * does not wait for its results is still in progress on the platform. Before
+ * admitting the next scan, the build info of the profile is therefore polled
+ * until its latest build is no longer being scanned, for at most an hour.
+ *
+ */
+public final class ScanAdmissionUtil {
+
+    private static final String APPNAME_SWITCH = "-appname";
+    private static final String SANDBOXNAME_SWITCH = "-sandboxname";
+    private static final String VID_SWITCH = "-vid";
+    private static final String VKEY_SWITCH = "-vkey";
+    private static final String PHOST_SWITCH = "-phost";
+    private static final String PPORT_SWITCH = "-pport";
+    private static final String PUSER_SWITCH = "-puser";
+    private static final String PPASSWORD_SWITCH = "-ppassword";
+
+    private static final long POLL_INTERVAL_SECONDS = 60;
+    private static final long MAX_PLATFORM_WAIT_MINUTES = 60;
+
+    // The analysis statuses of a build whose scan is in progress on the platform
+    private static final List<String> IN_PROGRESS_ANALYSIS_STATUSES = Arrays.asList(
+            "Pre-Scan Submitted", "Submitted to Engine", "Scan In Process");
+
+    // the admitted scan of each profile followed by the waiting ones, guarded by
+    // itself
+    private static final Map<String, Deque<Admission>> QUEUES = new HashMap<>();
+
+    /**
+     * Waits until the scan whose wrapper arguments are specified is admitted,
+     * that is until the scans of the same application profile which asked before
+     * are released and the latest build of the profile is no longer being
+     * scanned by the platform. The platform is polled with the credentials and
+     * proxy settings of the arguments, so they must not be passed in the
+     * environment of the API wrapper.
+     *
+     * @param arguments an array of {@link java.lang.String} objects - the
+     *                  arguments passed to the Veracode API Wrapper.
+     * @param ps        a {@link java.io.PrintStream} object.
+     * @return a
+     *         {@link com.veracode.jenkins.plugin.utils.ScanAdmissionUtil.Admission}
+     *         object which must be released once the scan is started.
+     * @throws InterruptedException if the build is aborted while waiting.
+     */
+    public static Admission admit(String[] arguments, PrintStream ps)
+            throws InterruptedException {
+        String appName = getArgumentValue(arguments, APPNAME_SWITCH);
+        String sandboxName = getArgumentValue(arguments, SANDBOXNAME_SWITCH);
+        String id = getArgumentValue(arguments, VID_SWITCH);
+        String key = getArgumentValue(arguments, VKEY_SWITCH);
+        String pHost = getArgumentValue(arguments, PHOST_SWITCH);
+        ProxyBlock proxy = StringUtil.isNullOrEmpty(pHost) ? null
+                : new ProxyBlock(pHost, getArgumentValue(arguments, PPORT_SWITCH),
+                        getArgumentValue(arguments, PUSER_SWITCH),
+                        getArgumentValue(arguments, PPASSWORD_SWITCH));
+        BuildInfoSource buildInfo = null;
+        if (!StringUtil.isNullOrEmpty(appName) && !StringUtil.isNullOrEmpty(id)
+                && !StringUtil.isNullOrEmpty(key)) {
+            buildInfo = () -> WrapperUtil.getBuildInfo(appName, sandboxName, id, key, proxy);
+        }
+        return admit(getProfileKey(arguments), buildInfo,
+                TimeUnit.SECONDS.toMillis(POLL_INTERVAL_SECONDS),
+                TimeUnit.MINUTES.toMillis(MAX_PLATFORM_WAIT_MINUTES), ps);
+    }
+
+    /**
+     * Returns the key identifying the application profile of the specified
+     * wrapper arguments, made of the application name and the sandbox name if
+     * any. Application names are not case sensitive on the Veracode platform.
+     *
+     * @param arguments an array of {@link java.lang.String} objects.
+     * @return a {@link java.lang.String} object.
+     */
+    public static String getProfileKey(String[] arguments) {
+        String appName = getArgumentValue(arguments, APPNAME_SWITCH);
+        String sandboxName = getArgumentValue(arguments, SANDBOXNAME_SWITCH);
+        StringBuilder key = new StringBuilder(
+                null == appName ? "" : appName.trim().toLowerCase(Locale.ROOT));
+        if (!StringUtil.isNullOrEmpty(sandboxName)) {
+            key.append('/').append(sandboxName.trim());
+        }
+        return key.toString();
+    }
+
+    static Admission admit(String key, PrintStream ps) throws InterruptedException {
+        return admit(key, null, 0, 0, ps);
+    }
+
+    static Admission admit(String key, BuildInfoSource buildInfo, long pollIntervalMillis,
+            long maxPlatformWaitMillis, PrintStream ps) throws InterruptedException {
+        Admission admission = new Admission(key);
+        synchronized (QUEUES) {
+            Deque<Admission> queue = QUEUES.computeIfAbsent(key, k -> new ArrayDeque<>());
+            queue.addLast(admission);
+            try {
+                int lastPosition = 0;
+                int position;
+                while ((position = getPosition(queue, admission)) > 0) {
+                    if (position != lastPosition) {
+                        ps.println(String.format(
+                                "Another scan of the application profile is in progress on this "
+                                        + "Jenkins. Waiting in queue position %d.",
+                                position));
+                        lastPosition = position;
+                    }
+                    QUEUES.wait();
+                }
+            } catch (InterruptedException e) {
+                remove(admission);
+                throw e;
+            }
+        }
+        if (null != buildInfo) {
+            try {
+                awaitPlatform(buildInfo, pollIntervalMillis, maxPlatformWaitMillis, ps);
+            } catch (InterruptedException e) {
+                remove(admission);
+                throw e;
+            }
+        }
+        return admission;
+    }
+
+    // waits while the latest build of the profile is being scanned by the platform
+    private static void awaitPlatform(BuildInfoSource buildInfo, long pollIntervalMillis,
+            long maxPlatformWaitMillis, PrintStream ps) throws InterruptedException {
+        long expirationTime = System.currentTimeMillis() + maxPlatformWaitMillis;
+        boolean logged = false;
+        while (isScanInProgress(buildInfo)) {
+            if (System.currentTimeMillis() >= expirationTime) {
+                ps.println("The previous scan of the application profile is still in progress "
+                        + "on the Veracode platform. Not waiting any longer.");
+                return;
+            }
+            if (!logged) {
+                ps.println("The previous scan of the application profile is in progress on the "
+                        + "Veracode platform. Waiting for it to complete.");
+                logged = true;
+            }
+            Thread.sleep(pollIntervalMillis);
+        }
+    }
+
+    private static boolean isScanInProgress(BuildInfoSource buildInfo)
+            throws InterruptedException {
+        List<String> statuses;
+        try {
+            statuses = XmlUtil.parseAnalysisStatuses(buildInfo.getBuildInfo());
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // the profile may not exist yet, the API wrapper reports the other errors
+            return false;
+        }
+        for (String status : statuses) {
+            for (String inProgressStatus : IN_PROGRESS_ANALYSIS_STATUSES) {
+                if (inProgressStatus.equalsIgnoreCase(status)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // the number of scans ahead of the admission in the queue
+    private static int getPosition(Deque<Admission> queue, Admission admission) {
+        int position = 0;
+        for (Admission queued : queue) {
+            if (queued == admission) {
+                return position;
+            }
+            position++;
+        }
+        throw new IllegalStateException("The scan is not queued.");
+    }
+
+    private static void remove(Admission admission) {
+        synchronized (QUEUES) {
+            Deque<Admission> queue = QUEUES.get(admission.key);
+            if (null != queue && queue.remove(admission)) {
+                if (queue.isEmpty()) {
+                    QUEUES.remove(admission.key);
+                }
+                QUEUES.notifyAll();
+            }
+        }
+    }
+
+    private static String getArgumentValue(String[] arguments, String name) {
+        if (null != arguments) {
+            for (int x = 0; x < arguments.length - 1; x++) {
+                if (name.equals(arguments[x])) {
+                    return arguments[x + 1];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the build info of the latest build of an application profile.
+     */
+    @FunctionalInterface
+    interface BuildInfoSource {
+        String getBuildInfo() throws Exception;
+    }
+
+    /**
+     * The Admission class represents the place of a scan in the queue of its
+     * application profile.
+     *
+     */
+    public static final class Admission {
+
+        private final String key;
+
+        private Admission(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Lets the next scan of the application profile start once the platform
+         * has completed this one. Releasing an admission more than once has no
+         * effect.
+         */
+        public void release() {
+            remove(this);
+        }
+    }
+
+    /**
+     * Constructor for ScanAdmissionUtil.
+     */
+    private ScanAdmissionUtil() {
+    }
+}
@@ -0,0 +1,109 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.veracode.jenkins.plugin.data.SCAComponent;
+
+/**
+ * The ScanPayloadUtil is a utility class for storing the bulky parts of the scan
+ * results in compressed files in the build directory, next to the build record.
+ * <p>
+ * These files are only read when the scan results of a build are displayed, so
+ * that loading the build record, e.g. to display the build history, stays
+ * cheap.
+ *
+ */
+public final class ScanPayloadUtil {
+
+    public static final String SCA_COMPONENTS_FILE_NAME = "veracode-sca-components.gz";
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Returns the file storing the SCA components of a build.
+     *
+     * @param buildDir a {@link java.io.File} object - the root directory of the
+     *                 build.
+     * @return a {@link java.io.File} object.
+     */
+    public static File getSCAComponentsFile(File buildDir) {
+        return new File(buildDir, SCA_COMPONENTS_FILE_NAME);
+    }
+
+    /**
+     * Writes the SCA components of a build to its compressed side file. The file
+     * is replaced atomically, so that readers never see a partially written file.
+     *
+     * @param buildDir      a {@link java.io.File} object - the root directory of
+     *                      the build.
+     * @param scaComponents a {@link java.util.Set} object.
+     * @throws java.io.IOException if any.
+     */
+    public static void writeSCAComponents(File buildDir, Set<SCAComponent> scaComponents)
+            throws IOException {
+        File file = getSCAComponentsFile(buildDir);
+        File tempFile = new File(buildDir, SCA_COMPONENTS_FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tempFile.toPath()))))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(scaComponents.size());
+            for (SCAComponent component : scaComponents) {
+                out.writeBoolean(component.getName() != null);
+                if (component.getName() != null) {
+                    out.writeUTF(component.getName());
+                }
+                out.writeBoolean(component.isBacklisted());
+                out.writeBoolean(component.isNew());
+                out.writeBoolean(component.isViolatedPolicy());
+            }
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the SCA components of a build from its compressed side file.
+     *
+     * @param buildDir a {@link java.io.File} object - the root directory of the
+     *                 build.
+     * @return a {@link java.util.Set} object.
+     * @throws java.io.IOException if any.
+     */
+    public static Set<SCAComponent> readSCAComponents(File buildDir) throws IOException {
+        File file = getSCAComponentsFile(buildDir);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file.toPath()))))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported format version " + version + " of " + file);
+            }
+            int count = in.readInt();
+            Set<SCAComponent> scaComponents = new HashSet<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                String name = in.readBoolean() ? in.readUTF() : null;
+                boolean isBlacklisted = in.readBoolean();
+                boolean isNew = in.readBoolean();
+                boolean violatedPolicy = in.readBoolean();
+                scaComponents.add(new SCAComponent(name, isBlacklisted, isNew, violatedPolicy));
+            }
+            return scaComponents;
+        }
+    }
+
+    /**
+     * Constructor for ScanPayloadUtil.
+     */
+    private ScanPayloadUtil() {
+    }
+}
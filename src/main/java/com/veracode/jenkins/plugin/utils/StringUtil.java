@@ -1,5 +1,10 @@
 package com.veracode.jenkins.plugin.utils;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * The StringUtil is a utility class for working with Strings.
  * <p>
@@ -188,6 +193,27 @@ public final class StringUtil {
         }
     }
 
+    /**
+     * <p>
+     * Splits a list of values separated by commas or line breaks. The values are
+     * trimmed, and the empty and repeated values are removed.
+     * </p>
+     *
+     * @param input a {@link java.lang.String} object.
+     * @return a {@link java.util.List} object.
+     */
+    public static List<String> splitList(String input) {
+        Set<String> values = new LinkedHashSet<>();
+        if (input != null) {
+            for (String value : input.split("[,\\r\\n]")) {
+                if (!value.trim().isEmpty()) {
+                    values.add(value.trim());
+                }
+            }
+        }
+        return new ArrayList<>(values);
+    }
+
     /**
      * <p>
      * Constructor for StringUtil.
@@ -0,0 +1,87 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+/**
+ * The WaitExecutorUtil is a utility class for creating the executors which run
+ * the tasks spending most of their time waiting for the Veracode platform, such
+ * as the scans waiting for their results.
+ * <p>
+ * When Jenkins runs on Java 21 or later, the tasks run on virtual threads, so
+ * that a waiting task only holds a carrier thread while it is not sleeping or
+ * blocked on I/O. On older versions of Java, or when the
+ * {@link #DISABLE_VIRTUAL_THREADS_PROPERTY} system property is set to true, the
+ * tasks run on daemon platform threads. As the plugin is built for Java 11, the
+ * virtual thread API is looked up at runtime.
+ *
+ */
+public final class WaitExecutorUtil {
+
+    public static final String DISABLE_VIRTUAL_THREADS_PROPERTY = WaitExecutorUtil.class.getName()
+            + ".disableVirtualThreads";
+
+    private static final int VIRTUAL_THREADS_MIN_JAVA_VERSION = 21;
+
+    /**
+     * Returns whether the executors created by this class run their tasks on
+     * virtual threads.
+     *
+     * @return a boolean.
+     */
+    public static boolean isVirtualThreadsEnabled() {
+        return !Boolean.getBoolean(DISABLE_VIRTUAL_THREADS_PROPERTY)
+                && Runtime.version().feature() >= VIRTUAL_THREADS_MIN_JAVA_VERSION;
+    }
+
+    /**
+     * Creates an executor running at most the specified number of tasks at the
+     * same time, on threads named after the specified name.
+     *
+     * @param maxConcurrency a int.
+     * @param name           a {@link java.lang.String} object.
+     * @return a {@link java.util.concurrent.ExecutorService} object.
+     */
+    public static ExecutorService newWaitExecutor(int maxConcurrency, String name) {
+        return Executors.newFixedThreadPool(maxConcurrency, newThreadFactory(name));
+    }
+
+    /**
+     * Returns a factory of virtual threads named after the specified name if
+     * virtual threads are enabled, otherwise a factory of daemon platform
+     * threads.
+     *
+     * @param name a {@link java.lang.String} object.
+     * @return a {@link java.util.concurrent.ThreadFactory} object.
+     */
+    public static ThreadFactory newThreadFactory(String name) {
+        if (isVirtualThreadsEnabled()) {
+            try {
+                return newVirtualThreadFactory(name);
+            } catch (Exception e) {
+                // fall back to platform threads
+            }
+        }
+        return new NamingThreadFactory(new DaemonThreadFactory(), name);
+    }
+
+    // Thread.ofVirtual().name(name + " #", 1).factory()
+    private static ThreadFactory newVirtualThreadFactory(String name) throws Exception {
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+        builder = nameMethod.invoke(builder, name + " #", 1L);
+        return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    }
+
+    /**
+     * Constructor for WaitExecutorUtil.
+     */
+    private WaitExecutorUtil() {
+    }
+}
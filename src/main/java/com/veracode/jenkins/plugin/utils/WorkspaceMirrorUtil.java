@@ -0,0 +1,524 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jenkinsci.remoting.RoleChecker;
+
+import com.veracode.jenkins.plugin.common.Constant;
+
+import hudson.FilePath;
+import hudson.Util;
+import hudson.remoting.VirtualChannel;
+import hudson.util.DirScanner;
+import hudson.util.FileVisitor;
+import jenkins.model.Jenkins;
+import jenkins.security.Roles;
+
+/**
+ * The WorkspaceMirrorUtil is a utility class for keeping a persistent copy of
+ * the files of a remote workspace on the controller.
+ * <p>
+ * Each job gets its own mirror directory. On every build the remote machine
+ * compares its files with the manifest of the mirror (size, last modified time
+ * and SHA-256 hash) in a single call and only the changed files are
+ * transferred. Files that no longer match the upload patterns are removed from
+ * the mirror. The total size of all mirrors is limited by a quota, evicting the
+ * least recently used mirrors of other jobs first.
+ *
+ */
+public final class WorkspaceMirrorUtil {
+
+    public static final String MIRROR_DIR_NAME = "veracode-workspace-mirror";
+    public static final int DEFAULT_MIRROR_QUOTA_MB = 2048;
+
+    private static final String MANIFEST_FILE_NAME = MIRROR_DIR_NAME + ".manifest";
+    private static final String MIRROR_INDEX_FILE_NAME = "veracode-workspace-mirrors.properties";
+    private static final String MANIFEST_SEPARATOR = "\t";
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    private static final Map<String, ReentrantLock> MIRROR_LOCKS = new ConcurrentHashMap<String, ReentrantLock>();
+    private static final Object INDEX_LOCK = new Object();
+
+    /**
+     * Returns the mirror directory of the job whose root directory is specified.
+     *
+     * @param jobRootDir a {@link java.io.File} object.
+     * @return a {@link java.io.File} object.
+     */
+    public static File getMirrorDir(File jobRootDir) {
+        return new File(jobRootDir, MIRROR_DIR_NAME);
+    }
+
+    /**
+     * Converts the mirror quota supplied in the global configuration (in
+     * megabytes) to bytes, falling back to the default quota if the value is
+     * empty or not a positive number.
+     *
+     * @param quotaMB a {@link java.lang.String} object.
+     * @return a long.
+     */
+    public static long getMirrorQuotaBytes(String quotaMB) {
+        int sizeMB = DEFAULT_MIRROR_QUOTA_MB;
+        if (!StringUtil.isNullOrEmpty(quotaMB)) {
+            try {
+                sizeMB = Integer.parseInt(quotaMB.trim());
+            } catch (NumberFormatException nfe) {
+                sizeMB = DEFAULT_MIRROR_QUOTA_MB;
+            }
+        }
+        if (sizeMB <= 0) {
+            sizeMB = DEFAULT_MIRROR_QUOTA_MB;
+        }
+        return sizeMB * BYTES_PER_MB;
+    }
+
+    /**
+     * Locks the specified mirror directory so that concurrent builds of the same
+     * job do not modify the mirror while it is being uploaded. The lock must be
+     * released by calling {@link #unlockMirror(File)}.
+     *
+     * @param mirrorDir a {@link java.io.File} object.
+     * @param ps        a {@link java.io.PrintStream} object.
+     * @throws java.lang.InterruptedException if any.
+     */
+    public static void lockMirror(File mirrorDir, PrintStream ps) throws InterruptedException {
+        ReentrantLock lock = getLock(mirrorDir);
+        if (!lock.tryLock()) {
+            ps.println(Constant.NEWLINE
+                    + "Waiting for another build of this job to finish using the copied files.");
+            lock.lockInterruptibly();
+        }
+    }
+
+    /**
+     * Releases the lock acquired by {@link #lockMirror(File, PrintStream)}.
+     *
+     * @param mirrorDir a {@link java.io.File} object.
+     */
+    public static void unlockMirror(File mirrorDir) {
+        ReentrantLock lock = MIRROR_LOCKS.get(getKey(mirrorDir));
+        if (lock != null && lock.isHeldByCurrentThread()) {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Synchronizes the specified mirror directory with the files of the workspace
+     * that match the given patterns and returns the paths of the mirrored files.
+     *
+     * @param workspace a {@link hudson.FilePath} object.
+     * @param includes  a {@link java.lang.String} object.
+     * @param excludes  a {@link java.lang.String} object.
+     * @param mirrorDir a {@link java.io.File} object.
+     * @param ps        a {@link java.io.PrintStream} object.
+     * @param debug     a boolean.
+     * @return an array of {@link java.lang.String} objects.
+     * @throws java.io.IOException            if any.
+     * @throws java.lang.InterruptedException if any.
+     */
+    public static String[] syncMirror(FilePath workspace, String includes, String excludes,
+            File mirrorDir, PrintStream ps, boolean debug)
+            throws IOException, InterruptedException {
+        File manifestFile = getManifestFile(mirrorDir);
+        HashMap<String, FileState> manifest;
+        if (mirrorDir.isDirectory() && manifestFile.isFile()) {
+            manifest = readManifest(manifestFile);
+            // the manifest is written again once the mirror is up to date, so an
+            // interrupted synchronization makes the next build start over
+            Files.delete(manifestFile.toPath());
+        } else {
+            // without a manifest the content of the mirror is unknown, start over
+            if (mirrorDir.exists()) {
+                FileUtil.deleteDirectory(mirrorDir);
+            }
+            manifest = new HashMap<String, FileState>();
+        }
+        if (!mirrorDir.exists() && !mirrorDir.mkdirs()) {
+            throw new IOException("Failed to create the directory " + mirrorDir);
+        }
+
+        SyncPlan plan = workspace.act(new SyncPlanCallable(includes, excludes, manifest));
+
+        if (!plan.changed.isEmpty()) {
+            workspace.copyRecursiveTo(new ExplicitFilesScanner(plan.changed),
+                    new FilePath(mirrorDir), "changed files");
+        }
+
+        int removed = 0;
+        for (String relativePath : manifest.keySet()) {
+            if (!plan.current.containsKey(relativePath)) {
+                deleteMirroredFile(mirrorDir, relativePath);
+                removed++;
+            }
+        }
+
+        writeManifest(manifestFile, plan.current);
+
+        if (debug) {
+            ps.print(String.format(
+                    "%n%nCopied %d changed file(s), removed %d file(s), kept %d unchanged file(s).%n",
+                    plan.changed.size(), removed, plan.current.size() - plan.changed.size()));
+        }
+
+        List<String> paths = new ArrayList<String>(plan.current.keySet());
+        Collections.sort(paths);
+        String[] filePaths = new String[paths.size()];
+        for (int x = 0; x < filePaths.length; x++) {
+            filePaths[x] = new File(mirrorDir, paths.get(x)).getPath();
+        }
+        return filePaths;
+    }
+
+    /**
+     * Records the use of the specified mirror and deletes the least recently used
+     * mirrors of other jobs until the total size of the mirrors fits the quota.
+     *
+     * @param mirrorDir  a {@link java.io.File} object.
+     * @param quotaBytes a long.
+     * @param ps         a {@link java.io.PrintStream} object.
+     * @throws java.io.IOException if any.
+     */
+    public static void enforceQuota(File mirrorDir, long quotaBytes, PrintStream ps)
+            throws IOException {
+        enforceQuota(new File(Jenkins.get().getRootDir(), MIRROR_INDEX_FILE_NAME), mirrorDir,
+                quotaBytes, ps);
+    }
+
+    /**
+     * Records the use of the specified mirror in the given index file and deletes
+     * the least recently used mirrors of other jobs until the total size of the
+     * mirrors fits the quota. Mirrors that are in use are never deleted.
+     *
+     * @param indexFile  a {@link java.io.File} object.
+     * @param mirrorDir  a {@link java.io.File} object.
+     * @param quotaBytes a long.
+     * @param ps         a {@link java.io.PrintStream} object.
+     * @throws java.io.IOException if any.
+     */
+    public static void enforceQuota(File indexFile, File mirrorDir, long quotaBytes,
+            PrintStream ps) throws IOException {
+        long mirrorSize = 0;
+        File manifestFile = getManifestFile(mirrorDir);
+        if (manifestFile.isFile()) {
+            for (FileState state : readManifest(manifestFile).values()) {
+                mirrorSize += state.size;
+            }
+        }
+
+        synchronized (INDEX_LOCK) {
+            Properties index = new Properties();
+            if (indexFile.isFile()) {
+                try (InputStream in = new FileInputStream(indexFile)) {
+                    index.load(in);
+                }
+            }
+            String currentKey = getKey(mirrorDir);
+            index.setProperty(currentKey, mirrorSize + "," + System.currentTimeMillis());
+
+            List<MirrorUsage> usages = new ArrayList<MirrorUsage>();
+            long total = 0;
+            for (String key : index.stringPropertyNames()) {
+                MirrorUsage usage = MirrorUsage.parse(key, index.getProperty(key));
+                if (usage == null || !new File(key).exists()) {
+                    // the job was deleted or renamed
+                    index.remove(key);
+                    continue;
+                }
+                usages.add(usage);
+                total += usage.size;
+            }
+            Collections.sort(usages);
+
+            for (MirrorUsage usage : usages) {
+                if (total <= quotaBytes) {
+                    break;
+                }
+                File evicted = new File(usage.key);
+                // a mirror in use by another build is skipped, and the lock keeps
+                // other builds from using the mirror while it is deleted
+                ReentrantLock lock = getLock(evicted);
+                if (usage.key.equals(currentKey) || !lock.tryLock()) {
+                    continue;
+                }
+                try {
+                    FileUtil.deleteDirectory(evicted);
+                    Files.deleteIfExists(getManifestFile(evicted).toPath());
+                } finally {
+                    lock.unlock();
+                }
+                index.remove(usage.key);
+                total -= usage.size;
+                ps.println(Constant.NEWLINE + "Removed the least recently used copied files in "
+                        + usage.key + " to stay within the quota.");
+            }
+
+            try (FileOutputStream out = new FileOutputStream(indexFile)) {
+                index.store(out, "Veracode");
+            }
+        }
+    }
+
+    private static ReentrantLock getLock(File mirrorDir) {
+        String key = getKey(mirrorDir);
+        ReentrantLock lock = MIRROR_LOCKS.get(key);
+        if (lock == null) {
+            ReentrantLock newLock = new ReentrantLock(true);
+            lock = MIRROR_LOCKS.putIfAbsent(key, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
+    private static String getKey(File mirrorDir) {
+        return mirrorDir.getAbsolutePath();
+    }
+
+    private static File getManifestFile(File mirrorDir) {
+        return new File(mirrorDir.getParentFile(), MANIFEST_FILE_NAME);
+    }
+
+    private static void deleteMirroredFile(File mirrorDir, String relativePath) throws IOException {
+        File file = new File(mirrorDir, relativePath);
+        Files.deleteIfExists(file.toPath());
+        // remove the directories left empty
+        File parent = file.getParentFile();
+        while (parent != null && !parent.equals(mirrorDir)) {
+            String[] children = parent.list();
+            if (children == null || children.length > 0 || !parent.delete()) {
+                break;
+            }
+            parent = parent.getParentFile();
+        }
+    }
+
+    private static HashMap<String, FileState> readManifest(File manifestFile) throws IOException {
+        HashMap<String, FileState> manifest = new HashMap<String, FileState>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(manifestFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(MANIFEST_SEPARATOR, 4);
+                if (fields.length != 4) {
+                    continue;
+                }
+                try {
+                    manifest.put(fields[3], new FileState(Long.parseLong(fields[0]),
+                            Long.parseLong(fields[1]), fields[2]));
+                } catch (NumberFormatException nfe) {
+                    // skip the corrupted entry, the file will be copied again
+                }
+            }
+        }
+        return manifest;
+    }
+
+    private static void writeManifest(File manifestFile, Map<String, FileState> manifest)
+            throws IOException {
+        File tempFile = new File(manifestFile.getPath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(tempFile), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, FileState> entry : manifest.entrySet()) {
+                FileState state = entry.getValue();
+                writer.write(state.size + MANIFEST_SEPARATOR + state.lastModified
+                        + MANIFEST_SEPARATOR + state.hash + MANIFEST_SEPARATOR + entry.getKey());
+                writer.newLine();
+            }
+        }
+        Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * The size, last modified time and SHA-256 hash of a mirrored file as seen on
+     * the remote machine.
+     *
+     */
+    public static final class FileState implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+
+        public FileState(long size, long lastModified, String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+    }
+
+    /**
+     * The result of comparing the workspace with the manifest of the mirror: the
+     * files to transfer and the new state of all files that match the patterns.
+     *
+     */
+    public static final class SyncPlan implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> changed;
+        private final HashMap<String, FileState> current;
+
+        public SyncPlan(List<String> changed, HashMap<String, FileState> current) {
+            this.changed = changed;
+            this.current = current;
+        }
+    }
+
+    /**
+     * Implements {@link hudson.FilePath.FileCallable FileCallable}'s
+     * {@link hudson.FilePath.FileCallable#invoke(File, VirtualChannel) invoke}
+     * method, which is executed on the machine that holds the workspace. A file is
+     * considered unchanged if its size and last modified time match the manifest,
+     * or if only its last modified time changed but its hash still matches.
+     *
+     */
+    public static final class SyncPlanCallable implements FilePath.FileCallable<SyncPlan> {
+        private static final long serialVersionUID = 1L;
+
+        private final String includes;
+        private final String excludes;
+        private final HashMap<String, FileState> manifest;
+
+        public SyncPlanCallable(String includes, String excludes,
+                HashMap<String, FileState> manifest) {
+            this.includes = includes;
+            this.excludes = excludes;
+            this.manifest = manifest;
+        }
+
+        public SyncPlan invoke(File workspace, VirtualChannel channel)
+                throws IOException, InterruptedException {
+            String[] relativePaths = Util.createFileSet(workspace, includes, excludes)
+                    .getDirectoryScanner().getIncludedFiles();
+
+            List<String> changed = new ArrayList<String>();
+            HashMap<String, FileState> current = new HashMap<String, FileState>();
+            for (String path : relativePaths) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                String relativePath = path.replace('\\', '/');
+                File file = new File(workspace, path);
+                long size = file.length();
+                long lastModified = file.lastModified();
+
+                FileState previous = manifest.get(relativePath);
+                if (previous != null && previous.size == size
+                        && previous.lastModified == lastModified) {
+                    current.put(relativePath, previous);
+                    continue;
+                }
+
+                String hash = FileUtil.getSha256Checksum(file);
+                current.put(relativePath, new FileState(size, lastModified, hash));
+                if (previous == null || previous.size != size || !hash.equals(previous.hash)) {
+                    changed.add(relativePath);
+                }
+            }
+            return new SyncPlan(changed, current);
+        }
+
+        @Override
+        public void checkRoles(RoleChecker checker) throws SecurityException {
+            checker.check(this, Roles.SLAVE);
+        }
+    }
+
+    /**
+     * A {@link hudson.util.DirScanner DirScanner} that visits an explicit list of
+     * files, so that all changed files are transferred in a single archive stream.
+     *
+     */
+    private static final class ExplicitFilesScanner extends DirScanner {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> relativePaths;
+
+        ExplicitFilesScanner(List<String> relativePaths) {
+            this.relativePaths = new ArrayList<String>(relativePaths);
+        }
+
+        @Override
+        public void scan(File dir, FileVisitor visitor) throws IOException {
+            for (String relativePath : relativePaths) {
+                File file = new File(dir, relativePath);
+                if (file.isFile()) {
+                    visitor.visit(file, relativePath);
+                }
+            }
+        }
+    }
+
+    /**
+     * The size and last use time of a mirror recorded in the mirror index.
+     *
+     */
+    private static final class MirrorUsage implements Comparable<MirrorUsage> {
+        private final String key;
+        private final long size;
+        private final long lastUsed;
+
+        private MirrorUsage(String key, long size, long lastUsed) {
+            this.key = key;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+
+        private static MirrorUsage parse(String key, String value) {
+            String[] fields = value.split(",");
+            if (fields.length != 2) {
+                return null;
+            }
+            try {
+                return new MirrorUsage(key, Long.parseLong(fields[0]), Long.parseLong(fields[1]));
+            } catch (NumberFormatException nfe) {
+                return null;
+            }
+        }
+
+        @Override
+        public int compareTo(MirrorUsage other) {
+            return Long.compare(lastUsed, other.lastUsed);
+        }
+    }
+
+    /**
+     * Constructor for WorkspaceMirrorUtil.
+     */
+    private WorkspaceMirrorUtil() {
+    }
+}
@@ -0,0 +1,462 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * The WrapperDaemonUtil is a utility class for running the Veracode API Wrapper
+ * in a long-lived daemon in the JVM of a remote node.
+ * <p>
+ * The daemon is started lazily by the first job dispatched to the node. It loads
+ * the wrapper provisioned on the node once and keeps it loaded, so that the
+ * following jobs neither pay for the startup of a new JVM nor for loading the
+ * wrapper again. The number of jobs the daemon runs at the same time is capped,
+ * further jobs wait for a free slot. The cap defaults to a single job: the jobs
+ * share the classes of the wrapper, which is not known to be safe to run
+ * concurrently in the same class loader, so that running more jobs at the same
+ * time is an opt-in. The daemon shuts down and unloads the wrapper after being
+ * idle for {@link #IDLE_TIMEOUT_MINUTES} minutes.
+ * <p>
+ * As in the other modes, the wrapper throws its errors, which the daemon
+ * reports in the output of the job and maps to {@link #ERROR_RETURN_CODE}, as
+ * the wrapper does when it runs in its own JVM.
+ * <p>
+ * The daemon loads a copy of the provisioned wrapper named after its checksum,
+ * so that it never holds the provisioned jar open and the jar can be replaced
+ * while the daemon runs. When the checksum of the provisioned jar changes, the
+ * daemon is restarted with a copy of the new wrapper, and the jobs still
+ * running complete with the previous one.
+ *
+ */
+public final class WrapperDaemonUtil {
+
+    public static final int DEFAULT_MAX_CONCURRENT_JOBS = 1;
+    public static final int ERROR_RETURN_CODE = 1;
+    public static final long IDLE_TIMEOUT_MINUTES = 30;
+
+    private static final long IDLE_CHECK_PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final String PARSER_CLASS_NAME = "com.veracode.apiwrapper.cli.VeracodeCommand$VeracodeParser";
+    private static final String COPY_DIR_NAME = "daemon";
+
+    // the daemon of the JVM this class is loaded in, i.e. of the remote node
+    private static WrapperDaemon daemon;
+
+    /**
+     * Returns the maximum number of jobs a daemon runs at the same time.
+     *
+     * @param maxJobs a {@link java.lang.String} object.
+     * @return a int.
+     */
+    public static int getMaxConcurrentJobs(String maxJobs) {
+        if (!StringUtil.isNullOrEmpty(maxJobs)) {
+            try {
+                int value = Integer.parseInt(maxJobs.trim());
+                if (value > 0) {
+                    return value;
+                }
+            } catch (NumberFormatException e) {
+                // fall back to the default
+            }
+        }
+        return DEFAULT_MAX_CONCURRENT_JOBS;
+    }
+
+    /**
+     * Dispatches a job to the daemon of the remote node the channel is connected
+     * to, starting the daemon if it is not running. The output of the wrapper is
+     * streamed to the listener.
+     * <p>
+     * As the job runs in the remote node's JVM, the arguments must contain the API
+     * credentials and proxy settings rather than relying on environment variables.
+     *
+     * @param channel   a {@link hudson.remoting.VirtualChannel} object.
+     * @param jarPath   a {@link java.lang.String} object - the path of the wrapper
+     *                  on the remote node.
+     * @param arguments an array of {@link java.lang.String} objects.
+     * @param timeout   a {@link java.lang.String} object.
+     * @param maxJobs   a int.
+     * @param listener  a {@link hudson.model.TaskListener} object.
+     * @param debug     a boolean.
+     * @return the return code of the wrapper, or null if the daemon is not
+     *         available.
+     * @throws java.io.IOException            if any.
+     * @throws java.lang.InterruptedException if any.
+     */
+    public static Integer runJob(VirtualChannel channel, String jarPath, String[] arguments,
+            String timeout, int maxJobs, TaskListener listener, boolean debug)
+            throws IOException, InterruptedException {
+        PrintStream ps = listener.getLogger();
+        DaemonStatus status = channel.call(new HealthCheckCallable(jarPath, maxJobs));
+        if (!status.isHealthy()) {
+            ps.print("\nThe Veracode API wrapper daemon is not available on the remote node: "
+                    + status.getMessage() + "\n");
+            return null;
+        }
+        if (debug) {
+            ps.print(String.format("%nDispatching the job to the Veracode API wrapper daemon (%d of %d jobs running).%n",
+                    status.getActiveJobs(), status.getMaxJobs()));
+        }
+        return channel.call(new RunJobCallable(jarPath, arguments, timeout, maxJobs, listener));
+    }
+
+    private static synchronized WrapperDaemon enterDaemon(String jarPath, int maxJobs)
+            throws IOException {
+        if (daemon == null || !daemon.isUsableFor(jarPath, maxJobs) || !daemon.enter()) {
+            if (daemon != null) {
+                daemon.retire();
+            }
+            daemon = new WrapperDaemon(jarPath, maxJobs);
+            daemon.enter();
+        }
+        return daemon;
+    }
+
+    /**
+     * Copies the wrapper to the daemon directory next to it, under a name made of
+     * its checksum, unless it is already there. The copies of the previous
+     * wrappers are deleted, which fails harmlessly on Windows for a copy still
+     * loaded by a daemon completing its last jobs.
+     *
+     * @param jarFile a {@link java.io.File} object - the provisioned wrapper.
+     * @return a {@link java.io.File} object - the copy of the wrapper.
+     * @throws java.io.IOException if any.
+     */
+    static File copyJar(File jarFile) throws IOException {
+        File copyDir = new File(jarFile.getParentFile(), COPY_DIR_NAME);
+        Files.createDirectories(copyDir.toPath());
+        // the checksum is computed on the copy, as the provisioned jar can be replaced
+        // while it is copied
+        Path tempPath = Files.createTempFile(copyDir.toPath(), jarFile.getName(), ".tmp");
+        File copyFile;
+        try {
+            Files.copy(jarFile.toPath(), tempPath, StandardCopyOption.REPLACE_EXISTING);
+            String checksum = FileUtil.getSha256Checksum(tempPath.toFile());
+            copyFile = new File(copyDir, checksum + ".jar");
+            if (!copyFile.isFile()) {
+                Files.move(tempPath, copyFile.toPath());
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+
+        File[] files = copyDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.equals(copyFile)) {
+                    file.delete();
+                }
+            }
+        }
+        return copyFile;
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?> argType)
+            throws NoSuchMethodException {
+        for (Method method : clazz.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == 1
+                    && method.getParameterTypes()[0].isAssignableFrom(argType)) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(clazz.getName() + "." + name);
+    }
+
+    /**
+     * The daemon of a remote node, which keeps the Veracode API Wrapper loaded in
+     * its own class loader.
+     */
+    private static final class WrapperDaemon {
+
+        private final String jarPath;
+        private final String jarChecksum;
+        private final int maxJobs;
+        private final URLClassLoader classLoader;
+        private final Class<?> parserClass;
+        private final Method setOutputWriter;
+        private final Method setErrorWriter;
+        private final Method throwExceptions;
+        private final Method setScanCompleteTimeout;
+        private final Method parse;
+        private final Semaphore slots;
+        private final Timer idleTimer;
+
+        // guarded by this
+        private long jarLastModified;
+        private long jarLength;
+        private int activeJobs;
+        private long lastUsed;
+        private boolean retired;
+        private boolean closed;
+
+        WrapperDaemon(String jarPath, int maxJobs) throws IOException {
+            File jarFile = new File(jarPath);
+            if (!jarFile.isFile()) {
+                throw new IOException("Cannot find the Veracode API wrapper at " + jarPath);
+            }
+            this.jarPath = jarPath;
+            this.jarLastModified = jarFile.lastModified();
+            this.jarLength = jarFile.length();
+            this.maxJobs = maxJobs;
+
+            // the wrapper is loaded from the copy of the jar provisioned on the node
+            // rather than through the remoting channel
+            File copyFile = copyJar(jarFile);
+            this.jarChecksum = copyFile.getName().substring(0,
+                    copyFile.getName().length() - ".jar".length());
+            this.classLoader = new URLClassLoader(new URL[] { copyFile.toURI().toURL() },
+                    ClassLoader.getPlatformClassLoader());
+            try {
+                this.parserClass = classLoader.loadClass(PARSER_CLASS_NAME);
+                this.setOutputWriter = findMethod(parserClass, "setOutputWriter", PrintStream.class);
+                this.setErrorWriter = findMethod(parserClass, "setErrorWriter", PrintStream.class);
+                this.throwExceptions = findMethod(parserClass, "throwExceptions", boolean.class);
+                this.setScanCompleteTimeout = findMethod(parserClass, "setScanCompleteTimeout", String.class);
+                this.parse = findMethod(parserClass, "parse", String[].class);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                classLoader.close();
+                throw new IOException("Cannot load the Veracode API wrapper: " + e, e);
+            }
+
+            this.slots = new Semaphore(maxJobs, true);
+            this.lastUsed = System.currentTimeMillis();
+            this.idleTimer = new Timer("Veracode API wrapper daemon idle check", true);
+            this.idleTimer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    closeIfIdle();
+                }
+            }, IDLE_CHECK_PERIOD_MILLIS, IDLE_CHECK_PERIOD_MILLIS);
+        }
+
+        synchronized boolean isUsableFor(String jarPath, int maxJobs) {
+            if (!this.jarPath.equals(jarPath) || this.maxJobs != maxJobs) {
+                return false;
+            }
+            File jarFile = new File(jarPath);
+            if (jarLastModified == jarFile.lastModified() && jarLength == jarFile.length()) {
+                return true;
+            }
+            // the jar was provisioned again, possibly with the same wrapper
+            try {
+                if (!jarChecksum.equals(FileUtil.getSha256Checksum(jarFile))) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+            jarLastModified = jarFile.lastModified();
+            jarLength = jarFile.length();
+            return true;
+        }
+
+        synchronized boolean enter() {
+            if (closed || retired) {
+                return false;
+            }
+            activeJobs++;
+            return true;
+        }
+
+        synchronized void exit() {
+            activeJobs--;
+            lastUsed = System.currentTimeMillis();
+            if (retired && activeJobs == 0) {
+                close();
+            }
+        }
+
+        synchronized void retire() {
+            retired = true;
+            if (activeJobs == 0) {
+                close();
+            }
+        }
+
+        synchronized DaemonStatus getStatus() {
+            return new DaemonStatus(!closed && !retired, activeJobs, maxJobs, "running");
+        }
+
+        int run(String[] arguments, String timeout, PrintStream ps)
+                throws IOException, InterruptedException {
+            if (!slots.tryAcquire()) {
+                ps.print(String.format("%nWaiting for one of the %d running jobs of the Veracode API wrapper daemon to complete.%n",
+                        maxJobs));
+                slots.acquire();
+            }
+            try {
+                Object parser = parserClass.getDeclaredConstructor().newInstance();
+                setOutputWriter.invoke(parser, ps);
+                setErrorWriter.invoke(parser, ps);
+                throwExceptions.invoke(parser, true);
+                setScanCompleteTimeout.invoke(parser, timeout);
+                return ((Number) parse.invoke(parser, (Object) arguments)).intValue();
+            } catch (InvocationTargetException e) {
+                ps.print("\r\n\r\n" + e.getCause().getMessage() + "\r\n");
+                return ERROR_RETURN_CODE;
+            } catch (ReflectiveOperationException e) {
+                throw new IOException(e);
+            } finally {
+                slots.release();
+            }
+        }
+
+        private synchronized void closeIfIdle() {
+            if (activeJobs == 0 && System.currentTimeMillis() - lastUsed
+                    >= TimeUnit.MINUTES.toMillis(IDLE_TIMEOUT_MINUTES)) {
+                close();
+            }
+        }
+
+        private synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            idleTimer.cancel();
+            try {
+                classLoader.close();
+            } catch (IOException e) {
+                // the class loader is unreachable anyway
+            }
+        }
+    }
+
+    /**
+     * The status of the daemon of a remote node, as returned by its health check.
+     */
+    public static final class DaemonStatus implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean healthy;
+        private final int activeJobs;
+        private final int maxJobs;
+        private final String message;
+
+        public DaemonStatus(boolean healthy, int activeJobs, int maxJobs, String message) {
+            this.healthy = healthy;
+            this.activeJobs = activeJobs;
+            this.maxJobs = maxJobs;
+            this.message = message;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public int getActiveJobs() {
+            return activeJobs;
+        }
+
+        public int getMaxJobs() {
+            return maxJobs;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Implements {@link jenkins.security.MasterToSlaveCallable
+     * MasterToSlaveCallable}'s {@link jenkins.security.MasterToSlaveCallable#call()
+     * call} method, which starts the daemon of the remote node if it is not
+     * running and returns its status.
+     *
+     */
+    public static final class HealthCheckCallable extends MasterToSlaveCallable<DaemonStatus, IOException> {
+        private static final long serialVersionUID = 1L;
+
+        private final String jarPath;
+        private final int maxJobs;
+
+        public HealthCheckCallable(String jarPath, int maxJobs) {
+            this.jarPath = jarPath;
+            this.maxJobs = maxJobs;
+        }
+
+        public DaemonStatus call() throws IOException {
+            WrapperDaemon wrapperDaemon;
+            try {
+                wrapperDaemon = enterDaemon(jarPath, maxJobs);
+            } catch (IOException e) {
+                return new DaemonStatus(false, 0, maxJobs, e.getMessage());
+            }
+            try {
+                DaemonStatus status = wrapperDaemon.getStatus();
+                // do not count the health check itself as a running job
+                return new DaemonStatus(status.isHealthy(), status.getActiveJobs() - 1,
+                        status.getMaxJobs(), status.getMessage());
+            } finally {
+                wrapperDaemon.exit();
+            }
+        }
+    }
+
+    /**
+     * Implements {@link jenkins.security.MasterToSlaveCallable
+     * MasterToSlaveCallable}'s {@link jenkins.security.MasterToSlaveCallable#call()
+     * call} method, which runs a job in the daemon of the remote node.
+     *
+     */
+    public static final class RunJobCallable extends MasterToSlaveCallable<Integer, IOException> {
+        private static final long serialVersionUID = 1L;
+
+        private final String jarPath;
+        private final String[] arguments;
+        private final String timeout;
+        private final int maxJobs;
+        private final TaskListener listener;
+
+        public RunJobCallable(String jarPath, String[] arguments, String timeout, int maxJobs,
+                TaskListener listener) {
+            this.jarPath = jarPath;
+            this.arguments = arguments;
+            this.timeout = timeout;
+            this.maxJobs = maxJobs;
+            this.listener = listener;
+        }
+
+        public Integer call() throws IOException {
+            PrintStream ps = listener.getLogger();
+            WrapperDaemon wrapperDaemon;
+            try {
+                wrapperDaemon = enterDaemon(jarPath, maxJobs);
+            } catch (IOException e) {
+                ps.print("\nFailed to start the Veracode API wrapper daemon: " + e.getMessage() + "\n");
+                return null;
+            }
+            try {
+                return wrapperDaemon.run(arguments, timeout, ps);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the Veracode API wrapper daemon", e);
+            } finally {
+                wrapperDaemon.exit();
+                ps.flush();
+            }
+        }
+    }
+
+    /**
+     * Constructor for WrapperDaemonUtil.
+     */
+    private WrapperDaemonUtil() {
+    }
+}
@@ -0,0 +1,162 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The WrapperOutputUtil is a utility class for reading the IDs of the started
+ * scan from the output of the API wrapper.
+ * <p>
+ * The API wrapper logs the application ID and the build ID it works on, such
+ * as {@code The build_id of the new build is "12345".}. Reading them from the
+ * output identifies the build started by this wrapper run, whereas the latest
+ * build of the application may have been started by another upload in the
+ * meantime.
+ *
+ */
+public final class WrapperOutputUtil {
+
+    private static final Pattern APP_ID_PATTERN = Pattern
+            .compile("The app_id of the [^\"]+ is \"(\\d+)\"");
+    private static final Pattern BUILD_ID_PATTERN = Pattern
+            .compile("The build_id of the new build is \"(\\d+)\"");
+
+    // longer lines are not logged by the API wrapper for the IDs
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    /**
+     * Returns the application ID logged in the specified line of the API wrapper
+     * output.
+     *
+     * @param line a {@link java.lang.String} object.
+     * @return a {@link java.lang.String} object - the application ID, or null if
+     *         the line does not log it.
+     */
+    public static String parseAppId(String line) {
+        return parse(APP_ID_PATTERN, line);
+    }
+
+    /**
+     * Returns the build ID of the new build logged in the specified line of the
+     * API wrapper output.
+     *
+     * @param line a {@link java.lang.String} object.
+     * @return a {@link java.lang.String} object - the build ID, or null if the
+     *         line does not log it.
+     */
+    public static String parseBuildId(String line) {
+        return parse(BUILD_ID_PATTERN, line);
+    }
+
+    private static String parse(Pattern pattern, String line) {
+        if (line == null) {
+            return null;
+        }
+        Matcher matcher = pattern.matcher(line);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * An output stream which writes the API wrapper output to another stream,
+     * and keeps the last application ID and build ID it logged.
+     */
+    public static final class ScanIdCapture extends OutputStream {
+
+        private final OutputStream out;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        private volatile String appId;
+        private volatile String buildId;
+
+        /**
+         * Constructor for ScanIdCapture.
+         *
+         * @param out a {@link java.io.OutputStream} object - the stream the output
+         *            is written to.
+         */
+        public ScanIdCapture(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public synchronized void write(int b) throws IOException {
+            out.write(b);
+            append(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            for (int i = off; i < off + len; i++) {
+                append(b[i]);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        /**
+         * Reads the IDs from the last line if it has no line separator. The
+         * underlying stream is not closed.
+         */
+        @Override
+        public synchronized void close() throws IOException {
+            endLine();
+            out.flush();
+        }
+
+        /**
+         * Returns the last application ID logged by the API wrapper.
+         *
+         * @return a {@link java.lang.String} object, or null if none was logged.
+         */
+        public String getAppId() {
+            return appId;
+        }
+
+        /**
+         * Returns the build ID of the new build logged by the API wrapper.
+         *
+         * @return a {@link java.lang.String} object, or null if none was logged.
+         */
+        public String getBuildId() {
+            return buildId;
+        }
+
+        private void append(int b) {
+            if (b == '\n' || b == '\r') {
+                endLine();
+            } else if (line.size() < MAX_LINE_LENGTH) {
+                line.write(b);
+            }
+        }
+
+        private void endLine() {
+            if (line.size() == 0) {
+                return;
+            }
+            String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+            line.reset();
+            String newAppId = parseAppId(text);
+            if (newAppId != null) {
+                appId = newAppId;
+            }
+            String newBuildId = parseBuildId(text);
+            if (newBuildId != null) {
+                buildId = newBuildId;
+            }
+        }
+    }
+
+    /**
+     * Constructor for WrapperOutputUtil.
+     */
+    private WrapperOutputUtil() {
+    }
+}
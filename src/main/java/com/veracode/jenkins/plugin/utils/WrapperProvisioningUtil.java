@@ -0,0 +1,272 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jenkinsci.remoting.RoleChecker;
+
+import com.veracode.jenkins.plugin.common.Constant;
+
+import hudson.FilePath;
+import hudson.model.Node;
+import hudson.remoting.VirtualChannel;
+import jenkins.security.Roles;
+
+/**
+ * The WrapperProvisioningUtil is a utility class for provisioning the Veracode
+ * API Wrapper on remote nodes.
+ * <p>
+ * The wrapper is verified by its SHA-256 checksum and only copied if the
+ * checksum of the jar on the node differs from the one bundled with the
+ * plugin. Provisioned nodes are recorded, so builds running on a node that was
+ * provisioned when it came online do not need any remoting call for it.
+ *
+ */
+public final class WrapperProvisioningUtil {
+
+    // node name -> checksum of the wrapper provisioned on the node
+    private static final Map<String, String> PROVISIONED_NODES = new ConcurrentHashMap<String, String>();
+    private static final Map<String, Object> NODE_LOCKS = new ConcurrentHashMap<String, Object>();
+
+    private static volatile String localJarChecksum;
+
+    /**
+     * Whether the wrapper bundled with the plugin is known to be provisioned on
+     * the specified node. No remoting call is made.
+     *
+     * @param node a {@link hudson.model.Node} object.
+     * @return a boolean.
+     */
+    public static boolean isProvisioned(Node node) {
+        String checksum = PROVISIONED_NODES.get(node.getNodeName());
+        try {
+            return checksum != null && checksum.equals(getLocalJarChecksum());
+        } catch (IOException | URISyntaxException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Makes sure that the wrapper bundled with the plugin is present on the
+     * specified node, copying it if it is missing or its checksum does not match.
+     *
+     * @param node  a {@link hudson.model.Node} object.
+     * @param ps    a {@link java.io.PrintStream} object.
+     * @param debug a boolean.
+     * @return a boolean.
+     * @throws java.io.IOException            if any.
+     * @throws java.lang.InterruptedException if any.
+     * @throws java.net.URISyntaxException    if any.
+     */
+    public static boolean provision(Node node, PrintStream ps, boolean debug)
+            throws IOException, InterruptedException, URISyntaxException {
+        String nodeName = node.getNodeName();
+        String expectedChecksum = getLocalJarChecksum();
+
+        synchronized (getLock(nodeName)) {
+            if (expectedChecksum.equals(PROVISIONED_NODES.get(nodeName))) {
+                return true;
+            }
+
+            FilePath remoteVeracodeFilePath = RemoteScanUtil.getRemoteVeracodePath(node);
+            FilePath remoteJarFilePath = remoteVeracodeFilePath
+                    .child(Constant.execJarFile + ".jar");
+
+            String actualChecksum = remoteJarFilePath.act(new ChecksumCallable());
+            if (!expectedChecksum.equals(actualChecksum)) {
+                if (debug) {
+                    ps.println(actualChecksum == null
+                            ? "Copying the Veracode API wrapper to " + nodeName
+                            : "Updating the Veracode API wrapper on " + nodeName);
+                }
+                remoteVeracodeFilePath.mkdirs();
+
+                // keep the versioned jar next to 'VeracodeJavaAPI.jar', as the name of
+                // the jarfile in the plugin changes depending on the wrapper version
+                FilePath localJarFilePath = getLocalJarFilePath();
+                FilePath versionedJarFilePath = remoteVeracodeFilePath
+                        .child(localJarFilePath.getName());
+                try {
+                    replaceFile(localJarFilePath, versionedJarFilePath);
+                    replaceFile(versionedJarFilePath, remoteJarFilePath);
+                } catch (IOException e) {
+                    if (actualChecksum == null) {
+                        throw e;
+                    }
+                    // not recorded as provisioned, so the next build tries again
+                    ps.println("The Veracode API wrapper on " + nodeName
+                            + " is in use and was not updated: " + e.getMessage());
+                    return true;
+                }
+
+                // the versioned jars of previous wrappers are not run by any scan
+                for (FilePath oldJarFilePath : remoteVeracodeFilePath.list(Constant.inclusive)) {
+                    if (!oldJarFilePath.getName().equals(versionedJarFilePath.getName())) {
+                        oldJarFilePath.delete();
+                    }
+                }
+
+                actualChecksum = remoteJarFilePath.act(new ChecksumCallable());
+                if (!expectedChecksum.equals(actualChecksum)) {
+                    ps.println("Failed to verify the checksum of the Veracode API wrapper on "
+                            + nodeName);
+                    return false;
+                }
+            } else if (debug) {
+                ps.println("The Veracode API wrapper on " + nodeName + " is up to date");
+            }
+
+            PROVISIONED_NODES.put(nodeName, expectedChecksum);
+            return true;
+        }
+    }
+
+    /**
+     * Forgets the provisioning record of the specified node, e.g. because it went
+     * offline and its file system may have changed in the meantime.
+     *
+     * @param nodeName a {@link java.lang.String} object.
+     */
+    public static void invalidate(String nodeName) {
+        PROVISIONED_NODES.remove(nodeName);
+    }
+
+    /**
+     * Returns the SHA-256 checksum of the wrapper bundled with the plugin. It is
+     * computed once, as the bundled jar only changes when the plugin is upgraded
+     * and the plugin is reloaded.
+     *
+     * @return a {@link java.lang.String} object.
+     * @throws java.io.IOException         if any.
+     * @throws java.net.URISyntaxException if any.
+     */
+    public static String getLocalJarChecksum() throws IOException, URISyntaxException {
+        String checksum = localJarChecksum;
+        if (checksum == null) {
+            try {
+                FilePath localJarFilePath = getLocalJarFilePath();
+                checksum = FileUtil.getSha256Checksum(new File(localJarFilePath.getRemote()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            localJarChecksum = checksum;
+        }
+        return checksum;
+    }
+
+    private static FilePath getLocalJarFilePath()
+            throws IOException, InterruptedException, URISyntaxException {
+        FilePath[] files = FileUtil.getLocalWorkspaceFilepath().list(Constant.inclusive);
+        if (files.length == 0) {
+            throw new IOException("Cannot locate the Veracode API wrapper in the plugin.");
+        }
+        return files[0];
+    }
+
+    /**
+     * Copies the source file to a temporary file next to the target, and moves
+     * it over the target, so that a scan starting meanwhile never runs a
+     * partially copied jar. The jar of a running scan is not deleted: the scan
+     * keeps reading the replaced file on Unix, and on Windows the move fails
+     * and the previous jar is kept.
+     *
+     * @param source a {@link hudson.FilePath} object.
+     * @param target a {@link hudson.FilePath} object.
+     * @throws java.io.IOException            if the target cannot be replaced.
+     * @throws java.lang.InterruptedException if any.
+     */
+    private static void replaceFile(FilePath source, FilePath target)
+            throws IOException, InterruptedException {
+        FilePath tempFilePath = target.getParent().createTempFile(target.getName(), ".tmp");
+        try {
+            source.copyToWithPermission(tempFilePath);
+            tempFilePath.act(new MoveFileCallable(target.getRemote()));
+        } finally {
+            if (tempFilePath.exists()) {
+                tempFilePath.delete();
+            }
+        }
+    }
+
+    private static Object getLock(String nodeName) {
+        Object lock = NODE_LOCKS.get(nodeName);
+        if (lock == null) {
+            Object newLock = new Object();
+            lock = NODE_LOCKS.putIfAbsent(nodeName, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Implements {@link hudson.FilePath.FileCallable FileCallable}'s
+     * {@link hudson.FilePath.FileCallable#invoke(File, VirtualChannel) invoke}
+     * method, which returns the SHA-256 checksum of the file on the remote node, or
+     * null if the file does not exist.
+     *
+     */
+    public static final class ChecksumCallable implements FilePath.FileCallable<String> {
+        private static final long serialVersionUID = 1L;
+
+        public String invoke(File f, VirtualChannel channel)
+                throws IOException, InterruptedException {
+            return f.isFile() ? FileUtil.getSha256Checksum(f) : null;
+        }
+
+        @Override
+        public void checkRoles(RoleChecker checker) throws SecurityException {
+            checker.check(this, Roles.SLAVE);
+        }
+    }
+
+    /**
+     * Implements {@link hudson.FilePath.FileCallable FileCallable}'s
+     * {@link hudson.FilePath.FileCallable#invoke(File, VirtualChannel) invoke}
+     * method, which moves the file on the remote node over the target file,
+     * atomically if the file system supports it.
+     *
+     */
+    public static final class MoveFileCallable implements FilePath.FileCallable<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final String target;
+
+        public MoveFileCallable(String target) {
+            this.target = target;
+        }
+
+        public Void invoke(File f, VirtualChannel channel)
+                throws IOException, InterruptedException {
+            Path targetPath = new File(target).toPath();
+            try {
+                Files.move(f.toPath(), targetPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(f.toPath(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return null;
+        }
+
+        @Override
+        public void checkRoles(RoleChecker checker) throws SecurityException {
+            checker.check(this, Roles.SLAVE);
+        }
+    }
+
+    /**
+     * Constructor for WrapperProvisioningUtil.
+     */
+    private WrapperProvisioningUtil() {
+    }
+}
@@ -8,7 +8,9 @@ import com.veracode.apiwrapper.wrappers.UploadAPIWrapper;
 import com.veracode.jenkins.plugin.data.ProxyBlock;
 
 /**
- * The WrapperUtil class contains the helpers for using wrappers.
+ * The WrapperUtil class contains the helpers for using wrappers. The calls to
+ * the platform are retried by {@link RetryUtil} when they fail for a transient
+ * reason.
  *
  */
 public class WrapperUtil {
@@ -69,16 +71,35 @@ public class WrapperUtil {
             throw new IllegalArgumentException("Application name is invalid.");
         }
 
-        UploadAPIWrapper uploadApiWrapper = new UploadAPIWrapper();
-        WrapperUtil.setupCredential(uploadApiWrapper, id, key);
-        if (null != proxy) {
-            WrapperUtil.setupProxy(uploadApiWrapper, proxy);
-        }
+        return getBuildInfo(appName, sandboxName, getAppList(id, key, proxy), id, key, proxy);
+    }
 
-        String appListXml = uploadApiWrapper.getAppList();
-        String error = XmlUtil.getErrorString(appListXml);
-        if (!StringUtil.isNullOrEmpty(error)) {
-            throw new ApiException(error);
+    /**
+     * Get the latest build info of an application, looking up its ID in an
+     * application list which was retrieved before. This allows the steps
+     * scanning several applications to retrieve the application list once.
+     *
+     * @param appName     a {@link java.lang.String} object - the target
+     *                    application.
+     * @param sandboxName a {@link java.lang.String} object - the name of the
+     *                    sandbox being used for this build. It could be null or
+     *                    empty.
+     * @param appListXml  a {@link java.lang.String} object - the XML returned
+     *                    from calling GetAppList API.
+     * @param id          a {@link java.lang.String} object - the Veracode API ID.
+     * @param key         a {@link java.lang.String} object - the Veracode API key.
+     * @param proxy       a {@link com.veracode.jenkins.plugin.data.ProxyBlock}
+     *                    object - the proxy settings. Use null if no proxy is
+     *                    required.
+     * @return a {@link java.lang.String} object - the build info XML of the latest
+     *         build of the given application.
+     * @throws java.lang.Exception when an error is encountered during the process.
+     */
+    public static final String getBuildInfo(final String appName, final String sandboxName,
+            final String appListXml, final String id, final String key, final ProxyBlock proxy)
+            throws Exception {
+        if (StringUtil.isNullOrEmpty(appName)) {
+            throw new IllegalArgumentException("Application name is invalid.");
         }
 
         String appId = XmlUtil.parseAppId(appName, appListXml);
@@ -86,6 +107,13 @@ public class WrapperUtil {
             throw new ApiException(String.format("Cannot find the ID for application %s", appName));
         }
 
+        UploadAPIWrapper uploadApiWrapper = new UploadAPIWrapper();
+        WrapperUtil.setupCredential(uploadApiWrapper, id, key);
+        if (null != proxy) {
+            WrapperUtil.setupProxy(uploadApiWrapper, proxy);
+        }
+
+        String error;
         String sandboxId = null;
         if (!StringUtil.isNullOrEmpty(sandboxName)) {
             String sandboxListXml = WrapperUtil.getSandboxList(appId, id, key, proxy);
@@ -98,7 +126,9 @@ public class WrapperUtil {
                 sandboxId = null;
             }
         }
-        String buildInfoXml = uploadApiWrapper.getBuildInfo(appId, null, sandboxId);
+        final String buildSandboxId = sandboxId;
+        String buildInfoXml = RetryUtil.call("getbuildinfo", true,
+                () -> uploadApiWrapper.getBuildInfo(appId, null, buildSandboxId));
         error = XmlUtil.getErrorString(buildInfoXml);
         if (!StringUtil.isNullOrEmpty(error)) {
             throw new ApiException(error);
@@ -107,6 +137,33 @@ public class WrapperUtil {
         return buildInfoXml;
     }
 
+    /**
+     * Get the list of the applications the credentials have access to.
+     *
+     * @param id    a {@link java.lang.String} object - the Veracode API ID.
+     * @param key   a {@link java.lang.String} object - the Veracode API key.
+     * @param proxy a {@link com.veracode.jenkins.plugin.data.ProxyBlock} object -
+     *              the proxy settings. Use null if no proxy is required.
+     * @return a {@link java.lang.String} object - the application list in XML.
+     * @throws java.lang.Exception when an error is encountered during the process.
+     */
+    public static final String getAppList(final String id, final String key,
+            final ProxyBlock proxy) throws Exception {
+        UploadAPIWrapper uploadApiWrapper = new UploadAPIWrapper();
+        WrapperUtil.setupCredential(uploadApiWrapper, id, key);
+        if (null != proxy) {
+            WrapperUtil.setupProxy(uploadApiWrapper, proxy);
+        }
+
+        String appListXml = RetryUtil.call("getapplist", true, () -> uploadApiWrapper.getAppList());
+        String error = XmlUtil.getErrorString(appListXml);
+        if (!StringUtil.isNullOrEmpty(error)) {
+            throw new ApiException(error);
+        }
+
+        return appListXml;
+    }
+
     /**
      * Get the build information for a given build id.
      *
@@ -136,7 +193,8 @@ public class WrapperUtil {
             WrapperUtil.setupProxy(uploadApiWrapper, proxy);
         }
 
-        String buildInfoXml = uploadApiWrapper.getBuildInfo(appId, buildId);
+        String buildInfoXml = RetryUtil.call("getbuildinfo", true,
+                () -> uploadApiWrapper.getBuildInfo(appId, buildId));
         String error = XmlUtil.getErrorString(buildInfoXml);
         if (!StringUtil.isNullOrEmpty(error)) {
             throw new ApiException(error);
@@ -146,7 +204,8 @@ public class WrapperUtil {
     }
 
     /**
-     * Get the detailed report of a given build (by ID).
+     * Get the detailed report of a given build (by ID). The report cache is not
+     * used as the results of the build may not be final.
      *
      * @param buildId a {@link java.lang.String} object - the ID of a build.
      * @param id      a {@link java.lang.String} object - the Veracode API ID.
@@ -158,21 +217,60 @@ public class WrapperUtil {
      */
     public static final String getDetailedReport(final String buildId, final String id,
             final String key, final ProxyBlock proxy) throws Exception {
+        return getDetailedReport(buildId, id, key, proxy, null);
+    }
+
+    /**
+     * Get the detailed report of a given build (by ID). When the results of the
+     * build are final, the report is served from the report cache if it was
+     * downloaded before for the same revision of the results, and is added to
+     * the cache otherwise, see
+     * {@link com.veracode.jenkins.plugin.utils.XmlUtil#getResultsRevision(String)}.
+     *
+     * @param buildId      a {@link java.lang.String} object - the ID of a build.
+     * @param id           a {@link java.lang.String} object - the Veracode API
+     *                     ID.
+     * @param key          a {@link java.lang.String} object - the Veracode API
+     *                     key.
+     * @param proxy        a {@link com.veracode.jenkins.plugin.data.ProxyBlock}
+     *                     object - the proxy settings. Use null if no proxy is
+     *                     required.
+     * @param resultsRevision a {@link java.lang.String} object - the revision of
+     *                        the results of the build, or null if the results
+     *                        are not final.
+     * @return a {@link java.lang.String} object - the detailed report in XML.
+     * @throws java.lang.Exception when an error is encountered during the process.
+     */
+    public static final String getDetailedReport(final String buildId, final String id,
+            final String key, final ProxyBlock proxy, final String resultsRevision)
+            throws Exception {
         if (StringUtil.isNullOrEmpty(buildId)) {
             throw new IllegalArgumentException("Build ID is invalid.");
         }
 
+        String detailedReportXml = null == resultsRevision ? null
+                : ReportCacheUtil.getReport(ReportCacheUtil.DETAILED_REPORT, buildId, id,
+                        resultsRevision);
+        if (null != detailedReportXml) {
+            return detailedReportXml;
+        }
+
         ResultsAPIWrapper resultsApiWrapper = new ResultsAPIWrapper();
         WrapperUtil.setupCredential(resultsApiWrapper, id, key);
         if (null != proxy) {
             WrapperUtil.setupProxy(resultsApiWrapper, proxy);
         }
 
-        String detailedReportXml = resultsApiWrapper.detailedReport(buildId);
+        detailedReportXml = RetryUtil.call("detailedreport", true,
+                () -> resultsApiWrapper.detailedReport(buildId));
         String error = XmlUtil.getErrorString(detailedReportXml);
         if (!StringUtil.isNullOrEmpty(error)) {
             throw new ApiException(error);
         }
+        if (null != resultsRevision) {
+            ReportCacheUtil.putReport(ReportCacheUtil.DETAILED_REPORT, buildId, id, resultsRevision,
+                    detailedReportXml);
+        }
         return detailedReportXml;
     }
 
@@ -199,11 +297,13 @@ public class WrapperUtil {
             WrapperUtil.setupProxy(sandboxApiWrapper, proxy);
         }
 
-        return sandboxApiWrapper.getSandboxList(appId);
+        return RetryUtil.call("getsandboxlist", true,
+                () -> sandboxApiWrapper.getSandboxList(appId));
     }
 
     /**
-     * Get the summary report of a given build (by ID).
+     * Get the summary report of a given build (by ID). The report cache is not
+     * used as the results of the build may not be final.
      *
      * @param buildId a {@link java.lang.String} object - the ID of a build.
      * @param id      a {@link java.lang.String} object - the Veracode API ID.
@@ -215,21 +315,60 @@ public class WrapperUtil {
      */
     public static final String getSummaryReport(final String buildId, final String id,
             final String key, final ProxyBlock proxy) throws Exception {
+        return getSummaryReport(buildId, id, key, proxy, null);
+    }
+
+    /**
+     * Get the summary report of a given build (by ID). When the results of the
+     * build are final, the report is served from the report cache if it was
+     * downloaded before for the same revision of the results, and is added to
+     * the cache otherwise, see
+     * {@link com.veracode.jenkins.plugin.utils.XmlUtil#getResultsRevision(String)}.
+     *
+     * @param buildId      a {@link java.lang.String} object - the ID of a build.
+     * @param id           a {@link java.lang.String} object - the Veracode API
+     *                     ID.
+     * @param key          a {@link java.lang.String} object - the Veracode API
+     *                     key.
+     * @param proxy        a {@link com.veracode.jenkins.plugin.data.ProxyBlock}
+     *                     object - the proxy settings. Use null if no proxy is
+     *                     required.
+     * @param resultsRevision a {@link java.lang.String} object - the revision of
+     *                        the results of the build, or null if the results
+     *                        are not final.
+     * @return a {@link java.lang.String} object - the summary report in XML.
+     * @throws java.lang.Exception when an error is encountered during the process.
+     */
+    public static final String getSummaryReport(final String buildId, final String id,
+            final String key, final ProxyBlock proxy, final String resultsRevision)
+            throws Exception {
         if (StringUtil.isNullOrEmpty(buildId)) {
             throw new IllegalArgumentException("Build ID is invalid.");
         }
 
+        String summaryReport = null == resultsRevision ? null
+                : ReportCacheUtil.getReport(ReportCacheUtil.SUMMARY_REPORT, buildId, id,
+                        resultsRevision);
+        if (null != summaryReport) {
+            return summaryReport;
+        }
+
         ResultsAPIWrapper resultsApiWrapper = new ResultsAPIWrapper();
         WrapperUtil.setupCredential(resultsApiWrapper, id, key);
         if (null != proxy) {
             WrapperUtil.setupProxy(resultsApiWrapper, proxy);
         }
 
-        String summaryReport = resultsApiWrapper.summaryReport(buildId);
+        summaryReport = RetryUtil.call("summaryreport", true,
+                () -> resultsApiWrapper.summaryReport(buildId));
         String error = XmlUtil.getErrorString(summaryReport);
         if (!StringUtil.isNullOrEmpty(error)) {
             throw new ApiException(error);
         }
+        if (null != resultsRevision) {
+            ReportCacheUtil.putReport(ReportCacheUtil.SUMMARY_REPORT, buildId, id, resultsRevision,
+                    summaryReport);
+        }
         return summaryReport;
     }
 }
@@ -30,8 +30,10 @@ import org.xml.sax.InputSource;
 import com.veracode.apiwrapper.dynamicanalysis.model.client.ScanOccurrenceInfo;
 import com.veracode.jenkins.plugin.DynamicAnalysisResultsAction;
 import com.veracode.jenkins.plugin.VeracodeAction;
+import com.veracode.jenkins.plugin.common.Constant;
 import com.veracode.jenkins.plugin.data.DAScanHistory;
 import com.veracode.jenkins.plugin.data.FindingCounts;
+import com.veracode.jenkins.plugin.data.Flaw;
 import com.veracode.jenkins.plugin.data.SCAComponent;
 import com.veracode.jenkins.plugin.data.SCAScanHistory;
 import com.veracode.jenkins.plugin.data.ScanHistory;
@@ -53,6 +55,8 @@ public class XmlUtil {
     private static final String DYNAMIC_ANALYSIS_ELEMENT_NODE = "dynamic-analysis";
     private static final String STATIC_ANALYSIS_FLAWS_ELEMENT_NODE = "staticflaws";
     private static final String DYNAMIC_ANALYSIS_FLAWS_ELEMENT_NODE = "dynamicflaws";
+    private static final String[] RESULTS_REVISION_ATTRIBUTES = { "policy_updated_date",
+            "policy_version", "policy_compliance_status", "rules_status" };
 
     /**
      * Get the scan results from the detailed report and previous Jenkins builds
@@ -112,36 +116,116 @@ public class XmlUtil {
         long buildDate = build.getTimestamp().getTimeInMillis();
         Map<String, Long> thisScanStats = createStats(buildDate, Long.valueOf(totalFlawsCount));
 
-        Run<?, ?> lastBuild = build.getPreviousBuild();
-        SCAScanHistory lastSCAHistory = null;
-        List<Map<String, Long>> lastFlawsCountHistory = null;
-        int buildCount = 0;
         // Find the scan stats from previous build
-        for (lastFlawsCountHistory = null, buildCount = 0; null == lastFlawsCountHistory
-                && buildCount < MAX_BUILDS_TO_SEARCH; lastBuild = lastBuild
-                        .getPreviousBuild(), buildCount++) {
-            // No more previous build, done searching
-            if (null == lastBuild) {
-                break;
+        VeracodeAction lastBuildAction = getLastVeracodeAction(build);
+        List<Map<String, Long>> lastFlawsCountHistory = null == lastBuildAction ? null
+                : lastBuildAction.getFlawsCountHistory();
+        SCAScanHistory lastSCAHistory = null == lastBuildAction ? null
+                : lastBuildAction.getSCAScanHistory();
+
+        return new ScanHistory(accountId, appId, buildId, policyName, policyComplianceStatus, score,
+                veracodeLevel, scanOverdue, totalFlawsCount, realCount, mtgStatus, netChange,
+                createCountHistory(thisScanStats, lastFlawsCountHistory),
+                newSCAHistory(detailedReportXml, buildDate, lastSCAHistory), policyaffect);
+    }
+
+    /**
+     * Get the scan results from the summary report, which is much smaller than the
+     * detailed report but only contains counts. The flaw count of each severity
+     * is summed up from the static analysis modules, which only count the
+     * unmitigated static flaws like the detailed report path does; the flaws
+     * affecting policy compliance are not known. The SCA results of this build
+     * are marked as unavailable, and the SCA vulnerability count history is
+     * carried over from the previous build.
+     *
+     * @param buildInfoXml     a {@link java.lang.String} object - the XML returned
+     *                         from calling GetBuildInfo API.
+     * @param summaryReportXml a {@link java.lang.String} object - the XML returned
+     *                         from calling SummaryReport API.
+     * @param build            a {@link hudson.model.Run} object - the current
+     *                         Jenkins build.
+     * @return a {@link com.veracode.jenkins.plugin.data.ScanHistory} object - the
+     *         info to be displayed in the Veracode post build step.
+     * @throws java.lang.Exception when an error is encountered during the
+     *                             operation.
+     */
+    public static final ScanHistory newScanHistoryFromSummaryReport(String buildInfoXml,
+            String summaryReportXml, Run<?, ?> build) throws Exception {
+
+        Element buildInfoRoot = XmlUtil.getXmlDocument(buildInfoXml).getDocumentElement();
+        String accountId = buildInfoRoot.getAttribute("account_id");
+        String appId = buildInfoRoot.getAttribute("app_id");
+        String buildId = XmlUtil.parseBuildId(buildInfoXml);
+
+        Document xml = getXmlDocument(summaryReportXml);
+        Element root = xml.getDocumentElement();
+        String policyName = root.getAttribute("policy_name");
+        String policyComplianceStatus = root.getAttribute("policy_compliance_status");
+        String veracodeLevel = root.getAttribute("veracode_level");
+        boolean scanOverdue = Boolean.parseBoolean(root.getAttribute("scan_overdue"));
+
+        XPathFactory xpf = XPathFactory.newInstance();
+        XPath xPathObj = xpf.newXPath();
+
+        int score = parseAnalysisScore(xPathObj, xml, STATIC_ANALYSIS_ELEMENT_NODE);
+        int[] netChange = getNetChangeCount(xPathObj, xml);
+
+        // Sum up the module counts of each severity level. The severity categories
+        // of the summary report cover all the scan types and the mitigated flaws.
+        NodeList modules = (NodeList) xPathObj.evaluate("/*/*[local-name()='"
+                + STATIC_ANALYSIS_ELEMENT_NODE
+                + "']/*[local-name()='modules']/*[local-name()='module']", root,
+                XPathConstants.NODESET);
+        int[] flawsCount = new int[SEVERITY_LEVEL_NUMBER];
+        int totalFlawsCount = 0;
+        for (int i = 0; i < SEVERITY_LEVEL_NUMBER; i++) {
+            for (int j = 0; j < modules.getLength(); j++) {
+                flawsCount[i] += parseIntAttribute((Element) modules.item(j), "numflawssev" + i);
             }
+            totalFlawsCount += flawsCount[i];
+        }
+
+        long buildDate = build.getTimestamp().getTimeInMillis();
+        VeracodeAction lastBuildAction = getLastVeracodeAction(build);
+        List<Map<String, Long>> lastFlawsCountHistory = null == lastBuildAction ? null
+                : lastBuildAction.getFlawsCountHistory();
+        SCAScanHistory lastSCAHistory = null == lastBuildAction ? null
+                : lastBuildAction.getSCAScanHistory();
+
+        return new ScanHistory(accountId, appId, buildId, policyName, policyComplianceStatus, score,
+                veracodeLevel, scanOverdue, totalFlawsCount, flawsCount,
+                new boolean[SEVERITY_LEVEL_NUMBER], netChange,
+                createCountHistory(createStats(buildDate, Long.valueOf(totalFlawsCount)),
+                        lastFlawsCountHistory),
+                new SCAScanHistory(createCountHistory(createStats(buildDate, null),
+                        (lastSCAHistory == null ? null : lastSCAHistory.getVulCountHistory())),
+                        true),
+                new boolean[SEVERITY_LEVEL_NUMBER]);
+    }
 
+    /**
+     * Find the closest previous build with static scan results.
+     *
+     * @param build a {@link hudson.model.Run} object - the current Jenkins build.
+     * @return a {@link com.veracode.jenkins.plugin.VeracodeAction} object, or null
+     *         if no previous build has static scan results.
+     */
+    private static VeracodeAction getLastVeracodeAction(Run<?, ?> build) {
+        Run<?, ?> lastBuild = build.getPreviousBuild();
+        for (int buildCount = 0; null != lastBuild
+                && buildCount < MAX_BUILDS_TO_SEARCH; lastBuild = lastBuild
+                        .getPreviousBuild(), buildCount++) {
             VeracodeAction lastBuildAction = lastBuild.getAction(VeracodeAction.class);
             // If there is no Veracode action in this previous build (maybe the build failed
             // before our code generates the result) or
             // the last build encountered a problem when generating the scan results, then
             // move on to the next previous build
-            if (null == lastBuildAction || !lastBuildAction.isScanHistoryAvailable()) {
-                continue;
+            if (null != lastBuildAction && lastBuildAction.isScanHistoryAvailable()
+                    && null != lastBuildAction.getFlawsCountHistory()) {
+                return lastBuildAction;
             }
-
-            lastFlawsCountHistory = lastBuildAction.getFlawsCountHistory();
-            lastSCAHistory = lastBuildAction.getSCAScanHistory();
         }
-
-        return new ScanHistory(accountId, appId, buildId, policyName, policyComplianceStatus, score,
-                veracodeLevel, scanOverdue, totalFlawsCount, realCount, mtgStatus, netChange,
-                createCountHistory(thisScanStats, lastFlawsCountHistory),
-                newSCAHistory(detailedReportXml, buildDate, lastSCAHistory), policyaffect);
+        return null;
     }
 
     /**
@@ -216,6 +300,32 @@ public class XmlUtil {
      */
     public static final DAScanHistory newDAScanHistory(String detailedReportXml,
             ScanOccurrenceInfo scanOccurrenceInfo, Run<?, ?> build) throws Exception {
+        return newDAScanHistory(detailedReportXml, scanOccurrenceInfo, build, null);
+    }
+
+    /**
+     * Get the scan results of the specified analysis from the detailed report and
+     * scan occurrence result. In addition, comparison of results to the results of
+     * the same analysis in the previous successful Jenkins build.
+     *
+     * @param detailedReportXml  a {@link java.lang.String} object - the XML
+     *                           returned from calling GetDetailedReport API.
+     * @param scanOccurrenceInfo a
+     *                           {@link com.veracode.apiwrapper.dynamicanalysis.model.client.ScanOccurrenceInfo}
+     *                           object - analysis occurrence info returned from DA
+     *                           via REST API.
+     * @param build              a {@link hudson.model.Run} object - the Jenkins
+     *                           build.
+     * @param analysisName       a {@link java.lang.String} object - the name of the
+     *                           analysis, can be null.
+     * @return a {@link com.veracode.jenkins.plugin.data.DAScanHistory} object - the
+     *         info to be displayed in the Veracode post build step.
+     * @throws java.lang.Exception when an error is encountered during the
+     *                             operation.
+     */
+    public static final DAScanHistory newDAScanHistory(String detailedReportXml,
+            ScanOccurrenceInfo scanOccurrenceInfo, Run<?, ?> build, String analysisName)
+            throws Exception {
 
         Element detailedReportRoot = XmlUtil.getXmlDocument(detailedReportXml).getDocumentElement();
         Document xml = getXmlDocument(detailedReportXml);
@@ -279,17 +389,19 @@ public class XmlUtil {
             // If there is no Veracode Dynamic Results action in this previous build (maybe
             // the build failed before our code generates the result)
             // or the last build encountered a problem when generating the scan results,
-            // then move on to the next previous build
-            if (null == lastBuildAction || !lastBuildAction.isScanHistoryAvailable()) {
+            // or did not review this analysis, then move on to the next previous build
+            DAScanHistory lastScanHistory = null == lastBuildAction ? null
+                    : lastBuildAction.getScanHistory(analysisName);
+            if (null == lastScanHistory) {
                 continue;
             }
-            lastFlawsCountHistory = lastBuildAction.getFlawsCountHistory();
+            lastFlawsCountHistory = lastScanHistory.getFlawsCountHistory();
 
             // Determine net change per severity type. Note that new count is determined
             // from net change data
             for (int sevIndex = 0; sevIndex < SEVERITY_LEVEL_NUMBER; sevIndex++) {
                 int netChange = 0;
-                int prevCount = lastBuildAction.getFlawsCountInt(sevIndex);
+                int prevCount = lastScanHistory.getFlawsCount(sevIndex);
                 try {
                     netChange = actualFlawCount[sevIndex] - prevCount;
                 } catch (IllegalArgumentException iae) {
@@ -307,7 +419,7 @@ public class XmlUtil {
     }
 
     /**
-     * Get the scan score from the detailed report XML.
+     * Get the scan score from the detailed or summary report XML.
      *
      * @param xPathObj                a {@link javax.xml.xpath.XPath} object.
      * @param xml                     a {@link org.w3c.dom.Document} object.
@@ -317,7 +429,7 @@ public class XmlUtil {
      */
     private static final int parseAnalysisScore(XPath xPathObj, Document xml,
             String analysisElementNodeType) throws Exception {
-        final String ANALYSIS_NODE_XPATH = "/detailedreport/*[local-name()='"
+        final String ANALYSIS_NODE_XPATH = "/*/*[local-name()='"
                 + analysisElementNodeType + "']";
         Node node = (Node) xPathObj.evaluate(ANALYSIS_NODE_XPATH, xml.getDocumentElement(),
                 XPathConstants.NODE);
@@ -448,6 +560,149 @@ public class XmlUtil {
         return (!StringUtil.isNullOrEmpty(buildId)) ? buildId : "";
     }
 
+    /**
+     * Get the version (scan name) of a build.
+     *
+     * @param xmlBuildInfoResult a {@link java.lang.String} object - the XML
+     *                           returned from calling GetBuildInfo API.
+     * @return a {@link java.lang.String} object - the version of the build, or an
+     *         empty string if not found.
+     * @throws java.lang.Exception when the given XML is empty or error occurred
+     *                             when parsing the given XML.
+     */
+    public static final String parseBuildVersion(String xmlBuildInfoResult) throws Exception {
+        if (StringUtil.isNullOrEmpty(xmlBuildInfoResult)) {
+            throw new IllegalArgumentException("Empty XML document.");
+        }
+
+        Document xml = getXmlDocument(xmlBuildInfoResult);
+        XPathFactory xpf = XPathFactory.newInstance();
+        XPath xPathObj = xpf.newXPath();
+        Node node = (Node) xPathObj.evaluate("/*/*[local-name()='build'][@version]",
+                xml.getDocumentElement(), XPathConstants.NODE);
+        return null == node ? ""
+                : StringUtil.getEmptyIfNull(
+                        node.getAttributes().getNamedItem("version").getNodeValue());
+    }
+
+    /**
+     * Get the statuses of all the analyses of a build, e.g. the static and the
+     * dynamic analysis, in the order of the build info.
+     *
+     * @param xmlBuildInfoResult a {@link java.lang.String} object - the XML
+     *                           returned from calling GetBuildInfo API.
+     * @return a {@link java.util.List} object - the statuses of the analysis
+     *         units, empty if none is found.
+     * @throws java.lang.Exception when the given XML is empty or error occurred
+     *                             when parsing the given XML.
+     */
+    public static final List<String> parseAnalysisStatuses(String xmlBuildInfoResult)
+            throws Exception {
+        if (StringUtil.isNullOrEmpty(xmlBuildInfoResult)) {
+            throw new IllegalArgumentException("Empty XML document.");
+        }
+
+        Document xml = getXmlDocument(xmlBuildInfoResult);
+        XPathFactory xpf = XPathFactory.newInstance();
+        XPath xPathObj = xpf.newXPath();
+        NodeList nodes = (NodeList) xPathObj.evaluate(
+                "/*/*[local-name()='build']/*[local-name()='analysis_unit'][@status]",
+                xml.getDocumentElement(), XPathConstants.NODESET);
+        List<String> statuses = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            statuses.add(StringUtil.getEmptyIfNull(
+                    nodes.item(i).getAttributes().getNamedItem("status").getNodeValue()));
+        }
+        return statuses;
+    }
+
+    /**
+     * Get the policy compliance status of a build, as evaluated from the results
+     * published so far, e.g. "Did Not Pass".
+     *
+     * @param xmlBuildInfoResult a {@link java.lang.String} object - the XML
+     *                           returned from calling GetBuildInfo API.
+     * @return a {@link java.lang.String} object - the policy compliance status,
+     *         or an empty string if not found.
+     * @throws java.lang.Exception when the given XML is empty or error occurred
+     *                             when parsing the given XML.
+     */
+    public static final String parsePolicyComplianceStatus(String xmlBuildInfoResult)
+            throws Exception {
+        if (StringUtil.isNullOrEmpty(xmlBuildInfoResult)) {
+            throw new IllegalArgumentException("Empty XML document.");
+        }
+
+        Document xml = getXmlDocument(xmlBuildInfoResult);
+        XPathFactory xpf = XPathFactory.newInstance();
+        XPath xPathObj = xpf.newXPath();
+        Node node = (Node) xPathObj.evaluate(
+                "/*/*[local-name()='build'][@policy_compliance_status]",
+                xml.getDocumentElement(), XPathConstants.NODE);
+        return null == node ? ""
+                : StringUtil.getEmptyIfNull(node.getAttributes()
+                        .getNamedItem("policy_compliance_status").getNodeValue());
+    }
+
+    /**
+     * Whether the results of a build are final: all its analyses have their
+     * results ready and its policy compliance has been evaluated. The reports of
+     * a build only stop changing once its results are final.
+     *
+     * @param xmlBuildInfoResult a {@link java.lang.String} object - the XML
+     *                           returned from calling GetBuildInfo API.
+     * @return a boolean.
+     * @throws java.lang.Exception when the given XML is empty or error occurred
+     *                             when parsing the given XML.
+     */
+    public static final boolean isResultsFinal(String xmlBuildInfoResult) throws Exception {
+        List<String> statuses = parseAnalysisStatuses(xmlBuildInfoResult);
+        if (statuses.isEmpty()) {
+            return false;
+        }
+        for (String status : statuses) {
+            if (!Constant.RESULTS_READY.equalsIgnoreCase(status)) {
+                return false;
+            }
+        }
+        String policyComplianceStatus = parsePolicyComplianceStatus(xmlBuildInfoResult);
+        return Constant.PASSED.equalsIgnoreCase(policyComplianceStatus)
+                || Constant.CONDITIONAL_PASSED.equalsIgnoreCase(policyComplianceStatus)
+                || Constant.DID_NOT_PASSED.equalsIgnoreCase(policyComplianceStatus);
+    }
+
+    /**
+     * Get the revision of the final results of a build. The reports of a build
+     * can still change once its results are final, e.g. when mitigations are
+     * approved, which re-evaluates the policy compliance of the build. The
+     * revision is made of the policy evaluation attributes of the build, so that
+     * it changes with the reports.
+     *
+     * @param xmlBuildInfoResult a {@link java.lang.String} object - the XML
+     *                           returned from calling GetBuildInfo API.
+     * @return a {@link java.lang.String} object - the revision of the results,
+     *         or null if the results are not final, see
+     *         {@link #isResultsFinal(String)}.
+     * @throws java.lang.Exception when the given XML is empty or error occurred
+     *                             when parsing the given XML.
+     */
+    public static final String getResultsRevision(String xmlBuildInfoResult) throws Exception {
+        if (!isResultsFinal(xmlBuildInfoResult)) {
+            return null;
+        }
+
+        Document xml = getXmlDocument(xmlBuildInfoResult);
+        XPathFactory xpf = XPathFactory.newInstance();
+        XPath xPathObj = xpf.newXPath();
+        Element build = (Element) xPathObj.evaluate("/*/*[local-name()='build']",
+                xml.getDocumentElement(), XPathConstants.NODE);
+        StringBuilder revision = new StringBuilder();
+        for (String attribute : RESULTS_REVISION_ATTRIBUTES) {
+            revision.append(build.getAttribute(attribute)).append('\n');
+        }
+        return revision.toString();
+    }
+
     /**
      * Get the error string, if any, from a XML document.
      *
@@ -477,6 +732,70 @@ public class XmlUtil {
         return errorString;
     }
 
+    /**
+     * Get the static analysis flaws from the given Detailed Report XML, excluding
+     * the fixed flaws.
+     *
+     * @param detailedReportXml a {@link java.lang.String} object - the XML returned
+     *                          from calling GetDetailedReport API.
+     * @return a {@link java.util.List} object - the flaws in the detailed report.
+     * @throws java.lang.Exception when an error is encountered during the
+     *                             operation.
+     */
+    public static final List<Flaw> parseStaticFlaws(String detailedReportXml) throws Exception {
+
+        final String FLAW_NODE_XPATH = "/detailedreport/severity/category/cwe/"
+                + STATIC_ANALYSIS_FLAWS_ELEMENT_NODE + "/*[local-name()='flaw']";
+        final String REMEDIATION_STATUS = "Fixed";
+
+        Document xml = getXmlDocument(detailedReportXml);
+        XPath xPathObj = XPathFactory.newInstance().newXPath();
+        List<Flaw> flaws = new ArrayList<>();
+
+        try {
+            NodeList flawNodes = (NodeList) xPathObj.evaluate(FLAW_NODE_XPATH,
+                    xml.getDocumentElement(), XPathConstants.NODESET);
+
+            for (int i = 0; i < flawNodes.getLength(); i++) {
+                Element thisFlaw = (Element) flawNodes.item(i);
+                String remediationStatus = thisFlaw.getAttribute("remediation_status");
+                if (REMEDIATION_STATUS.equals(remediationStatus)) {
+                    continue;
+                }
+
+                String categoryName = thisFlaw.getAttribute("categoryname");
+                if (categoryName.isEmpty()) {
+                    // fall back to the name of the enclosing category element
+                    Node category = thisFlaw.getParentNode().getParentNode().getParentNode();
+                    if (category instanceof Element) {
+                        categoryName = ((Element) category).getAttribute("categoryname");
+                    }
+                }
+                String sourceFile = thisFlaw.getAttribute("sourcefilepath")
+                        + thisFlaw.getAttribute("sourcefile");
+
+                flaws.add(new Flaw(parseIntAttribute(thisFlaw, "issueid"),
+                        parseIntAttribute(thisFlaw, "severity"), parseIntAttribute(thisFlaw, "cweid"),
+                        categoryName, thisFlaw.getAttribute("module"), sourceFile,
+                        parseIntAttribute(thisFlaw, "line"),
+                        thisFlaw.getAttribute("functionprototype"), remediationStatus,
+                        thisFlaw.getAttribute("mitigation_status"),
+                        Boolean.parseBoolean(thisFlaw.getAttribute("affects_policy_compliance"))));
+            }
+        } catch (XPathExpressionException xpee) {
+            throw new RuntimeException(xpee);
+        }
+        return flaws;
+    }
+
+    private static int parseIntAttribute(Element element, String name) {
+        try {
+            return Integer.parseInt(element.getAttribute(name));
+        } catch (NumberFormatException nfe) {
+            return 0;
+        }
+    }
+
     /**
      * Check each severity level for any flaws which affect policy compliance.
      *
@@ -585,7 +904,7 @@ public class XmlUtil {
      */
     private static int[] getNetChangeCount(XPath xPathObj, Document xml) {
 
-        final String FLAW_STATUS_NODE_XPATH = "/detailedreport/*[local-name()='flaw-status']";
+        final String FLAW_STATUS_NODE_XPATH = "/*/*[local-name()='flaw-status']";
         // NOTE: Currently, the 'flaw-status' element in the Detailed Report does not
         // contain the "sev-0-change" attribute. Therefore,
         // the net change and new flaws count will always be zero for sev 0. However, we
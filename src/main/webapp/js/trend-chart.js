@@ -0,0 +1,156 @@
+/*
+ * Renders the Veracode trend charts in the browser as SVG stacked bar charts.
+ *
+ * Each element with the "veracode-trend-chart" class is filled with a chart of
+ * the JSON data found at its "data-url" attribute. If the data cannot be loaded
+ * or SVG is not supported, the chart rendered on the server at its
+ * "data-fallback-url" attribute is displayed instead.
+ */
+(function () {
+  var SVG_NS = "http://www.w3.org/2000/svg";
+  var COLORS = ["rgb(117,205,235)", "rgb(122,96,168)", "rgb(240,173,78)", "rgb(92,184,92)"];
+  var WIDTH = 600, HEIGHT = 400;
+  var MARGIN = { top: 20, right: 20, bottom: 90, left: 50 };
+
+  function svg(name, attrs, parent) {
+    var element = document.createElementNS(SVG_NS, name);
+    for (var key in attrs) {
+      element.setAttribute(key, attrs[key]);
+    }
+    if (parent) {
+      parent.appendChild(element);
+    }
+    return element;
+  }
+
+  function text(content, attrs, parent) {
+    var element = svg("text", attrs, parent);
+    element.textContent = content;
+    return element;
+  }
+
+  function formatDate(timestamp) {
+    var date = new Date(timestamp);
+    var pad = function (value) { return (value < 10 ? "0" : "") + value; };
+    return date.toLocaleString(undefined, { month: "short" }) + "/" + date.getDate() + " "
+        + pad(date.getHours()) + ":" + pad(date.getMinutes());
+  }
+
+  // Returns a round step for about 5 ticks on the count axis
+  function tickStep(max) {
+    var step = Math.max(1, Math.pow(10, Math.floor(Math.log(max) / Math.LN10)));
+    while (max / step > 5) {
+      step *= (String(step).charAt(0) === "2") ? 2.5 : 2;
+    }
+    return Math.ceil(step);
+  }
+
+  function render(container, data) {
+    var dates = data.dates, series = data.series;
+    var plotWidth = WIDTH - MARGIN.left - MARGIN.right;
+    var plotHeight = HEIGHT - MARGIN.top - MARGIN.bottom;
+
+    var totals = dates.map(function (date, i) {
+      return series.reduce(function (sum, s) { return sum + (s.data[i] || 0); }, 0);
+    });
+    var max = Math.max.apply(null, totals.concat([1]));
+    var step = tickStep(max);
+    var top = Math.ceil(max / step) * step;
+    var y = function (value) { return MARGIN.top + plotHeight - value / top * plotHeight; };
+
+    // The view box keeps the chart sharp at any size and zoom level
+    var chart = svg("svg", {
+      viewBox: "0 0 " + WIDTH + " " + (HEIGHT + 20 * series.length),
+      width: "100%", role: "img", "font-family": "sans-serif", "font-size": "11"
+    });
+
+    for (var tick = 0; tick <= top; tick += step) {
+      svg("line", { x1: MARGIN.left, x2: MARGIN.left + plotWidth, y1: y(tick), y2: y(tick),
+        stroke: "#e6e6e6" }, chart);
+      text(String(tick), { x: MARGIN.left - 6, y: y(tick) + 4, "text-anchor": "end" }, chart);
+    }
+
+    var slot = plotWidth / dates.length;
+    var barWidth = Math.min(slot * 0.6, plotWidth * 0.125);
+    dates.forEach(function (date, i) {
+      var x = MARGIN.left + slot * i + (slot - barWidth) / 2;
+      var label = formatDate(date);
+      var base = 0;
+      series.forEach(function (s, index) {
+        var value = s.data[i];
+        if (!value) {
+          return;
+        }
+        var bar = svg("rect", { x: x, y: y(base + value), width: barWidth,
+          height: y(base) - y(base + value), fill: COLORS[index % COLORS.length] }, chart);
+        svg("title", {}, bar).textContent = s.name + " (" + label + "): " + value;
+        base += value;
+      });
+      var labelX = x + barWidth / 2, labelY = MARGIN.top + plotHeight + 10;
+      text(label, { x: labelX, y: labelY, "text-anchor": "end",
+        transform: "rotate(-45 " + labelX + " " + labelY + ")" }, chart);
+    });
+
+    svg("line", { x1: MARGIN.left, x2: MARGIN.left + plotWidth, y1: y(0), y2: y(0),
+      stroke: "#999999" }, chart);
+
+    series.forEach(function (s, index) {
+      var legendY = HEIGHT + 20 * index;
+      svg("rect", { x: MARGIN.left, y: legendY - 10, width: 12, height: 12,
+        fill: COLORS[index % COLORS.length] }, chart);
+      text(s.name, { x: MARGIN.left + 18, y: legendY }, chart);
+    });
+
+    container.innerHTML = "";
+    container.appendChild(chart);
+  }
+
+  function fallback(container) {
+    var image = document.createElement("img");
+    image.src = container.getAttribute("data-fallback-url");
+    image.width = WIDTH - 16;
+    image.height = HEIGHT;
+    container.innerHTML = "";
+    container.appendChild(image);
+  }
+
+  function load(container) {
+    var request = new XMLHttpRequest();
+    request.open("GET", container.getAttribute("data-url"));
+    request.onload = function () {
+      try {
+        var data = request.status === 200 ? JSON.parse(request.responseText) : null;
+        if (data && data.dates && data.dates.length > 0) {
+          render(container, data);
+          return;
+        }
+      } catch (e) {
+        // fall back to the chart rendered on the server
+      }
+      fallback(container);
+    };
+    request.onerror = function () {
+      fallback(container);
+    };
+    request.send();
+  }
+
+  function init() {
+    var svgSupported = document.createElementNS
+        && document.createElementNS(SVG_NS, "svg").createSVGRect;
+    var containers = document.querySelectorAll(".veracode-trend-chart");
+    for (var i = 0; i < containers.length; i++) {
+      if (svgSupported) {
+        load(containers[i]);
+      } else {
+        fallback(containers[i]);
+      }
+    }
+  }
+
+  if (document.readyState === "loading") {
+    document.addEventListener("DOMContentLoaded", init);
+  } else {
+    init();
+  }
+})();
@@ -0,0 +1,60 @@
+package com.veracode.jenkins.plugin;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.veracode.jenkins.plugin.common.Constant;
+import com.veracode.jenkins.plugin.data.DAScanHistory;
+import com.veracode.jenkins.plugin.data.DynamicAnalysisResult;
+
+public class DynamicAnalysisResultsActionTest {
+
+	private static DAScanHistory newScanHistory(String policyComplianceStatus) {
+		DAScanHistory scanHistory = mock(DAScanHistory.class);
+		when(scanHistory.getPolicyComplianceStatus()).thenReturn(policyComplianceStatus);
+		return scanHistory;
+	}
+
+	@Test
+	public void testMultipleAnalyses() {
+		DAScanHistory passed = newScanHistory(Constant.PASSED);
+		DAScanHistory notPassed = newScanHistory(Constant.DID_NOT_PASSED);
+		DynamicAnalysisResultsAction action = new DynamicAnalysisResultsAction(
+				Arrays.asList(new DynamicAnalysisResult("a", passed), new DynamicAnalysisResult("b", notPassed),
+						new DynamicAnalysisResult("c", "The analysis did not complete.")),
+				"analysiscenter.veracode.com");
+
+		Assert.assertSame("The first analysis which did not pass should be displayed", notPassed,
+				action.getScanHistory());
+		Assert.assertEquals("The displayed analysis is incorrect", "b", action.getDisplayedAnalysisName());
+		Assert.assertSame("The results of the named analysis are incorrect", passed, action.getScanHistory("a"));
+		Assert.assertNull("The analysis without results should have none", action.getScanHistory("c"));
+		Assert.assertEquals("Each analysis should be published", 3, action.getAnalysisResults().size());
+		Assert.assertEquals("One analysis passed the policy", 1, action.getPassedAnalysisCount());
+	}
+
+	@Test
+	public void testMultipleAnalyses_AllPassed() {
+		DAScanHistory first = newScanHistory(Constant.PASSED);
+		DynamicAnalysisResultsAction action = new DynamicAnalysisResultsAction(
+				Arrays.asList(new DynamicAnalysisResult("a", "The analysis did not complete."),
+						new DynamicAnalysisResult("b", first),
+						new DynamicAnalysisResult("c", newScanHistory(Constant.PASSED))),
+				"analysiscenter.veracode.com");
+
+		Assert.assertSame("The first analysis with results should be displayed", first, action.getScanHistory());
+		Assert.assertEquals("Two analyses passed the policy", 2, action.getPassedAnalysisCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMultipleAnalyses_Empty() {
+		new DynamicAnalysisResultsAction(Collections.<DynamicAnalysisResult>emptyList(),
+				"analysiscenter.veracode.com");
+	}
+}
@@ -0,0 +1,126 @@
+package com.veracode.jenkins.plugin;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import hudson.model.Action;
+import hudson.model.Run;
+import hudson.util.XStream2;
+
+public class DynamicAnalysisStateActionTest {
+
+	private Run<?, ?> run;
+	private final List<Action> actions = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		run = mock(Run.class);
+		when(run.getAction(DynamicAnalysisStateAction.class)).thenAnswer(invocation -> {
+			for (Action action : actions) {
+				if (action instanceof DynamicAnalysisStateAction) {
+					return action;
+				}
+			}
+			return null;
+		});
+		doAnswer(invocation -> actions.add(invocation.getArgument(0))).when(run).addAction(any(Action.class));
+		doAnswer(invocation -> actions.remove(invocation.getArgument(0))).when(run).removeAction(any(Action.class));
+	}
+
+	private static Properties newAnalysis(String analysisName, String batchId) {
+		Properties properties = new Properties();
+		properties.setProperty(DynamicAnalysisStateAction.PARAM_DA_ANALYSIS_NAME, analysisName);
+		properties.setProperty(DynamicAnalysisStateAction.PARAM_DA_BATCH_ID, batchId);
+		return properties;
+	}
+
+	private static List<String> getNames(List<Properties> analyses) {
+		List<String> names = new ArrayList<>();
+		for (Properties properties : analyses) {
+			names.add(properties.getProperty(DynamicAnalysisStateAction.PARAM_DA_ANALYSIS_NAME));
+		}
+		return names;
+	}
+
+	@Test
+	public void testStartReview_Batches() {
+		DynamicAnalysisStateAction.addAnalysis(run, newAnalysis("a", "1"));
+		DynamicAnalysisStateAction.addAnalysis(run, newAnalysis("b", "1"));
+		DynamicAnalysisStateAction.addAnalysis(run, newAnalysis("c", "2"));
+		Assert.assertEquals("The state should be added once", 1, actions.size());
+
+		List<Properties> analyses = DynamicAnalysisStateAction.startReview(run, 1, Collections.<String>emptyList());
+		Assert.assertEquals("The first batch should be reviewed", Arrays.asList("a", "b"), getNames(analyses));
+		Assert.assertNotNull("The deadline should be set", analyses.get(0)
+				.getProperty(DynamicAnalysisStateAction.PARAM_DA_REVIEW_DEADLINE));
+		DynamicAnalysisStateAction.finishReview(run);
+		Assert.assertEquals("The pending batch should be kept", 1, actions.size());
+
+		analyses = DynamicAnalysisStateAction.startReview(run, 1, Collections.<String>emptyList());
+		Assert.assertEquals("The second batch should be reviewed", Arrays.asList("c"), getNames(analyses));
+		DynamicAnalysisStateAction.finishReview(run);
+		Assert.assertTrue("The empty state should be removed", actions.isEmpty());
+		Assert.assertTrue("No analysis should be left to review",
+				DynamicAnalysisStateAction.startReview(run, 1, Collections.<String>emptyList()).isEmpty());
+	}
+
+	@Test
+	public void testStartReview_Names() {
+		DynamicAnalysisStateAction.addAnalysis(run, newAnalysis("a", "1"));
+		DynamicAnalysisStateAction.addAnalysis(run, newAnalysis("b", "1"));
+		DynamicAnalysisStateAction.addAnalysis(run, newAnalysis("c", "2"));
+		// resubmitting an analysis replaces the pending one
+		DynamicAnalysisStateAction.addAnalysis(run, newAnalysis("b", "3"));
+
+		List<Properties> analyses = DynamicAnalysisStateAction.startReview(run, 1, Arrays.asList("b", "c"));
+		Assert.assertEquals("The named analyses should be reviewed", Arrays.asList("c", "b"), getNames(analyses));
+		Assert.assertEquals("The latest resubmission should be reviewed", "3",
+				analyses.get(1).getProperty(DynamicAnalysisStateAction.PARAM_DA_BATCH_ID));
+		DynamicAnalysisStateAction.finishReview(run);
+
+		analyses = DynamicAnalysisStateAction.startReview(run, 1, Collections.<String>emptyList());
+		Assert.assertEquals("The remaining analysis should be reviewed", Arrays.asList("a"), getNames(analyses));
+	}
+
+	@Test
+	public void testCompletePhase_RoundTrip() throws Exception {
+		DynamicAnalysisStateAction.addAnalysis(run, newAnalysis("a", "1"));
+		DynamicAnalysisStateAction.addAnalysis(run, newAnalysis("b", "1"));
+		List<Properties> analyses = DynamicAnalysisStateAction.startReview(run, 2, Collections.<String>emptyList());
+		long deadline = DynamicAnalysisStateAction.getDeadline(analyses.get(0));
+
+		Properties properties = new Properties();
+		properties.setProperty("DA_OCCURRENCE_ID", "1234");
+		DynamicAnalysisStateAction.completePhase(run, "a", 2, properties);
+
+		// the review is resumed from the saved build
+		XStream2 xstream = new XStream2();
+		DynamicAnalysisStateAction action = (DynamicAnalysisStateAction) xstream
+				.fromXML(xstream.toXML(actions.get(0)));
+		actions.clear();
+		actions.add(action);
+
+		analyses = DynamicAnalysisStateAction.startReview(run, 5, Collections.<String>emptyList());
+		Assert.assertEquals("The interrupted review should be resumed", Arrays.asList("a", "b"), getNames(analyses));
+		Assert.assertEquals("The completed phase is incorrect", 2,
+				DynamicAnalysisStateAction.getCompletedPhase(analyses.get(0)));
+		Assert.assertEquals("The updated property is incorrect", "1234",
+				analyses.get(0).getProperty("DA_OCCURRENCE_ID"));
+		Assert.assertEquals("The deadline should not change", deadline,
+				DynamicAnalysisStateAction.getDeadline(analyses.get(0)));
+		Assert.assertEquals("No phase should be completed", 0,
+				DynamicAnalysisStateAction.getCompletedPhase(analyses.get(1)));
+	}
+}
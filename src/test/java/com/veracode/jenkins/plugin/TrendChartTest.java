@@ -0,0 +1,62 @@
+package com.veracode.jenkins.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.veracode.jenkins.plugin.data.BuildHistory;
+import com.veracode.jenkins.plugin.data.ScanHistory;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+
+public class TrendChartTest {
+
+	private static Map<String, Long> newEntry(long buildDate, long flawsCount) {
+		Map<String, Long> entry = new HashMap<>();
+		entry.put(ScanHistory.BUILD_DATE, buildDate);
+		entry.put(ScanHistory.FLAWS_COUNT, flawsCount);
+		return entry;
+	}
+
+	@Test
+	public void testToJson() {
+		List<Map<String, Long>> staticBuilds = new ArrayList<>();
+		staticBuilds.add(newEntry(3000L, 12L));
+		staticBuilds.add(newEntry(1000L, 10L));
+		staticBuilds.add(newEntry(2000L, 11L));
+		// the SCA results are missing in the second build
+		List<Map<String, Long>> scaBuilds = new ArrayList<>();
+		scaBuilds.add(newEntry(1000L, 5L));
+		scaBuilds.add(newEntry(3000L, 4L));
+
+		JSONObject json = TrendChart.toJson(Arrays.asList(new BuildHistory("Static", staticBuilds),
+				new BuildHistory("SCA", scaBuilds), new BuildHistory(null, staticBuilds)));
+
+		Assert.assertEquals("Dates are incorrect", JSONArray.fromObject(Arrays.asList(1000L, 2000L, 3000L)),
+				json.getJSONArray("dates"));
+		JSONArray series = json.getJSONArray("series");
+		Assert.assertEquals("Series count is incorrect", 2, series.size());
+		Assert.assertEquals("Series name is incorrect", "Static", series.getJSONObject(0).getString("name"));
+		Assert.assertEquals("Static counts are incorrect", JSONArray.fromObject(Arrays.asList(10L, 11L, 12L)),
+				series.getJSONObject(0).getJSONArray("data"));
+		Assert.assertEquals("Series name is incorrect", "SCA", series.getJSONObject(1).getString("name"));
+		JSONArray scaData = series.getJSONObject(1).getJSONArray("data");
+		Assert.assertEquals("SCA count is incorrect", 5L, scaData.getLong(0));
+		Assert.assertTrue("SCA count should be null", JSONNull.getInstance().equals(scaData.get(1)));
+		Assert.assertEquals("SCA count is incorrect", 4L, scaData.getLong(2));
+	}
+
+	@Test
+	public void testToJson_NoHistory() {
+		JSONObject json = TrendChart.toJson(new ArrayList<BuildHistory>());
+		Assert.assertTrue("Dates should be empty", json.getJSONArray("dates").isEmpty());
+		Assert.assertTrue("Series should be empty", json.getJSONArray("series").isEmpty());
+	}
+}
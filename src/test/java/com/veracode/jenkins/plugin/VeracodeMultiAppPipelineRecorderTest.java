@@ -0,0 +1,149 @@
+package com.veracode.jenkins.plugin;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.veracode.jenkins.plugin.VeracodeNotifier.VeracodeDescriptor;
+import com.veracode.jenkins.plugin.data.ApplicationScanEntry;
+import com.veracode.jenkins.plugin.data.ApplicationScanResult;
+import com.veracode.jenkins.plugin.utils.FileUtil;
+import com.veracode.jenkins.plugin.utils.RemoteScanUtil;
+import com.veracode.jenkins.plugin.utils.WrapperProvisioningUtil;
+import com.veracode.jenkins.plugin.utils.WrapperUtil;
+import com.veracode.jenkins.plugin.utils.XmlUtil;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Launcher.ProcStarter;
+import hudson.Proc;
+import hudson.model.Computer;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.ArgumentListBuilder;
+import jenkins.model.Jenkins;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({
+        Job.class, Run.class, FilePath.class, RemoteScanUtil.class, Jenkins.class,
+        VeracodeMultiAppPipelineRecorder.class, FileUtil.class, ProcStarter.class,
+        WrapperUtil.class, XmlUtil.class, WrapperProvisioningUtil.class, VeracodeDescriptor.class
+})
+public class VeracodeMultiAppPipelineRecorderTest {
+
+    @Test
+    public void testPerformFromRemote() throws Exception {
+
+        Run run = PowerMockito.mock(Run.class);
+        Job job = PowerMockito.mock(Job.class);
+        FilePath workspace = PowerMockito.mock(FilePath.class);
+        FilePath remoteVeracodePath = PowerMockito.mock(FilePath.class);
+        TaskListener taskListener = PowerMockito.mock(TaskListener.class);
+        PrintStream printStream = PowerMockito.mock(PrintStream.class);
+        Computer computer = Mockito.mock(Computer.class);
+        Node node = Mockito.mock(Node.class);
+        Launcher launcher = PowerMockito.mock(Launcher.class);
+        ProcStarter procStarter = PowerMockito.mock(ProcStarter.class);
+        Proc proc = PowerMockito.mock(Proc.class);
+        Jenkins jenkins = PowerMockito.mock(Jenkins.class);
+        VeracodeDescriptor descriptor = PowerMockito.mock(VeracodeDescriptor.class);
+
+        PowerMockito.mockStatic(RemoteScanUtil.class);
+        PowerMockito.mockStatic(FileUtil.class);
+        PowerMockito.mockStatic(WrapperUtil.class);
+        PowerMockito.mockStatic(XmlUtil.class);
+        PowerMockito.mockStatic(WrapperProvisioningUtil.class);
+        PowerMockito.mockStatic(Jenkins.class);
+
+        when(taskListener.getLogger()).thenReturn(printStream);
+        when(run.getEnvironment(taskListener)).thenReturn(new EnvVars());
+        when(run.getDisplayName()).thenReturn("#1");
+        PowerMockito.when(run.getParent()).thenReturn(job);
+        when(job.getFullDisplayName()).thenReturn("job");
+        when(Jenkins.get()).thenReturn(jenkins);
+        when(jenkins.getDescriptor(VeracodeNotifier.class)).thenReturn(descriptor);
+        when(descriptor.getProxy()).thenReturn(false);
+
+        when(WrapperUtil.getAppList(anyString(), anyString(), any())).thenReturn("appListXML");
+        when(XmlUtil.parseAppId(eq("app1"), anyString())).thenReturn("1");
+        when(XmlUtil.parseAppId(eq("app2"), anyString())).thenReturn(null);
+
+        when(workspace.isRemote()).thenReturn(true);
+        when(workspace.getRemote()).thenReturn("/workspace");
+        when(workspace.toComputer()).thenReturn(computer);
+        when(workspace.list(anyString(), any())).thenReturn(new FilePath[0]);
+        when(FileUtil.getStringFilePaths(any())).thenReturn(new String[] { "app1.jar" });
+        when(computer.getNode()).thenReturn(node);
+        when(computer.isUnix()).thenReturn(true);
+        when(WrapperProvisioningUtil.isProvisioned(node)).thenReturn(true);
+        when(RemoteScanUtil.getRemoteVeracodePath(node)).thenReturn(remoteVeracodePath);
+        when(remoteVeracodePath.getRemote()).thenReturn("/veracode");
+        when(RemoteScanUtil.getPathSeparator(anyString())).thenCallRealMethod();
+        when(RemoteScanUtil.formatParameterValue(anyString())).thenCallRealMethod();
+        when(RemoteScanUtil.getMaskPosition(any())).thenCallRealMethod();
+        when(RemoteScanUtil.addArgumentsToCommand(any(), anyVararg(), anyBoolean())).thenCallRealMethod();
+
+        when(node.createLauncher(taskListener)).thenReturn(launcher);
+        PowerMockito.whenNew(ProcStarter.class).withNoArguments().thenReturn(procStarter);
+        when(procStarter.pwd(any(FilePath.class))).thenReturn(procStarter);
+        when(procStarter.cmds(any(ArgumentListBuilder.class))).thenReturn(procStarter);
+        when(procStarter.envs(anyMap())).thenReturn(procStarter);
+        ArgumentCaptor<OutputStream> wrapperOutput = ArgumentCaptor.forClass(OutputStream.class);
+        when(procStarter.stdout(wrapperOutput.capture())).thenReturn(procStarter);
+        when(procStarter.quiet(anyBoolean())).thenReturn(procStarter);
+        when(launcher.launch(any(ProcStarter.class))).thenReturn(proc);
+        when(proc.join()).thenAnswer(invocation -> {
+            wrapperOutput.getValue().write("Uploading: app1.jar\r\nScan submitted"
+                    .getBytes(StandardCharsets.UTF_8));
+            // the build log shows the output while the API wrapper is running
+            verify(printStream).println("[app1] Uploading: app1.jar");
+            return 0;
+        });
+
+        VeracodeMultiAppPipelineRecorder recorder = new VeracodeMultiAppPipelineRecorder(
+                Arrays.asList(new ApplicationScanEntry("app1", null, "**/*.jar"),
+                        new ApplicationScanEntry("app2", null, "**/*.jar")),
+                "scan1");
+        recorder.vid = "vid";
+        recorder.vkey = "vkey";
+        recorder.perform(run, workspace, launcher, taskListener);
+
+        ArgumentCaptor<VeracodeMultiAppAction> action = ArgumentCaptor
+                .forClass(VeracodeMultiAppAction.class);
+        verify(run).addAction(action.capture());
+        List<ApplicationScanResult> results = action.getValue().getResults();
+        Assert.assertEquals("Each application should have a result", 2, results.size());
+        Assert.assertEquals("app1 should be scanned", 0, results.get(0).getReturnCode());
+        Assert.assertEquals("app2 should not be scanned", -1, results.get(1).getReturnCode());
+        Assert.assertEquals("The application profile does not exist.",
+                results.get(1).getMessage());
+
+        // the API wrapper runs on the agent, with the credentials in its environment
+        ArgumentCaptor<ArgumentListBuilder> command = ArgumentCaptor
+                .forClass(ArgumentListBuilder.class);
+        verify(procStarter).cmds(command.capture());
+        Assert.assertTrue("The API wrapper jar of the agent should be run",
+                command.getValue().toList().contains("/veracode/VeracodeJavaAPI.jar"));
+        Assert.assertFalse("The API key should not be on the command line",
+                command.getValue().toList().contains("vkey"));
+        verify(workspace, never()).copyRecursiveTo(anyString(), any(), any(FilePath.class));
+        verify(printStream).println("[app1] Scan submitted");
+    }
+}
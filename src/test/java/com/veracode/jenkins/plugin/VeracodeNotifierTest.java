@@ -4,8 +4,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
 
@@ -18,6 +20,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import com.veracode.http.Credentials;
 import com.veracode.http.Region;
+import com.veracode.jenkins.plugin.VeracodeNotifier.VeracodeDescriptor;
 import com.veracode.jenkins.plugin.args.UploadAndScanArgs;
 import com.veracode.jenkins.plugin.data.ScanHistory;
 import com.veracode.jenkins.plugin.utils.FileUtil;
@@ -35,13 +38,14 @@ import hudson.model.AbstractProject;
 import hudson.model.BuildListener;
 import hudson.model.Computer;
 import hudson.model.Node;
-import hudson.model.TaskListener;
 import hudson.remoting.VirtualChannel;
 import hudson.util.ArgumentListBuilder;
+import jenkins.model.Jenkins;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({ AbstractBuild.class, Credentials.class, FilePath.class, FileUtil.class, Node.class, ProcStarter.class,
-        RemoteScanUtil.class, UploadAndScanArgs.class, WrapperUtil.class, XmlUtil.class })
+@PrepareForTest({ AbstractBuild.class, Credentials.class, FilePath.class, FileUtil.class, Jenkins.class, Node.class,
+        ProcStarter.class, RemoteScanUtil.class, UploadAndScanArgs.class, VeracodeDescriptor.class, WrapperUtil.class,
+        XmlUtil.class })
 public class VeracodeNotifierTest {
 
     @Test
@@ -65,6 +69,8 @@ public class VeracodeNotifierTest {
         Region region = PowerMockito.mock(Region.class);
         VeracodeAction veracodeAction = PowerMockito.mock(VeracodeAction.class);
         Computer computer = PowerMockito.mock(Computer.class);
+        Jenkins jenkins = PowerMockito.mock(Jenkins.class);
+        VeracodeDescriptor descriptor = PowerMockito.mock(VeracodeDescriptor.class);
 
         PowerMockito.mockStatic(FileUtil.class);
         PowerMockito.mockStatic(RemoteScanUtil.class);
@@ -72,6 +78,10 @@ public class VeracodeNotifierTest {
         PowerMockito.mockStatic(WrapperUtil.class);
         PowerMockito.mockStatic(XmlUtil.class);
         PowerMockito.mockStatic(Credentials.class);
+        PowerMockito.mockStatic(Jenkins.class);
+
+        when(Jenkins.get()).thenReturn(jenkins);
+        when(jenkins.getDescriptorOrDie(VeracodeNotifier.class)).thenReturn(descriptor);
 
         when(abstractBuild.getEnvironment(buildListener)).thenReturn(envVars);
         when(abstractBuild.getDisplayName()).thenReturn("DisplayName");
@@ -103,7 +113,7 @@ public class VeracodeNotifierTest {
         when(procStarter.pwd(any(FilePath.class))).thenReturn(procStarter);
         when(procStarter.cmds(any(ArgumentListBuilder.class))).thenReturn(procStarter);
         when(procStarter.envs(anyMap())).thenReturn(procStarter);
-        when(procStarter.stdout(any(TaskListener.class))).thenReturn(procStarter);
+        when(procStarter.stdout(any(OutputStream.class))).thenReturn(procStarter);
         when(procStarter.quiet(anyBoolean())).thenReturn(procStarter);
         when(launcher.launch(any(ProcStarter.class))).thenReturn(proc);
         when(proc.join()).thenReturn(0);
@@ -111,7 +121,7 @@ public class VeracodeNotifierTest {
         when(WrapperUtil.getBuildInfo(anyString(), anyString(), anyString(), anyString(), any()))
                 .thenReturn("buildInfoXML");
         when(XmlUtil.parseBuildId(anyString())).thenReturn("buildId");
-        when(WrapperUtil.getDetailedReport(anyString(), anyString(), anyString(), any()))
+        when(WrapperUtil.getDetailedReport(anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn("detailedReportXML");
         when(XmlUtil.newScanHistory(anyString(), anyString(), any())).thenReturn(scanHistory);
         when(Credentials.create(anyString(), anyString())).thenReturn(credentials);
@@ -127,5 +137,9 @@ public class VeracodeNotifierTest {
         boolean success = (boolean) runScanFromRemoteMethod.invoke(notifier, abstractBuild, buildListener, printStream,
                 true);
         Assert.assertTrue(success);
+
+        // the API wrapper logged no build ID, so the latest build is used
+        PowerMockito.verifyStatic(XmlUtil.class);
+        XmlUtil.newScanHistory(eq("buildInfoXML"), eq("detailedReportXML"), any());
     }
 }
@@ -4,14 +4,17 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.io.File;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -203,15 +206,23 @@ public class VeracodePipelineRecorderTest {
         when(procStarter.pwd(any(FilePath.class))).thenReturn(procStarter);
         when(procStarter.cmds(any(ArgumentListBuilder.class))).thenReturn(procStarter);
         when(procStarter.envs(anyMap())).thenReturn(procStarter);
-        when(procStarter.stdout(any(TaskListener.class))).thenReturn(procStarter);
+        ArgumentCaptor<OutputStream> wrapperOutput = ArgumentCaptor.forClass(OutputStream.class);
+        when(procStarter.stdout(wrapperOutput.capture())).thenReturn(procStarter);
         when(procStarter.quiet(anyBoolean())).thenReturn(procStarter);
         when(launcher.launch(any(ProcStarter.class))).thenReturn(proc);
-        when(proc.join()).thenReturn(0);
+        when(proc.join()).thenAnswer(invocation -> {
+            // the API wrapper logs the IDs of the new build
+            wrapperOutput.getValue().write(("The app_id of the specified application is \"1\".\n"
+                    + "The build_id of the new build is \"2\".\n").getBytes(StandardCharsets.UTF_8));
+            return 0;
+        });
 
         when(WrapperUtil.getBuildInfo(anyString(), anyString(), anyString(), anyString(), any()))
-                .thenReturn("buildInfoXML");
+                .thenReturn("latestBuildInfoXML");
+        when(WrapperUtil.getBuildInfoByAppIdBuildId(anyString(), anyString(), anyString(), anyString(),
+                any())).thenReturn("buildInfoXML");
         when(XmlUtil.parseBuildId(anyString())).thenReturn("buildId");
-        when(WrapperUtil.getDetailedReport(anyString(), anyString(), anyString(), any()))
+        when(WrapperUtil.getDetailedReport(anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn("detailedReportXML");
         when(XmlUtil.newScanHistory(anyString(), anyString(), any())).thenReturn(scanHistory);
         when(Credentials.create(anyString(), anyString())).thenReturn(credentials);
@@ -229,5 +240,11 @@ public class VeracodePipelineRecorderTest {
                 null, null, false, false, false, true, null, null, null, null, "vid", "vkey");
         boolean success = (boolean) runScanFromRemoteMethod.invoke(recorder, run, filePath, taskListener, printStream);
         Assert.assertTrue(success);
+
+        // the results are retrieved for the build logged by the API wrapper
+        PowerMockito.verifyStatic(WrapperUtil.class);
+        WrapperUtil.getBuildInfoByAppIdBuildId(eq("1"), eq("2"), eq("vid"), eq("vkey"), any());
+        PowerMockito.verifyStatic(XmlUtil.class);
+        XmlUtil.newScanHistory(eq("buildInfoXML"), eq("detailedReportXML"), any());
     }
 }
\ No newline at end of file
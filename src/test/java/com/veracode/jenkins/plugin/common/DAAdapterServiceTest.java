@@ -0,0 +1,106 @@
+package com.veracode.jenkins.plugin.common;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.veracode.apiwrapper.dynamicanalysis.model.client.AnalysisInfo;
+import com.veracode.apiwrapper.services.APIServiceManager;
+import com.veracode.apiwrapper.services.DynamicAnalysisAPIService;
+import com.veracode.jenkins.plugin.DynamicAnalysisStateAction;
+import com.veracode.parser.enums.CredentialTypes;
+
+import hudson.FilePath;
+import hudson.model.Action;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({
+        Run.class, FilePath.class, APIServiceManager.class, DynamicAnalysisAPIService.class,
+        AnalysisInfo.class
+})
+public class DAAdapterServiceTest {
+
+    @Test
+    public void testResubmitDynamicAnalysis_LeavesOutFailedAnalyses() throws Exception {
+
+        Run run = PowerMockito.mock(Run.class);
+        FilePath workspace = PowerMockito.mock(FilePath.class);
+        TaskListener taskListener = PowerMockito.mock(TaskListener.class);
+        APIServiceManager apiServiceManager = PowerMockito.mock(APIServiceManager.class);
+        DynamicAnalysisAPIService daApiService = PowerMockito.mock(DynamicAnalysisAPIService.class);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+        List<Action> actions = new ArrayList<>();
+        when(run.getAction(DynamicAnalysisStateAction.class)).thenAnswer(invocation -> {
+            for (Action action : actions) {
+                if (action instanceof DynamicAnalysisStateAction) {
+                    return action;
+                }
+            }
+            return null;
+        });
+        doAnswer(invocation -> actions.add(invocation.getArgument(0))).when(run)
+                .addAction(any(Action.class));
+        doAnswer(invocation -> actions.remove(invocation.getArgument(0))).when(run)
+                .removeAction(any(Action.class));
+        when(taskListener.getLogger())
+                .thenReturn(new PrintStream(log, true, StandardCharsets.UTF_8.name()));
+
+        PowerMockito.mockStatic(APIServiceManager.class);
+        when(APIServiceManager.createInstance(CredentialTypes.API, "id", "key", Proxy.NO_PROXY))
+                .thenReturn(apiServiceManager);
+        when(apiServiceManager.getDynamicAnalysisAPIService()).thenReturn(daApiService);
+        AnalysisInfo analysisA = newAnalysisInfo("1", "a");
+        AnalysisInfo analysisC = newAnalysisInfo("3", "c");
+        when(daApiService.getAnalysisByName("a")).thenReturn(analysisA);
+        when(daApiService.getAnalysisByName("b")).thenReturn(null);
+        when(daApiService.getAnalysisByName("c")).thenReturn(analysisC);
+
+        boolean result = new DAAdapterService().resubmitDynamicAnalysis(run, workspace,
+                taskListener, "a, b, c", 1, true, "id", "key", false, null);
+
+        Assert.assertFalse("The build should fail as an analysis was not resubmitted", result);
+        verify(daApiService).resubmitAnalysisById("1", 1);
+        verify(daApiService).resubmitAnalysisById("3", 1);
+
+        List<Properties> analyses = DynamicAnalysisStateAction.startReview(run, 1,
+                Collections.<String>emptyList());
+        List<String> names = new ArrayList<>();
+        for (Properties properties : analyses) {
+            names.add(properties.getProperty(DynamicAnalysisStateAction.PARAM_DA_ANALYSIS_NAME));
+        }
+        Assert.assertEquals("The resubmitted analyses should be recorded in the batch",
+                Arrays.asList("a", "c"), names);
+        Assert.assertEquals("The resubmitted analyses should share the batch",
+                analyses.get(0).getProperty(DynamicAnalysisStateAction.PARAM_DA_BATCH_ID),
+                analyses.get(1).getProperty(DynamicAnalysisStateAction.PARAM_DA_BATCH_ID));
+        Assert.assertTrue("The analyses left out of the batch should be logged",
+                new String(log.toByteArray(), StandardCharsets.UTF_8).contains(
+                        "Dynamic analyses left out of the batch to review as they were not resubmitted: b"));
+    }
+
+    private static AnalysisInfo newAnalysisInfo(String analysisId, String analysisName) {
+        AnalysisInfo analysisInfo = PowerMockito.mock(AnalysisInfo.class);
+        when(analysisInfo.getAnalysisId()).thenReturn(analysisId);
+        when(analysisInfo.getAnalysisName()).thenReturn(analysisName);
+        return analysisInfo;
+    }
+}
@@ -27,7 +27,7 @@ public class XmlDocumentGenerator {
 	// summaryreport
 	public static final String SUMMARYREPORT_XML_appId_buildId_buildName_policyStatus_policyRulesStatus =
 	"<?xml version='1.0' encoding='UTF-8'?>" +
-	"<summaryreport xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns=\"https://www.veracode.com/schema/reports/export/1.0\" xsi:schemaLocation=\"https://www.veracode.com/schema/reports/export/1.0 https://vospqaweb.veracode.local/resource/summaryreport.xsd\" report_format_version=\"1.3\" app_name=\"app_name\" app_id=\"%s\" first_build_submitted_date=\"\" build_id=\"%s\" version=\"%s\" submitter=\"Auto\" platform=\"\" assurance_level=\"5\" business_criticality=\"\" generation_date=\"\" veracode_level=\"\" total_flaws=\"27\" flaws_not_mitigated=\"27\" teams=\"\" life_cycle_stage=\"\" planned_deployment_date=\"\" last_update_time=\"\" is_latest_build=\"true\" policy_name=\"Veracode Transitional Very High\" policy_version=\"1\" policy_compliance_status=\"%s\" policy_rules_status=\"%s\" grace_period_expired=\"true\" scan_overdue=\"false\" business_owner=\"\" business_unit=\"\" tags=\"\" legacy_scan_engine=\"false\">\r\n" +
+	"<summaryreport xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns=\"https://www.veracode.com/schema/reports/export/1.0\" xsi:schemaLocation=\"https://www.veracode.com/schema/reports/export/1.0 https://vospqaweb.veracode.local/resource/summaryreport.xsd\" report_format_version=\"1.3\" app_name=\"app_name\" app_id=\"%s\" first_build_submitted_date=\"\" build_id=\"%s\" version=\"%s\" submitter=\"Auto\" platform=\"\" assurance_level=\"5\" business_criticality=\"\" generation_date=\"\" veracode_level=\"VL2\" total_flaws=\"27\" flaws_not_mitigated=\"27\" teams=\"\" life_cycle_stage=\"\" planned_deployment_date=\"\" last_update_time=\"\" is_latest_build=\"true\" policy_name=\"Veracode Transitional Very High\" policy_version=\"1\" policy_compliance_status=\"%s\" policy_rules_status=\"%s\" grace_period_expired=\"true\" scan_overdue=\"false\" business_owner=\"\" business_unit=\"\" tags=\"\" legacy_scan_engine=\"false\">\r\n" +
 	"	<static-analysis rating=\"D\" score=\"86\" submitted_date=\"\" published_date=\"\" analysis_size_bytes=\"\" engine_version=\"\">\r\n" +
 	"		<modules>" +
 	"			<module name=\"abc-1.2.13.jar\" compiler=\"JAVAC_1_4\" os=\"Java J2SE 6\" architecture=\"JVM\" loc=\"26229\" score=\"86\" numflawssev0=\"0\" numflawssev1=\"0\" numflawssev2=\"3\" numflawssev3=\"22\" numflawssev4=\"1\" numflawssev5=\"1\" />" + 
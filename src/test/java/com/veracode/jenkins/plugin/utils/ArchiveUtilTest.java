@@ -0,0 +1,96 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hudson.FilePath;
+
+public class ArchiveUtilTest {
+
+	private static final long BYTES_PER_MB = 1024L * 1024L;
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void testGetMaxArchiveSizeBytes() {
+		Assert.assertEquals("Archive size is incorrect", 100 * BYTES_PER_MB,
+				ArchiveUtil.getMaxArchiveSizeBytes("100"));
+		Assert.assertEquals("Archive size should fall back to the default",
+				ArchiveUtil.DEFAULT_MAX_ARCHIVE_SIZE_MB * BYTES_PER_MB, ArchiveUtil.getMaxArchiveSizeBytes(null));
+		Assert.assertEquals("Archive size should fall back to the default",
+				ArchiveUtil.DEFAULT_MAX_ARCHIVE_SIZE_MB * BYTES_PER_MB, ArchiveUtil.getMaxArchiveSizeBytes("abc"));
+		Assert.assertEquals("Archive size should fall back to the default",
+				ArchiveUtil.DEFAULT_MAX_ARCHIVE_SIZE_MB * BYTES_PER_MB, ArchiveUtil.getMaxArchiveSizeBytes("-1"));
+	}
+
+	@Test
+	public void testPackageFiles() throws Exception {
+		File workspaceDir = tempFolder.newFolder("workspace");
+		createFile(workspaceDir, "classes/a/A.class", 100);
+		createFile(workspaceDir, "classes/b/B.class", 100);
+		createFile(workspaceDir, "classes/b/readme.txt", 100);
+		FilePath workspace = new FilePath(workspaceDir);
+		FilePath archiveDir = new FilePath(tempFolder.newFolder("archives"));
+
+		String[] archives = ArchiveUtil.packageFiles(workspace, "**/*.class", "", archiveDir,
+				ArchiveUtil.getMaxArchiveSizeBytes(null));
+
+		Assert.assertEquals("Files should be packaged into a single archive", 1, archives.length);
+		Set<String> entries = new HashSet<String>();
+		try (ZipFile zipFile = new ZipFile(archives[0])) {
+			for (ZipEntry entry : Collections.list(zipFile.entries())) {
+				entries.add(entry.getName());
+			}
+		}
+		Assert.assertEquals("Archive entries are incorrect", 2, entries.size());
+		Assert.assertTrue("Archive entry is missing", entries.contains("classes/a/A.class"));
+		Assert.assertTrue("Archive entry is missing", entries.contains("classes/b/B.class"));
+	}
+
+	@Test
+	public void testPackageFiles_SizeLimit() throws Exception {
+		File workspaceDir = tempFolder.newFolder("workspace");
+		createFile(workspaceDir, "a.jar", 2048);
+		createFile(workspaceDir, "b.jar", 2048);
+		createFile(workspaceDir, "c.jar", 2048);
+		FilePath workspace = new FilePath(workspaceDir);
+		FilePath archiveDir = new FilePath(tempFolder.newFolder("archives"));
+
+		String[] archives = ArchiveUtil.packageFiles(workspace, "*.jar", null, archiveDir, 3000);
+
+		Assert.assertEquals("Each file should be packaged into its own archive", 3, archives.length);
+		for (String archive : archives) {
+			Assert.assertTrue("Archive does not exist", new File(archive).exists());
+		}
+	}
+
+	@Test
+	public void testCleanUpArchives() throws IOException {
+		File archiveDir = tempFolder.newFolder("archives");
+		createFile(archiveDir, "veracode-upload-1.zip", 10);
+		ArchiveUtil.cleanUpArchives(new FilePath(archiveDir));
+		Assert.assertFalse("Archive directory exists", archiveDir.exists());
+	}
+
+	private static void createFile(File dir, String relativePath, int size) throws IOException {
+		File file = new File(dir, relativePath);
+		file.getParentFile().mkdirs();
+		byte[] content = new byte[size];
+		// random content so that the size of the file barely changes when compressed
+		new Random(relativePath.hashCode()).nextBytes(content);
+		Files.write(file.toPath(), content);
+	}
+}
@@ -0,0 +1,64 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.veracode.jenkins.plugin.data.Flaw;
+import com.veracode.jenkins.plugin.data.FlawDiff;
+
+public class FlawFingerprintUtilTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static Flaw newFlaw(int issueId, String sourceFile, int line) {
+		return newFlaw(issueId, sourceFile, line, "void run()");
+	}
+
+	private static Flaw newFlaw(int issueId, String sourceFile, int line, String functionPrototype) {
+		return new Flaw(issueId, 3, 89, "SQL Injection", "app.jar", sourceFile, line, functionPrototype, "Open",
+				"None", true);
+	}
+
+	@Test
+	public void testDiff() throws IOException {
+		File baseBuildDir = tempFolder.newFolder("base");
+		File buildDir = tempFolder.newFolder("build");
+		List<Flaw> baseFlaws = Arrays.asList(newFlaw(3, "A.java", 10), newFlaw(1, "B.java", 20),
+				newFlaw(2, "C.java", 30), newFlaw(5, "D.java", 40), newFlaw(6, "F.java", 60));
+		// flaw 2 is fixed, flaw 4 is new, flaw 5 moved within its function, flaw 6 moved to
+		// another function
+		List<Flaw> flaws = Arrays.asList(newFlaw(1, "B.java", 20), newFlaw(3, "A.java", 10),
+				newFlaw(4, "E.java", 50), newFlaw(5, "D.java", 41), newFlaw(6, "F.java", 60, "void stop()"));
+
+		FlawFingerprintUtil.writeFingerprints(baseBuildDir, baseFlaws);
+		FlawFingerprintUtil.writeFingerprints(buildDir, flaws);
+		FlawDiff flawDiff = FlawFingerprintUtil.diff(FlawFingerprintUtil.readFingerprints(baseBuildDir),
+				FlawFingerprintUtil.readFingerprints(buildDir));
+
+		Assert.assertArrayEquals("New flaws are incorrect", new int[] { 4, 6 }, flawDiff.getNewIssueIds());
+		Assert.assertArrayEquals("Fixed flaws are incorrect", new int[] { 2, 6 }, flawDiff.getFixedIssueIds());
+		Assert.assertArrayEquals("Unchanged flaws are incorrect", new int[] { 1, 3, 5 },
+				flawDiff.getUnchangedIssueIds());
+	}
+
+	@Test
+	public void testGetIssueId() {
+		long fingerprint = FlawFingerprintUtil.getFingerprint(newFlaw(123456, "A.java", 10));
+		Assert.assertEquals("Issue ID is incorrect", 123456, FlawFingerprintUtil.getIssueId(fingerprint));
+	}
+
+	@Test
+	public void testDiff_EmptyBase() {
+		FlawDiff flawDiff = FlawFingerprintUtil.diff(new long[0], new long[] { 1L << 32, 2L << 32 });
+		Assert.assertEquals("New count is incorrect", 2, flawDiff.getNewCount());
+		Assert.assertEquals("Fixed count is incorrect", 0, flawDiff.getFixedCount());
+	}
+}
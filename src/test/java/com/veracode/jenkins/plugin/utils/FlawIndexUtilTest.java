@@ -0,0 +1,136 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.veracode.jenkins.plugin.data.Flaw;
+import com.veracode.jenkins.plugin.data.FlawPage;
+import com.veracode.jenkins.plugin.utils.FlawIndexUtil.FlawIndex;
+
+import hudson.model.TaskListener;
+
+public class FlawIndexUtilTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private File writeIndex(int count) throws IOException {
+		File buildDir = tempFolder.newFolder("build");
+		List<Flaw> flaws = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			flaws.add(new Flaw(i, i % 6, 100 + i % 10, "Category " + i % 7, "module-" + i % 3 + ".jar",
+					"src/File" + i + ".java", i * 10, "Open", i % 4 == 0 ? "Accepted" : "None", i % 2 == 0));
+		}
+		FlawIndexUtil.writeFlawIndex(buildDir, flaws);
+		return buildDir;
+	}
+
+	@Test
+	public void testGetPage_DefaultOrder() throws IOException {
+		FlawIndex flawIndex = FlawIndexUtil.openFlawIndex(writeIndex(120));
+		FlawPage page = flawIndex.getPage(1, 50, FlawIndexUtil.SORT_SEVERITY, true, 0, false, null);
+
+		Assert.assertEquals("Total count is incorrect", 120, page.getTotalCount());
+		Assert.assertEquals("Page count is incorrect", 3, page.getPageCount());
+		Assert.assertEquals("Page size is incorrect", 50, page.getFlaws().size());
+		Flaw first = page.getFlaws().get(0);
+		Assert.assertEquals("Highest severity should come first", 5, first.getSeverity());
+		Assert.assertEquals("Issue ID should break ties", 5, first.getIssueId());
+		Assert.assertEquals("Source file is incorrect", "src/File5.java", first.getSourceFile());
+		Assert.assertEquals("Line is incorrect", 50, first.getLine());
+		Assert.assertEquals("CWE ID is incorrect", 105, first.getCweId());
+		Assert.assertFalse("Policy flag is incorrect", first.isAffectsPolicyCompliance());
+
+		FlawPage lastPage = flawIndex.getPage(99, 50, FlawIndexUtil.SORT_SEVERITY, true, 0, false, null);
+		Assert.assertEquals("Page number should be capped", 3, lastPage.getPage());
+		Assert.assertEquals("Last page size is incorrect", 20, lastPage.getFlaws().size());
+	}
+
+	@Test
+	public void testGetPage_SortAndFilter() throws IOException {
+		FlawIndex flawIndex = FlawIndexUtil.openFlawIndex(writeIndex(120));
+
+		FlawPage byFile = flawIndex.getPage(1, 10, FlawIndexUtil.SORT_FILE, false, 0, false, null);
+		Assert.assertEquals("Files are not sorted", "src/File1.java", byFile.getFlaws().get(0).getSourceFile());
+		Assert.assertEquals("Files are not sorted", "src/File10.java", byFile.getFlaws().get(1).getSourceFile());
+
+		FlawPage byIssueDesc = flawIndex.getPage(1, 10, FlawIndexUtil.SORT_ISSUE, true, 0, false, null);
+		Assert.assertEquals("Issue IDs are not sorted", 120, byIssueDesc.getFlaws().get(0).getIssueId());
+
+		FlawPage filtered = flawIndex.getPage(1, 500, FlawIndexUtil.SORT_SEVERITY, true, 4, true, "MODULE-1");
+		for (Flaw flaw : filtered.getFlaws()) {
+			Assert.assertTrue("Severity filter is not applied", flaw.getSeverity() >= 4);
+			Assert.assertTrue("Policy filter is not applied", flaw.isAffectsPolicyCompliance());
+			Assert.assertEquals("Text filter is not applied", "module-1.jar", flaw.getModule());
+		}
+		Assert.assertEquals("Match count is incorrect", filtered.getFlaws().size(), filtered.getMatchCount());
+		Assert.assertTrue("Filter should match some flaws", filtered.getMatchCount() > 0);
+	}
+
+	@Test
+	public void testAsList() throws IOException {
+		FlawIndex flawIndex = FlawIndexUtil.openFlawIndex(writeIndex(30));
+		List<Flaw> flaws = flawIndex.asList();
+
+		Assert.assertEquals("List size is incorrect", 30, flaws.size());
+		Assert.assertEquals("Highest severity should come first", 5, flaws.get(0).getSeverity());
+		Assert.assertEquals("Lowest severity should come last", 0, flaws.get(29).getSeverity());
+		Assert.assertEquals("Sub list size is incorrect", 10, flaws.subList(10, 20).size());
+	}
+
+	@Test
+	public void testOpenFlawIndex_MissingFile() throws IOException {
+		Assert.assertNull("Flaw index should not exist", FlawIndexUtil.openFlawIndex(tempFolder.newFolder("build")));
+	}
+
+	@Test
+	public void testOpenFlawIndex_FileReleased() throws IOException {
+		File buildDir = writeIndex(10);
+		FlawIndex flawIndex = FlawIndexUtil.openFlawIndex(buildDir);
+		Assert.assertEquals("Flaw count is incorrect", 10, flawIndex.asList().size());
+		Assert.assertEquals("Flaw should be read", "src/File5.java", flawIndex.asList().get(0).getSourceFile());
+		Assert.assertEquals("Page should be read", 10,
+				flawIndex.getPage(1, 50, FlawIndexUtil.SORT_FILE, false, 0, false, "file").getFlaws().size());
+		Assert.assertTrue("Flaw index file should not stay open",
+				FlawIndexUtil.getFlawIndexFile(buildDir).delete());
+	}
+
+	@Test
+	public void testAsList_Chunks() throws IOException {
+		FlawIndex flawIndex = FlawIndexUtil.openFlawIndex(writeIndex(2500));
+		List<Flaw> flaws = flawIndex.asList();
+
+		int previousSeverity = Integer.MAX_VALUE;
+		int count = 0;
+		for (Flaw flaw : flaws) {
+			Assert.assertTrue("Flaws should be in the stored order", flaw.getSeverity() <= previousSeverity);
+			previousSeverity = flaw.getSeverity();
+			count++;
+		}
+		Assert.assertEquals("Each flaw should be read", 2500, count);
+		Assert.assertEquals("Flaw of the last chunk is incorrect", "src/File2496.java",
+				flaws.get(2499).getSourceFile());
+		Assert.assertEquals("Flaw of the first chunk is incorrect", "src/File5.java", flaws.get(0).getSourceFile());
+	}
+
+	@Test
+	public void testIndexDetailedReport_FailureLogged() throws IOException {
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		TaskListener listener = Mockito.mock(TaskListener.class);
+		Mockito.when(listener.getLogger()).thenReturn(new PrintStream(log, true, "UTF-8"));
+		Assert.assertFalse("Invalid report should not be indexed",
+				FlawIndexUtil.indexDetailedReport(tempFolder.newFolder("build"), "not xml", listener));
+		Assert.assertTrue("Failure should be logged",
+				log.toString("UTF-8").contains("Failed to index the flaws"));
+	}
+}
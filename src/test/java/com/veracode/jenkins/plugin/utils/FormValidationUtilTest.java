@@ -103,6 +103,11 @@ public class FormValidationUtilTest {
 		FormValidation nameTooShortError = FormValidationUtil.checkAnalysisName("a1");
 		Assert.assertEquals("Error message for analysis name length too short is invalid",
 				"Enter an analysis name of 6-190 characters.", nameTooShortError.getMessage());
+		FormValidation analysisNames = FormValidationUtil.checkAnalysisName("analysis_name_1, analysis_name_2");
+		Assert.assertNull("Error in given analysis names", analysisNames.getMessage());
+		FormValidation analysisNameTooShortError = FormValidationUtil.checkAnalysisName("analysis_name_1\na1");
+		Assert.assertEquals("Error message for analysis name length too short is invalid",
+				"Enter an analysis name of 6-190 characters.", analysisNameTooShortError.getMessage());
 	}
 
 	@Test
@@ -0,0 +1,76 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.veracode.jenkins.plugin.data.PortfolioEntry;
+import com.veracode.jenkins.plugin.data.PortfolioPage;
+
+public class PortfolioIndexUtilTest {
+
+	private static final String[] STATUSES = { "Pass", "Conditional Pass", "Did Not Pass" };
+
+	private List<PortfolioEntry> createEntries(int count) {
+		List<PortfolioEntry> entries = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			entries.add(new PortfolioEntry("folder/job-" + i, "Job " + i, "job/folder/job/job-" + i + "/",
+					PortfolioEntry.TYPE_STATIC, i, 1000L * i, "Policy " + i % 2, STATUSES[i % 3], i % 100,
+					"VL" + i % 5, i * 3, i % 7));
+		}
+		return entries;
+	}
+
+	@Test
+	public void testGetPage_Sort() {
+		List<PortfolioEntry> entries = createEntries(120);
+
+		PortfolioPage byJob = PortfolioIndexUtil.getPage(entries, 1, 50, null, false, null, null);
+		Assert.assertEquals("Sort column is incorrect", PortfolioIndexUtil.SORT_JOB, byJob.getSort());
+		Assert.assertEquals("Page count is incorrect", 3, byJob.getPageCount());
+		Assert.assertEquals("Page size is incorrect", 50, byJob.getEntries().size());
+		Assert.assertEquals("Jobs are not sorted", "Job 1", byJob.getEntries().get(0).getJobDisplayName());
+		Assert.assertEquals("Jobs are not sorted", "Job 10", byJob.getEntries().get(1).getJobDisplayName());
+
+		PortfolioPage byFlaws = PortfolioIndexUtil.getPage(entries, 1, 10, PortfolioIndexUtil.SORT_FLAWS, true,
+				null, null);
+		Assert.assertEquals("Flaws are not sorted", 360, byFlaws.getEntries().get(0).getTotalFlawsCount());
+
+		PortfolioPage byScore = PortfolioIndexUtil.getPage(entries, 1, 10, PortfolioIndexUtil.SORT_SCORE, true,
+				null, null);
+		Assert.assertEquals("Scores are not sorted", 99, byScore.getEntries().get(0).getScore());
+		Assert.assertEquals("Job name should break ties", "folder/job-99", byScore.getEntries().get(0).getJobName());
+
+		PortfolioPage lastPage = PortfolioIndexUtil.getPage(entries, 99, 50, null, false, null, null);
+		Assert.assertEquals("Page number should be capped", 3, lastPage.getPage());
+		Assert.assertEquals("Last page size is incorrect", 20, lastPage.getEntries().size());
+	}
+
+	@Test
+	public void testGetPage_Filter() {
+		List<PortfolioEntry> entries = createEntries(120);
+
+		PortfolioPage failed = PortfolioIndexUtil.getPage(entries, 1, 500, null, false, "did not pass", null);
+		Assert.assertEquals("Status filter is not applied", 40, failed.getMatchCount());
+		Assert.assertEquals("Total count is incorrect", 120, failed.getTotalCount());
+		for (PortfolioEntry entry : failed.getEntries()) {
+			Assert.assertEquals("Status filter is not applied", "Did Not Pass", entry.getPolicyComplianceStatus());
+		}
+
+		PortfolioPage filtered = PortfolioIndexUtil.getPage(entries, 1, 500, null, false, null, "JOB-11");
+		for (PortfolioEntry entry : filtered.getEntries()) {
+			Assert.assertTrue("Text filter is not applied", entry.getJobName().contains("job-11"));
+		}
+		Assert.assertEquals("Match count is incorrect", 11, filtered.getMatchCount());
+	}
+
+	@Test
+	public void testGetResultsUrl() {
+		PortfolioEntry entry = new PortfolioEntry("app", "App", "job/app/", PortfolioEntry.TYPE_DYNAMIC, 7, 0L,
+				"Policy", "Pass", 90, "VL4", 0, 0);
+		Assert.assertEquals("Results URL is incorrect", "job/app/7/veracodeDA/", entry.getResultsUrl());
+		Assert.assertEquals("Status is incorrect", "Passed", entry.getPolicyComplianceStatusForDisplay());
+	}
+}
@@ -32,12 +32,6 @@ public class RemoteScanUtilTest {
 	@Rule
 	public TemporaryFolder tempFolder = new TemporaryFolder();
 
-	@Test
-	public void testGetJarVersion() {
-		int remoteScanUtil = RemoteScanUtil.getJarVersion("vosp-api-wrappers-java-1.jar");
-		Assert.assertEquals("jarVersion mismatch", 1, remoteScanUtil);
-	}
-
 	@Test
 	public void testGetMaskPosition() {
 		List<String> remoteCmd = new ArrayList<String>();
@@ -0,0 +1,68 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.veracode.jenkins.plugin.utils.ReportCacheUtil.ReportCache;
+
+public class ReportCacheUtilTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static String createReport(long seed) {
+		Random random = new Random(seed);
+		StringBuilder report = new StringBuilder("<detailedreport>");
+		for (int i = 0; i < 2000; i++) {
+			report.append("<flaw issueid=\"").append(random.nextInt()).append("\"/>");
+		}
+		return report.append("</detailedreport>").toString();
+	}
+
+	@Test
+	public void testGetAndPut() throws IOException {
+		File cacheDir = tempFolder.newFolder("cache");
+		ReportCache cache = new ReportCache(cacheDir, Long.MAX_VALUE);
+		String key = ReportCacheUtil.getKey(ReportCacheUtil.DETAILED_REPORT, "1234", "apiId", "rev1");
+		String report = createReport(1);
+
+		Assert.assertNull("Report should not be cached", cache.get(key));
+		cache.put(key, report);
+		Assert.assertEquals("Cached report is incorrect", report, cache.get(key));
+		Assert.assertNull("Report should not be served to other credentials",
+				cache.get(ReportCacheUtil.getKey(ReportCacheUtil.DETAILED_REPORT, "1234", "otherId", "rev1")));
+		Assert.assertNull("Report should not be served as another type",
+				cache.get(ReportCacheUtil.getKey(ReportCacheUtil.SUMMARY_REPORT, "1234", "apiId", "rev1")));
+		Assert.assertNull("Report should not be served once the results are re-evaluated",
+				cache.get(ReportCacheUtil.getKey(ReportCacheUtil.DETAILED_REPORT, "1234", "apiId", "rev2")));
+		Assert.assertTrue("Report should be compressed", cache.getTotalBytes() < report.length());
+
+		ReportCache reloadedCache = new ReportCache(cacheDir, Long.MAX_VALUE);
+		Assert.assertEquals("Cached report should survive a restart", report, reloadedCache.get(key));
+	}
+
+	@Test
+	public void testEviction() throws IOException {
+		File cacheDir = tempFolder.newFolder("cache");
+		ReportCache sizingCache = new ReportCache(tempFolder.newFolder("sizing"), Long.MAX_VALUE);
+		sizingCache.put("sizing", createReport(0));
+		long reportBytes = sizingCache.getTotalBytes();
+
+		ReportCache cache = new ReportCache(cacheDir, reportBytes * 5 / 2);
+		cache.put("a", createReport(1));
+		cache.put("b", createReport(2));
+		Assert.assertNotNull("Report should be cached", cache.get("a"));
+		cache.put("c", createReport(3));
+
+		Assert.assertNull("Least recently used report should be evicted", cache.get("b"));
+		Assert.assertNotNull("Recently used report should be kept", cache.get("a"));
+		Assert.assertNotNull("Added report should be kept", cache.get("c"));
+		Assert.assertEquals("Evicted report should be deleted", 2, cacheDir.list().length);
+	}
+}
@@ -0,0 +1,105 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.veracode.jenkins.plugin.utils.RetryUtil.RetryPolicy;
+
+public class RetryUtilTest {
+
+	private static final RetryPolicy FAST_POLICY = new RetryPolicy(3, 1, 4, 10000);
+
+	@Test
+	public void testCall_RetriedUntilSuccess() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		String result = RetryUtil.call("test-success", true, FAST_POLICY, 0, new PrintStream(log, true), () -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new IOException("Connection reset");
+			}
+			return "ok";
+		});
+		Assert.assertEquals("Result is incorrect", "ok", result);
+		Assert.assertEquals("Number of attempts is incorrect", 3, attempts.get());
+		Assert.assertTrue("Retry is not logged", log.toString().contains("test-success failed (attempt 2 of 3)"));
+		Assert.assertTrue("Summary is not logged", log.toString().contains("test-success succeeded after 3 attempts"));
+	}
+
+	@Test
+	public void testCall_AttemptsExhausted() {
+		AtomicInteger attempts = new AtomicInteger();
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		try {
+			RetryUtil.call("test-exhausted", true, FAST_POLICY, 0, new PrintStream(log, true), () -> {
+				attempts.incrementAndGet();
+				throw new IOException("Connection reset");
+			});
+			Assert.fail("The last exception should be thrown");
+		} catch (Exception e) {
+			Assert.assertTrue("Exception is incorrect", e instanceof IOException);
+		}
+		Assert.assertEquals("Number of attempts is incorrect", 3, attempts.get());
+		Assert.assertTrue("Summary is not logged", log.toString().contains("test-exhausted failed after 3 attempts"));
+	}
+
+	@Test
+	public void testCall_NotRetryable() {
+		AtomicInteger attempts = new AtomicInteger();
+		try {
+			RetryUtil.call("test-not-retryable", true, FAST_POLICY, 0, null, () -> {
+				attempts.incrementAndGet();
+				throw new IllegalArgumentException("Build ID is invalid.");
+			});
+			Assert.fail("The exception should be thrown");
+		} catch (Exception e) {
+			Assert.assertTrue("Exception is incorrect", e instanceof IllegalArgumentException);
+		}
+		Assert.assertEquals("A non transient error should not be retried", 1, attempts.get());
+	}
+
+	@Test
+	public void testCall_DeadlineExpired() {
+		AtomicInteger attempts = new AtomicInteger();
+		try {
+			RetryUtil.call("test-deadline", true, FAST_POLICY, System.currentTimeMillis() - 1, null, () -> {
+				attempts.incrementAndGet();
+				throw new IOException("Connection reset");
+			});
+			Assert.fail("The exception should be thrown");
+		} catch (Exception e) {
+			Assert.assertTrue("Exception is incorrect", e instanceof IOException);
+		}
+		Assert.assertEquals("The call should not be retried after the deadline", 1, attempts.get());
+	}
+
+	@Test
+	public void testIsRetryable() {
+		Assert.assertTrue("I/O errors of idempotent calls should be retried",
+				RetryUtil.isRetryable(new IOException("Read timed out"), true));
+		Assert.assertFalse("I/O errors of non idempotent calls should not be retried",
+				RetryUtil.isRetryable(new IOException("Read timed out"), false));
+		Assert.assertTrue("Connection failures should be retried",
+				RetryUtil.isRetryable(new ConnectException("Connection refused"), false));
+		Assert.assertTrue("Wrapped connection failures should be retried",
+				RetryUtil.isRetryable(new RuntimeException(new ConnectException("Connection refused")), false));
+		Assert.assertFalse("Other errors should not be retried",
+				RetryUtil.isRetryable(new IllegalStateException(), true));
+	}
+
+	@Test
+	public void testGetDelayMillis() {
+		RetryPolicy policy = new RetryPolicy(10, 1000, 8000, 60000);
+		for (int attempt = 1; attempt <= 6; attempt++) {
+			long expected = Math.min(1000L << (attempt - 1), 8000);
+			long delay = RetryUtil.getDelayMillis(policy, attempt);
+			Assert.assertTrue("Delay is too short", delay >= expected / 2);
+			Assert.assertTrue("Delay is too long", delay <= expected);
+		}
+	}
+}
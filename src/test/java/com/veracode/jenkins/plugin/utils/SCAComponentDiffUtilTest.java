@@ -0,0 +1,80 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.veracode.jenkins.plugin.data.SCAComponent;
+import com.veracode.jenkins.plugin.data.SCAComponentDiff;
+
+public class SCAComponentDiffUtilTest {
+
+	private static Set<SCAComponent> newComponents(String... names) {
+		Set<SCAComponent> components = new HashSet<>();
+		for (String name : names) {
+			components.add(new SCAComponent(name, false, false, false));
+		}
+		return components;
+	}
+
+	@Test
+	public void testGetCoordinates() {
+		Assert.assertArrayEquals("Coordinates are incorrect", new String[] { "jackson-databind", "2.9.8" },
+				SCAComponentDiffUtil.getCoordinates("jackson-databind-2.9.8.jar"));
+		Assert.assertArrayEquals("Coordinates are incorrect", new String[] { "commons-lang3", "3.4" },
+				SCAComponentDiffUtil.getCoordinates("commons-lang3-3.4.jar"));
+		Assert.assertArrayEquals("Coordinates are incorrect", new String[] { "spring-core", "5.3.0.RELEASE" },
+				SCAComponentDiffUtil.getCoordinates("spring-core-5.3.0.RELEASE.jar"));
+		Assert.assertArrayEquals("Coordinates are incorrect", new String[] { "jquery", "" },
+				SCAComponentDiffUtil.getCoordinates("jquery.js"));
+	}
+
+	@Test
+	public void testDiff() {
+		Set<SCAComponent> baseComponents = newComponents("log4j-1.2.17.jar", "commons-collections-3.2.1.jar",
+				"jackson-databind-2.9.8.jar");
+		Set<SCAComponent> components = newComponents("log4j-1.2.17.jar", "jackson-databind-2.9.10.jar",
+				"guava-20.0.jar");
+
+		SCAComponentDiff diff = SCAComponentDiffUtil.diff(baseComponents, components);
+
+		Assert.assertEquals("Added components are incorrect", Collections.singletonList("guava-20.0.jar"),
+				diff.getAddedComponents());
+		Assert.assertEquals("Removed components are incorrect",
+				Arrays.asList("commons-collections-3.2.1.jar"), diff.getRemovedComponents());
+		Assert.assertEquals("Version changes are incorrect", 1, diff.getVersionChanges().size());
+		Assert.assertEquals("Library is incorrect", "jackson-databind", diff.getVersionChanges().get(0).getLibrary());
+		Assert.assertEquals("Old version is incorrect", "2.9.8", diff.getVersionChanges().get(0).getOldVersion());
+		Assert.assertEquals("New version is incorrect", "2.9.10", diff.getVersionChanges().get(0).getNewVersion());
+	}
+
+	@Test
+	public void testDiff_SeveralVersions() {
+		Set<SCAComponent> baseComponents = newComponents("guava-19.0.jar", "guava-20.0.jar", "log4j-1.2.17.jar",
+				"slf4j-api-1.7.25.jar", "slf4j-api-1.7.30.jar");
+		// a version of guava is added, a version of slf4j-api removed, log4j upgraded
+		Set<SCAComponent> components = newComponents("guava-19.0.jar", "guava-20.0.jar", "guava-30.0.jar",
+				"log4j-2.17.1.jar", "slf4j-api-1.7.30.jar");
+
+		SCAComponentDiff diff = SCAComponentDiffUtil.diff(baseComponents, components);
+
+		Assert.assertEquals("Added components are incorrect", Collections.singletonList("guava-30.0.jar"),
+				diff.getAddedComponents());
+		Assert.assertEquals("Removed components are incorrect", Collections.singletonList("slf4j-api-1.7.25.jar"),
+				diff.getRemovedComponents());
+		Assert.assertEquals("Version changes are incorrect", 1, diff.getVersionChanges().size());
+		Assert.assertEquals("Library is incorrect", "log4j", diff.getVersionChanges().get(0).getLibrary());
+		Assert.assertEquals("Old version is incorrect", "1.2.17", diff.getVersionChanges().get(0).getOldVersion());
+		Assert.assertEquals("New version is incorrect", "2.17.1", diff.getVersionChanges().get(0).getNewVersion());
+	}
+
+	@Test
+	public void testDiff_Unchanged() {
+		Set<SCAComponent> components = newComponents("log4j-1.2.17.jar");
+		Assert.assertTrue("Diff should be empty", SCAComponentDiffUtil.diff(components, components).isEmpty());
+	}
+}
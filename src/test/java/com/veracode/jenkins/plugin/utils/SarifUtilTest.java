@@ -0,0 +1,61 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+public class SarifUtilTest {
+
+	private static final String DETAILED_REPORT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+			+ "<detailedreport xmlns=\"https://www.veracode.com/schema/reports/export/1.0\">"
+			+ "<severity level=\"5\"><category categoryid=\"19\" categoryname=\"SQL Injection\">"
+			+ "<cwe cweid=\"89\"><staticflaws>"
+			+ "<flaw issueid=\"12\" severity=\"5\" cweid=\"89\" categoryname=\"SQL Injection\" module=\"app.war\""
+			+ " sourcefile=\"Dao.java\" sourcefilepath=\"com/example/\" line=\"42\" remediation_status=\"Open\""
+			+ " mitigation_status=\"none\" affects_policy_compliance=\"true\" description=\"Quote &quot;this&quot;\"/>"
+			+ "<flaw issueid=\"13\" severity=\"5\" cweid=\"89\" categoryname=\"SQL Injection\" module=\"app.war\""
+			+ " sourcefile=\"Old.java\" sourcefilepath=\"\" line=\"1\" remediation_status=\"Fixed\"/>"
+			+ "</staticflaws></cwe></category></severity>"
+			+ "<severity level=\"3\"><category categoryid=\"2\" categoryname=\"Information Leakage\">"
+			+ "<cwe cweid=\"209\"><staticflaws>"
+			+ "<flaw issueid=\"20\" severity=\"3\" cweid=\"209\" module=\"app.war\" sourcefile=\"Web.java\""
+			+ " sourcefilepath=\"com/example/\" line=\"0\" remediation_status=\"New\"/>"
+			+ "</staticflaws></cwe></category></severity>"
+			+ "</detailedreport>";
+
+	@Test
+	public void testWriteSarif() throws Exception {
+		StringWriter out = new StringWriter();
+		int resultCount = SarifUtil.writeSarif(new StringReader(DETAILED_REPORT), out);
+
+		Assert.assertEquals("Fixed flaws should not be included", 2, resultCount);
+		JSONObject sarif = JSONObject.fromObject(out.toString());
+		Assert.assertEquals("SARIF version is incorrect", "2.1.0", sarif.getString("version"));
+		JSONObject run = sarif.getJSONArray("runs").getJSONObject(0);
+
+		JSONArray results = run.getJSONArray("results");
+		Assert.assertEquals("Number of results is incorrect", 2, results.size());
+		JSONObject result = results.getJSONObject(0);
+		Assert.assertEquals("Rule ID is incorrect", "CWE-89", result.getString("ruleId"));
+		Assert.assertEquals("Level is incorrect", "error", result.getString("level"));
+		Assert.assertEquals("Message is incorrect", "Quote \"this\"",
+				result.getJSONObject("message").getString("text"));
+		JSONObject location = result.getJSONArray("locations").getJSONObject(0).getJSONObject("physicalLocation");
+		Assert.assertEquals("URI is incorrect", "com/example/Dao.java",
+				location.getJSONObject("artifactLocation").getString("uri"));
+		Assert.assertEquals("Line is incorrect", 42, location.getJSONObject("region").getInt("startLine"));
+
+		JSONObject otherResult = results.getJSONObject(1);
+		Assert.assertEquals("Level is incorrect", "warning", otherResult.getString("level"));
+		Assert.assertEquals("Message should fall back to the category", "Information Leakage",
+				otherResult.getJSONObject("message").getString("text"));
+
+		JSONArray rules = run.getJSONObject("tool").getJSONObject("driver").getJSONArray("rules");
+		Assert.assertEquals("Number of rules is incorrect", 2, rules.size());
+	}
+}
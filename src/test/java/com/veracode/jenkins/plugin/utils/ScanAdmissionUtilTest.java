@@ -0,0 +1,141 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.veracode.jenkins.plugin.utils.ScanAdmissionUtil.Admission;
+
+public class ScanAdmissionUtilTest {
+
+	private static final PrintStream NULL_STREAM = new PrintStream(new ByteArrayOutputStream());
+
+	@Test
+	public void testGetProfileKey() {
+		Assert.assertEquals("Profile key is incorrect", "my app",
+				ScanAdmissionUtil.getProfileKey(new String[] { "-action", "UploadAndScan", "-appname", "My App" }));
+		Assert.assertEquals("Profile key is incorrect", "my app/Branch",
+				ScanAdmissionUtil.getProfileKey(new String[] { "-appname", "My App", "-sandboxname", "Branch" }));
+		Assert.assertFalse("Sandboxes should not share the queue of the policy scan",
+				ScanAdmissionUtil.getProfileKey(new String[] { "-appname", "App" }).equals(
+						ScanAdmissionUtil.getProfileKey(new String[] { "-appname", "App", "-sandboxname", "S" })));
+	}
+
+	@Test
+	public void testAdmit_DifferentProfiles() throws Exception {
+		Admission first = ScanAdmissionUtil.admit("profile-a", NULL_STREAM);
+		Admission second = ScanAdmissionUtil.admit("profile-b", NULL_STREAM);
+		first.release();
+		second.release();
+	}
+
+	@Test
+	public void testAdmit_SameProfileInOrder() throws Exception {
+		String key = "profile-fifo";
+		Admission first = ScanAdmissionUtil.admit(key, NULL_STREAM);
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		List<Integer> admitted = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			final int index = i;
+			Thread thread = new Thread(() -> {
+				try {
+					Admission admission = ScanAdmissionUtil.admit(key,
+							index == 1 ? new PrintStream(log, true) : NULL_STREAM);
+					admitted.add(index);
+					admission.release();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+			// wait for the thread to be queued before starting the next one
+			waitForState(thread, Thread.State.WAITING);
+		}
+		Assert.assertTrue("No scan should be admitted while the profile is busy", admitted.isEmpty());
+		Assert.assertTrue("Queue position is not logged", log.toString().contains("queue position 2"));
+
+		first.release();
+		first.release();
+		for (Thread thread : threads) {
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+		}
+		Assert.assertEquals("Scans should be admitted in order", List.of(0, 1, 2), admitted);
+	}
+
+	@Test
+	public void testAdmit_Interrupted() throws Exception {
+		String key = "profile-interrupted";
+		Admission first = ScanAdmissionUtil.admit(key, NULL_STREAM);
+		Thread thread = new Thread(() -> {
+			try {
+				ScanAdmissionUtil.admit(key, NULL_STREAM);
+			} catch (InterruptedException e) {
+				// expected
+			}
+		});
+		thread.start();
+		waitForState(thread, Thread.State.WAITING);
+		thread.interrupt();
+		thread.join(TimeUnit.SECONDS.toMillis(10));
+		first.release();
+
+		// the interrupted scan must have left the queue
+		Admission next = ScanAdmissionUtil.admit(key, NULL_STREAM);
+		next.release();
+	}
+
+	@Test
+	public void testAdmit_WaitsForPlatform() throws Exception {
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		AtomicInteger polls = new AtomicInteger();
+		// the previous scan completes on the platform at the third poll
+		Admission admission = ScanAdmissionUtil.admit("profile-platform",
+				() -> buildInfo(polls.incrementAndGet() < 3 ? "Scan In Process" : "Results Ready"), 10,
+				TimeUnit.SECONDS.toMillis(10), new PrintStream(log, true));
+		admission.release();
+		Assert.assertEquals("The platform should be polled until the scan completes", 3, polls.get());
+		Assert.assertTrue("The wait for the platform is not logged",
+				log.toString().contains("in progress on the Veracode platform"));
+	}
+
+	@Test
+	public void testAdmit_PlatformWaitExpires() throws Exception {
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		Admission admission = ScanAdmissionUtil.admit("profile-platform-busy",
+				() -> buildInfo("Submitted to Engine"), 10, 50, new PrintStream(log, true));
+		admission.release();
+		Assert.assertTrue("The end of the wait is not logged", log.toString().contains("Not waiting any longer"));
+	}
+
+	@Test
+	public void testAdmit_PlatformUnavailable() throws Exception {
+		AtomicInteger polls = new AtomicInteger();
+		Admission admission = ScanAdmissionUtil.admit("profile-platform-new", () -> {
+			polls.incrementAndGet();
+			throw new IllegalArgumentException("The application does not exist.");
+		}, 10, TimeUnit.SECONDS.toMillis(10), NULL_STREAM);
+		admission.release();
+		Assert.assertEquals("A profile which cannot be checked should be admitted at once", 1, polls.get());
+	}
+
+	private static String buildInfo(String status) {
+		return "<buildinfo><build><analysis_unit status=\"" + status + "\"/></build></buildinfo>";
+	}
+
+	private static void waitForState(Thread thread, Thread.State state) throws InterruptedException {
+		long expirationTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+		while (thread.getState() != state && System.currentTimeMillis() < expirationTime) {
+			Thread.sleep(10);
+		}
+		Assert.assertEquals("Thread did not reach the expected state", state, thread.getState());
+	}
+}
@@ -0,0 +1,45 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.veracode.jenkins.plugin.data.SCAComponent;
+
+public class ScanPayloadUtilTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void testWriteAndReadSCAComponents() throws IOException {
+		File buildDir = tempFolder.newFolder("build");
+		Set<SCAComponent> scaComponents = new HashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			scaComponents.add(new SCAComponent("component-" + i + ".jar", i % 2 == 0, i % 3 == 0, i % 5 == 0));
+		}
+
+		ScanPayloadUtil.writeSCAComponents(buildDir, scaComponents);
+		Set<SCAComponent> actualComponents = ScanPayloadUtil.readSCAComponents(buildDir);
+
+		Assert.assertTrue("Side file does not exist", ScanPayloadUtil.getSCAComponentsFile(buildDir).exists());
+		Assert.assertEquals("Components are not read correctly", scaComponents, actualComponents);
+		for (SCAComponent component : actualComponents) {
+			int i = Integer.parseInt(component.getName().replaceAll("\\D", ""));
+			Assert.assertEquals("Blacklisted flag is incorrect", i % 2 == 0, component.isBacklisted());
+			Assert.assertEquals("New flag is incorrect", i % 3 == 0, component.isNew());
+			Assert.assertEquals("Policy flag is incorrect", i % 5 == 0, component.isViolatedPolicy());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadSCAComponents_MissingFile() throws IOException {
+		ScanPayloadUtil.readSCAComponents(tempFolder.newFolder("build"));
+	}
+}
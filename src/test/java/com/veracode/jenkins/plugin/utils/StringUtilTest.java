@@ -1,5 +1,8 @@
 package com.veracode.jenkins.plugin.utils;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -110,6 +113,16 @@ public class StringUtilTest {
 		Assert.assertEquals("Issue with the join functionality", "", nullStringAndNullSeparator);
 	}
 
+	@Test
+	public void testSplitList() {
+		List<String> values = StringUtil.splitList(" analysis-1, analysis-2\nanalysis-3\r\n\nanalysis-1 ,");
+		Assert.assertEquals("Issue with the splitList functionality",
+				Arrays.asList("analysis-1", "analysis-2", "analysis-3"), values);
+
+		Assert.assertTrue("Issue with the splitList functionality", StringUtil.splitList(null).isEmpty());
+		Assert.assertTrue("Issue with the splitList functionality", StringUtil.splitList(" , ").isEmpty());
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testJoinWithException() {
 		StringUtil.join("/", null);
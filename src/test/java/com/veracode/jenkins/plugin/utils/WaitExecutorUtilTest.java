@@ -0,0 +1,48 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WaitExecutorUtilTest {
+
+	@After
+	public void tearDown() {
+		System.clearProperty(WaitExecutorUtil.DISABLE_VIRTUAL_THREADS_PROPERTY);
+	}
+
+	@Test
+	public void testIsVirtualThreadsEnabled() {
+		Assert.assertEquals("Virtual threads should only be enabled on Java 21 or later",
+				Runtime.version().feature() >= 21, WaitExecutorUtil.isVirtualThreadsEnabled());
+		System.setProperty(WaitExecutorUtil.DISABLE_VIRTUAL_THREADS_PROPERTY, "true");
+		Assert.assertFalse("Virtual threads should be disabled by the system property",
+				WaitExecutorUtil.isVirtualThreadsEnabled());
+	}
+
+	@Test
+	public void testNewWaitExecutor() throws Exception {
+		ExecutorService executor = WaitExecutorUtil.newWaitExecutor(2, "Wait test");
+		try {
+			String threadName = executor.submit(() -> Thread.currentThread().getName()).get(10, TimeUnit.SECONDS);
+			Assert.assertTrue("Thread is not named after the executor", threadName.startsWith("Wait test"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testNewWaitExecutor_PlatformThreads() throws Exception {
+		System.setProperty(WaitExecutorUtil.DISABLE_VIRTUAL_THREADS_PROPERTY, "true");
+		ExecutorService executor = WaitExecutorUtil.newWaitExecutor(1, "Wait test");
+		try {
+			Boolean daemon = executor.submit(() -> Thread.currentThread().isDaemon()).get(10, TimeUnit.SECONDS);
+			Assert.assertTrue("Platform threads should be daemon threads", daemon);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
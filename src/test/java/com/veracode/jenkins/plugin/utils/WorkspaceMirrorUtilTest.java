@@ -0,0 +1,138 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hudson.FilePath;
+
+public class WorkspaceMirrorUtilTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void testGetMirrorQuotaBytes() {
+		Assert.assertEquals("Quota is incorrect", 10L * 1024L * 1024L, WorkspaceMirrorUtil.getMirrorQuotaBytes("10"));
+		Assert.assertEquals("Quota should fall back to the default",
+				WorkspaceMirrorUtil.DEFAULT_MIRROR_QUOTA_MB * 1024L * 1024L,
+				WorkspaceMirrorUtil.getMirrorQuotaBytes(""));
+	}
+
+	@Test
+	public void testSyncMirror() throws Exception {
+		File workspaceDir = tempFolder.newFolder("workspace");
+		File jobDir = tempFolder.newFolder("job");
+		File mirrorDir = WorkspaceMirrorUtil.getMirrorDir(jobDir);
+		writeFile(workspaceDir, "target/app.jar", "app");
+		writeFile(workspaceDir, "target/lib.jar", "lib");
+		FilePath workspace = new FilePath(workspaceDir);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PrintStream ps = new PrintStream(out, true, "UTF-8");
+
+		String[] filePaths = WorkspaceMirrorUtil.syncMirror(workspace, "**/*.jar", null, mirrorDir, ps, true);
+		Assert.assertEquals("Mirrored file count is incorrect", 2, filePaths.length);
+		Assert.assertEquals("Mirrored file content is incorrect", "app", readFile(mirrorDir, "target/app.jar"));
+		Assert.assertTrue("Files should be reported as copied",
+				out.toString("UTF-8").contains("Copied 2 changed file(s), removed 0 file(s), kept 0 unchanged file(s)."));
+
+		// change one file, remove the other one
+		writeFile(workspaceDir, "target/app.jar", "app-v2");
+		Files.delete(new File(workspaceDir, "target/lib.jar").toPath());
+		out.reset();
+
+		filePaths = WorkspaceMirrorUtil.syncMirror(workspace, "**/*.jar", null, mirrorDir, ps, true);
+		Assert.assertEquals("Mirrored file count is incorrect", 1, filePaths.length);
+		Assert.assertEquals("Mirrored file content is incorrect", "app-v2", readFile(mirrorDir, "target/app.jar"));
+		Assert.assertFalse("Removed file should be pruned", new File(mirrorDir, "target/lib.jar").exists());
+		Assert.assertTrue("Only the changed file should be copied",
+				out.toString("UTF-8").contains("Copied 1 changed file(s), removed 1 file(s), kept 0 unchanged file(s)."));
+
+		// nothing changed
+		out.reset();
+		WorkspaceMirrorUtil.syncMirror(workspace, "**/*.jar", null, mirrorDir, ps, true);
+		Assert.assertTrue("No file should be copied",
+				out.toString("UTF-8").contains("Copied 0 changed file(s), removed 0 file(s), kept 1 unchanged file(s)."));
+	}
+
+	@Test
+	public void testEnforceQuota() throws Exception {
+		File indexFile = new File(tempFolder.getRoot(), "index.properties");
+		File workspaceDir = tempFolder.newFolder("workspace");
+		writeFile(workspaceDir, "app.jar", "0123456789");
+		FilePath workspace = new FilePath(workspaceDir);
+		PrintStream ps = new PrintStream(new ByteArrayOutputStream(), true, "UTF-8");
+
+		File oldMirrorDir = WorkspaceMirrorUtil.getMirrorDir(tempFolder.newFolder("old-job"));
+		WorkspaceMirrorUtil.syncMirror(workspace, "*.jar", null, oldMirrorDir, ps, false);
+		WorkspaceMirrorUtil.enforceQuota(indexFile, oldMirrorDir, 15, ps);
+		Assert.assertTrue("Mirror within the quota should be kept", oldMirrorDir.exists());
+
+		Thread.sleep(5);
+		File newMirrorDir = WorkspaceMirrorUtil.getMirrorDir(tempFolder.newFolder("new-job"));
+		WorkspaceMirrorUtil.syncMirror(workspace, "*.jar", null, newMirrorDir, ps, false);
+		WorkspaceMirrorUtil.enforceQuota(indexFile, newMirrorDir, 15, ps);
+		Assert.assertFalse("Least recently used mirror should be evicted", oldMirrorDir.exists());
+		Assert.assertTrue("Current mirror should be kept", newMirrorDir.exists());
+	}
+
+	@Test
+	public void testEnforceQuota_LockedMirrorKept() throws Exception {
+		File indexFile = new File(tempFolder.getRoot(), "index.properties");
+		File workspaceDir = tempFolder.newFolder("workspace");
+		writeFile(workspaceDir, "app.jar", "0123456789");
+		FilePath workspace = new FilePath(workspaceDir);
+		PrintStream ps = new PrintStream(new ByteArrayOutputStream(), true, "UTF-8");
+
+		File oldMirrorDir = WorkspaceMirrorUtil.getMirrorDir(tempFolder.newFolder("old-job"));
+		WorkspaceMirrorUtil.syncMirror(workspace, "*.jar", null, oldMirrorDir, ps, false);
+		WorkspaceMirrorUtil.enforceQuota(indexFile, oldMirrorDir, 15, ps);
+
+		// another build uses the old mirror
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		Thread build = new Thread(() -> {
+			try {
+				WorkspaceMirrorUtil.lockMirror(oldMirrorDir, ps);
+				locked.countDown();
+				done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				WorkspaceMirrorUtil.unlockMirror(oldMirrorDir);
+			}
+		});
+		build.start();
+		locked.await();
+
+		Thread.sleep(5);
+		File newMirrorDir = WorkspaceMirrorUtil.getMirrorDir(tempFolder.newFolder("new-job"));
+		WorkspaceMirrorUtil.syncMirror(workspace, "*.jar", null, newMirrorDir, ps, false);
+		WorkspaceMirrorUtil.enforceQuota(indexFile, newMirrorDir, 15, ps);
+		Assert.assertTrue("Mirror in use should be kept", oldMirrorDir.exists());
+
+		done.countDown();
+		build.join();
+		WorkspaceMirrorUtil.enforceQuota(indexFile, newMirrorDir, 15, ps);
+		Assert.assertFalse("Released mirror should be evicted", oldMirrorDir.exists());
+	}
+
+	private static void writeFile(File dir, String relativePath, String content) throws IOException {
+		File file = new File(dir, relativePath);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String readFile(File dir, String relativePath) throws IOException {
+		return new String(Files.readAllBytes(new File(dir, relativePath).toPath()), StandardCharsets.UTF_8);
+	}
+}
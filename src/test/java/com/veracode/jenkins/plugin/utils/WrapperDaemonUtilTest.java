@@ -0,0 +1,62 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.veracode.jenkins.plugin.utils.WrapperDaemonUtil.DaemonStatus;
+import com.veracode.jenkins.plugin.utils.WrapperDaemonUtil.HealthCheckCallable;
+
+public class WrapperDaemonUtilTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void testGetMaxConcurrentJobs() {
+		Assert.assertEquals("Maximum number of jobs is incorrect", 2, WrapperDaemonUtil.getMaxConcurrentJobs("2"));
+		Assert.assertEquals("Jobs should not run concurrently by default", 1,
+				WrapperDaemonUtil.getMaxConcurrentJobs(null));
+		Assert.assertEquals("Maximum number of jobs should fall back to the default",
+				WrapperDaemonUtil.DEFAULT_MAX_CONCURRENT_JOBS, WrapperDaemonUtil.getMaxConcurrentJobs(null));
+		Assert.assertEquals("Maximum number of jobs should fall back to the default",
+				WrapperDaemonUtil.DEFAULT_MAX_CONCURRENT_JOBS, WrapperDaemonUtil.getMaxConcurrentJobs("0"));
+	}
+
+	@Test
+	public void testCopyJar() throws Exception {
+		File jarFile = tempFolder.newFile("VeracodeJavaAPI.jar");
+		Files.write(jarFile.toPath(), "wrapper 1".getBytes("UTF-8"));
+		File firstCopy = WrapperDaemonUtil.copyJar(jarFile);
+		Assert.assertEquals("Copy should be named after the checksum",
+				FileUtil.getSha256Checksum(jarFile) + ".jar", firstCopy.getName());
+		Assert.assertEquals("The same wrapper should not be copied again", firstCopy,
+				WrapperDaemonUtil.copyJar(jarFile));
+
+		Files.write(jarFile.toPath(), "wrapper 2".getBytes("UTF-8"));
+		File secondCopy = WrapperDaemonUtil.copyJar(jarFile);
+		Assert.assertNotEquals("A new wrapper should get a new copy", firstCopy, secondCopy);
+		Assert.assertFalse("The copy of the previous wrapper should be deleted", firstCopy.exists());
+		Assert.assertEquals("Only the copy should remain in the daemon directory", 1,
+				secondCopy.getParentFile().list().length);
+	}
+
+	@Test
+	public void testHealthCheck_MissingWrapper() throws Exception {
+		File jarFile = new File(tempFolder.getRoot(), "VeracodeJavaAPI.jar");
+		DaemonStatus status = new HealthCheckCallable(jarFile.getPath(), 2).call();
+		Assert.assertFalse("Daemon should not be healthy without the wrapper", status.isHealthy());
+		Assert.assertTrue("Status message is incorrect", status.getMessage().contains(jarFile.getPath()));
+	}
+
+	@Test
+	public void testHealthCheck_InvalidWrapper() throws Exception {
+		File jarFile = tempFolder.newFile("VeracodeJavaAPI.jar");
+		DaemonStatus status = new HealthCheckCallable(jarFile.getPath(), 2).call();
+		Assert.assertFalse("Daemon should not be healthy without the parser class", status.isHealthy());
+	}
+}
@@ -0,0 +1,41 @@
+package com.veracode.jenkins.plugin.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WrapperOutputUtilTest {
+
+	@Test
+	public void testParseIds() {
+		Assert.assertEquals("Incorrect app ID", "123",
+				WrapperOutputUtil.parseAppId("[2024.01.02 10:00:00.000] The app_id of the specified application is \"123\"."));
+		Assert.assertEquals("Incorrect app ID of a new application", "124",
+				WrapperOutputUtil.parseAppId("The app_id of the new application is \"124\"."));
+		Assert.assertEquals("Incorrect build ID", "456",
+				WrapperOutputUtil.parseBuildId("[2024.01.02 10:00:01.000] The build_id of the new build is \"456\"."));
+		Assert.assertNull("The line does not contain a build ID",
+				WrapperOutputUtil.parseBuildId("The build_id of the latest build is \"455\"."));
+		Assert.assertNull("A null line does not contain an app ID", WrapperOutputUtil.parseAppId(null));
+	}
+
+	@Test
+	public void testScanIdCapture() throws Exception {
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		WrapperOutputUtil.ScanIdCapture capture = new WrapperOutputUtil.ScanIdCapture(log);
+		PrintStream ps = new PrintStream(capture, true, StandardCharsets.UTF_8.name());
+		ps.println("The app_id of the specified application is \"123\".");
+		ps.print("Uploading: app.jar\r\n");
+		Assert.assertNull("No build ID has been logged", capture.getBuildId());
+		ps.print("The build_id of the new build is \"456\".");
+		ps.close();
+
+		Assert.assertEquals("Incorrect app ID", "123", capture.getAppId());
+		Assert.assertEquals("The ID of the last line should be read when closed", "456", capture.getBuildId());
+		Assert.assertTrue("The output should be written to the log",
+				new String(log.toByteArray(), StandardCharsets.UTF_8).contains("Uploading: app.jar"));
+	}
+}
@@ -77,6 +77,32 @@ public class WrapperUtilTest {
 		Assert.assertEquals("Errors in build info", buildInfoXml, buildInfo);
 	}
 
+	@Test
+	public void testGetBuildInfo_SharedAppList() throws Exception {
+		String appListXml = XmlDocumentGenerator.getGetAppListXmlDocument(APP_ID, APP_NAME);
+		String buildInfoXml = XmlDocumentGenerator.getGetBuildInfoXmlDocument(null, APP_ID, null, BUILD_ID,
+				BUILD_NAME, STATUS);
+
+		UploadAPIWrapper uploadAPIWrapper = PowerMockito.mock(UploadAPIWrapper.class);
+		PowerMockito.whenNew(UploadAPIWrapper.class).withNoArguments().thenReturn(uploadAPIWrapper);
+		PowerMockito.when(uploadAPIWrapper.getAppList()).thenReturn(appListXml);
+		PowerMockito.when(uploadAPIWrapper.getBuildInfo(APP_ID, null, null)).thenReturn(buildInfoXml);
+
+		String sharedAppListXml = WrapperUtil.getAppList(API_ID, API_KEY, null);
+		Assert.assertEquals("Errors in app list", appListXml, sharedAppListXml);
+		for (int i = 0; i < 3; i++) {
+			String buildInfo = WrapperUtil.getBuildInfo(APP_NAME, null, sharedAppListXml, API_ID, API_KEY, null);
+			Assert.assertEquals("Errors in build info", buildInfoXml, buildInfo);
+		}
+		Mockito.verify(uploadAPIWrapper, Mockito.times(1)).getAppList();
+	}
+
+	@Test(expected = ApiException.class)
+	public void testGetBuildInfo_SharedAppListUnknownApp() throws Exception {
+		String appListXml = XmlDocumentGenerator.getGetAppListXmlDocument(APP_ID, APP_NAME);
+		WrapperUtil.getBuildInfo("otherApp", null, appListXml, API_ID, API_KEY, null);
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testGetBuildInfo_EmptyAppName() throws Exception {
 		WrapperUtil.getBuildInfo("", SANDBOX_NAME, API_ID, API_KEY, null);
@@ -1,5 +1,6 @@
 package com.veracode.jenkins.plugin.utils;
 
+import java.util.Arrays;
 import java.util.Calendar;
 
 import org.junit.Assert;
@@ -44,6 +45,31 @@ public class XmlUtilTest {
 				scanHistory.getPolicyName());
 	}
 
+	@Test
+	public void testNewScanHistoryFromSummaryReport() throws Exception {
+		Run<?, ?> run = PowerMockito.mock(Run.class);
+		Calendar calendar = PowerMockito.mock(Calendar.class);
+		PowerMockito.when(run.getTimestamp()).thenReturn(calendar);
+		PowerMockito.when(calendar.getTimeInMillis()).thenReturn(1620666022149L);
+		String buildInfoXml = XmlDocumentGenerator.getGetBuildInfoXmlDocument(TEST_ACCT_ID, TEST_APP_ID,
+				TEST_SANDBOX_ID, TEST_BUILD_ID, null, null);
+		// the severity categories also count a dynamic flaw and a mitigated flaw
+		String summaryReportXml = XmlDocumentGenerator.getSummaryReportXmlDocument(TEST_APP_ID, TEST_BUILD_ID,
+				"build", "Did Not Pass").replace("count=\"9\"", "count=\"11\"");
+		ScanHistory scanHistory = XmlUtil.newScanHistoryFromSummaryReport(buildInfoXml, summaryReportXml, run);
+		Assert.assertEquals("Scan history details app id is incorrect", TEST_APP_ID, scanHistory.getAppId());
+		Assert.assertEquals("Scan history details policy status is incorrect", "Did Not Pass",
+				scanHistory.getPolicyComplianceStatus());
+		Assert.assertEquals("Scan history details score is incorrect", 86, scanHistory.getScore());
+		Assert.assertEquals("Scan history details total flaws count is incorrect", 27,
+				scanHistory.getTotalFlawsCount());
+		Assert.assertEquals("Scan history details flaws count is incorrect", 22, scanHistory.getFlawsCount(3));
+		Assert.assertEquals("Scan history details net change is incorrect", 22, scanHistory.getNetChange(3));
+		Assert.assertFalse("SCA results should not be available", scanHistory.getScaHistory().isSubscribed());
+		Assert.assertTrue("SCA results should be marked as unavailable",
+				scanHistory.getScaHistory().isResultsUnavailable());
+	}
+
 	@Test
 	public void testNewSCAHistory() throws Exception {
 		Run<?, ?> run = PowerMockito.mock(Run.class);
@@ -136,6 +162,56 @@ public class XmlUtilTest {
 		XmlUtil.parseBuildId(null);
 	}
 
+	@Test
+	public void testParseBuildVersion() throws Exception {
+		Assert.assertEquals("Incorrect build version", "build123", XmlUtil.parseBuildVersion(
+				XmlDocumentGenerator.getGetBuildInfoXmlDocument(TEST_ACCT_ID, TEST_APP_ID, TEST_SANDBOX_ID,
+						TEST_BUILD_ID, "build123", "Results Ready")));
+	}
+
+	@Test
+	public void testParseAnalysisStatuses() throws Exception {
+		String buildInfoXml = XmlDocumentGenerator.getGetBuildInfoXmlDocument(TEST_ACCT_ID, TEST_APP_ID,
+				TEST_SANDBOX_ID, TEST_BUILD_ID, null, "Results Ready").replace("</build>",
+						"<analysis_unit analysis_type=\"Dynamic\" status=\"Scan In Process\"/></build>");
+		Assert.assertEquals("Incorrect analysis statuses", Arrays.asList("Results Ready", "Scan In Process"),
+				XmlUtil.parseAnalysisStatuses(buildInfoXml));
+		Assert.assertEquals("Incorrect policy compliance status", "Calculating...",
+				XmlUtil.parsePolicyComplianceStatus(buildInfoXml));
+	}
+
+	@Test
+	public void testIsResultsFinal() throws Exception {
+		String buildInfoXml = XmlDocumentGenerator.getGetBuildInfoXmlDocument(TEST_ACCT_ID, TEST_APP_ID,
+				TEST_SANDBOX_ID, TEST_BUILD_ID, null, "Results Ready");
+		Assert.assertFalse("Results should not be final while the policy is evaluated",
+				XmlUtil.isResultsFinal(buildInfoXml));
+		String evaluatedBuildInfoXml = buildInfoXml.replace("Calculating...", "Did Not Pass");
+		Assert.assertTrue("Results should be final", XmlUtil.isResultsFinal(evaluatedBuildInfoXml));
+		Assert.assertFalse("Results should not be final while an analysis is in process",
+				XmlUtil.isResultsFinal(evaluatedBuildInfoXml.replace("</build>",
+						"<analysis_unit analysis_type=\"Dynamic\" status=\"Scan In Process\"/></build>")));
+	}
+
+	@Test
+	public void testGetResultsRevision() throws Exception {
+		String buildInfoXml = XmlDocumentGenerator.getGetBuildInfoXmlDocument(TEST_ACCT_ID, TEST_APP_ID,
+				TEST_SANDBOX_ID, TEST_BUILD_ID, null, "Results Ready");
+		Assert.assertNull("Results should have no revision while the policy is evaluated",
+				XmlUtil.getResultsRevision(buildInfoXml));
+		String evaluatedBuildInfoXml = buildInfoXml.replace("Calculating...", "Did Not Pass");
+		String revision = XmlUtil.getResultsRevision(evaluatedBuildInfoXml);
+		Assert.assertNotNull("Final results should have a revision", revision);
+		Assert.assertEquals("Revision should be stable", revision,
+				XmlUtil.getResultsRevision(evaluatedBuildInfoXml));
+		Assert.assertNotEquals("Revision should change once mitigations are approved", revision,
+				XmlUtil.getResultsRevision(evaluatedBuildInfoXml.replace("policy_compliance_status=\"Did Not Pass\"",
+						"policy_compliance_status=\"Pass\"")));
+		Assert.assertNotEquals("Revision should change once the policy is re-evaluated", revision,
+				XmlUtil.getResultsRevision(evaluatedBuildInfoXml.replace("policy_version=\"1\"",
+						"policy_version=\"1\" policy_updated_date=\"2024-01-01T00:00:00-05:00\"")));
+	}
+
 	@Test
 	public void testGetErrorString() {
 		String errorXml = XmlDocumentGenerator.getErrorXmlDocument(SAMPLE_ERROR);